@@ -26,6 +26,7 @@ import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.spring.context.SpringManagedContext;
 
+import de.tum.in.www1.artemis.service.exam.ExamSubmissionAutosaveBuffer;
 import de.tum.in.www1.artemis.service.scheduled.quiz.QuizScheduleService;
 import io.github.jhipster.config.JHipsterProperties;
 import io.github.jhipster.config.cache.PrefixedKeyGenerator;
@@ -157,6 +158,7 @@ public class CacheConfiguration {
         config.getMapConfigs().put("de.tum.in.www1.artemis.domain.*", initializeDomainMapConfig(jHipsterProperties));
 
         QuizScheduleService.configureHazelcast(config);
+        ExamSubmissionAutosaveBuffer.configureHazelcast(config);
 
         return Hazelcast.newHazelcastInstance(config);
     }
@@ -0,0 +1,100 @@
+package de.tum.in.www1.artemis.config.migration;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.tum.in.www1.artemis.service.util.TextClusterBinaryFormat;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Converts the distance matrices and probabilities of all text clusters from the Java serialization into the compact {@link TextClusterBinaryFormat}.
+ * <p>
+ * The clusters are converted in batches ordered by id, so that only one batch of (potentially large) matrices is held in memory at a time. Rows that are already in the
+ * compact format are skipped, so the migration can safely be repeated.
+ */
+public class TextClusterBinaryFormatMigration implements CustomTaskChange {
+
+    private static final Logger log = LoggerFactory.getLogger(TextClusterBinaryFormatMigration.class);
+
+    private static final int BATCH_SIZE = 50;
+
+    private int numberOfConvertedClusters;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        try (PreparedStatement select = connection.prepareStatement("SELECT id, probabilities, distance_matrix FROM text_cluster WHERE id > ? ORDER BY id");
+                PreparedStatement update = connection.prepareStatement("UPDATE text_cluster SET probabilities = ?, distance_matrix = ? WHERE id = ?")) {
+            select.setMaxRows(BATCH_SIZE);
+            long lastId = 0;
+            boolean hasMoreClusters = true;
+            while (hasMoreClusters) {
+                select.setLong(1, lastId);
+                int numberOfClustersInBatch = 0;
+                try (ResultSet clusters = select.executeQuery()) {
+                    while (clusters.next()) {
+                        numberOfClustersInBatch++;
+                        lastId = clusters.getLong("id");
+                        byte[] probabilities = clusters.getBytes("probabilities");
+                        byte[] distanceMatrix = clusters.getBytes("distance_matrix");
+                        if (!TextClusterBinaryFormat.isLegacyFormat(probabilities) && !TextClusterBinaryFormat.isLegacyFormat(distanceMatrix)) {
+                            continue;
+                        }
+                        setBytes(update, 1, TextClusterBinaryFormat.convertLegacyFormat(probabilities));
+                        setBytes(update, 2, TextClusterBinaryFormat.convertLegacyFormat(distanceMatrix));
+                        update.setLong(3, lastId);
+                        update.addBatch();
+                        numberOfConvertedClusters++;
+                    }
+                }
+                update.executeBatch();
+                hasMoreClusters = numberOfClustersInBatch == BATCH_SIZE;
+            }
+        }
+        catch (DatabaseException | SQLException | IllegalArgumentException e) {
+            throw new CustomChangeException("Could not convert the text clusters into the compact binary format", e);
+        }
+        log.info("Converted {} text clusters into the compact binary format", numberOfConvertedClusters);
+    }
+
+    private static void setBytes(PreparedStatement statement, int index, byte[] value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.BLOB);
+        }
+        else {
+            statement.setBytes(index, value);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Converted " + numberOfConvertedClusters + " text clusters into the compact binary format";
+    }
+
+    @Override
+    public void setUp() {
+        // nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // no files are needed
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,54 @@
+package de.tum.in.www1.artemis.domain;
+
+import javax.persistence.*;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * All build log entries of one programming submission, stored as one compressed blob instead of one row per entry (see
+ * {@link de.tum.in.www1.artemis.service.util.BuildLogArchiveFormat}).
+ */
+@Entity
+@Table(name = "build_log_archive")
+public class BuildLogArchive extends DomainObject {
+
+    @Column(name = "programming_submission_id", unique = true, nullable = false)
+    private Long programmingSubmissionId;
+
+    @Column(name = "number_of_entries")
+    private int numberOfEntries;
+
+    @Lob
+    @JsonIgnore
+    @Column(name = "compressed_entries")
+    private byte[] compressedEntries;
+
+    public Long getProgrammingSubmissionId() {
+        return programmingSubmissionId;
+    }
+
+    public void setProgrammingSubmissionId(Long programmingSubmissionId) {
+        this.programmingSubmissionId = programmingSubmissionId;
+    }
+
+    public int getNumberOfEntries() {
+        return numberOfEntries;
+    }
+
+    public void setNumberOfEntries(int numberOfEntries) {
+        this.numberOfEntries = numberOfEntries;
+    }
+
+    public byte[] getCompressedEntries() {
+        return compressedEntries;
+    }
+
+    public void setCompressedEntries(byte[] compressedEntries) {
+        this.compressedEntries = compressedEntries;
+    }
+
+    @Override
+    public String toString() {
+        return "BuildLogArchive{" + "id=" + getId() + ", programmingSubmissionId=" + programmingSubmissionId + ", numberOfEntries=" + numberOfEntries + "}";
+    }
+}
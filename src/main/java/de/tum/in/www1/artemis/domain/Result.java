@@ -23,14 +23,17 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 import de.tum.in.www1.artemis.domain.view.QuizView;
+import de.tum.in.www1.artemis.service.listeners.CourseDashboardListener;
+import de.tum.in.www1.artemis.service.listeners.ExamScoresListener;
 import de.tum.in.www1.artemis.service.listeners.ResultListener;
+import de.tum.in.www1.artemis.service.listeners.TutorLeaderboardListener;
 
 /**
  * A Result.
  */
 @Entity
 @Table(name = "result")
-@EntityListeners(ResultListener.class)
+@EntityListeners({ ResultListener.class, TutorLeaderboardListener.class, ExamScoresListener.class, CourseDashboardListener.class })
 @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class Result extends DomainObject {
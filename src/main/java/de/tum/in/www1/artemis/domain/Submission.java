@@ -20,6 +20,7 @@ import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
 import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 import de.tum.in.www1.artemis.domain.view.QuizView;
+import de.tum.in.www1.artemis.service.listeners.CourseDashboardListener;
 
 /**
  * A Submission.
@@ -30,6 +31,7 @@ import de.tum.in.www1.artemis.domain.view.QuizView;
 @DiscriminatorColumn(name = "discriminator", discriminatorType = DiscriminatorType.STRING)
 @DiscriminatorValue(value = "S")
 @DiscriminatorOptions(force = true)
+@EntityListeners(CourseDashboardListener.class)
 @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "submissionExerciseType")
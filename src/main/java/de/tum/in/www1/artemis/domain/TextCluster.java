@@ -1,6 +1,5 @@
 package de.tum.in.www1.artemis.domain;
 
-import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,6 +12,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import de.tum.in.www1.artemis.service.util.TextClusterBinaryFormat;
+import de.tum.in.www1.artemis.service.util.TextClusterDistanceMatrix;
+
 /**
  * A TextCluster.
  */
@@ -39,16 +41,55 @@ public class TextCluster extends DomainObject {
     @JsonIgnore
     private TextExercise exercise;
 
+    /**
+     * Decoded once per entity instance, so that reading single distances does not decode the stored matrix again
+     */
+    @Transient
+    private TextClusterDistanceMatrix decodedDistanceMatrix;
+
+    @Transient
+    private double[] decodedProbabilities;
+
+    /**
+     * Hibernate sets the stored bytes directly, e.g. when the entity is refreshed, so the decoded values have to be discarded
+     */
+    @PostLoad
+    public void onLoad() {
+        decodedDistanceMatrix = null;
+        decodedProbabilities = null;
+    }
+
     public double[] getProbabilities() {
-        return castFromBinary(probabilities);
+        if (decodedProbabilities == null) {
+            decodedProbabilities = TextClusterBinaryFormat.decodeProbabilities(probabilities);
+        }
+        return decodedProbabilities != null ? decodedProbabilities.clone() : null;
     }
 
     public void setProbabilities(double[] probabilities) {
-        this.probabilities = castToBinary(probabilities);
+        this.probabilities = TextClusterBinaryFormat.encodeProbabilities(probabilities);
+        this.decodedProbabilities = null;
     }
 
+    /**
+     * Copies the whole distance matrix into a new array. Use {@link #getDistances()} to read single distances or rows.
+     *
+     * @return the distance matrix between the text blocks of this cluster
+     */
     public double[][] getDistanceMatrix() {
-        return castFromBinary(distanceMatrix);
+        TextClusterDistanceMatrix distances = getDistances();
+        return distances != null ? distances.toArray() : null;
+    }
+
+    /**
+     * @return random access to the stored distance matrix between the text blocks of this cluster without decoding the whole matrix, or null if there is none
+     */
+    @JsonIgnore
+    public TextClusterDistanceMatrix getDistances() {
+        if (decodedDistanceMatrix == null) {
+            decodedDistanceMatrix = TextClusterBinaryFormat.readDistanceMatrix(distanceMatrix);
+        }
+        return decodedDistanceMatrix;
     }
 
     public TextCluster distanceMatrix(double[][] distanceMatrix) {
@@ -57,7 +98,8 @@ public class TextCluster extends DomainObject {
     }
 
     public void setDistanceMatrix(double[][] distanceMatrix) {
-        this.distanceMatrix = castToBinary(distanceMatrix);
+        this.distanceMatrix = TextClusterBinaryFormat.encodeDistanceMatrix(distanceMatrix);
+        this.decodedDistanceMatrix = null;
     }
 
     private int getBlockIndex(TextBlock textBlock) {
@@ -128,7 +170,7 @@ public class TextCluster extends DomainObject {
             throw new IllegalArgumentException("Cannot compute distance to Text Block outside cluster.");
         }
 
-        return getDistanceMatrix()[firstIndex][secondIndex];
+        return getDistances().distance(firstIndex, secondIndex);
     }
 
     private void updatePositions() {
@@ -142,32 +184,7 @@ public class TextCluster extends DomainObject {
         return "TextCluster{" + "id=" + getId() + (exercise != null ? ", exercise='" + exercise.getId() + "'" : "") + ", size='" + size() + "'" + "}";
     }
 
-    // region Binary Cast
-    @SuppressWarnings("unchecked")
-    private <T> T castFromBinary(byte[] data) {
-        final ByteArrayInputStream bais = new ByteArrayInputStream(data);
-        try (final ObjectInputStream ois = new ObjectInputStream(bais)) {
-            return (T) ois.readObject();
-        }
-        catch (IOException | ClassNotFoundException e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-
-    private <T> byte[] castToBinary(T data) {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (final ObjectOutputStream oos = new ObjectOutputStream(baos)) {
-            oos.writeObject(data);
-        }
-        catch (IOException e) {
-            e.printStackTrace();
-        }
-        return baos.toByteArray();
-    }
-
     public int openTextBlockCount() {
         return (int) blocks.stream().filter(textBlock -> !textBlock.isAssessable()).count();
     }
-    // endregion
 }
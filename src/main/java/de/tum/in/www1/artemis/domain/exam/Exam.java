@@ -15,9 +15,12 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.DomainObject;
 import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.service.listeners.CourseDashboardListener;
+import de.tum.in.www1.artemis.service.listeners.ExamScoresListener;
 
 @Entity
 @Table(name = "exam")
+@EntityListeners({ ExamScoresListener.class, CourseDashboardListener.class })
 @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class Exam extends DomainObject {
@@ -13,9 +13,11 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 
 import de.tum.in.www1.artemis.domain.DomainObject;
 import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.service.listeners.ExamScoresListener;
 
 @Entity
 @Table(name = "exercise_group")
+@EntityListeners(ExamScoresListener.class)
 @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class ExerciseGroup extends DomainObject {
@@ -0,0 +1,61 @@
+package de.tum.in.www1.artemis.domain.leaderboard.tutor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The aggregated tutor leaderboard data of one exercise, as it is stored in the distributed leaderboard cache.
+ * Because all values are sums grouped by tutor, the leaderboard of a course can be calculated by adding up the values of its exercises.
+ */
+public class ExerciseTutorLeaderboard implements Serializable {
+
+    private final String groupName;
+
+    private final List<TutorLeaderboardAssessments> assessments;
+
+    private final List<TutorLeaderboardComplaints> complaints;
+
+    private final List<TutorLeaderboardMoreFeedbackRequests> moreFeedbackRequests;
+
+    private final List<TutorLeaderboardComplaintResponses> complaintResponses;
+
+    private final List<TutorLeaderboardAnsweredMoreFeedbackRequests> answeredMoreFeedbackRequests;
+
+    public ExerciseTutorLeaderboard(String groupName, List<TutorLeaderboardAssessments> assessments, List<TutorLeaderboardComplaints> complaints,
+            List<TutorLeaderboardMoreFeedbackRequests> moreFeedbackRequests, List<TutorLeaderboardComplaintResponses> complaintResponses,
+            List<TutorLeaderboardAnsweredMoreFeedbackRequests> answeredMoreFeedbackRequests) {
+        this.groupName = groupName;
+        this.assessments = assessments;
+        this.complaints = complaints;
+        this.moreFeedbackRequests = moreFeedbackRequests;
+        this.complaintResponses = complaintResponses;
+        this.answeredMoreFeedbackRequests = answeredMoreFeedbackRequests;
+    }
+
+    /**
+     * @return the name of the tutor group that was used to calculate the complaint related values
+     */
+    public String getGroupName() {
+        return groupName;
+    }
+
+    public List<TutorLeaderboardAssessments> getAssessments() {
+        return assessments;
+    }
+
+    public List<TutorLeaderboardComplaints> getComplaints() {
+        return complaints;
+    }
+
+    public List<TutorLeaderboardMoreFeedbackRequests> getMoreFeedbackRequests() {
+        return moreFeedbackRequests;
+    }
+
+    public List<TutorLeaderboardComplaintResponses> getComplaintResponses() {
+        return complaintResponses;
+    }
+
+    public List<TutorLeaderboardAnsweredMoreFeedbackRequests> getAnsweredMoreFeedbackRequests() {
+        return answeredMoreFeedbackRequests;
+    }
+}
@@ -1,10 +1,19 @@
 package de.tum.in.www1.artemis.domain.leaderboard.tutor;
 
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 // Custom object for sql query
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
-public class TutorLeaderboardAnsweredMoreFeedbackRequests {
+public class TutorLeaderboardAnsweredMoreFeedbackRequests implements Serializable {
+
+    /**
+     * The exercise of the values, only set if they were queried for several exercises at once
+     */
+    @JsonIgnore
+    private final Long exerciseId;
 
     private final long userId;
 
@@ -24,13 +33,23 @@ public class TutorLeaderboardAnsweredMoreFeedbackRequests {
         return userId;
     }
 
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
     public TutorLeaderboardAnsweredMoreFeedbackRequests(long userId, long answeredRequests, double points) {
+        this(null, userId, answeredRequests, points);
+    }
+
+    public TutorLeaderboardAnsweredMoreFeedbackRequests(Long exerciseId, long userId, long answeredRequests, double points) {
+        this.exerciseId = exerciseId;
         this.userId = userId;
         this.answeredRequests = answeredRequests;
         this.points = points;
     }
 
     public TutorLeaderboardAnsweredMoreFeedbackRequests() {
+        this.exerciseId = null;
         this.userId = 0L;
         this.answeredRequests = 0L;
         this.points = 0.0;
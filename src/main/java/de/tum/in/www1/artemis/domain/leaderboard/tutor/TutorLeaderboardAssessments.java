@@ -1,10 +1,19 @@
 package de.tum.in.www1.artemis.domain.leaderboard.tutor;
 
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 // Custom object for sql query
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
-public class TutorLeaderboardAssessments {
+public class TutorLeaderboardAssessments implements Serializable {
+
+    /**
+     * The exercise of the values, only set if they were queried for several exercises at once
+     */
+    @JsonIgnore
+    private final Long exerciseId;
 
     private final long userId;
 
@@ -24,13 +33,23 @@ public class TutorLeaderboardAssessments {
         return userId;
     }
 
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
     public TutorLeaderboardAssessments(long userId, long assessments, double points) {
+        this(null, userId, assessments, points);
+    }
+
+    public TutorLeaderboardAssessments(Long exerciseId, long userId, long assessments, double points) {
+        this.exerciseId = exerciseId;
         this.userId = userId;
         this.assessments = assessments;
         this.points = points;
     }
 
     public TutorLeaderboardAssessments() {
+        this.exerciseId = null;
         this.userId = 0L;
         this.assessments = 0L;
         this.points = 0.0;
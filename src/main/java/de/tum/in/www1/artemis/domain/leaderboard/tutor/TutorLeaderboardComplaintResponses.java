@@ -1,10 +1,19 @@
 package de.tum.in.www1.artemis.domain.leaderboard.tutor;
 
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 // Custom object for sql query
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
-public class TutorLeaderboardComplaintResponses {
+public class TutorLeaderboardComplaintResponses implements Serializable {
+
+    /**
+     * The exercise of the values, only set if they were queried for several exercises at once
+     */
+    @JsonIgnore
+    private final Long exerciseId;
 
     private final long userId;
 
@@ -24,13 +33,23 @@ public class TutorLeaderboardComplaintResponses {
         return userId;
     }
 
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
     public TutorLeaderboardComplaintResponses(long userId, long complaintResponses, double points) {
+        this(null, userId, complaintResponses, points);
+    }
+
+    public TutorLeaderboardComplaintResponses(Long exerciseId, long userId, long complaintResponses, double points) {
+        this.exerciseId = exerciseId;
         this.userId = userId;
         this.complaintResponses = complaintResponses;
         this.points = points;
     }
 
     public TutorLeaderboardComplaintResponses() {
+        this.exerciseId = null;
         this.userId = 0L;
         this.complaintResponses = 0L;
         this.points = 0.0;
@@ -1,10 +1,19 @@
 package de.tum.in.www1.artemis.domain.leaderboard.tutor;
 
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 // Custom object for sql query
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
-public class TutorLeaderboardComplaints {
+public class TutorLeaderboardComplaints implements Serializable {
+
+    /**
+     * The exercise of the values, only set if they were queried for several exercises at once
+     */
+    @JsonIgnore
+    private final Long exerciseId;
 
     private final long userId;
 
@@ -30,7 +39,16 @@ public class TutorLeaderboardComplaints {
         return userId;
     }
 
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
     public TutorLeaderboardComplaints(long userId, long allComplaints, long acceptedComplaints, double points) {
+        this(null, userId, allComplaints, acceptedComplaints, points);
+    }
+
+    public TutorLeaderboardComplaints(Long exerciseId, long userId, long allComplaints, long acceptedComplaints, double points) {
+        this.exerciseId = exerciseId;
         this.userId = userId;
         this.allComplaints = allComplaints;
         this.acceptedComplaints = acceptedComplaints;
@@ -38,6 +56,7 @@ public class TutorLeaderboardComplaints {
     }
 
     public TutorLeaderboardComplaints() {
+        this.exerciseId = null;
         this.userId = 0L;
         this.allComplaints = 0L;
         this.acceptedComplaints = 0L;
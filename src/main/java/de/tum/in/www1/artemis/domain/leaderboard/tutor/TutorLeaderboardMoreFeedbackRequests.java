@@ -1,10 +1,19 @@
 package de.tum.in.www1.artemis.domain.leaderboard.tutor;
 
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 // Custom object for sql query
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
-public class TutorLeaderboardMoreFeedbackRequests {
+public class TutorLeaderboardMoreFeedbackRequests implements Serializable {
+
+    /**
+     * The exercise of the values, only set if they were queried for several exercises at once
+     */
+    @JsonIgnore
+    private final Long exerciseId;
 
     private final long userId;
 
@@ -30,7 +39,16 @@ public class TutorLeaderboardMoreFeedbackRequests {
         return userId;
     }
 
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
     public TutorLeaderboardMoreFeedbackRequests(long userId, long allRequests, long notAnsweredRequests, double points) {
+        this(null, userId, allRequests, notAnsweredRequests, points);
+    }
+
+    public TutorLeaderboardMoreFeedbackRequests(Long exerciseId, long userId, long allRequests, long notAnsweredRequests, double points) {
+        this.exerciseId = exerciseId;
         this.userId = userId;
         this.allRequests = allRequests;
         this.notAnsweredRequests = notAnsweredRequests;
@@ -38,6 +56,7 @@ public class TutorLeaderboardMoreFeedbackRequests {
     }
 
     public TutorLeaderboardMoreFeedbackRequests() {
+        this.exerciseId = null;
         this.userId = 0L;
         this.allRequests = 0L;
         this.notAnsweredRequests = 0L;
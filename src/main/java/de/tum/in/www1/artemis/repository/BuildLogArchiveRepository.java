@@ -0,0 +1,17 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.BuildLogArchive;
+
+/**
+ * Spring Data JPA repository for the BuildLogArchive entity.
+ */
+@Repository
+public interface BuildLogArchiveRepository extends JpaRepository<BuildLogArchive, Long> {
+
+    Optional<BuildLogArchive> findByProgrammingSubmissionId(Long programmingSubmissionId);
+}
@@ -0,0 +1,28 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.util.Optional;
+
+import de.tum.in.www1.artemis.domain.User;
+
+/**
+ * Repository fragment of the {@link UserRepository} that caches the users with groups and authorities, which are loaded for the authorization checks of almost
+ * every request.
+ */
+public interface CachedUserRepository {
+
+    /**
+     * Finds the user with eagerly loaded groups and authorities by its login. The user is cached for the current request and for a short time in the cluster.
+     * Inside of transactions, the cache is bypassed so that the user is managed by the persistence context.
+     *
+     * @param login the login of the user
+     * @return the user with groups and authorities or empty if no user with this login exists
+     */
+    Optional<User> findCachedWithGroupsAndAuthoritiesByLogin(String login);
+
+    /**
+     * Removes the user from the cache on all servers, has to be invoked whenever the user is changed
+     *
+     * @param login the login of the changed user
+     */
+    void evictCachedUserWithGroupsAndAuthorities(String login);
+}
@@ -0,0 +1,132 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.User;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caches the users with groups and authorities on two levels:
+ * 1. in the attributes of the current request, so that the authorization checks of one request only load the user once
+ * 2. in a distributed Hazelcast map for <code>time-to-live-seconds</code>, so that the following requests of the same user (e.g. during an exam) do not load it again.
+ * The entries are removed on all servers when the user is changed, the time to live limits the staleness of changes that were not made through the UserService.
+ */
+public class CachedUserRepositoryImpl implements CachedUserRepository {
+
+    private static final String REQUEST_ATTRIBUTE_PREFIX = CachedUserRepositoryImpl.class.getName() + ".";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${artemis.user-cache.time-to-live-seconds:10}")
+    private long timeToLiveSeconds;
+
+    private IMap<String, User> cachedUsers;
+
+    private Counter requestHitCounter;
+
+    private Counter requestMissCounter;
+
+    private Counter clusterHitCounter;
+
+    private Counter clusterMissCounter;
+
+    public CachedUserRepositoryImpl(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        cachedUsers = hazelcastInstance.getMap("usersWithGroupsAndAuthorities");
+        requestHitCounter = registerCounter("request", "hit");
+        requestMissCounter = registerCounter("request", "miss");
+        clusterHitCounter = registerCounter("cluster", "hit");
+        clusterMissCounter = registerCounter("cluster", "miss");
+    }
+
+    private Counter registerCounter(String cache, String result) {
+        return Counter.builder("artemis.user.cache.requests").tag("cache", cache).tag("result", result)
+                .description("Number of requests for a user with groups and authorities per cache level").register(meterRegistry);
+    }
+
+    @Override
+    public Optional<User> findCachedWithGroupsAndAuthoritiesByLogin(String login) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // the caller might rely on a managed entity, e.g. to load lazy associations or to change the user
+            return loadWithGroupsAndAuthorities(login);
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            Object userOfRequest = requestAttributes.getAttribute(REQUEST_ATTRIBUTE_PREFIX + login, RequestAttributes.SCOPE_REQUEST);
+            if (userOfRequest instanceof User) {
+                requestHitCounter.increment();
+                return Optional.of((User) userOfRequest);
+            }
+            requestMissCounter.increment();
+        }
+
+        Optional<User> user = findInClusterCache(login);
+        if (requestAttributes != null) {
+            user.ifPresent(userOfRequest -> requestAttributes.setAttribute(REQUEST_ATTRIBUTE_PREFIX + login, userOfRequest, RequestAttributes.SCOPE_REQUEST));
+        }
+        return user;
+    }
+
+    private Optional<User> findInClusterCache(String login) {
+        if (timeToLiveSeconds <= 0) {
+            return loadWithGroupsAndAuthorities(login);
+        }
+        User cachedUser = cachedUsers.get(login);
+        if (cachedUser != null) {
+            clusterHitCounter.increment();
+            return Optional.of(cachedUser);
+        }
+        clusterMissCounter.increment();
+        Optional<User> user = loadWithGroupsAndAuthorities(login);
+        user.ifPresent(loadedUser -> cachedUsers.set(login, loadedUser, timeToLiveSeconds, TimeUnit.SECONDS));
+        return user;
+    }
+
+    private Optional<User> loadWithGroupsAndAuthorities(String login) {
+        return entityManager.createQuery("""
+                SELECT DISTINCT user
+                FROM User user
+                    LEFT JOIN FETCH user.groups
+                    LEFT JOIN FETCH user.authorities
+                WHERE user.login = :login
+                """, User.class).setParameter("login", login).getResultStream().findFirst();
+    }
+
+    @Override
+    public void evictCachedUserWithGroupsAndAuthorities(String login) {
+        if (login == null) {
+            return;
+        }
+        cachedUsers.delete(login);
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.removeAttribute(REQUEST_ATTRIBUTE_PREFIX + login, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
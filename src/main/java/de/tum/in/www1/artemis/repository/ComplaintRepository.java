@@ -224,43 +224,18 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
     List<Complaint> getAllByResult_Assessor_IdAndResult_Participation_Exercise_Course_Id(Long assessorId, Long courseId);
 
     /**
-     * Get the number of Complaints for all tutors of a course
+     * Get the number of Complaints for all tutors for each of the given exercises
      *
-     * @param groupName - name of the tutorgroup
-     * @param courseId  - id of the course
-     * @return list of TutorLeaderboardComplaints
+     * @param groupName   - name of the tutorgroup
+     * @param exerciseIds - ids of the exercises
+     * @return list of TutorLeaderboardComplaints with the exercise id
      */
     @Query("""
             SELECT
             new de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardComplaints(
+                e.id,
                 a.id,
                 count(c),
-                sum( CASE WHEN (c.accepted = true) THEN 1L ELSE 0L END),
-                sum( CASE WHEN (c.accepted = true) THEN e.maxPoints ELSE 0.0 END)
-            )
-            FROM
-                Complaint c join c.result r join r.participation p join p.exercise e join e.course co join r.assessor a
-            WHERE
-                 :#{#groupName} member of a.groups
-                and c.complaintType = 'COMPLAINT'
-                and co.id = :courseId
-                and r.completionDate IS NOT NULL
-            GROUP BY a.id
-            """)
-    List<TutorLeaderboardComplaints> findTutorLeaderboardComplaintsByCourseId(@Param("groupName") String groupName, @Param("courseId") long courseId);
-
-    /**
-     * Get the number of Complaints for all tutors of an exercise
-     *
-     * @param groupName  - name of the tutorgroup
-     * @param exerciseId - id of the exercise
-     * @return list of TutorLeaderboardComplaints
-     */
-    @Query("""
-            SELECT
-            new de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardComplaints(
-                c.result.assessor.id,
-                count(c),
                 sum( CASE WHEN (c.accepted = true ) THEN 1L ELSE 0L END),
                 sum( CASE WHEN (c.accepted = true) THEN e.maxPoints ELSE 0.0 END)
             )
@@ -269,11 +244,11 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
             WHERE
                  :#{#groupName} member of a.groups
                 and c.complaintType = 'COMPLAINT'
-                and e.id = :#{#exerciseId}
+                and e.id IN :exerciseIds
                 and r.completionDate IS NOT NULL
-            GROUP BY a.id
+            GROUP BY e.id, a.id
             """)
-    List<TutorLeaderboardComplaints> findTutorLeaderboardComplaintsByExerciseId(@Param("groupName") String groupName, @Param("exerciseId") long exerciseId);
+    List<TutorLeaderboardComplaints> findTutorLeaderboardComplaintsByExerciseIds(@Param("groupName") String groupName, @Param("exerciseIds") Set<Long> exerciseIds);
 
     /**
      * Get the number of Complaints for all tutors of an exam
@@ -302,56 +277,32 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
     List<TutorLeaderboardComplaints> findTutorLeaderboardComplaintsByExamId(@Param("groupName") String groupName, @Param("examId") long examId);
 
     /**
-     * Get the number of complaintResponses for all tutors assessments of a course
+     * Get the number of complaintResponses for all tutors assessments for each of the given exercises
      *
-     * @param groupName  - name of the tutorgroup
-     * @param courseId   - id of the exercise
-     * @return list of TutorLeaderboardComplaintResponses
+     * @param groupName   - name of the tutorgroup
+     * @param exerciseIds - ids of the exercises
+     * @return list of TutorLeaderboardComplaintResponses with the exercise id
      */
     @Query("""
             SELECT
             new de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardComplaintResponses(
+                e.id,
                 cr.reviewer.id,
                 count(c),
                 sum(e.maxPoints)
             )
             FROM
-                Complaint c join c.complaintResponse cr join c.result r join r.participation p join p.exercise e join e.course co join r.assessor a
+                Complaint c join c.complaintResponse cr join c.result r join r.participation p join p.exercise e join r.assessor a
             WHERE
                 c.complaintType = 'COMPLAINT'
                 and :#{#groupName} member of a.groups
-                and co.id = :courseId
+                and e.id IN :exerciseIds
                 and r.completionDate IS NOT NULL
                 and c.accepted IS NOT NULL
-            GROUP BY cr.reviewer.id
+            GROUP BY e.id, cr.reviewer.id
             """)
-    List<TutorLeaderboardComplaintResponses> findTutorLeaderboardComplaintResponsesByCourseId(@Param("groupName") String groupName, @Param("courseId") long courseId);
-
-    /**
-     * Get the number of complaintResponses for all tutors assessments of an exercise
-     *
-     * @param groupName  - name of the tutorgroup
-     * @param exerciseId - id of the exercise
-     * @return list of TutorLeaderboardComplaintResponses
-     */
-    @Query("""
-            SELECT
-             new de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardComplaintResponses(
-                 cr.reviewer.id,
-                 count(c),
-                 sum(e.maxPoints)
-             )
-             FROM
-                Complaint c join c.complaintResponse cr join c.result r join r.participation p join p.exercise e join r.assessor a
-             WHERE
-                 c.complaintType = 'COMPLAINT'
-                 and :#{#groupName} member of a.groups
-                 and e.id = :exerciseId
-                 and r.completionDate IS NOT NULL
-                 and c.accepted IS NOT NULL
-             GROUP BY cr.reviewer.id
-             """)
-    List<TutorLeaderboardComplaintResponses> findTutorLeaderboardComplaintResponsesByExerciseId(@Param("groupName") String groupName, @Param("exerciseId") long exerciseId);
+    List<TutorLeaderboardComplaintResponses> findTutorLeaderboardComplaintResponsesByExerciseIds(@Param("groupName") String groupName,
+            @Param("exerciseIds") Set<Long> exerciseIds);
 
     /**
      * Get the number of complaintResponses for all tutors assessments of an exam
@@ -380,42 +331,17 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
     List<TutorLeaderboardComplaintResponses> findTutorLeaderboardComplaintResponsesByExamId(@Param("groupName") String groupName, @Param("examId") long examId);
 
     /**
-     * Get the number of Feedback Requests for all tutors assessments of a course
+     * Get the number of Feedback Requests for all tutors assessments for each of the given exercises
      *
-     * @param groupName  - name of the tutorgroup
-     * @param courseId   - id of the exercise
-     * @return list of TutorLeaderboardMoreFeedbackRequests
-     */
-    @Query("""
-            SELECT
-             new de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardMoreFeedbackRequests(
-                 a.id,
-                 count(c),
-                 sum( CASE WHEN (c.accepted IS NULL) THEN 1L ELSE 0L END),
-                 sum( CASE WHEN (c.accepted IS NULL) THEN e.maxPoints ELSE 0.0 END)
-             )
-             FROM
-                Complaint c join c.result r join r.participation p join p.exercise e join e.course co join r.assessor a
-             WHERE
-                 c.complaintType = 'MORE_FEEDBACK'
-                 and :#{#groupName} member of a.groups
-                 and co.id = :courseId
-                 and r.completionDate IS NOT NULL
-             GROUP BY a.id
-             """)
-    List<TutorLeaderboardMoreFeedbackRequests> findTutorLeaderboardMoreFeedbackRequestsByCourseId(@Param("groupName") String groupName, @Param("courseId") long courseId);
-
-    /**
-     * Get the number of Feedback Requests for all tutors assessments of an exercise
-     *
-     * @param groupName  - name of the tutorgroup
-     * @param exerciseId - id of the exercise
-     * @return list of TutorLeaderboardMoreFeedbackRequests
+     * @param groupName   - name of the tutorgroup
+     * @param exerciseIds - ids of the exercises
+     * @return list of TutorLeaderboardMoreFeedbackRequests with the exercise id
      */
     @Query("""
             SELECT
             new de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardMoreFeedbackRequests(
-               a.id,
+                e.id,
+                a.id,
                 count(c),
                 sum( CASE WHEN (c.accepted IS NULL) THEN 1L ELSE 0L END),
                 sum( CASE WHEN (c.accepted IS NULL) THEN e.maxPoints ELSE 0.0 END)
@@ -425,63 +351,38 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
             WHERE
                 c.complaintType = 'MORE_FEEDBACK'
                 and :#{#groupName} member of a.groups
-                and e.id = :exerciseId
+                and e.id IN :exerciseIds
                 and r.completionDate IS NOT NULL
-            GROUP BY a.id
+            GROUP BY e.id, a.id
             """)
-    List<TutorLeaderboardMoreFeedbackRequests> findTutorLeaderboardMoreFeedbackRequestsByExerciseId(@Param("groupName") String groupName, @Param("exerciseId") long exerciseId);
+    List<TutorLeaderboardMoreFeedbackRequests> findTutorLeaderboardMoreFeedbackRequestsByExerciseIds(@Param("groupName") String groupName,
+            @Param("exerciseIds") Set<Long> exerciseIds);
 
     /**
-     * Get the number of Feedback Request Responses for all tutors assessments of a course
+     * Get the number of Feedback Request Responses for all tutors assessments for each of the given exercises
      *
-     * @param groupName  - name of the tutorgroup
-     * @param courseId   - id of the course
-     * @return list of TutorLeaderboardAnsweredMoreFeedbackRequests
+     * @param groupName   - name of the tutorgroup
+     * @param exerciseIds - ids of the exercises
+     * @return list of TutorLeaderboardAnsweredMoreFeedbackRequests with the exercise id
      */
     @Query("""
             SELECT
             new de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardAnsweredMoreFeedbackRequests(
-                 cr.reviewer.id,
+                e.id,
+                cr.reviewer.id,
                 count(c),
                 sum(e.maxPoints)
             )
-            FROM
-                Complaint c join c.complaintResponse cr join c.result r join r.participation p join p.exercise e join e.course co join r.assessor a
-            WHERE
-                c.complaintType = 'MORE_FEEDBACK'
-                and :#{#groupName} member of a.groups
-                and co.id = :courseId
-                and r.completionDate IS NOT NULL
-                and c.accepted = true
-            GROUP BY cr.reviewer.id
-            """)
-    List<TutorLeaderboardAnsweredMoreFeedbackRequests> findTutorLeaderboardAnsweredMoreFeedbackRequestsByCourseId(@Param("groupName") String groupName,
-            @Param("courseId") long courseId);
-
-    /**
-     * Get the number of Feedback Request Responses for all tutors assessments of an exercise
-     *
-     * @param groupName  - name of the tutorgroup
-     * @param exerciseId - id of the exercise
-     * @return list of TutorLeaderboardAnsweredMoreFeedbackRequests
-     */
-    @Query("""
-            SELECT
-            new de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardAnsweredMoreFeedbackRequests(
-                cr.reviewer.id,
-                count(c),
-                sum(c.result.participation.exercise.maxPoints)
-                )
             FROM
                 Complaint c join c.complaintResponse cr join c.result r join r.participation p join p.exercise e join r.assessor a
             WHERE
                 c.complaintType = 'MORE_FEEDBACK'
                 and :#{#groupName} member of a.groups
-                and e.id = :exerciseId
+                and e.id IN :exerciseIds
                 and r.completionDate IS NOT NULL
                 and c.accepted = true
-            GROUP BY cr.reviewer.id
+            GROUP BY e.id, cr.reviewer.id
             """)
-    List<TutorLeaderboardAnsweredMoreFeedbackRequests> findTutorLeaderboardAnsweredMoreFeedbackRequestsByExerciseId(@Param("groupName") String groupName,
-            @Param("exerciseId") long exerciseId);
+    List<TutorLeaderboardAnsweredMoreFeedbackRequests> findTutorLeaderboardAnsweredMoreFeedbackRequestsByExerciseIds(@Param("groupName") String groupName,
+            @Param("exerciseIds") Set<Long> exerciseIds);
 }
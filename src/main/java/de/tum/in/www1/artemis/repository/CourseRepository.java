@@ -150,23 +150,6 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
             """)
     String findStudentGroupName(@Param("courseId") long courseId);
 
-    /**
-     * Get active students in the timeframe from startDate to endDate for the exerciseIds
-     *
-     * @param exerciseIds exerciseIds from all exercises to get the statistics for
-     * @param startDate the starting date of the query
-     * @param endDate the end date for the query
-     * @return A list with a map for every submission containing date and the username
-     */
-    @Query("""
-            SELECT s.submissionDate AS day, p.student.login AS username
-            FROM StudentParticipation p JOIN p.submissions s
-            WHERE p.exercise.id IN :exerciseIds
-                AND s.submissionDate >= :#{#startDate}
-                AND s.submissionDate <= :#{#endDate}
-            """)
-    List<Map<String, Object>> getActiveStudents(@Param("exerciseIds") List<Long> exerciseIds, @Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
-
     /**
      * Fetches the courses to display for the management overview
      *
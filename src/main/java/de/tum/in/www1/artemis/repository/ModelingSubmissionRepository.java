@@ -2,12 +2,14 @@ package de.tum.in.www1.artemis.repository;
 
 import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
 
+import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -65,6 +67,26 @@ public interface ModelingSubmissionRepository extends JpaRepository<ModelingSubm
      */
     long countByParticipation_Exercise_Course_IdAndSubmitted(Long courseId, boolean submitted);
 
+    /**
+     * Saves the model of an autosave as submitted manual submission, unless the submission was already saved at the same time or later
+     *
+     * @param submissionId    the id of the submission
+     * @param model           the model of the autosave
+     * @param explanationText the explanation of the autosave
+     * @param submissionDate  the date of the autosave
+     * @return 1 if the submission was updated, 0 if it does not exist anymore or if it is newer than the autosave
+     */
+    @Modifying
+    @Query("""
+            UPDATE ModelingSubmission submission
+            SET submission.model = :#{#model}, submission.explanationText = :#{#explanationText}, submission.submitted = TRUE, submission.type = 'MANUAL',
+                submission.submissionDate = :#{#submissionDate}
+            WHERE submission.id = :#{#submissionId}
+                AND (submission.submissionDate IS NULL OR submission.submissionDate < :#{#submissionDate})
+            """)
+    int updateModelOfAutosave(@Param("submissionId") long submissionId, @Param("model") String model, @Param("explanationText") String explanationText,
+            @Param("submissionDate") ZonedDateTime submissionDate);
+
     /**
      * Get the modeling submission with the given id from the database. Throws an EntityNotFoundException if no submission could be found for the given id.
      *
@@ -59,6 +59,24 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
               """)
     List<Result> findLatestAutomaticResultsWithEagerFeedbacksForExercise(@Param("exerciseId") Long exerciseId);
 
+    /**
+     * Get the latest rated and the latest unrated result (together with the submission) for each participation in an exercise with one query.
+     * Note: if two results of a participation have the same completion date, both are returned.
+     *
+     * @param exerciseId the id of the exercise
+     * @return the latest rated and unrated results of all participations of the exercise
+     */
+    @Query("""
+            select r from Result r left join fetch r.submission
+            where r.participation.exercise.id = :exerciseId
+                and r.rated is not null
+                and r.completionDate =
+                    (select max(rr.completionDate) from Result rr
+                        where rr.participation.id = r.participation.id
+                        and rr.rated = r.rated)
+            """)
+    List<Result> findLatestRatedAndUnratedResultsWithSubmissionsForExercise(@Param("exerciseId") Long exerciseId);
+
     @EntityGraph(type = LOAD, attributePaths = "feedbacks")
     Optional<Result> findFirstWithFeedbacksByParticipationIdOrderByCompletionDateDesc(Long participationId);
 
@@ -440,27 +458,16 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
         return new DueDateStat(countAssessmentsByCourseIdAndRated(exerciseIds, true), countAssessmentsByCourseIdAndRated(exerciseIds, false));
     }
 
+    /**
+     * Get the number of assessments of all tutors for each of the given exercises
+     *
+     * @param exerciseIds - ids of the exercises
+     * @return list of TutorLeaderboardAssessments with the exercise id
+     */
     @Query("""
             SELECT
             new de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardAssessments(
-                r.assessor.id,
-                count(r),
-                sum(e.maxPoints)
-                )
-            FROM
-                Result r join r.participation p join p.exercise e join r.assessor a
-            WHERE
-                r.completionDate is not null
-                and e.id IN :exerciseIds
-            GROUP BY a.id
-            """)
-    List<TutorLeaderboardAssessments> findTutorLeaderboardAssessmentByCourseId(@Param("exerciseIds") Set<Long> exerciseIds);
-
-    // Alternative which might be faster, in particular for complaints in the other repositories
-
-    @Query("""
-            SELECT
-            new de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardAssessments(
+                e.id,
                 a.id,
                 count(r),
                 sum(e.maxPoints)
@@ -469,10 +476,10 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
                 Result r join r.participation p join p.exercise e join r.assessor a
             WHERE
                 r.completionDate is not null
-                and e.id = :#{#exerciseId}
-            GROUP BY a.id
+                and e.id IN :exerciseIds
+            GROUP BY e.id, a.id
             """)
-    List<TutorLeaderboardAssessments> findTutorLeaderboardAssessmentByExerciseId(@Param("exerciseId") long exerciseId);
+    List<TutorLeaderboardAssessments> findTutorLeaderboardAssessmentByExerciseIds(@Param("exerciseIds") Set<Long> exerciseIds);
 
     @Query("""
             SELECT
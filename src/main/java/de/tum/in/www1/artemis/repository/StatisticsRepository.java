@@ -52,29 +52,20 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
             @Param("exerciseIds") List<Long> exerciseIds);
 
     @Query("""
-            select
-            new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                s.submissionDate, u.login
-                )
-            from User u, Submission s, StudentParticipation p
-            where s.participation.id = p.id and p.student.id = u.id and s.submissionDate >= :#{#startDate} and s.submissionDate <= :#{#endDate} and u.login not like '%test%'
-            and (s.participation.exercise.exerciseGroup IS NOT NULL or exists (select c from Course c where s.participation.exercise.course.testCourse = false))
-            order by s.submissionDate asc
+            select count(distinct p.student.id)
+            from StudentParticipation p join p.submissions s
+            where s.submissionDate >= :#{#startDate} and s.submissionDate < :#{#endDate} and p.student.login not like '%test%'
+            and (p.exercise.exerciseGroup IS NOT NULL or exists (select c from Course c where p.exercise.course.testCourse = false))
             """)
-    List<StatisticsEntry> getActiveUsers(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+    long countActiveUsers(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
 
     @Query("""
-            select
-            new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                s.submissionDate, u.login
-                )
-            from User u, Submission s, StudentParticipation p
-            where s.participation.id = p.id and p.student.id = u.id and s.submissionDate >= :#{#startDate} and s.submissionDate <= :#{#endDate} and u.login not like '%test%'
+            select count(distinct p.student.id)
+            from StudentParticipation p join p.submissions s
+            where s.submissionDate >= :#{#startDate} and s.submissionDate < :#{#endDate} and p.student.login not like '%test%'
             and p.exercise.id in :exerciseIds
-            order by s.submissionDate asc
             """)
-    List<StatisticsEntry> getActiveUsersForCourse(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate,
-            @Param("exerciseIds") List<Long> exerciseIds);
+    long countActiveUsersForExercises(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate, @Param("exerciseIds") List<Long> exerciseIds);
 
     @Query("""
             select
@@ -349,8 +340,7 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
                 return courseId == null ? getTotalSubmissions(startDate, endDate) : getTotalSubmissionsForCourse(startDate, endDate, exerciseIds);
             }
             case ACTIVE_USERS -> {
-                List<StatisticsEntry> result = courseId == null ? getActiveUsers(startDate, endDate) : getActiveUsersForCourse(startDate, endDate, exerciseIds);
-                return filterDuplicatedUsers(span, result, startDate, graphType);
+                return getNumberOfActiveUsersPerTimeslot(startDate, endDate, getTimeslotUnit(span), exerciseIds);
             }
             case LOGGED_IN_USERS -> {
                 Instant startDateInstant = startDate.toInstant();
@@ -395,6 +385,45 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
         }
     }
 
+    /**
+     * Counts the distinct users with at least one submission per timeslot in the database, so that the cost does not depend on the number of submissions.
+     * The timeslots start at the startDate and have the length of one timeslotUnit, the last timeslot contains the endDate.
+     *
+     * @param startDate the start of the first timeslot
+     * @param endDate the end of the period (inclusive)
+     * @param timeslotUnit the length of one timeslot, e.g. one week
+     * @param exerciseIds the exercises in which the submissions are counted or null to count the submissions of all exercises that are not in test courses
+     * @return one entry per timeslot in chronological order, containing the start of the timeslot and the number of active users
+     */
+    default List<StatisticsEntry> getNumberOfActiveUsersPerTimeslot(ZonedDateTime startDate, ZonedDateTime endDate, ChronoUnit timeslotUnit, List<Long> exerciseIds) {
+        List<StatisticsEntry> result = new ArrayList<>();
+        for (ZonedDateTime timeslotStart = startDate; !timeslotStart.isAfter(endDate); timeslotStart = timeslotStart.plus(1, timeslotUnit)) {
+            ZonedDateTime timeslotEnd = timeslotStart.plus(1, timeslotUnit);
+            long activeUsers;
+            if (exerciseIds == null) {
+                activeUsers = countActiveUsers(timeslotStart, timeslotEnd);
+            }
+            else {
+                activeUsers = exerciseIds.isEmpty() ? 0 : countActiveUsersForExercises(timeslotStart, timeslotEnd, exerciseIds);
+            }
+            result.add(new StatisticsEntry(timeslotStart, activeUsers));
+        }
+        return result;
+    }
+
+    /**
+     * @param span the span of a graph
+     * @return the length of one timeslot (i.e. one bar) in the graph of the span
+     */
+    private ChronoUnit getTimeslotUnit(SpanType span) {
+        return switch (span) {
+            case DAY -> ChronoUnit.HOURS;
+            case WEEK, MONTH -> ChronoUnit.DAYS;
+            case QUARTER -> ChronoUnit.WEEKS;
+            case YEAR -> ChronoUnit.MONTHS;
+        };
+    }
+
     /**
      * This method handles the duplicity of usernames. It gets a List<StatisticsData> with set day values and set username values.
      * It then filters out all duplicated user entries per timeslot (depending on spanType) and return a list of entries
@@ -407,7 +436,7 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
      * @return A List<StatisticsData> with only distinct users per timeslot
      */
     private List<StatisticsEntry> filterDuplicatedUsers(SpanType span, List<StatisticsEntry> result, ZonedDateTime startDate, GraphType graphType) {
-        Map<Object, List<String>> users = new HashMap<>();
+        Map<Object, Set<String>> users = new HashMap<>();
         for (StatisticsEntry listElement : result) {
             Object index;
             ZonedDateTime date;
@@ -430,17 +459,8 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
             else {
                 index = date.getMonth();
             }
-            String username = listElement.getUsername();
-            List<String> usersInSameSlot = users.get(index);
-            // if this index is not yet existing in users
-            if (usersInSameSlot == null) {
-                usersInSameSlot = new ArrayList<>();
-                usersInSameSlot.add(username);
-                users.put(index, usersInSameSlot);
-            }   // if the value of the map for this index does not contain this username
-            else if (!usersInSameSlot.contains(username)) {
-                usersInSameSlot.add(username);
-            }
+            // the set ignores further entries of the same user in this timeslot
+            users.computeIfAbsent(index, timeslot -> new HashSet<>()).add(listElement.getUsername());
         }
         return mergeUsersPerTimeslotIntoList(users, span, startDate);
     }
@@ -454,7 +474,7 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
      * @param startDate the startDate which we need for mapping into timeslots
      * @return A List<StatisticsData> with no duplicated user per timeslot
      */
-    private List<StatisticsEntry> mergeUsersPerTimeslotIntoList(Map<Object, List<String>> users, SpanType span, ZonedDateTime startDate) {
+    private List<StatisticsEntry> mergeUsersPerTimeslotIntoList(Map<Object, Set<String>> users, SpanType span, ZonedDateTime startDate) {
         List<StatisticsEntry> returnList = new ArrayList<>();
         users.forEach((timeslot, userList) -> {
             ZonedDateTime start;
@@ -145,35 +145,49 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
             """)
     List<StudentParticipation> findByExerciseIdWithLatestResultIgnoreTestRunSubmissions(@Param("exerciseId") Long exerciseId);
 
+    @Query("""
+            select p.id from StudentParticipation p
+            where p.exercise.id = :#{#exerciseId}
+            order by p.id
+            """)
+    List<Long> findIdsByExerciseId(@Param("exerciseId") Long exerciseId);
+
     /**
-     * Get all participations for an exercise with each latest {@link AssessmentType#AUTOMATIC} result and feedbacks (determined by id).
+     * Get the given participations of an exercise with each latest {@link AssessmentType#AUTOMATIC} result (determined by id, ignoring illegal submissions) and its feedbacks.
+     * Participations without an automatic result are not returned.
      *
-     * @param exerciseId Exercise id.
-     * @return participations for exercise.
+     * @param participationIds the ids of the participations
+     * @return the participations with a latest automatic result
      */
     @Query("""
             select distinct p from StudentParticipation p
             left join fetch p.results r
             left join fetch r.feedbacks
             left join fetch r.submission s
-            where p.exercise.id = :#{#exerciseId}
+            where p.id in :#{#participationIds}
                 and (r.id = (select max(pr.id) from p.results pr
                     left join pr.submission prs
                     where pr.assessmentType = 'AUTOMATIC' and (prs.type <> 'ILLEGAL' or prs.type is null)))
             """)
-    List<StudentParticipation> findByExerciseIdWithLatestAutomaticResultAndFeedbacks(@Param("exerciseId") Long exerciseId);
+    List<StudentParticipation> findByIdsWithLatestAutomaticResultAndFeedbacks(@Param("participationIds") Collection<Long> participationIds);
 
-    // Manual result can either be from type MANUAL or SEMI_AUTOMATIC
+    /**
+     * Get the given participations of an exercise with their manual results and their feedbacks.
+     * Manual results can either be of type {@link AssessmentType#MANUAL} or {@link AssessmentType#SEMI_AUTOMATIC}, results of illegal submissions are ignored.
+     *
+     * @param participationIds the ids of the participations
+     * @return the participations with a manual result
+     */
     @Query("""
             select distinct p from StudentParticipation p
             left join fetch p.results r
             left join fetch r.feedbacks
             left join fetch r.submission s
-            where p.exercise.id = :#{#exerciseId}
+            where p.id in :#{#participationIds}
                  and (s.type <> 'ILLEGAL' or s.type is null)
                  and (r.assessmentType = 'MANUAL' or r.assessmentType = 'SEMI_AUTOMATIC')
             """)
-    List<StudentParticipation> findByExerciseIdWithManualResultAndFeedbacks(@Param("exerciseId") Long exerciseId);
+    List<StudentParticipation> findByIdsWithManualResultAndFeedbacks(@Param("participationIds") Collection<Long> participationIds);
 
     @Query("""
             select distinct p from StudentParticipation p
@@ -191,6 +205,16 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
             """)
     List<StudentParticipation> findByExerciseIdAndStudentId(@Param("exerciseId") Long exerciseId, @Param("studentId") Long studentId);
 
+    @Query("""
+            SELECT DISTINCT p
+            FROM StudentParticipation p
+                LEFT JOIN FETCH p.student
+                LEFT JOIN FETCH p.submissions
+            WHERE p.exercise.id = :#{#exerciseId}
+                AND p.student IS NOT NULL
+            """)
+    List<StudentParticipation> findByExerciseIdWithEagerStudentAndSubmissions(@Param("exerciseId") Long exerciseId);
+
     @Query("""
             select distinct p from StudentParticipation p
             left join fetch p.results
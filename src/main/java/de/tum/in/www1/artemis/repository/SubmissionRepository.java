@@ -407,7 +407,21 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
      * @return a new submission for the given type connected to the given participation
      */
     default Submission initializeSubmission(Participation participation, Exercise exercise, SubmissionType submissionType) {
+        Submission submission = createSubmissionForExercise(exercise);
+        submission.setType(submissionType);
+        submission.setParticipation(participation);
+        save(submission);
+        participation.addSubmission(submission);
+        return submission;
+    }
 
+    /**
+     * Creates a new submission of the subtype that belongs to the type of the given exercise without storing it
+     *
+     * @param exercise the exercise of the submission
+     * @return a new, empty submission
+     */
+    default Submission createSubmissionForExercise(Exercise exercise) {
         Submission submission;
         if (exercise instanceof ProgrammingExercise) {
             submission = new ProgrammingSubmission();
@@ -427,11 +441,6 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
         else {
             throw new RuntimeException("Unsupported exercise type: " + exercise);
         }
-
-        submission.setType(submissionType);
-        submission.setParticipation(participation);
-        save(submission);
-        participation.addSubmission(submission);
         return submission;
     }
 
@@ -2,11 +2,13 @@ package de.tum.in.www1.artemis.repository;
 
 import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -50,6 +52,14 @@ public interface TextSubmissionRepository extends JpaRepository<TextSubmission,
     @EntityGraph(type = LOAD, attributePaths = { "blocks", "blocks.cluster", "results", "participation", "participation.submissions" })
     List<TextSubmission> findByParticipation_ExerciseIdAndResultsIsNullAndSubmittedIsTrue(Long exerciseId);
 
+    /**
+     * Loads a TextSubmission with the same associations as {@link #findByParticipation_ExerciseIdAndResultsIsNullAndSubmittedIsTrue(Long)}
+     * @param submissionId the id of the submission
+     * @return the text submission with blocks, results, and participation
+     */
+    @EntityGraph(type = LOAD, attributePaths = { "blocks", "blocks.cluster", "results", "participation", "participation.submissions" })
+    Optional<TextSubmission> findWithEagerBlocksAndResultsAndParticipationSubmissionsById(Long submissionId);
+
     @Query("select distinct s from TextSubmission s left join fetch s.results r left join fetch r.assessor left join fetch s.blocks where r.id = :#{#resultId}")
     Optional<TextSubmission> findByResultIdWithAssessorAndBlocks(@Param("resultId") Long resultId);
 
@@ -69,6 +79,24 @@ public interface TextSubmissionRepository extends JpaRepository<TextSubmission,
      */
     List<TextSubmission> findByParticipation_ExerciseIdAndSubmittedIsTrueAndLanguage(Long exerciseId, Language language);
 
+    /**
+     * Saves the text of an autosave as submitted manual submission, unless the submission was already saved at the same time or later
+     *
+     * @param submissionId   the id of the submission
+     * @param text           the text of the autosave
+     * @param submissionDate the date of the autosave
+     * @return 1 if the submission was updated, 0 if it does not exist anymore or if it is newer than the autosave
+     */
+    @Modifying
+    @Query("""
+            UPDATE TextSubmission submission
+            SET submission.text = :#{#text}, submission.submitted = TRUE, submission.type = 'MANUAL',
+                submission.submissionDate = :#{#submissionDate}
+            WHERE submission.id = :#{#submissionId}
+                AND (submission.submissionDate IS NULL OR submission.submissionDate < :#{#submissionDate})
+            """)
+    int updateTextOfAutosave(@Param("submissionId") long submissionId, @Param("text") String text, @Param("submissionDate") ZonedDateTime submissionDate);
+
     default List<TextSubmission> getTextSubmissionsWithTextBlocksByExerciseId(Long exerciseId) {
         return findByParticipation_ExerciseIdAndSubmittedIsTrue(exerciseId);
     }
@@ -27,7 +27,7 @@ import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
  * Spring Data JPA repository for the User entity.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, CachedUserRepository {
 
     String USERS_CACHE = "users";
 
@@ -42,6 +42,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findOneByLogin(String login);
 
+    /**
+     * Finds all users with the given logins in one query.
+     * Note: this is a derived query on purpose, so that it can also be used without an authentication (e.g. in scheduled services)
+     *
+     * @param logins the logins of the users
+     * @return all users that could be found, users for unknown logins are not contained
+     */
+    List<User> findAllByLoginIn(Collection<String> logins);
+
     @EntityGraph(type = LOAD, attributePaths = { "groups", "authorities" })
     Optional<User> findOneWithGroupsAndAuthoritiesByRegistrationNumber(String registrationNumber);
 
@@ -194,14 +203,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     }
 
     /**
-     * Get user with user groups and authorities of currently logged in user
+     * Get user with user groups and authorities of currently logged in user, see {@link CachedUserRepository#findCachedWithGroupsAndAuthoritiesByLogin(String)}
      *
      * @return currently logged in user
      */
     @NotNull
     default User getUserWithGroupsAndAuthorities() {
         String currentUserLogin = getCurrentUserLogin();
-        Optional<User> user = findOneWithGroupsAndAuthoritiesByLogin(currentUserLogin);
+        Optional<User> user = findCachedWithGroupsAndAuthoritiesByLogin(currentUserLogin);
         return unwrapOptionalUser(user, currentUserLogin);
     }
 
@@ -251,7 +260,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @NotNull
     default User getUserWithGroupsAndAuthorities(@NotNull String username) {
-        Optional<User> user = findOneWithGroupsAndAuthoritiesByLogin(username);
+        Optional<User> user = findCachedWithGroupsAndAuthoritiesByLogin(username);
         return unwrapOptionalUser(user, username);
     }
 
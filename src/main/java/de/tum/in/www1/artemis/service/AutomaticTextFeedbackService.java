@@ -1,20 +1,29 @@
 package de.tum.in.www1.artemis.service;
 
-import static java.util.Comparator.comparing;
-import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.*;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import javax.validation.constraints.NotNull;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.FeedbackType;
 import de.tum.in.www1.artemis.repository.FeedbackRepository;
 import de.tum.in.www1.artemis.repository.TextBlockRepository;
+import de.tum.in.www1.artemis.repository.TextClusterRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 @Profile("athene")
@@ -26,9 +35,40 @@ public class AutomaticTextFeedbackService {
 
     private final TextBlockRepository textBlockRepository;
 
-    public AutomaticTextFeedbackService(FeedbackRepository feedbackRepository, TextBlockRepository textBlockRepository) {
+    private final TextClusterRepository textClusterRepository;
+
+    /**
+     * The time to live of an index, so that feedback that was changed without updating the index is eventually considered
+     */
+    @Value("${artemis.athene.feedback-index.time-to-live-seconds:3600}")
+    private long timeToLiveSeconds;
+
+    /**
+     * The nearest assessed block of every block of a cluster, mapped by cluster id
+     */
+    private final IMap<Long, TextClusterFeedbackIndex> feedbackIndexes;
+
+    /**
+     * A random version of the feedback of every cluster that changes whenever an assessment of one of its blocks is saved, mapped by cluster id.
+     * An index is only cached if the version did not change while it was built, otherwise it might miss the new feedback.
+     */
+    private final IMap<Long, Long> feedbackVersions;
+
+    private final Counter indexHitCounter;
+
+    private final Counter indexMissCounter;
+
+    public AutomaticTextFeedbackService(FeedbackRepository feedbackRepository, TextBlockRepository textBlockRepository, TextClusterRepository textClusterRepository,
+            HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
         this.feedbackRepository = feedbackRepository;
         this.textBlockRepository = textBlockRepository;
+        this.textClusterRepository = textClusterRepository;
+        this.feedbackIndexes = hazelcastInstance.getMap("textClusterFeedbackIndexes");
+        this.feedbackVersions = hazelcastInstance.getMap("textClusterFeedbackVersions");
+        this.indexHitCounter = Counter.builder("artemis.text.feedback.index.lookups").tag("result", "hit").description("Number of clusters whose feedback index was cached")
+                .register(meterRegistry);
+        this.indexMissCounter = Counter.builder("artemis.text.feedback.index.lookups").tag("result", "miss")
+                .description("Number of clusters whose feedback index had to be built from the database").register(meterRegistry);
     }
 
     /**
@@ -36,6 +76,8 @@ public class AutomaticTextFeedbackService {
      * For each TextBlock of the submission, this method finds already existing Feedback elements in the same cluster and chooses the one with the minimum distance.
      * Otherwise, an empty Feedback Element is created for simplicity.
      * Feedbacks are stored inline with the provided Result object.
+     * <p>
+     * The closest block with feedback is looked up in the feedback index of the cluster, which is only built from the database if it is not cached yet.
      *
      * @param result Result for the Submission
      */
@@ -45,31 +87,16 @@ public class AutomaticTextFeedbackService {
         final var blocks = textBlockRepository.findAllWithEagerClusterBySubmissionId(textSubmission.getId());
         textSubmission.setBlocks(blocks);
 
+        // several blocks of the submission can belong to the same cluster
+        final Map<Long, TextClusterFeedbackIndex> feedbackIndexesOfSubmission = new HashMap<>();
         final List<Feedback> suggestedFeedback = blocks.stream().map(block -> {
             final TextCluster cluster = block.getCluster();
 
             // if TextBlock is part of a cluster, we try to find an existing Feedback Element
             if (cluster != null) {
-                // Find all Feedbacks for other Blocks in Cluster.
-                final List<TextBlock> allBlocksInCluster = cluster.getBlocks().parallelStream().filter(elem -> !elem.equals(block)).collect(toList());
-                final Map<String, Feedback> feedbackForTextExerciseInCluster = feedbackRepository.getFeedbackForTextExerciseInCluster(cluster);
-
-                if (feedbackForTextExerciseInCluster.size() != 0) {
-                    final Optional<TextBlock> mostSimilarBlockInClusterWithFeedback = allBlocksInCluster.parallelStream()
-
-                            // Filter all other blocks in the cluster for those with Feedback
-                            .filter(element -> feedbackForTextExerciseInCluster.containsKey(element.getId()))
-
-                            // Find the closest block
-                            .min(comparing(element -> cluster.distanceBetweenBlocks(block, element)));
-
-                    if (mostSimilarBlockInClusterWithFeedback.isPresent()
-                            && cluster.distanceBetweenBlocks(block, mostSimilarBlockInClusterWithFeedback.get()) < DISTANCE_THRESHOLD) {
-                        final Feedback similarFeedback = feedbackForTextExerciseInCluster.get(mostSimilarBlockInClusterWithFeedback.get().getId());
-                        return new Feedback().reference(block.getId()).credits(similarFeedback.getCredits()).detailText(similarFeedback.getDetailText())
-                                .type(FeedbackType.AUTOMATIC);
-                    }
-                }
+                final TextClusterFeedbackIndex feedbackIndex = feedbackIndexesOfSubmission.computeIfAbsent(cluster.getId(), clusterId -> getFeedbackIndex(cluster));
+                return feedbackIndex.getSuggestedFeedback(block.getId()).map(similarFeedback -> new Feedback().reference(block.getId()).credits(similarFeedback.getCredits())
+                        .detailText(similarFeedback.getDetailText()).type(FeedbackType.AUTOMATIC)).orElse(null);
             }
 
             return null;
@@ -78,4 +105,74 @@ public class AutomaticTextFeedbackService {
         result.setFeedbacks(suggestedFeedback);
     }
 
+    /**
+     * Adds the feedback of a saved assessment to the feedback indexes of the clusters of the submission, so that it is suggested for similar blocks.
+     * Clusters without a cached index are skipped, their index is built including this feedback when it is needed.
+     *
+     * @param textSubmission the assessed submission with its text blocks
+     * @param feedbacks      the feedback of the saved assessment
+     */
+    public void updateFeedbackIndexes(TextSubmission textSubmission, List<Feedback> feedbacks) {
+        final Map<Long, Set<String>> assessedBlockIdsByClusterId = textSubmission.getBlocks().stream().filter(block -> block.getCluster() != null)
+                .collect(groupingBy(block -> block.getCluster().getId(), mapping(TextBlock::getId, toSet())));
+        // indexes of these clusters that are built concurrently might not contain the new feedback, so they must not be cached
+        assessedBlockIdsByClusterId.keySet().forEach(clusterId -> feedbackVersions.set(clusterId, ThreadLocalRandom.current().nextLong(), timeToLiveSeconds, TimeUnit.SECONDS));
+        final Set<Long> indexedClusterIds = assessedBlockIdsByClusterId.keySet().stream().filter(feedbackIndexes::containsKey).collect(toSet());
+        if (indexedClusterIds.isEmpty()) {
+            return;
+        }
+        final Map<String, Feedback> feedbackByBlockId = feedbacks.stream().filter(Feedback::hasReference)
+                .collect(toMap(Feedback::getReference, feedback -> feedback, (feedback, otherFeedback) -> otherFeedback));
+
+        for (TextCluster cluster : textClusterRepository.findAllByIdsWithEagerTextBlocks(indexedClusterIds)) {
+            feedbackIndexes.lock(cluster.getId());
+            try {
+                final TextClusterFeedbackIndex feedbackIndex = feedbackIndexes.get(cluster.getId());
+                if (feedbackIndex == null) {
+                    continue;
+                }
+                if (feedbackIndex.update(cluster, assessedBlockIdsByClusterId.get(cluster.getId()), feedbackByBlockId)) {
+                    feedbackIndexes.set(cluster.getId(), feedbackIndex, timeToLiveSeconds, TimeUnit.SECONDS);
+                }
+                else {
+                    feedbackIndexes.delete(cluster.getId());
+                }
+            }
+            finally {
+                feedbackIndexes.unlock(cluster.getId());
+            }
+        }
+    }
+
+    /**
+     * Removes all feedback indexes, e.g. after the database was reset
+     */
+    public void clearFeedbackIndexes() {
+        feedbackIndexes.clear();
+        feedbackVersions.clear();
+    }
+
+    private TextClusterFeedbackIndex getFeedbackIndex(TextCluster cluster) {
+        final TextClusterFeedbackIndex cachedFeedbackIndex = feedbackIndexes.get(cluster.getId());
+        if (cachedFeedbackIndex != null) {
+            indexHitCounter.increment();
+            return cachedFeedbackIndex;
+        }
+        indexMissCounter.increment();
+        final Long feedbackVersion = feedbackVersions.get(cluster.getId());
+        // Find all Feedbacks for Blocks in Cluster.
+        final Map<String, Feedback> feedbackForTextExerciseInCluster = feedbackRepository.getFeedbackForTextExerciseInCluster(cluster);
+        final TextClusterFeedbackIndex feedbackIndex = TextClusterFeedbackIndex.build(cluster, feedbackForTextExerciseInCluster, DISTANCE_THRESHOLD);
+        feedbackIndexes.lock(cluster.getId());
+        try {
+            // an index that was built (and updated) concurrently is kept, an index that might miss feedback saved in the meantime is not cached
+            if (Objects.equals(feedbackVersion, feedbackVersions.get(cluster.getId()))) {
+                feedbackIndexes.putIfAbsent(cluster.getId(), feedbackIndex, timeToLiveSeconds, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            feedbackIndexes.unlock(cluster.getId());
+        }
+        return feedbackIndex;
+    }
 }
@@ -1,49 +1,80 @@
 package de.tum.in.www1.artemis.service;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import de.tum.in.www1.artemis.domain.BuildLogArchive;
 import de.tum.in.www1.artemis.domain.BuildLogEntry;
 import de.tum.in.www1.artemis.domain.ProgrammingSubmission;
 import de.tum.in.www1.artemis.domain.enumeration.ProgrammingLanguage;
+import de.tum.in.www1.artemis.repository.BuildLogArchiveRepository;
 import de.tum.in.www1.artemis.repository.BuildLogEntryRepository;
 import de.tum.in.www1.artemis.repository.ProgrammingSubmissionRepository;
+import de.tum.in.www1.artemis.service.connectors.ContinuousIntegrationService;
+import de.tum.in.www1.artemis.service.util.BuildLogArchiveFormat;
 
 @Service
 public class BuildLogEntryService {
 
     private final BuildLogEntryRepository buildLogEntryRepository;
 
+    private final BuildLogArchiveRepository buildLogArchiveRepository;
+
     private final ProgrammingSubmissionRepository programmingSubmissionRepository;
 
-    public BuildLogEntryService(BuildLogEntryRepository buildLogEntryRepository, ProgrammingSubmissionRepository programmingSubmissionRepository) {
+    /**
+     * Whether the build logs of a submission are stored as one compressed {@link BuildLogArchive} instead of one row per entry
+     */
+    @Value("${artemis.build-logs.compressed-storage:false}")
+    private boolean compressedStorage;
+
+    public BuildLogEntryService(BuildLogEntryRepository buildLogEntryRepository, BuildLogArchiveRepository buildLogArchiveRepository,
+            ProgrammingSubmissionRepository programmingSubmissionRepository) {
         this.buildLogEntryRepository = buildLogEntryRepository;
+        this.buildLogArchiveRepository = buildLogArchiveRepository;
         this.programmingSubmissionRepository = programmingSubmissionRepository;
     }
 
     /**
-     * Saves the build log entries in the database. The association to the programming submission is first removed and
-     * after the saving restored as the relation submission->result uses an order column.
+     * Saves the build log entries in the database and sets them as the build logs of the submission, which removes the existing logs when the submission is saved.
+     * The association to the programming submission is first removed and after the saving restored as the relation submission->result uses an order column.
+     * <p>
+     * If the compressed storage is enabled, all entries are stored in one compressed archive of the submission instead and the submission has no build log entities.
      *
      * @param buildLogs build logs to save
      * @param programmingSubmission submission of the build logs
      * @return the saved build logs
      */
     public List<BuildLogEntry> saveBuildLogs(List<BuildLogEntry> buildLogs, ProgrammingSubmission programmingSubmission) {
-        return buildLogs.stream().map(buildLogEntry -> {
+        if (compressedStorage && programmingSubmission.getId() != null) {
+            BuildLogArchive archive = buildLogArchiveRepository.findByProgrammingSubmissionId(programmingSubmission.getId()).orElseGet(BuildLogArchive::new);
+            archive.setProgrammingSubmissionId(programmingSubmission.getId());
+            archive.setNumberOfEntries(buildLogs.size());
+            archive.setCompressedEntries(BuildLogArchiveFormat.encode(buildLogs));
+            buildLogArchiveRepository.save(archive);
+            buildLogs.forEach(buildLogEntry -> buildLogEntry.setProgrammingSubmission(programmingSubmission));
+            // remove the build log entities that were stored before the compressed storage was enabled
+            programmingSubmission.setBuildLogEntries(new ArrayList<>());
+            return buildLogs;
+        }
+
+        buildLogs.forEach(buildLogEntry -> {
             // Truncate the log so that it fits into the database
             buildLogEntry.truncateLogToMaxLength();
             // Cut association to parent object
             buildLogEntry.setProgrammingSubmission(null);
-            // persist the BuildLogEntry object without an association to the parent object.
-            var updatedBuildLogEntry = buildLogEntryRepository.save(buildLogEntry);
-            // restore the association to the parent object
-            updatedBuildLogEntry.setProgrammingSubmission(programmingSubmission);
-            return updatedBuildLogEntry;
-        }).collect(Collectors.toList());
+        });
+        // persist the BuildLogEntry objects without an association to the parent object in one transaction
+        List<BuildLogEntry> savedBuildLogs = buildLogEntryRepository.saveAll(buildLogs);
+        // restore the association to the parent object
+        savedBuildLogs.forEach(buildLogEntry -> buildLogEntry.setProgrammingSubmission(programmingSubmission));
+        programmingSubmission.setBuildLogEntries(savedBuildLogs);
+        return savedBuildLogs;
     }
 
     /**
@@ -53,11 +84,74 @@ public class BuildLogEntryService {
      * @return the build log entries
      */
     public List<BuildLogEntry> getLatestBuildLogs(ProgrammingSubmission programmingSubmission) {
-        Optional<ProgrammingSubmission> optionalProgrammingSubmission = programmingSubmissionRepository.findWithEagerBuildLogEntriesById(programmingSubmission.getId());
-        if (optionalProgrammingSubmission.isPresent()) {
-            return optionalProgrammingSubmission.get().getBuildLogEntries();
+        try (Stream<BuildLogEntry> buildLogs = streamLatestBuildLogs(programmingSubmission)) {
+            return buildLogs.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Retrieves the latest build logs for a given programming submission. Compressed build logs are decompressed lazily while the stream is consumed.
+     * The stream has to be closed after it was consumed.
+     *
+     * @param programmingSubmission submission for which to retrieve the build logs
+     * @return the build log entries in the order of the build
+     */
+    public Stream<BuildLogEntry> streamLatestBuildLogs(ProgrammingSubmission programmingSubmission) {
+        if (compressedStorage) {
+            Optional<BuildLogArchive> archive = buildLogArchiveRepository.findByProgrammingSubmissionId(programmingSubmission.getId());
+            if (archive.isPresent()) {
+                return BuildLogArchiveFormat.stream(archive.get().getCompressedEntries());
+            }
+        }
+        List<BuildLogEntry> buildLogEntries = programmingSubmissionRepository.findWithEagerBuildLogEntriesById(programmingSubmission.getId())
+                .map(ProgrammingSubmission::getBuildLogEntries).orElse(List.of());
+        if (!buildLogEntries.isEmpty() || compressedStorage) {
+            return buildLogEntries.stream();
+        }
+        // the compressed storage might have been disabled after the logs were stored
+        return buildLogArchiveRepository.findByProgrammingSubmissionId(programmingSubmission.getId()).map(archive -> BuildLogArchiveFormat.stream(archive.getCompressedEntries()))
+                .orElseGet(Stream::empty);
+    }
+
+    /**
+     * Removes the build logs that are irrelevant for the students in a single pass:
+     * - the logs after the end of the relevant part of the build, e.g. compilation errors that are repeated in the summary
+     * - unnecessary logs, illegal reflection logs and further logs of the continuous integration system
+     * - duplicate logs and blank logs following another blank log
+     * The remaining logs are shortened, e.g. the paths of the build agent are removed.
+     *
+     * @param buildLogs           the unfiltered build logs in the order of the build
+     * @param programmingLanguage programming language of the exercise
+     * @param isEndOfRelevantLogs determines whether a log ends the part of the build logs that is shown
+     * @param isIrrelevantLog     determines further logs that are removed, e.g. the commands of the build pipeline
+     * @return a new list with the filtered build logs
+     */
+    public List<BuildLogEntry> filterBuildLogs(Iterable<BuildLogEntry> buildLogs, ProgrammingLanguage programmingLanguage, Predicate<String> isEndOfRelevantLogs,
+            Predicate<String> isIrrelevantLog) {
+        List<BuildLogEntry> filteredBuildLogs = new ArrayList<>();
+        Set<String> filteredLogStrings = new HashSet<>();
+        for (BuildLogEntry buildLog : buildLogs) {
+            String logString = buildLog.getLog();
+            if (isEndOfRelevantLogs.test(logString)) {
+                break;
+            }
+
+            // filter unnecessary logs and illegal reflection logs
+            if (isUnnecessaryBuildLogForProgrammingLanguage(logString, programmingLanguage) || isIllegalReflectionLog(logString) || isIrrelevantLog.test(logString)) {
+                continue;
+            }
+
+            // Replace some unnecessary information and hide complex details to make it easier to read the important information
+            final String shortenedLogString = ContinuousIntegrationService.ASSIGNMENT_PATH.matcher(logString).replaceAll("");
+
+            // Avoid duplicate log entries
+            String lastLogString = filteredBuildLogs.isEmpty() ? null : filteredBuildLogs.get(filteredBuildLogs.size() - 1).getLog();
+            if (checkIfBuildLogIsNotADuplicate(programmingLanguage, filteredLogStrings, lastLogString, shortenedLogString)) {
+                filteredBuildLogs.add(new BuildLogEntry(buildLog.getTime(), shortenedLogString, buildLog.getProgrammingSubmission()));
+                filteredLogStrings.add(shortenedLogString);
+            }
         }
-        return List.of();
+        return filteredBuildLogs;
     }
 
     /**
@@ -113,20 +207,19 @@ public class BuildLogEntryService {
      * It avoids duplicate entries and only allows not more than one empty log.
      *
      * @param programmingLanguage programming language of build log
-     * @param buildLogs           accumulated build logs
+     * @param existingLogStrings  the log strings of the accumulated build logs
+     * @param lastLogString       the last accumulated build log string, null if there is none
      * @param shortenedLogString  current build log string
      * @return boolean indicating a build log should be added to the overall build logs
      */
-    public boolean checkIfBuildLogIsNotADuplicate(ProgrammingLanguage programmingLanguage, List<BuildLogEntry> buildLogs, String shortenedLogString) {
+    private boolean checkIfBuildLogIsNotADuplicate(ProgrammingLanguage programmingLanguage, Set<String> existingLogStrings, String lastLogString, String shortenedLogString) {
         // C outputs duplicate but necessary output, so we need to skip it
         boolean skipLanguage = ProgrammingLanguage.C.equals(programmingLanguage);
-        if (!skipLanguage && !buildLogs.isEmpty()) {
+        if (!skipLanguage && lastLogString != null) {
             // E.g. Swift produces a lot of duplicate build logs when a build fails
-            var existingLog = buildLogs.stream().filter(log -> log.getLog().equals(shortenedLogString)).findFirst();
-            String lastLog = buildLogs.get(buildLogs.size() - 1).getLog();
             // If the log does not exist already or if the log is a single blank log add it to the build logs (avoid more than one empty log in a row)
-            boolean isSingleBlankLog = shortenedLogString.isBlank() && !lastLog.isBlank();
-            return existingLog.isEmpty() || isSingleBlankLog;
+            boolean isSingleBlankLog = shortenedLogString.isBlank() && !lastLogString.isBlank();
+            return !existingLogStrings.contains(shortenedLogString) || isSingleBlankLog;
         }
         return true;
     }
@@ -0,0 +1,107 @@
+package de.tum.in.www1.artemis.service;
+
+import static de.tum.in.www1.artemis.service.util.TransactionUtil.runNowAndAfterCommit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.service.listeners.CourseDashboardListener;
+
+/**
+ * Caches the serialized response of the course dashboard (all courses of a user with exercises, participations and results) for a short time per user.
+ * <p>
+ * The dashboard is requested by every student on every page load, while its content rarely changes within a few seconds. The cached JSON is removed when its content
+ * changes:
+ * <ul>
+ * <li>participations, submissions and results remove the dashboards of their students, courses, exams and exercises remove all dashboards (see
+ * {@link CourseDashboardListener})</li>
+ * <li>changed groups of a user (e.g. the registration for a course) and exam registrations remove the dashboard of the user</li>
+ * <li>new results remove the dashboards of their students when they are broadcast (see {@link WebsocketMessagingService#broadcastNewResult})</li>
+ * </ul>
+ * Changes that only depend on the time, e.g. an exercise that is released at its release date, become visible after the time to live.
+ * <p>
+ * Inside of a transaction the dashboards are removed immediately and again after the commit, so that a dashboard that was loaded concurrently with the old data
+ * is not kept.
+ */
+@Service
+public class CourseDashboardCacheService {
+
+    private final Logger log = LoggerFactory.getLogger(CourseDashboardCacheService.class);
+
+    /**
+     * The time to live of a cached dashboard, a value of 0 disables the cache
+     */
+    @Value("${artemis.course-dashboard.cache-ttl-seconds:30}")
+    private long timeToLiveSeconds;
+
+    /**
+     * The serialized course dashboards, mapped by the login of the user
+     */
+    private final IMap<String, byte[]> courseDashboards;
+
+    private final ObjectWriter coursesWriter;
+
+    public CourseDashboardCacheService(HazelcastInstance hazelcastInstance, ObjectMapper objectMapper) {
+        this.courseDashboards = hazelcastInstance.getMap("courseDashboardsByUser");
+        // we serialize the courses in the same way as the REST controller would do for a List<Course>
+        this.coursesWriter = objectMapper.writerFor(new TypeReference<List<Course>>() {
+        });
+    }
+
+    /**
+     * Returns the cached course dashboard of the given user or calculates and caches it, if it is not cached
+     *
+     * @param login           the login of the user
+     * @param dashboardLoader loads the courses of the dashboard of the user
+     * @return the serialized courses of the dashboard as JSON
+     * @throws JsonProcessingException if the courses cannot be serialized
+     */
+    public byte[] getCourseDashboard(String login, Supplier<List<Course>> dashboardLoader) throws JsonProcessingException {
+        if (timeToLiveSeconds > 0) {
+            byte[] cachedDashboard = courseDashboards.get(login);
+            if (cachedDashboard != null) {
+                log.debug("Use cached course dashboard of user {}", login);
+                return cachedDashboard;
+            }
+        }
+        byte[] dashboard = coursesWriter.writeValueAsBytes(dashboardLoader.get());
+        if (timeToLiveSeconds > 0) {
+            courseDashboards.set(login, dashboard, timeToLiveSeconds, TimeUnit.SECONDS);
+        }
+        return dashboard;
+    }
+
+    /**
+     * Removes the cached course dashboard of the given user, so that it is calculated again on the next access
+     *
+     * @param login the login of the user whose dashboard changed
+     */
+    public void invalidateCourseDashboard(String login) {
+        if (timeToLiveSeconds > 0 && login != null) {
+            runNowAndAfterCommit(() -> courseDashboards.delete(login));
+        }
+    }
+
+    /**
+     * Removes all cached course dashboards, e.g. when an exercise changed that is shown in the dashboards of all students of its course
+     */
+    public void clearCachedCourseDashboards() {
+        if (timeToLiveSeconds > 0) {
+            runNowAndAfterCommit(courseDashboards::clear);
+        }
+    }
+}
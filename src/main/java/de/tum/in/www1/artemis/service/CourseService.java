@@ -6,8 +6,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.*;
-import java.time.temporal.TemporalField;
-import java.time.temporal.WeekFields;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -26,6 +25,7 @@ import de.tum.in.www1.artemis.domain.enumeration.NotificationType;
 import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
 import de.tum.in.www1.artemis.domain.notification.GroupNotification;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsEntry;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.exam.ExamService;
@@ -71,10 +71,12 @@ public class CourseService {
 
     private final LearningGoalRepository learningGoalRepository;
 
+    private final StatisticsRepository statisticsRepository;
+
     public CourseService(CourseRepository courseRepository, ExerciseService exerciseService, AuthorizationCheckService authCheckService, UserRepository userRepository,
             LectureService lectureService, GroupNotificationRepository groupNotificationRepository, ExerciseGroupRepository exerciseGroupRepository,
             AuditEventRepository auditEventRepository, UserService userService, LearningGoalRepository learningGoalRepository, GroupNotificationService groupNotificationService,
-            ExamService examService, ExamRepository examRepository, CourseExamExportService courseExamExportService) {
+            ExamService examService, ExamRepository examRepository, CourseExamExportService courseExamExportService, StatisticsRepository statisticsRepository) {
         this.courseRepository = courseRepository;
         this.exerciseService = exerciseService;
         this.authCheckService = authCheckService;
@@ -89,6 +91,7 @@ public class CourseService {
         this.examService = examService;
         this.examRepository = examRepository;
         this.courseExamExportService = courseExamExportService;
+        this.statisticsRepository = statisticsRepository;
     }
 
     /**
@@ -299,86 +302,8 @@ public class CourseService {
         ZonedDateTime startDate = localStartDate.atZone(zone).minusWeeks(3).withHour(0).withMinute(0).withSecond(0).withNano(0);
         ZonedDateTime endDate = localEndDate.atZone(zone).withHour(23).withMinute(59).withSecond(59);
 
-        List<Map<String, Object>> outcome = courseRepository.getActiveStudents(exerciseIds, startDate, endDate);
-        List<Map<String, Object>> distinctOutcome = removeDuplicateActiveUserRows(outcome, startDate);
-        return sortUserIntoWeeks(distinctOutcome, endDate);
-    }
-
-    /**
-     * The List of maps contains duplicated entries. This method compares the values and returns a List<Map<String, Object>>
-     * without duplicated entries
-     *
-     * @param activeUserRows a list with a map for every submission of an user containing date and the username
-     * @param startDate the startDate of the period
-     * @return a List<Map<String, Object>> containing date and amount of active users in this period
-     */
-    private List<Map<String, Object>> removeDuplicateActiveUserRows(List<Map<String, Object>> activeUserRows, ZonedDateTime startDate) {
-        Map<Object, List<String>> usersByDate = new HashMap<>();
-        for (Map<String, Object> listElement : activeUserRows) {
-            ZonedDateTime date = (ZonedDateTime) listElement.get("day");
-            int index = getWeekOfDate(date);
-            String username = listElement.get("username").toString();
-            List<String> usersInSameSlot = usersByDate.get(index);
-            // if this index is not yet existing in users
-            if (usersInSameSlot == null) {
-                usersInSameSlot = new ArrayList<>();
-                usersInSameSlot.add(username);
-                usersByDate.put(index, usersInSameSlot);
-            }   // if the value of the map for this index does not contain this username
-            else if (!usersInSameSlot.contains(username)) {
-                usersInSameSlot.add(username);
-            }
-        }
-        List<Map<String, Object>> returnList = new ArrayList<>();
-        usersByDate.forEach((date, users) -> {
-            int year = (Integer) date < getWeekOfDate(startDate) ? startDate.getYear() + 1 : startDate.getYear();
-            ZonedDateTime firstDateOfYear = ZonedDateTime.of(year, 1, 1, 0, 0, 0, 0, startDate.getZone());
-            ZonedDateTime start = getWeekOfDate(firstDateOfYear) == 1 ? firstDateOfYear.plusWeeks(((Integer) date) - 1) : firstDateOfYear.plusWeeks((Integer) date);
-            Map<String, Object> listElement = new HashMap<>();
-            listElement.put("day", start);
-            listElement.put("amount", (long) users.size());
-            returnList.add(listElement);
-        });
-        return returnList;
-    }
-
-    /**
-     * Gets a list of maps as parameter, each map describing an entry in the database. The map has the two keys "day" and "amount",
-     * which map to the date and the amount of the findings. This Map-List is taken and converted into an Integer array,
-     * containing the values for each point of the graph. In the course management overview, we want to display the last
-     * 4 weeks, each week represented by one point in the graph. (Beginning with the current week.)
-     *
-     * @param outcome A List<Map<String, Object>>, containing the content which should be refactored into an array
-     * @param endDate the endDate
-     * @return an array, containing the amount of active users. One entry corresponds to one week
-     */
-    private Integer[] sortUserIntoWeeks(List<Map<String, Object>> outcome, ZonedDateTime endDate) {
-        Integer[] result = new Integer[4];
-        Arrays.fill(result, 0);
-        int week;
-        for (Map<String, Object> map : outcome) {
-            ZonedDateTime date = (ZonedDateTime) map.get("day");
-            int amount = map.get("amount") != null ? ((Long) map.get("amount")).intValue() : 0;
-            week = getWeekOfDate(date);
-            for (int i = 0; i < result.length; i++) {
-                if (week == getWeekOfDate(endDate.minusWeeks(i))) {
-                    result[result.length - 1 - i] += amount;
-                }
-            }
-        }
-        return result;
-    }
-
-    /**
-     * Gets the week of the given date
-     *
-     * @param date the date to get the week for
-     * @return the calendar week of the given date
-     */
-    private Integer getWeekOfDate(ZonedDateTime date) {
-        LocalDate localDate = date.toLocalDate();
-        TemporalField weekOfYear = WeekFields.of(DayOfWeek.MONDAY, 4).weekOfWeekBasedYear();
-        return localDate.get(weekOfYear);
+        List<StatisticsEntry> activeStudentsPerWeek = statisticsRepository.getNumberOfActiveUsersPerTimeslot(startDate, endDate, ChronoUnit.WEEKS, exerciseIds);
+        return activeStudentsPerWeek.stream().map(week -> (int) week.getAmount()).toArray(Integer[]::new);
     }
 
     /**
@@ -185,10 +185,11 @@ public class ExerciseService {
         }
         Course course = courses.stream().findFirst().get();
         List<StudentParticipation> participationsOfUserInExercises = getAllParticipationsOfUserInExercises(user, exercises);
+        Map<Long, List<StudentParticipation>> participationsByExerciseId = groupParticipationsByExerciseId(participationsOfUserInExercises);
         boolean isStudent = !authCheckService.isAtLeastTeachingAssistantInCourse(course, user);
         for (Exercise exercise : exercises) {
             // add participation with submission and result to each exercise
-            filterForCourseDashboard(exercise, participationsOfUserInExercises, user.getLogin(), isStudent);
+            filterForCourseDashboard(exercise, participationsByExerciseId.getOrDefault(exercise.getId(), List.of()), user.getLogin(), isStudent);
             // remove sensitive information from the exercise for students
             if (isStudent) {
                 exercise.filterSensitiveInformation();
@@ -198,6 +199,17 @@ public class ExerciseService {
         return exercises;
     }
 
+    /**
+     * Groups the given participations by the id of their exercise, so that {@link #filterForCourseDashboard} only has to look at the participations of one exercise
+     *
+     * @param participations the participations of a user, including their exercises
+     * @return the participations mapped by exercise id
+     */
+    public static Map<Long, List<StudentParticipation>> groupParticipationsByExerciseId(List<StudentParticipation> participations) {
+        return participations.stream().filter(participation -> participation.getExercise() != null)
+                .collect(Collectors.groupingBy(participation -> participation.getExercise().getId()));
+    }
+
     /**
      * Gets all the participations of the user in the given exercises
      *
@@ -20,6 +20,7 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.compass.CompassService;
 import de.tum.in.www1.artemis.service.exam.ExamDateService;
+import de.tum.in.www1.artemis.service.exam.ExamSubmissionAutosaveBuffer;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 @Service
@@ -33,15 +34,19 @@ public class ModelingSubmissionService extends SubmissionService {
 
     private final SubmissionVersionService submissionVersionService;
 
+    private final ExamSubmissionAutosaveBuffer examSubmissionAutosaveBuffer;
+
     public ModelingSubmissionService(ModelingSubmissionRepository modelingSubmissionRepository, SubmissionRepository submissionRepository, ResultRepository resultRepository,
             CompassService compassService, UserRepository userRepository, SubmissionVersionService submissionVersionService, ParticipationService participationService,
             StudentParticipationRepository studentParticipationRepository, AuthorizationCheckService authCheckService, FeedbackRepository feedbackRepository,
-            ExamDateService examDateService, CourseRepository courseRepository, ParticipationRepository participationRepository) {
+            ExamDateService examDateService, CourseRepository courseRepository, ParticipationRepository participationRepository,
+            ExamSubmissionAutosaveBuffer examSubmissionAutosaveBuffer) {
         super(submissionRepository, userRepository, authCheckService, resultRepository, studentParticipationRepository, participationService, feedbackRepository, examDateService,
                 courseRepository, participationRepository);
         this.modelingSubmissionRepository = modelingSubmissionRepository;
         this.compassService = compassService;
         this.submissionVersionService = submissionVersionService;
+        this.examSubmissionAutosaveBuffer = examSubmissionAutosaveBuffer;
     }
 
     /**
@@ -139,6 +144,10 @@ public class ModelingSubmissionService extends SubmissionService {
         modelingSubmission.setSubmissionDate(ZonedDateTime.now());
         modelingSubmission.setType(SubmissionType.MANUAL);
         modelingSubmission.setParticipation(participation);
+        // autosaves of exam submissions are persisted in batches
+        if (examSubmissionAutosaveBuffer.buffer(modelingSubmission, participation, modelingExercise, username)) {
+            return modelingSubmission;
+        }
         modelingSubmission = modelingSubmissionRepository.save(modelingSubmission);
 
         // versioning of submission
@@ -4,6 +4,7 @@ import static de.tum.in.www1.artemis.domain.enumeration.InitializationState.*;
 
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,12 +16,12 @@ import de.tum.in.www1.artemis.domain.enumeration.*;
 import de.tum.in.www1.artemis.domain.participation.*;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
-import de.tum.in.www1.artemis.exception.ContinuousIntegrationException;
 import de.tum.in.www1.artemis.exception.VersionControlException;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.connectors.ContinuousIntegrationService;
 import de.tum.in.www1.artemis.service.connectors.GitService;
 import de.tum.in.www1.artemis.service.connectors.VersionControlService;
+import de.tum.in.www1.artemis.service.programming.ProgrammingParticipationSetupPipeline;
 import de.tum.in.www1.artemis.service.scheduled.quiz.QuizScheduleService;
 
 /**
@@ -40,8 +41,6 @@ public class ParticipationService {
 
     private final QuizScheduleService quizScheduleService;
 
-    private final UrlService urlService;
-
     private final ParticipationRepository participationRepository;
 
     private final StudentParticipationRepository studentParticipationRepository;
@@ -66,12 +65,15 @@ public class ParticipationService {
 
     private final ParticipantScoreRepository participantScoreRepository;
 
-    public ParticipationService(UrlService urlService, ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository,
+    private final ProgrammingParticipationSetupPipeline programmingParticipationSetupPipeline;
+
+    public ParticipationService(ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository,
             StudentParticipationRepository studentParticipationRepository, ExerciseRepository exerciseRepository, ProgrammingExerciseRepository programmingExerciseRepository,
             ResultRepository resultRepository, SubmissionRepository submissionRepository, ComplaintResponseRepository complaintResponseRepository,
             ComplaintRepository complaintRepository, TeamRepository teamRepository, GitService gitService, QuizScheduleService quizScheduleService,
             ParticipationRepository participationRepository, Optional<ContinuousIntegrationService> continuousIntegrationService,
-            Optional<VersionControlService> versionControlService, RatingRepository ratingRepository, ParticipantScoreRepository participantScoreRepository) {
+            Optional<VersionControlService> versionControlService, RatingRepository ratingRepository, ParticipantScoreRepository participantScoreRepository,
+            ProgrammingParticipationSetupPipeline programmingParticipationSetupPipeline) {
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.participationRepository = participationRepository;
         this.programmingExerciseStudentParticipationRepository = programmingExerciseStudentParticipationRepository;
@@ -87,8 +89,8 @@ public class ParticipationService {
         this.versionControlService = versionControlService;
         this.quizScheduleService = quizScheduleService;
         this.ratingRepository = ratingRepository;
-        this.urlService = urlService;
         this.participantScoreRepository = participantScoreRepository;
+        this.programmingParticipationSetupPipeline = programmingParticipationSetupPipeline;
     }
 
     /**
@@ -155,31 +157,24 @@ public class ParticipationService {
 
     /**
      * Start a programming exercise participation (which does not exist yet) by creating and configuring a student git repository (step 1) and a student build plan (step 2)
-     * based on the templates in the given programming exercise
+     * based on the templates in the given programming exercise. The independent steps of the version control and the continuous integration server run at the same time,
+     * see {@link ProgrammingParticipationSetupPipeline}.
      *
      * @param exercise the programming exercise that the currently active user (student) wants to start
      * @param participation inactive participation
      * @return started participation
      */
     private StudentParticipation startProgrammingExercise(ProgrammingExercise exercise, ProgrammingExerciseStudentParticipation participation) {
-        // Step 1a) create the student repository (based on the template repository)
-        participation = copyRepository(participation);
-        // Step 1b) configure the student repository (e.g. access right, etc.)
-        participation = configureRepository(exercise, participation);
-        // Step 2a) create the build plan (based on the BASE build plan)
-        participation = copyBuildPlan(participation);
-        // Step 2b) configure the build plan (e.g. access right, hooks, etc.)
-        participation = configureBuildPlan(participation);
-        // Step 2c) we might need to perform an empty commit (as a workaround, depending on the CI system) here, because it should not trigger a new programming submission
-        // (when the web hook was already initialized, see below)
-        continuousIntegrationService.get().performEmptySetupCommit(participation);
-        // Note: we configure the repository webhook last, so that the potential empty commit does not trigger a new programming submission (see empty-commit-necessary)
-        // Step 3) configure the web hook of the student repository
-        participation = configureRepositoryWebHook(participation);
-        participation.setInitializationState(INITIALIZED);
-        participation.setInitializationDate(ZonedDateTime.now());
-        // after saving, we need to make sure the object that is used after the if statement is the right one
-        return participation;
+        try {
+            return programmingParticipationSetupPipeline.setUp(exercise, participation).join();
+        }
+        catch (CompletionException ex) {
+            // rethrow the exception of the failed step, e.g. a VersionControlException
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
     }
 
     /**
@@ -315,104 +310,9 @@ public class ParticipationService {
      */
     public ProgrammingExerciseStudentParticipation resumeProgrammingExercise(ProgrammingExerciseStudentParticipation participation) {
         // this method assumes that the student git repository already exists (compare startProgrammingExercise) so steps 1, 2 and 5 are not necessary
-        // Step 2a) create the build plan (based on the BASE build plan)
-        participation = copyBuildPlan(participation);
-        // Step 2b) configure the build plan (e.g. access right, hooks, etc.)
-        participation = configureBuildPlan(participation);
         // Note: the repository webhook (step 1c) already exists so we don't need to set it up again, the empty commit hook (step 2c) is also not necessary here
         // and must be handled by the calling method in case it would be necessary
-        participation.setInitializationState(INITIALIZED);
-        participation = programmingExerciseStudentParticipationRepository.saveAndFlush(participation);
-        if (participation.getInitializationDate() == null) {
-            // only set the date if it was not set before (which should NOT be the case)
-            participation.setInitializationDate(ZonedDateTime.now());
-        }
-        return programmingExerciseStudentParticipationRepository.saveAndFlush(participation);
-    }
-
-    private ProgrammingExerciseStudentParticipation copyRepository(ProgrammingExerciseStudentParticipation participation) {
-        // only execute this step if it has not yet been completed yet or if the repository url is missing for some reason
-        if (!participation.getInitializationState().hasCompletedState(InitializationState.REPO_COPIED) || participation.getVcsRepositoryUrl() == null) {
-            final var programmingExercise = participation.getProgrammingExercise();
-            final var projectKey = programmingExercise.getProjectKey();
-            final var participantIdentifier = participation.getParticipantIdentifier();
-            // NOTE: we have to get the repository slug of the template participation here, because not all exercises (in particular old ones) follow the naming conventions
-            final var templateRepoName = urlService.getRepositorySlugFromRepositoryUrl(programmingExercise.getTemplateParticipation().getVcsRepositoryUrl());
-            // the next action includes recovery, which means if the repository has already been copied, we simply retrieve the repository url and do not copy it again
-            var newRepoUrl = versionControlService.get().copyRepository(projectKey, templateRepoName, projectKey, participantIdentifier);
-            // add the userInfo part to the repoURL only if the participation belongs to a single student (and not a team of students)
-            if (participation.getStudent().isPresent()) {
-                newRepoUrl = newRepoUrl.withUser(participantIdentifier);
-            }
-            participation.setRepositoryUrl(newRepoUrl.toString());
-            participation.setInitializationState(REPO_COPIED);
-
-            return programmingExerciseStudentParticipationRepository.saveAndFlush(participation);
-        }
-        else {
-            return participation;
-        }
-    }
-
-    private ProgrammingExerciseStudentParticipation configureRepository(ProgrammingExercise exercise, ProgrammingExerciseStudentParticipation participation) {
-        if (!participation.getInitializationState().hasCompletedState(InitializationState.REPO_CONFIGURED)) {
-            // do not allow the student to access the repository if this is an exam exercise that has not started yet
-            boolean allowAccess = !exercise.isExamExercise() || ZonedDateTime.now().isAfter(exercise.getIndividualReleaseDate());
-            versionControlService.get().configureRepository(exercise, participation.getVcsRepositoryUrl(), participation.getStudents(), allowAccess);
-            participation.setInitializationState(InitializationState.REPO_CONFIGURED);
-            return programmingExerciseStudentParticipationRepository.saveAndFlush(participation);
-        }
-        else {
-            return participation;
-        }
-    }
-
-    private ProgrammingExerciseStudentParticipation copyBuildPlan(ProgrammingExerciseStudentParticipation participation) {
-        // only execute this step if it has not yet been completed yet or if the build plan id is missing for some reason
-        if (!participation.getInitializationState().hasCompletedState(InitializationState.BUILD_PLAN_COPIED) || participation.getBuildPlanId() == null) {
-            final var projectKey = participation.getProgrammingExercise().getProjectKey();
-            final var planName = BuildPlanType.TEMPLATE.getName();
-            final var username = participation.getParticipantIdentifier();
-            final var buildProjectName = participation.getExercise().getCourseViaExerciseGroupOrCourseMember().getShortName().toUpperCase() + " "
-                    + participation.getExercise().getTitle();
-            // the next action includes recovery, which means if the build plan has already been copied, we simply retrieve the build plan id and do not copy it again
-            final var buildPlanId = continuousIntegrationService.get().copyBuildPlan(projectKey, planName, projectKey, buildProjectName, username.toUpperCase(), true);
-            participation.setBuildPlanId(buildPlanId);
-            participation.setInitializationState(InitializationState.BUILD_PLAN_COPIED);
-            return programmingExerciseStudentParticipationRepository.saveAndFlush(participation);
-        }
-        else {
-            return participation;
-        }
-    }
-
-    private ProgrammingExerciseStudentParticipation configureBuildPlan(ProgrammingExerciseStudentParticipation participation) {
-        if (!participation.getInitializationState().hasCompletedState(InitializationState.BUILD_PLAN_CONFIGURED)) {
-            try {
-                continuousIntegrationService.get().configureBuildPlan(participation);
-            }
-            catch (ContinuousIntegrationException ex) {
-                // this means something with the configuration of the build plan is wrong.
-                // we try to recover from typical edge cases by setting the initialization state back, so that the previous action (copy build plan) is tried again, when
-                // the user again clicks on the start / resume exercise button.
-                participation.setInitializationState(InitializationState.REPO_CONFIGURED);
-                programmingExerciseStudentParticipationRepository.saveAndFlush(participation);
-                // rethrow
-                throw ex;
-            }
-            participation.setInitializationState(InitializationState.BUILD_PLAN_CONFIGURED);
-            return programmingExerciseStudentParticipationRepository.saveAndFlush(participation);
-        }
-        else {
-            return participation;
-        }
-    }
-
-    private ProgrammingExerciseStudentParticipation configureRepositoryWebHook(ProgrammingExerciseStudentParticipation participation) {
-        if (!participation.getInitializationState().hasCompletedState(InitializationState.INITIALIZED)) {
-            versionControlService.get().addWebHookForParticipation(participation);
-        }
-        return participation;
+        return programmingParticipationSetupPipeline.resumeBuildPlan(participation);
     }
 
     /**
@@ -1,8 +1,7 @@
 package de.tum.in.www1.artemis.service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,7 +9,6 @@ import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Result;
-import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.quiz.*;
 import de.tum.in.www1.artemis.repository.*;
 
@@ -19,8 +17,6 @@ public class QuizStatisticService {
 
     private final Logger log = LoggerFactory.getLogger(QuizStatisticService.class);
 
-    private final StudentParticipationRepository studentParticipationRepository;
-
     private final ResultRepository resultRepository;
 
     private final QuizPointStatisticRepository quizPointStatisticRepository;
@@ -29,9 +25,14 @@ public class QuizStatisticService {
 
     private final SimpMessageSendingOperations messagingTemplate;
 
-    public QuizStatisticService(StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository, SimpMessageSendingOperations messagingTemplate,
-            QuizPointStatisticRepository quizPointStatisticRepository, QuizQuestionStatisticRepository quizQuestionStatisticRepository) {
-        this.studentParticipationRepository = studentParticipationRepository;
+    /**
+     * The previous results of the unrated results that were added to the statistics without persisting them, mapped by quiz id and result id. The results are added again
+     * until the statistics are persisted, so their previous results are only looked up once.
+     */
+    private final Map<Long, Map<Long, Optional<Result>>> previousResultsOfUnpersistedResults = new ConcurrentHashMap<>();
+
+    public QuizStatisticService(ResultRepository resultRepository, SimpMessageSendingOperations messagingTemplate, QuizPointStatisticRepository quizPointStatisticRepository,
+            QuizQuestionStatisticRepository quizQuestionStatisticRepository) {
         this.resultRepository = resultRepository;
         this.quizPointStatisticRepository = quizPointStatisticRepository;
         this.quizQuestionStatisticRepository = quizQuestionStatisticRepository;
@@ -62,28 +63,18 @@ public class QuizStatisticService {
             }
         }
 
-        // add the Results in every participation of the given quizExercise to the statistics
-        for (Participation participation : studentParticipationRepository.findByExerciseId(quizExercise.getId())) {
-
-            Result latestRatedResult = null;
-            Result latestUnratedResult = null;
-
-            // update all Results of a participation
-            for (Result result : resultRepository.findAllByParticipationIdOrderByCompletionDateDesc(participation.getId())) {
-
-                // find latest rated Result
-                if (Boolean.TRUE.equals(result.isRated()) && (latestRatedResult == null || latestRatedResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
-                    latestRatedResult = result;
-                }
-                // find latest unrated Result
-                if (Boolean.FALSE.equals(result.isRated()) && (latestUnratedResult == null || latestUnratedResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
-                    latestUnratedResult = result;
-                }
-            }
-            // update statistics with latest rated und unrated Result
-            this.addResultToAllStatistics(quizExercise, latestRatedResult);
-            this.addResultToAllStatistics(quizExercise, latestUnratedResult);
+        // add the latest rated and the latest unrated Result of every participation of the given quizExercise to the statistics
+        // NOTE: we load them with one query instead of loading the results for each participation individually
+        Map<Long, Result> latestRatedResults = new HashMap<>();
+        Map<Long, Result> latestUnratedResults = new HashMap<>();
+        for (Result result : resultRepository.findLatestRatedAndUnratedResultsWithSubmissionsForExercise(quizExercise.getId())) {
+            var latestResults = Boolean.TRUE.equals(result.isRated()) ? latestRatedResults : latestUnratedResults;
+            // the query can return multiple results per participation if they have the same completion date, we only count one of them
+            latestResults.putIfAbsent(result.getParticipation().getId(), result);
         }
+        // update statistics with latest rated und unrated Result
+        latestRatedResults.values().forEach(result -> addResultToAllStatistics(quizExercise, result));
+        latestUnratedResults.values().forEach(result -> addResultToAllStatistics(quizExercise, result));
 
         // save changed Statistics
         quizPointStatisticRepository.save(quizExercise.getQuizPointStatistic());
@@ -104,27 +95,54 @@ public class QuizStatisticService {
      * @param quiz    the quizExercise with Questions where the results should contain to
      */
     public void updateStatistics(Set<Result> results, QuizExercise quiz) {
+        updateStatistics(results, quiz, true);
+    }
+
+    /**
+     * Adds the given results to the statistics of the given quiz and notifies the instructors about the new statistics.
+     * <p>
+     * If <code>persist</code> is false, the results are only added to the (in-memory) statistic objects of the given quiz and the database is not changed.
+     * This allows to send live statistics to the instructors while only writing the statistics periodically: the caller keeps the results that were not persisted yet
+     * and adds them again to a freshly loaded quiz until they are persisted.
+     *
+     * @param results the results, which will be added to the statistics
+     * @param quiz    the quizExercise with Questions where the results should contain to
+     * @param persist whether the updated statistics should be saved in the database
+     */
+    public void updateStatistics(Set<Result> results, QuizExercise quiz, boolean persist) {
 
         if (results != null && quiz != null && quiz.getQuizQuestions() != null) {
-            log.debug("update statistics with {} new results", results.size());
+            log.debug("update statistics with {} new results (persist: {})", results.size(), persist);
 
+            // once the statistics are persisted, the previous results are not needed anymore (also the ones of results that another instance persisted)
+            final Map<Long, Optional<Result>> previousResults = persist ? previousResultsOfUnpersistedResults.remove(quiz.getId())
+                    : previousResultsOfUnpersistedResults.computeIfAbsent(quiz.getId(), quizId -> new ConcurrentHashMap<>());
             for (Result result : results) {
                 // check if the result is rated
                 // NOTE: there is never an old Result if the new result is rated
                 if (Boolean.FALSE.equals(result.isRated())) {
-                    removeResultFromAllStatistics(quiz, getPreviousResult(result));
+                    Optional<Result> previousResult = previousResults != null ? previousResults.get(result.getId()) : null;
+                    if (previousResult == null) {
+                        previousResult = Optional.ofNullable(getPreviousResult(result));
+                        if (!persist) {
+                            previousResults.put(result.getId(), previousResult);
+                        }
+                    }
+                    removeResultFromAllStatistics(quiz, previousResult.orElse(null));
                 }
                 addResultToAllStatistics(quiz, result);
             }
-            // save statistics
-            quizPointStatisticRepository.save(quiz.getQuizPointStatistic());
-            List<QuizQuestionStatistic> quizQuestionStatistics = new ArrayList<>();
-            for (QuizQuestion quizQuestion : quiz.getQuizQuestions()) {
-                if (quizQuestion.getQuizQuestionStatistic() != null) {
-                    quizQuestionStatistics.add(quizQuestion.getQuizQuestionStatistic());
+            if (persist) {
+                // save statistics
+                quizPointStatisticRepository.save(quiz.getQuizPointStatistic());
+                List<QuizQuestionStatistic> quizQuestionStatistics = new ArrayList<>();
+                for (QuizQuestion quizQuestion : quiz.getQuizQuestions()) {
+                    if (quizQuestion.getQuizQuestionStatistic() != null) {
+                        quizQuestionStatistics.add(quizQuestion.getQuizQuestionStatistic());
+                    }
                 }
+                quizQuestionStatisticRepository.saveAll(quizQuestionStatistics);
             }
-            quizQuestionStatisticRepository.saveAll(quizQuestionStatistics);
             // notify users via websocket about new results for the statistics.
             // filters out solution information
             quiz.filterForStatisticWebsocket();
@@ -132,6 +150,15 @@ public class QuizStatisticService {
         }
     }
 
+    /**
+     * Forgets the previous results of the results of the given quiz that were not persisted, e.g. because the quiz is not cached anymore
+     *
+     * @param quizExerciseId the id of the quiz exercise
+     */
+    public void clearUnpersistedResults(Long quizExerciseId) {
+        previousResultsOfUnpersistedResults.remove(quizExerciseId);
+    }
+
     /**
      * Go through all Results in the Participation and return the latest one before the new Result,
      *
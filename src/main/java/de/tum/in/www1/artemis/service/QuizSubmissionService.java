@@ -111,8 +111,6 @@ public class QuizSubmissionService {
      */
     public QuizSubmission saveSubmissionForLiveMode(Long exerciseId, QuizSubmission quizSubmission, String username, boolean submitted) throws QuizSubmissionException {
 
-        // TODO: what happens if a user executes this call twice in the same moment (using 2 threads)
-
         String logText = submitted ? "submit quiz in live mode:" : "save quiz in live mode:";
 
         long start = System.nanoTime();
@@ -131,17 +129,12 @@ public class QuizSubmissionService {
         // TODO: add one additional check: fetch quizSubmission.getId() with the corresponding participation and check that the user of participation is the
         // same as the user who executes this call. This prevents injecting submissions to other users
 
-        // check if user already submitted for this quiz
-        Participation participation = participationService.participationForQuizWithResult(quizExercise, username);
-        log.debug("{} Received participation for user {} in quiz {} in {} µs.", logText, username, exerciseId, (System.nanoTime() - start) / 1000);
-        if (!participation.getResults().isEmpty()) {
-            log.debug("Participation for user {} in quiz {} has results", username, exerciseId);
-            // NOTE: At this point, there can only be one Result because we already checked
-            // if the quiz is active, so there is no way the student could have already practiced
-            Result result = participation.getResults().iterator().next();
-            if (result.getSubmission().isSubmitted()) {
-                throw new QuizSubmissionException("You have already submitted the quiz");
-            }
+        // check if user already submitted for this quiz, submitting marks the user atomically so that only one of two concurrent submits succeeds
+        boolean alreadySubmitted = submitted ? !quizScheduleService.markSubmitted(exerciseId, username) || hasPersistedRatedResult(quizExercise, username)
+                : quizScheduleService.hasSubmitted(exerciseId, username);
+        log.debug("{} Checked submission state for user {} in quiz {} in {} µs.", logText, username, exerciseId, (System.nanoTime() - start) / 1000);
+        if (alreadySubmitted) {
+            throw new QuizSubmissionException("You have already submitted the quiz");
         }
 
         // recreate pointers back to submission in each submitted answer
@@ -152,13 +145,29 @@ public class QuizSubmissionService {
         // set submission date
         quizSubmission.setSubmissionDate(ZonedDateTime.now());
 
-        // save submission to HashMap
-        quizScheduleService.updateSubmission(exerciseId, username, quizSubmission);
+        // save submission to HashMap, a save that passed the check above concurrently to a submit of the same user must not overwrite the submitted submission
+        if (submitted) {
+            quizScheduleService.updateSubmission(exerciseId, username, quizSubmission);
+        }
+        else if (!quizScheduleService.saveSubmissionUnlessSubmitted(exerciseId, username, quizSubmission)) {
+            throw new QuizSubmissionException("You have already submitted the quiz");
+        }
 
         log.info("{} Saved quiz submission for user {} in quiz {} after {} µs ", logText, username, exerciseId, (System.nanoTime() - start) / 1000);
         return quizSubmission;
     }
 
+    /**
+     * The cache only knows the users who submitted while the quiz was cached, e.g. the submitted users are lost if the only instance restarts during the quiz.
+     * Therefore, a submit of a user who is not marked in the cache is checked against the database. Submits are rare compared to saves, so the saves only use the cache.
+     *
+     * @return true if the submission of the user was already persisted with a rated result
+     */
+    private boolean hasPersistedRatedResult(QuizExercise quizExercise, String username) {
+        return participationService.findOneByExerciseAndStudentLoginAnyState(quizExercise, username)
+                .map(participation -> resultRepository.findFirstByParticipationIdAndRatedOrderByCompletionDateDesc(participation.getId(), true).isPresent()).orElse(false);
+    }
+
     /**
      * Updates a submission for the exam mode
      *
@@ -1,5 +1,9 @@
 package de.tum.in.www1.artemis.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -65,6 +69,24 @@ public class SubmissionVersionService {
         return createNewVersion(submission, user);
     }
 
+    /**
+     * Saves one version for each of the given individual submissions to track their content, e.g. when several buffered autosaves are persisted together
+     *
+     * @param authorsBySubmission the submissions for which to save a version, mapped to their authors
+     * @return the created submission versions
+     */
+    public List<SubmissionVersion> saveVersionsForIndividuals(Map<Submission, User> authorsBySubmission) {
+        List<SubmissionVersion> versions = new ArrayList<>();
+        authorsBySubmission.forEach((submission, author) -> {
+            SubmissionVersion version = new SubmissionVersion();
+            version.setAuthor(author);
+            version.setSubmission(submission);
+            version.setContent(getSubmissionContent(submission));
+            versions.add(version);
+        });
+        return submissionVersionRepository.saveAll(versions);
+    }
+
     private SubmissionVersion updateExistingVersion(SubmissionVersion version, Submission submission) {
         version.setContent(getSubmissionContent(submission));
         return submissionVersionRepository.save(version);
@@ -2,15 +2,23 @@ package de.tum.in.www1.artemis.service;
 
 import static java.util.stream.Collectors.*;
 
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.Language;
-import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.repository.TextClusterRepository;
 import de.tum.in.www1.artemis.repository.TextSubmissionRepository;
 
@@ -18,13 +26,27 @@ import de.tum.in.www1.artemis.repository.TextSubmissionRepository;
 @Profile("athene")
 public class TextAssessmentQueueService {
 
+    private final Logger log = LoggerFactory.getLogger(TextAssessmentQueueService.class);
+
+    /**
+     * The time after which a ranking is built again, so that changes that do not update the ranking (e.g. deleted results) are considered eventually
+     */
+    @Value("${artemis.athene.assessment-queue.time-to-live-seconds:3600}")
+    private long timeToLiveSeconds;
+
     private final TextClusterRepository textClusterRepository;
 
     private final TextSubmissionRepository textSubmissionRepository;
 
-    public TextAssessmentQueueService(TextClusterRepository textClusterRepository, TextSubmissionRepository textSubmissionRepository) {
+    /**
+     * The open submissions of the exercises ranked by their information gain, mapped by exercise id
+     */
+    private final IMap<Long, TextAssessmentRanking> rankings;
+
+    public TextAssessmentQueueService(TextClusterRepository textClusterRepository, TextSubmissionRepository textSubmissionRepository, HazelcastInstance hazelcastInstance) {
         this.textClusterRepository = textClusterRepository;
         this.textSubmissionRepository = textSubmissionRepository;
+        this.rankings = hazelcastInstance.getMap("textAssessmentRankings");
     }
 
     /**
@@ -39,7 +61,10 @@ public class TextAssessmentQueueService {
     }
 
     /**
-     * Calculates the proposedTextSubmission for a given Text exercise
+     * Calculates the proposedTextSubmission for a given Text exercise.
+     * <p>
+     * The submissions are ranked once per exercise (after the clustering or when there is no current ranking) and the ranking is shared between all instances. Submissions
+     * that turn out to be assessed already are removed from the ranking before the next one is proposed.
      *
      * @param textExercise the exercise for
      * @param languages  list of languages the submission which the returned submission should have if null all languages are allowed
@@ -52,13 +77,157 @@ public class TextAssessmentQueueService {
         if (!textExercise.isAutomaticAssessmentEnabled()) {
             throw new IllegalArgumentException("The TextExercise is not automatic assessable");
         }
-        List<TextSubmission> textSubmissionList = getAllOpenTextSubmissions(textExercise);
-        if (textSubmissionList.isEmpty()) {
-            return Optional.empty();
+        TextAssessmentRanking ranking = getOrBuildRanking(textExercise);
+        Optional<Long> proposedSubmissionId = ranking.getProposedSubmissionId(languages);
+        while (proposedSubmissionId.isPresent()) {
+            long submissionId = proposedSubmissionId.get();
+            Optional<TextSubmission> proposedSubmission = textSubmissionRepository.findWithEagerBlocksAndResultsAndParticipationSubmissionsById(submissionId);
+            if (proposedSubmission.isPresent() && isOpen(proposedSubmission.get())) {
+                return proposedSubmission;
+            }
+            // the submission was assessed (or deleted) without updating the ranking
+            ranking = updateRanking(textExercise.getId(), rankingToUpdate -> rankingToUpdate.markAssessed(submissionId));
+            if (ranking == null) {
+                ranking = getOrBuildRanking(textExercise);
+            }
+            proposedSubmissionId = ranking.getProposedSubmissionId(languages);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Ranks the open submissions of the given exercise by their information gain and shares the ranking with all instances, e.g. after the submissions were clustered
+     *
+     * @param textExercise the exercise whose submissions should be ranked
+     */
+    @Transactional(readOnly = true)
+    public void rebuildRanking(TextExercise textExercise) {
+        rankings.lock(textExercise.getId());
+        try {
+            rankings.set(textExercise.getId(), buildRanking(textExercise), timeToLiveSeconds, TimeUnit.SECONDS);
+        }
+        finally {
+            rankings.unlock(textExercise.getId());
+        }
+    }
+
+    /**
+     * Removes the ranking of the given exercise, e.g. because its submissions were clustered again. The next request builds a new ranking.
+     *
+     * @param exerciseId the id of the exercise whose ranking is outdated
+     */
+    public void evictRanking(Long exerciseId) {
+        rankings.delete(exerciseId);
+    }
+
+    /**
+     * Removes the given submission from the ranking of its exercise, e.g. because a tutor locked it for the assessment. The text blocks of the submission do not count as
+     * open anymore, which changes the information gain of the other submissions.
+     *
+     * @param exerciseId   the id of the exercise of the submission
+     * @param submissionId the id of the submission that is assessed now
+     */
+    public void markSubmissionAsAssessed(Long exerciseId, Long submissionId) {
+        updateRanking(exerciseId, ranking -> ranking.markAssessed(submissionId));
+    }
+
+    /**
+     * Adds the given submission to the ranking of its exercise again, because its assessment was cancelled
+     *
+     * @param exerciseId   the id of the exercise of the submission
+     * @param submissionId the id of the submission that has to be assessed again
+     */
+    public void markSubmissionAsOpen(Long exerciseId, Long submissionId) {
+        updateRanking(exerciseId, ranking -> ranking.markOpen(submissionId));
+    }
+
+    /**
+     * Removes all rankings, e.g. after the database was reset
+     */
+    public void clearRankings() {
+        rankings.clear();
+    }
+
+    private TextAssessmentRanking getOrBuildRanking(TextExercise textExercise) {
+        TextAssessmentRanking ranking = rankings.get(textExercise.getId());
+        if (ranking != null && !isExpired(ranking)) {
+            return ranking;
+        }
+        rankings.lock(textExercise.getId());
+        try {
+            // another instance might have built the ranking in the meantime
+            ranking = rankings.get(textExercise.getId());
+            if (ranking == null || isExpired(ranking)) {
+                ranking = buildRanking(textExercise);
+                rankings.set(textExercise.getId(), ranking, timeToLiveSeconds, TimeUnit.SECONDS);
+            }
+            return ranking;
+        }
+        finally {
+            rankings.unlock(textExercise.getId());
         }
-        Map<TextBlock, Double> smallerClusterMap = calculateSmallerClusterPercentageBatch(textSubmissionList);
-        return textSubmissionList.stream().filter(textSubmission -> languages == null || languages.contains(textSubmission.getLanguage()))
-                .max(Comparator.comparingDouble(textSubmission -> calculateInformationGain(textSubmission, smallerClusterMap)));
+    }
+
+    /**
+     * Applies the given update to the ranking of the exercise, if there is one
+     *
+     * @return the updated ranking or null if the exercise has no ranking
+     */
+    private TextAssessmentRanking updateRanking(Long exerciseId, Predicate<TextAssessmentRanking> update) {
+        rankings.lock(exerciseId);
+        try {
+            TextAssessmentRanking ranking = rankings.get(exerciseId);
+            if (ranking != null && update.test(ranking)) {
+                // unused rankings are removed one time to live after their last update, used ones are rebuilt one time to live after their creation
+                rankings.set(exerciseId, ranking, timeToLiveSeconds, TimeUnit.SECONDS);
+            }
+            return ranking;
+        }
+        finally {
+            rankings.unlock(exerciseId);
+        }
+    }
+
+    private boolean isExpired(TextAssessmentRanking ranking) {
+        return ranking.getCreatedAt().plusSeconds(timeToLiveSeconds).isBefore(Instant.now());
+    }
+
+    private TextAssessmentRanking buildRanking(TextExercise textExercise) {
+        long start = System.currentTimeMillis();
+        List<TextSubmission> openSubmissions = getAllOpenTextSubmissions(textExercise);
+        Set<Long> clusterIds = textClusterRepository.findAllByExercise(textExercise).stream().map(TextCluster::getId).collect(toSet());
+        Map<Long, Integer> openBlockCounts = textClusterRepository.findAllByIdsWithEagerTextBlocks(clusterIds).stream()
+                .collect(toMap(TextCluster::getId, TextCluster::openTextBlockCount));
+
+        List<TextAssessmentRanking.RankedSubmission> rankedSubmissions = new ArrayList<>();
+        for (TextSubmission submission : openSubmissions) {
+            double addedDistanceGain = 0.0;
+            List<Long> gainClusterIds = new ArrayList<>();
+            List<Long> blockClusterIds = new ArrayList<>();
+            for (TextBlock textBlock : submission.getBlocks()) {
+                if (textBlock.getCluster() == null) {
+                    continue;
+                }
+                blockClusterIds.add(textBlock.getCluster().getId());
+                if (textBlock.isAssessable() || textBlock.getAddedDistance() == null) {
+                    continue;
+                }
+                addedDistanceGain += textBlock.getAddedDistance() / textBlock.getCluster().size();
+                gainClusterIds.add(textBlock.getCluster().getId());
+            }
+            rankedSubmissions.add(new TextAssessmentRanking.RankedSubmission(submission.getId(), submission.getLanguage(), addedDistanceGain,
+                    gainClusterIds.stream().mapToLong(Long::longValue).toArray(), blockClusterIds.stream().mapToLong(Long::longValue).toArray()));
+        }
+        log.info("Ranked {} open submissions of text exercise {} in {}ms", rankedSubmissions.size(), textExercise.getId(), System.currentTimeMillis() - start);
+        return new TextAssessmentRanking(openBlockCounts, rankedSubmissions);
+    }
+
+    /**
+     * @return true if the submission is submitted, has no result and is the latest submission of its participation
+     */
+    private static boolean isOpen(TextSubmission submission) {
+        return Boolean.TRUE.equals(submission.isSubmitted()) && submission.getResults().isEmpty()
+                && submission.getParticipation().findLatestSubmission().map(latestSubmission -> latestSubmission.getId().equals(submission.getId())).orElse(false);
     }
 
     /**
@@ -90,29 +259,6 @@ public class TextAssessmentQueueService {
                 .collect(toList());
     }
 
-    /**
-     * Given an TextSubmission calculate the expected information gain
-     * based on the smallerClusterMap and addedDistancesMap
-     *
-     * @param textSubmission the textSubmission
-     * @param smallerClusterMap Map of TextBlocks to percentage of smaller clusters the TextBlock Cluster
-     * @return information gain for the TextSubmission
-     */
-    private double calculateInformationGain(TextSubmission textSubmission, Map<TextBlock, Double> smallerClusterMap) {
-        var textBlocks = textSubmission.getBlocks();
-        double totalScore = 0.0;
-        for (TextBlock textBlock : textBlocks) {
-            if (textBlock.isAssessable() || textBlock.getCluster() == null || textBlock.getAddedDistance() == null) {
-                continue;
-            }
-            double textBlockScore = textBlock.getAddedDistance();
-            textBlockScore /= textBlock.getCluster().size();
-            textBlockScore += smallerClusterMap.get(textBlock);
-            totalScore += textBlockScore;
-        }
-        return totalScore;
-    }
-
     /**
      * Sums up all the distances in the Blocks cluster
      *
@@ -125,10 +271,9 @@ public class TextAssessmentQueueService {
         if (!cluster.getBlocks().contains(textBlock)) {
             throw new IllegalArgumentException("textBlock must be an element of the cluster");
         }
-        double[][] distanceMatrix = cluster.getDistanceMatrix();
         int blockID = cluster.getBlocks().indexOf(textBlock);
-        // subtract 1 because the statement also included the distance to itself, but it should't be included
-        return Arrays.stream(distanceMatrix[blockID]).map(distance -> 1.0 - distance).sum() - 1;
+        // subtract 1 because the sum also includes the distance to itself, but it shouldn't be included
+        return cluster.getDistances().sumOfSimilarities(blockID) - 1;
     }
 
     /**
@@ -143,54 +288,4 @@ public class TextAssessmentQueueService {
             textBlock.setAddedDistance(addedDistance);
         });
     }
-
-    /**
-     * Calculates the Percentages of Smaller Clusters for a list of textSubmissions
-     * All TextSubmissions must have the same exercise
-     * @param textSubmissionList for which the smaller clusters should be calculated
-     * @throws IllegalArgumentException if not all TextSubmissions are from the same exercise
-     * @return return a map where the textBlock is the key and smaller cluster percentage is the value
-     * If a textBlock has no cluster or is already assessable, it isn't in the map
-     */
-    public Map<TextBlock, Double> calculateSmallerClusterPercentageBatch(List<TextSubmission> textSubmissionList) {
-        Map<TextBlock, Double> result = new HashMap<>();
-        if (textSubmissionList.isEmpty()) {
-            return result;
-        }
-        Participation participation = textSubmissionList.get(0).getParticipation();
-        TextExercise currentExercise = (TextExercise) participation.getExercise();
-        List<TextCluster> clusters = textClusterRepository.findAllByExercise(currentExercise);
-
-        if (textSubmissionList.stream().map(submission -> submission.getParticipation().getExercise()).anyMatch(elem -> elem != currentExercise)) {
-            throw new IllegalArgumentException("All TextSubmissions have to be from the same Exercise");
-        }
-        textSubmissionList.forEach(textSubmission -> {
-            textSubmission.getBlocks().forEach(textBlock -> {
-                if (textBlock.getCluster() == null) {
-                    return;
-                }
-                OptionalInt optionalLargestClusterSize = clusters.stream().mapToInt(TextCluster::openTextBlockCount).max();
-
-                // if cluster is empty
-                if (optionalLargestClusterSize.isEmpty()) {
-                    result.put(textBlock, 0.0);
-                    return;
-                }
-                // if cluster is the largest set to smaller percentage to 1
-                if (optionalLargestClusterSize.getAsInt() == textBlock.getCluster().openTextBlockCount()) {
-                    result.put(textBlock, 1.0);
-                    return;
-                }
-
-                int smallerClusterCount = clusters.stream().mapToInt(TextCluster::openTextBlockCount).reduce(0, (sum, elem) -> {
-                    if (elem < textBlock.getCluster().openTextBlockCount()) {
-                        return sum + 1;
-                    }
-                    return sum;
-                });
-                result.put(textBlock, (double) smallerClusterCount / clusters.size());
-            });
-        });
-        return result;
-    }
 }
@@ -0,0 +1,177 @@
+package de.tum.in.www1.artemis.service;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.*;
+
+import de.tum.in.www1.artemis.domain.enumeration.Language;
+
+/**
+ * The open text submissions of one exercise, ranked by their expected information gain (see {@link TextAssessmentQueueService}).
+ * <p>
+ * The ranking only contains the ids and numbers that are needed to calculate the information gain. Therefore it can be stored in a distributed map and updated
+ * without any database access when a submission is assessed or its assessment is cancelled: only the numbers of open text blocks of the affected clusters change,
+ * after which the information gains of the open submissions are recalculated in memory.
+ */
+final class TextAssessmentRanking implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Instant createdAt;
+
+    /**
+     * The number of text blocks without an assessment of each cluster of the exercise, mapped by cluster id
+     */
+    private final Map<Long, Integer> openBlockCounts;
+
+    /**
+     * All submissions that were open when the ranking was created, mapped by submission id
+     */
+    private final Map<Long, RankedSubmission> submissions = new HashMap<>();
+
+    /**
+     * The ids of the currently open submissions, ordered by decreasing information gain
+     */
+    private final List<Long> ranking = new ArrayList<>();
+
+    TextAssessmentRanking(Map<Long, Integer> openBlockCounts, Collection<RankedSubmission> submissions) {
+        this.createdAt = Instant.now();
+        this.openBlockCounts = new HashMap<>(openBlockCounts);
+        submissions.forEach(submission -> this.submissions.put(submission.submissionId, submission));
+        rank();
+    }
+
+    Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @param languages the allowed languages of the submission, null if all languages are allowed
+     * @return the id of the open submission with the highest information gain
+     */
+    Optional<Long> getProposedSubmissionId(List<Language> languages) {
+        return ranking.stream().filter(submissionId -> languages == null || languages.contains(submissions.get(submissionId).language)).findFirst();
+    }
+
+    /**
+     * Removes the given submission from the ranking, because it has an assessment (or at least a lock) now. Its text blocks do not count as open anymore.
+     *
+     * @param submissionId the id of the assessed submission
+     * @return true if the ranking changed
+     */
+    boolean markAssessed(long submissionId) {
+        RankedSubmission submission = submissions.get(submissionId);
+        if (submission == null || !submission.open) {
+            return false;
+        }
+        submission.open = false;
+        for (long clusterId : submission.blockClusterIds) {
+            openBlockCounts.computeIfPresent(clusterId, (id, count) -> Math.max(0, count - 1));
+        }
+        rank();
+        return true;
+    }
+
+    /**
+     * Adds the given submission to the ranking again, because its assessment was cancelled
+     *
+     * @param submissionId the id of the submission
+     * @return true if the ranking changed
+     */
+    boolean markOpen(long submissionId) {
+        RankedSubmission submission = submissions.get(submissionId);
+        if (submission == null || submission.open) {
+            return false;
+        }
+        submission.open = true;
+        for (long clusterId : submission.blockClusterIds) {
+            openBlockCounts.computeIfPresent(clusterId, (id, count) -> count + 1);
+        }
+        rank();
+        return true;
+    }
+
+    /**
+     * Recalculates the information gain of all open submissions and orders them by it. Submissions with the same information gain are ordered by id.
+     */
+    private void rank() {
+        int[] sortedOpenBlockCounts = openBlockCounts.values().stream().mapToInt(Integer::intValue).sorted().toArray();
+        Map<Long, Double> smallerClusterPercentages = new HashMap<>();
+        openBlockCounts.forEach((clusterId, openBlockCount) -> smallerClusterPercentages.put(clusterId, smallerClusterPercentage(openBlockCount, sortedOpenBlockCounts)));
+
+        ranking.clear();
+        for (RankedSubmission submission : submissions.values()) {
+            if (!submission.open) {
+                continue;
+            }
+            double informationGain = submission.addedDistanceGain;
+            for (long clusterId : submission.gainClusterIds) {
+                informationGain += smallerClusterPercentages.getOrDefault(clusterId, 0.0);
+            }
+            submission.informationGain = informationGain;
+            ranking.add(submission.submissionId);
+        }
+        ranking.sort(Comparator.comparingDouble((Long submissionId) -> submissions.get(submissionId).informationGain).reversed().thenComparing(Comparator.naturalOrder()));
+    }
+
+    /**
+     * The percentage of clusters with less open text blocks, which is 1 for the largest clusters
+     */
+    static double smallerClusterPercentage(int openBlockCount, int[] sortedOpenBlockCounts) {
+        if (openBlockCount == sortedOpenBlockCounts[sortedOpenBlockCounts.length - 1]) {
+            return 1.0;
+        }
+        // binary search for the first cluster that is not smaller
+        int numberOfSmallerClusters = 0;
+        int end = sortedOpenBlockCounts.length;
+        while (numberOfSmallerClusters < end) {
+            int middle = (numberOfSmallerClusters + end) >>> 1;
+            if (sortedOpenBlockCounts[middle] < openBlockCount) {
+                numberOfSmallerClusters = middle + 1;
+            }
+            else {
+                end = middle;
+            }
+        }
+        return (double) numberOfSmallerClusters / sortedOpenBlockCounts.length;
+    }
+
+    /**
+     * The values of one open submission that are needed to calculate its information gain
+     */
+    static final class RankedSubmission implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long submissionId;
+
+        private final Language language;
+
+        /**
+         * The sum of the added distances of the text blocks divided by the sizes of their clusters
+         */
+        private final double addedDistanceGain;
+
+        /**
+         * The cluster ids of the text blocks with an added distance, each of which adds the percentage of smaller clusters to the information gain
+         */
+        private final long[] gainClusterIds;
+
+        /**
+         * The cluster ids of all text blocks of the submission, whose open text blocks change when the submission is assessed
+         */
+        private final long[] blockClusterIds;
+
+        private boolean open = true;
+
+        private double informationGain;
+
+        RankedSubmission(long submissionId, Language language, double addedDistanceGain, long[] gainClusterIds, long[] blockClusterIds) {
+            this.submissionId = submissionId;
+            this.language = language;
+            this.addedDistanceGain = addedDistanceGain;
+            this.gainClusterIds = gainClusterIds;
+            this.blockClusterIds = blockClusterIds;
+        }
+    }
+}
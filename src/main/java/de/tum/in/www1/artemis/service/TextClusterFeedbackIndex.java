@@ -0,0 +1,153 @@
+package de.tum.in.www1.artemis.service;
+
+import java.io.Serializable;
+import java.util.*;
+
+import de.tum.in.www1.artemis.domain.Feedback;
+import de.tum.in.www1.artemis.domain.TextBlock;
+import de.tum.in.www1.artemis.domain.TextCluster;
+import de.tum.in.www1.artemis.service.util.TextClusterDistanceMatrix;
+
+/**
+ * The nearest assessed text block of every text block of one cluster, used to suggest feedback (see {@link AutomaticTextFeedbackService}).
+ * <p>
+ * The index stores the feedback of the assessed blocks of the cluster and, for every block, the closest other block with feedback whose distance is below the
+ * threshold. Looking up the suggestion for a block therefore neither needs the database nor the distance matrix. New feedback only has to be compared with the blocks
+ * of its cluster, removed feedback requires to build the index again.
+ */
+final class TextClusterFeedbackIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The feedback of the assessed blocks of the cluster, mapped by block id
+     */
+    private final Map<String, SuggestedFeedback> feedbackByBlockId = new HashMap<>();
+
+    /**
+     * The closest other block with feedback, mapped by block id
+     */
+    private final Map<String, Neighbour> nearestAssessedBlocks = new HashMap<>();
+
+    private final double distanceThreshold;
+
+    private TextClusterFeedbackIndex(double distanceThreshold) {
+        this.distanceThreshold = distanceThreshold;
+    }
+
+    /**
+     * Builds the index of a cluster
+     *
+     * @param cluster           the cluster with its blocks (in the order of the distance matrix)
+     * @param feedbackByBlockId the existing feedback for the blocks of the cluster, mapped by block id
+     * @param distanceThreshold only blocks closer than this threshold are used for suggestions
+     * @return the index of the cluster
+     */
+    static TextClusterFeedbackIndex build(TextCluster cluster, Map<String, Feedback> feedbackByBlockId, double distanceThreshold) {
+        TextClusterFeedbackIndex index = new TextClusterFeedbackIndex(distanceThreshold);
+        index.addFeedback(cluster, feedbackByBlockId);
+        return index;
+    }
+
+    /**
+     * @param blockId the id of a block of the cluster
+     * @return the feedback of the closest assessed block, if there is one closer than the threshold
+     */
+    Optional<SuggestedFeedback> getSuggestedFeedback(String blockId) {
+        Neighbour nearestAssessedBlock = nearestAssessedBlocks.get(blockId);
+        return nearestAssessedBlock == null ? Optional.empty() : Optional.ofNullable(feedbackByBlockId.get(nearestAssessedBlock.blockId));
+    }
+
+    /**
+     * Applies the assessment of one submission to the index
+     *
+     * @param cluster           the cluster with its blocks (in the order of the distance matrix)
+     * @param assessedBlockIds  the ids of the blocks of the assessed submission that belong to this cluster
+     * @param feedbackByBlockId the new feedback of the assessed submission, mapped by block id
+     * @return false if feedback was removed, in which case the index has to be built again
+     */
+    boolean update(TextCluster cluster, Set<String> assessedBlockIds, Map<String, Feedback> feedbackByBlockId) {
+        Map<String, Feedback> newFeedback = new HashMap<>();
+        for (String blockId : assessedBlockIds) {
+            Feedback feedback = feedbackByBlockId.get(blockId);
+            if (feedback != null) {
+                newFeedback.put(blockId, feedback);
+            }
+            else if (this.feedbackByBlockId.containsKey(blockId)) {
+                // other blocks might use this feedback and we do not know their next closest block
+                return false;
+            }
+        }
+        addFeedback(cluster, newFeedback);
+        return true;
+    }
+
+    /**
+     * Compares the blocks with the new feedback with all other blocks of the cluster
+     */
+    private void addFeedback(TextCluster cluster, Map<String, Feedback> newFeedbackByBlockId) {
+        TextClusterDistanceMatrix distances = cluster.getDistances();
+        List<TextBlock> blocks = cluster.getBlocks();
+        if (distances == null || newFeedbackByBlockId.isEmpty()) {
+            return;
+        }
+        for (int assessedPosition = 0; assessedPosition < blocks.size(); assessedPosition++) {
+            String assessedBlockId = blocks.get(assessedPosition).getId();
+            Feedback feedback = newFeedbackByBlockId.get(assessedBlockId);
+            if (feedback == null) {
+                continue;
+            }
+            feedbackByBlockId.put(assessedBlockId, new SuggestedFeedback(feedback.getCredits(), feedback.getDetailText()));
+            for (int position = 0; position < blocks.size(); position++) {
+                String blockId = blocks.get(position).getId();
+                if (position == assessedPosition || blockId.equals(assessedBlockId)) {
+                    continue;
+                }
+                double distance = distances.distance(position, assessedPosition);
+                Neighbour nearestAssessedBlock = nearestAssessedBlocks.get(blockId);
+                if (distance < distanceThreshold && (nearestAssessedBlock == null || distance < nearestAssessedBlock.distance)) {
+                    nearestAssessedBlocks.put(blockId, new Neighbour(assessedBlockId, distance));
+                }
+            }
+        }
+    }
+
+    /**
+     * The values of an existing feedback that are copied into the suggested feedback
+     */
+    static final class SuggestedFeedback implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Double credits;
+
+        private final String detailText;
+
+        private SuggestedFeedback(Double credits, String detailText) {
+            this.credits = credits;
+            this.detailText = detailText;
+        }
+
+        Double getCredits() {
+            return credits;
+        }
+
+        String getDetailText() {
+            return detailText;
+        }
+    }
+
+    private static final class Neighbour implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String blockId;
+
+        private final double distance;
+
+        private Neighbour(String blockId, double distance) {
+            this.blockId = blockId;
+            this.distance = distance;
+        }
+    }
+}
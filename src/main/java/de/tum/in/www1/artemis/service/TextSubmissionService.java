@@ -20,6 +20,7 @@ import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.exam.ExamDateService;
+import de.tum.in.www1.artemis.service.exam.ExamSubmissionAutosaveBuffer;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 @Service
@@ -33,16 +34,19 @@ public class TextSubmissionService extends SubmissionService {
 
     private final SubmissionVersionService submissionVersionService;
 
+    private final ExamSubmissionAutosaveBuffer examSubmissionAutosaveBuffer;
+
     public TextSubmissionService(TextSubmissionRepository textSubmissionRepository, SubmissionRepository submissionRepository,
             StudentParticipationRepository studentParticipationRepository, ParticipationService participationService, ResultRepository resultRepository,
             UserRepository userRepository, Optional<TextAssessmentQueueService> textAssessmentQueueService, AuthorizationCheckService authCheckService,
             SubmissionVersionService submissionVersionService, FeedbackRepository feedbackRepository, ExamDateService examDateService, CourseRepository courseRepository,
-            ParticipationRepository participationRepository) {
+            ParticipationRepository participationRepository, ExamSubmissionAutosaveBuffer examSubmissionAutosaveBuffer) {
         super(submissionRepository, userRepository, authCheckService, resultRepository, studentParticipationRepository, participationService, feedbackRepository, examDateService,
                 courseRepository, participationRepository);
         this.textSubmissionRepository = textSubmissionRepository;
         this.textAssessmentQueueService = textAssessmentQueueService;
         this.submissionVersionService = submissionVersionService;
+        this.examSubmissionAutosaveBuffer = examSubmissionAutosaveBuffer;
     }
 
     /**
@@ -96,6 +100,10 @@ public class TextSubmissionService extends SubmissionService {
 
         // remove result from submission (in the unlikely case it is passed here), so that students cannot inject a result
         textSubmission.setResults(new ArrayList<>());
+        // autosaves of exam submissions are persisted in batches
+        if (examSubmissionAutosaveBuffer.buffer(textSubmission, participation, textExercise, principal.getName())) {
+            return textSubmission;
+        }
         textSubmission = textSubmissionRepository.save(textSubmission);
 
         // versioning of submission
@@ -241,6 +249,7 @@ public class TextSubmissionService extends SubmissionService {
         TextSubmission textSubmission = getRandomTextSubmissionEligibleForNewAssessment(textExercise, ignoreTestRunParticipations, correctionRound)
                 .orElseThrow(() -> new EntityNotFoundException("Text submission for exercise " + textExercise.getId() + " could not be found"));
         lockSubmission(textSubmission, correctionRound);
+        removeFromAssessmentQueue(textSubmission);
         return textSubmission;
     }
 
@@ -253,9 +262,19 @@ public class TextSubmissionService extends SubmissionService {
      */
     public TextSubmission lockTextSubmissionToBeAssessed(TextSubmission textSubmission, int correctionRound) {
         lockSubmission(textSubmission, correctionRound);
+        removeFromAssessmentQueue(textSubmission);
         return textSubmission;
     }
 
+    /**
+     * The locked submission is not open anymore, so it must not be proposed to other tutors and its text blocks change the ranking of the other submissions
+     */
+    private void removeFromAssessmentQueue(TextSubmission textSubmission) {
+        if (textAssessmentQueueService.isPresent() && textSubmission.getParticipation() != null && textSubmission.getParticipation().getExercise() != null) {
+            textAssessmentQueueService.get().markSubmissionAsAssessed(textSubmission.getParticipation().getExercise().getId(), textSubmission.getId());
+        }
+    }
+
     public TextSubmission findOneWithEagerResultFeedbackAndTextBlocks(Long submissionId) {
         return textSubmissionRepository.findWithEagerResultsAndFeedbackAndTextBlocksById(submissionId).get();
     }
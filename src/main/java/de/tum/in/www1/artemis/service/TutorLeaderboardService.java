@@ -1,8 +1,11 @@
 package de.tum.in.www1.artemis.service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import static de.tum.in.www1.artemis.service.util.TransactionUtil.runNowAndAfterCommit;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.validation.constraints.NotNull;
@@ -11,6 +14,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.User;
@@ -33,14 +39,29 @@ public class TutorLeaderboardService {
 
     private final Logger log = LoggerFactory.getLogger(ProgrammingExerciseGradingResource.class);
 
-    public TutorLeaderboardService(ResultRepository resultRepository, ComplaintRepository complaintRepository, UserRepository userRepository) {
+    /**
+     * Leaderboard entries of exercises that were not used for this time are removed from the cache
+     */
+    private static final long MAX_IDLE_DAYS = 14;
+
+    /**
+     * The materialized leaderboard data of each exercise, mapped by exercise id. An entry is removed as soon as a result, complaint or complaint response of the exercise
+     * changes (see {@link de.tum.in.www1.artemis.service.listeners.TutorLeaderboardListener}) and calculated again on the next access.
+     */
+    private final IMap<Long, ExerciseTutorLeaderboard> exerciseLeaderboards;
+
+    public TutorLeaderboardService(ResultRepository resultRepository, ComplaintRepository complaintRepository, UserRepository userRepository,
+            HazelcastInstance hazelcastInstance) {
         this.resultRepository = resultRepository;
         this.complaintRepository = complaintRepository;
         this.userRepository = userRepository;
+        this.exerciseLeaderboards = hazelcastInstance.getMap("tutorLeaderboardsByExercise");
     }
 
     /**
-     * Returns tutor leaderboards for the specified course.
+     * Returns tutor leaderboards for the specified course. The leaderboard is added up from the cached leaderboards of the exercises of the course,
+     * only exercises that changed since the last call have to be calculated again.
+     *
      * @param exerciseIdsOfCourse - the ids of the exercises which belong to the course
      * @param course              - course for which leaderboard is created
      * @return list of tutor leaderboard objects
@@ -51,39 +72,26 @@ public class TutorLeaderboardService {
         String groupName = course.getTeachingAssistantGroupName();
 
         long start = System.currentTimeMillis();
-        // 2.3s
-        List<TutorLeaderboardAssessments> tutorLeaderboardAssessments = resultRepository.findTutorLeaderboardAssessmentByCourseId(exerciseIdsOfCourse);
+        Collection<ExerciseTutorLeaderboard> leaderboards = getExerciseLeaderboards(exerciseIdsOfCourse, groupName);
         long end = System.currentTimeMillis();
-        log.info("Finished >>resultRepository.findTutorLeaderboardAssessmentByCourseId<< call for course {} in {}ms", course.getId(), end - start);
-
-        start = System.currentTimeMillis();
-        // 3.0s
-        List<TutorLeaderboardComplaints> tutorLeaderboardComplaints = complaintRepository.findTutorLeaderboardComplaintsByCourseId(groupName, course.getId());
-        end = System.currentTimeMillis();
-        log.info("Finished >>complaintRepository.findTutorLeaderboardComplaintsByCourseId<< call for course {} in {}ms", course.getId(), end - start);
-
-        start = System.currentTimeMillis();
-        // 0.6s
-        List<TutorLeaderboardMoreFeedbackRequests> tutorLeaderboardMoreFeedbackRequests = complaintRepository.findTutorLeaderboardMoreFeedbackRequestsByCourseId(groupName,
-                course.getId());
-        end = System.currentTimeMillis();
-        log.info("Finished >>complaintRepository.findTutorLeaderboardMoreFeedbackRequestsByCourseId<< call for course {} in {}ms", course.getId(), end - start);
-
-        start = System.currentTimeMillis();
-        // 2.3s
-        List<TutorLeaderboardComplaintResponses> tutorLeaderboardComplaintResponses = complaintRepository.findTutorLeaderboardComplaintResponsesByCourseId(groupName,
-                course.getId());
-        end = System.currentTimeMillis();
-        log.info("Finished >>complaintRepository.findTutorLeaderboardComplaintResponsesByCourseId<< call for course {} in {}ms", course.getId(), end - start);
-
-        start = System.currentTimeMillis();
-        List<TutorLeaderboardAnsweredMoreFeedbackRequests> tutorLeaderboardAnsweredMoreFeedbackRequests = complaintRepository
-                .findTutorLeaderboardAnsweredMoreFeedbackRequestsByCourseId(groupName, course.getId());
-        end = System.currentTimeMillis();
-        log.info("Finished >>complaintRepository.findTutorLeaderboardAnsweredMoreFeedbackRequestsByCourseId<< call for course {} in {}ms", course.getId(), end - start);
-
-        return aggregateTutorLeaderboardData(tutors, tutorLeaderboardAssessments, tutorLeaderboardComplaints, tutorLeaderboardMoreFeedbackRequests,
-                tutorLeaderboardComplaintResponses, tutorLeaderboardAnsweredMoreFeedbackRequests, false);
+        log.info("Finished >>getExerciseLeaderboards<< call for {} exercises of course {} in {}ms", exerciseIdsOfCourse.size(), course.getId(), end - start);
+
+        var assessments = sumByTutor(leaderboards, ExerciseTutorLeaderboard::getAssessments, TutorLeaderboardAssessments::getKey,
+                (first, second) -> new TutorLeaderboardAssessments(first.getUserId(), first.getAssessments() + second.getAssessments(), first.getPoints() + second.getPoints()));
+        var complaints = sumByTutor(leaderboards, ExerciseTutorLeaderboard::getComplaints, TutorLeaderboardComplaints::getKey,
+                (first, second) -> new TutorLeaderboardComplaints(first.getUserId(), first.getAllComplaints() + second.getAllComplaints(),
+                        first.getAcceptedComplaints() + second.getAcceptedComplaints(), first.getPoints() + second.getPoints()));
+        var moreFeedbackRequests = sumByTutor(leaderboards, ExerciseTutorLeaderboard::getMoreFeedbackRequests, TutorLeaderboardMoreFeedbackRequests::getKey,
+                (first, second) -> new TutorLeaderboardMoreFeedbackRequests(first.getUserId(), first.getAllRequests() + second.getAllRequests(),
+                        first.getNotAnsweredRequests() + second.getNotAnsweredRequests(), first.getPoints() + second.getPoints()));
+        var complaintResponses = sumByTutor(leaderboards, ExerciseTutorLeaderboard::getComplaintResponses, TutorLeaderboardComplaintResponses::getKey,
+                (first, second) -> new TutorLeaderboardComplaintResponses(first.getUserId(), first.getComplaintResponses() + second.getComplaintResponses(),
+                        first.getPoints() + second.getPoints()));
+        var answeredMoreFeedbackRequests = sumByTutor(leaderboards, ExerciseTutorLeaderboard::getAnsweredMoreFeedbackRequests, TutorLeaderboardAnsweredMoreFeedbackRequests::getKey,
+                (first, second) -> new TutorLeaderboardAnsweredMoreFeedbackRequests(first.getUserId(), first.getAnsweredRequests() + second.getAnsweredRequests(),
+                        first.getPoints() + second.getPoints()));
+
+        return aggregateTutorLeaderboardData(tutors, assessments, complaints, moreFeedbackRequests, complaintResponses, answeredMoreFeedbackRequests, false);
     }
 
     /**
@@ -125,32 +133,96 @@ public class TutorLeaderboardService {
 
         List<User> tutors = userRepository.getTutors(exercise.getCourseViaExerciseGroupOrCourseMember());
         String groupName = exercise.getCourseViaExerciseGroupOrCourseMember().getTeachingAssistantGroupName();
+        ExerciseTutorLeaderboard leaderboard = getExerciseLeaderboards(Set.of(exercise.getId()), groupName).iterator().next();
+
+        return aggregateTutorLeaderboardData(tutors, leaderboard.getAssessments(), leaderboard.getComplaints(), leaderboard.getMoreFeedbackRequests(),
+                leaderboard.getComplaintResponses(), leaderboard.getAnsweredMoreFeedbackRequests(), exercise.isExamExercise());
+    }
+
+    /**
+     * Removes the cached leaderboard of the given exercise, so that it is calculated again on the next access.
+     * If called within a transaction, the leaderboard is removed again after the commit, so that a leaderboard calculated concurrently from the old data does not stay in the cache.
+     *
+     * @param exerciseId the id of the exercise whose results, complaints or complaint responses changed
+     */
+    public void invalidateExerciseLeaderboard(Long exerciseId) {
+        runNowAndAfterCommit(() -> exerciseLeaderboards.delete(exerciseId));
+    }
+
+    /**
+     * Calculates all cached exercise leaderboards again from the database. This corrects leaderboards that were affected by changes that do not invalidate them,
+     * e.g. changes of the tutor groups.
+     */
+    public void rebuildCachedExerciseLeaderboards() {
         long start = System.currentTimeMillis();
-        List<TutorLeaderboardAssessments> tutorLeaderboardAssessments = resultRepository.findTutorLeaderboardAssessmentByExerciseId(exercise.getId());
-        long end = System.currentTimeMillis();
-        log.info("Finished >>resultRepository.findTutorLeaderboardAssessmentByExerciseId<< call for exercise {} in {}ms", exercise.getId(), end - start);
-        start = System.currentTimeMillis();
-        List<TutorLeaderboardComplaints> tutorLeaderboardComplaints = complaintRepository.findTutorLeaderboardComplaintsByExerciseId(groupName, exercise.getId());
-        end = System.currentTimeMillis();
-        log.info("Finished >>complaintRepository.findTutorLeaderboardComplaintsByExerciseId<< call for exercise {} in {}ms", exercise.getId(), end - start);
-        start = System.currentTimeMillis();
-        List<TutorLeaderboardMoreFeedbackRequests> tutorLeaderboardMoreFeedbackRequests = complaintRepository.findTutorLeaderboardMoreFeedbackRequestsByExerciseId(groupName,
-                exercise.getId());
-        end = System.currentTimeMillis();
-        log.info("Finished >>complaintRepository.findTutorLeaderboardMoreFeedbackRequestsByExerciseId<< call for exercise {} in {}ms", exercise.getId(), end - start);
-        start = System.currentTimeMillis();
-        List<TutorLeaderboardComplaintResponses> tutorLeaderboardComplaintResponses = complaintRepository.findTutorLeaderboardComplaintResponsesByExerciseId(groupName,
-                exercise.getId());
-        end = System.currentTimeMillis();
-        log.info("Finished >>complaintRepository.findTutorLeaderboardComplaintResponsesByExerciseId<< call for exercise {} in {}ms", exercise.getId(), end - start);
-        start = System.currentTimeMillis();
-        List<TutorLeaderboardAnsweredMoreFeedbackRequests> tutorLeaderboardAnsweredMoreFeedbackRequests = complaintRepository
-                .findTutorLeaderboardAnsweredMoreFeedbackRequestsByExerciseId(groupName, exercise.getId());
-        end = System.currentTimeMillis();
-        log.info("Finished >>complaintRepository.findTutorLeaderboardAnsweredMoreFeedbackRequestsByExerciseId<< call for exercise {} in {}ms", exercise.getId(), end - start);
+        Set<Long> exerciseIds = exerciseLeaderboards.keySet();
+        // the leaderboards are calculated together for all exercises of the same tutor group, i.e. usually per course
+        Map<String, Set<Long>> exerciseIdsByGroupName = exerciseLeaderboards.getAll(exerciseIds).entrySet().stream()
+                .collect(Collectors.groupingBy(entry -> entry.getValue().getGroupName(), Collectors.mapping(Map.Entry::getKey, Collectors.toSet())));
+        exerciseIdsByGroupName.forEach((groupName, exerciseIdsOfGroup) -> calculateExerciseLeaderboards(exerciseIdsOfGroup, groupName).forEach(this::cacheExerciseLeaderboard));
+        log.info("Rebuilt the tutor leaderboards of {} exercises in {}ms", exerciseIds.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Removes all cached exercise leaderboards, e.g. after the database was reset
+     */
+    public void clearCachedExerciseLeaderboards() {
+        exerciseLeaderboards.clear();
+    }
+
+    /**
+     * Gets the leaderboards of the given exercises from the cache and calculates the missing ones together.
+     */
+    private Collection<ExerciseTutorLeaderboard> getExerciseLeaderboards(Set<Long> exerciseIds, String groupName) {
+        Map<Long, ExerciseTutorLeaderboard> leaderboards = new HashMap<>(exerciseLeaderboards.getAll(exerciseIds));
+        Set<Long> missingExerciseIds = exerciseIds.stream().filter(exerciseId -> {
+            ExerciseTutorLeaderboard leaderboard = leaderboards.get(exerciseId);
+            return leaderboard == null || !Objects.equals(leaderboard.getGroupName(), groupName);
+        }).collect(Collectors.toSet());
+        if (!missingExerciseIds.isEmpty()) {
+            Map<Long, ExerciseTutorLeaderboard> calculatedLeaderboards = calculateExerciseLeaderboards(missingExerciseIds, groupName);
+            calculatedLeaderboards.forEach(this::cacheExerciseLeaderboard);
+            leaderboards.putAll(calculatedLeaderboards);
+        }
+        return leaderboards.values();
+    }
+
+    private void cacheExerciseLeaderboard(Long exerciseId, ExerciseTutorLeaderboard leaderboard) {
+        exerciseLeaderboards.put(exerciseId, leaderboard, 0, TimeUnit.SECONDS, MAX_IDLE_DAYS, TimeUnit.DAYS);
+    }
+
+    /**
+     * Calculates the leaderboards of the given exercises with one query per value type for all exercises, e.g. when the leaderboard of a course is loaded the first time
+     */
+    private Map<Long, ExerciseTutorLeaderboard> calculateExerciseLeaderboards(Set<Long> exerciseIds, String groupName) {
+        long start = System.currentTimeMillis();
+        var assessments = groupByExercise(resultRepository.findTutorLeaderboardAssessmentByExerciseIds(exerciseIds), TutorLeaderboardAssessments::getExerciseId);
+        var complaints = groupByExercise(complaintRepository.findTutorLeaderboardComplaintsByExerciseIds(groupName, exerciseIds), TutorLeaderboardComplaints::getExerciseId);
+        var moreFeedbackRequests = groupByExercise(complaintRepository.findTutorLeaderboardMoreFeedbackRequestsByExerciseIds(groupName, exerciseIds),
+                TutorLeaderboardMoreFeedbackRequests::getExerciseId);
+        var complaintResponses = groupByExercise(complaintRepository.findTutorLeaderboardComplaintResponsesByExerciseIds(groupName, exerciseIds),
+                TutorLeaderboardComplaintResponses::getExerciseId);
+        var answeredMoreFeedbackRequests = groupByExercise(complaintRepository.findTutorLeaderboardAnsweredMoreFeedbackRequestsByExerciseIds(groupName, exerciseIds),
+                TutorLeaderboardAnsweredMoreFeedbackRequests::getExerciseId);
+        log.debug("Calculated the tutor leaderboards of {} exercises in {}ms", exerciseIds.size(), System.currentTimeMillis() - start);
+
+        Map<Long, ExerciseTutorLeaderboard> leaderboards = new HashMap<>();
+        for (Long exerciseId : exerciseIds) {
+            leaderboards.put(exerciseId,
+                    new ExerciseTutorLeaderboard(groupName, assessments.getOrDefault(exerciseId, new ArrayList<>()), complaints.getOrDefault(exerciseId, new ArrayList<>()),
+                            moreFeedbackRequests.getOrDefault(exerciseId, new ArrayList<>()), complaintResponses.getOrDefault(exerciseId, new ArrayList<>()),
+                            answeredMoreFeedbackRequests.getOrDefault(exerciseId, new ArrayList<>())));
+        }
+        return leaderboards;
+    }
+
+    private static <T> Map<Long, List<T>> groupByExercise(List<T> values, Function<T, Long> exerciseId) {
+        return values.stream().collect(Collectors.groupingBy(exerciseId, Collectors.toCollection(ArrayList::new)));
+    }
 
-        return aggregateTutorLeaderboardData(tutors, tutorLeaderboardAssessments, tutorLeaderboardComplaints, tutorLeaderboardMoreFeedbackRequests,
-                tutorLeaderboardComplaintResponses, tutorLeaderboardAnsweredMoreFeedbackRequests, exercise.isExamExercise());
+    private static <T> List<T> sumByTutor(Collection<ExerciseTutorLeaderboard> leaderboards, Function<ExerciseTutorLeaderboard, List<T>> values, Function<T, Long> tutorId,
+            BinaryOperator<T> sum) {
+        return new ArrayList<>(leaderboards.stream().flatMap(leaderboard -> values.apply(leaderboard).stream()).collect(Collectors.toMap(tutorId, value -> value, sum)).values());
     }
 
     @NotNull
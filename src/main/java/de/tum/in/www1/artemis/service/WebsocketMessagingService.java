@@ -24,8 +24,11 @@ public class WebsocketMessagingService {
 
     private final SimpMessageSendingOperations messagingTemplate;
 
-    public WebsocketMessagingService(SimpMessageSendingOperations messagingTemplate) {
+    private final CourseDashboardCacheService courseDashboardCacheService;
+
+    public WebsocketMessagingService(SimpMessageSendingOperations messagingTemplate, CourseDashboardCacheService courseDashboardCacheService) {
         this.messagingTemplate = messagingTemplate;
+        this.courseDashboardCacheService = courseDashboardCacheService;
     }
 
     /**
@@ -55,6 +58,9 @@ public class WebsocketMessagingService {
 
         // TODO: Are there other cases that must be handled here?
         if (participation instanceof StudentParticipation) {
+            // the cached course dashboards of the students do not contain the new result yet
+            ((StudentParticipation) participation).getStudents().forEach(user -> courseDashboardCacheService.invalidateCourseDashboard(user.getLogin()));
+
             var exercise = participation.getExercise();
             // If the assessment due date is not over yet, do not send manual feedback to students!
             if (AssessmentType.AUTOMATIC.equals(result.getAssessmentType()) || exercise.getAssessmentDueDate() == null
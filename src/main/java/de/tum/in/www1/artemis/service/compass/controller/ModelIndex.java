@@ -1,9 +1,8 @@
 package de.tum.in.www1.artemis.service.compass.controller;
 
-import java.util.Collection;
-import java.util.Map;
-import java.util.Queue;
+import java.util.*;
 
+import org.apache.commons.lang3.SerializationUtils;
 import org.springframework.data.util.Pair;
 
 import com.hazelcast.core.HazelcastInstance;
@@ -24,6 +23,17 @@ public class ModelIndex {
 
     private IMap<UMLElement, Integer> elementSimilarityMap;
 
+    /**
+     * Local copy of the unique elements, partitioned by their type. Iterating the distributed queue for every new element would fetch all elements
+     * from the cluster each time. As the similarity of two elements of different types is always 0, only elements of the same type are candidates.
+     */
+    private final Map<Class<?>, List<UMLElement>> candidatesByType = new HashMap<>();
+
+    /**
+     * The number of unique elements contained in {@link #candidatesByType}, used to detect if another instance added unique elements
+     */
+    private int numberOfLocalCandidates = 0;
+
     public ModelIndex(Long exerciseId, HazelcastInstance hazelcastInstance) {
         elementSimilarityMap = hazelcastInstance.getMap("similarities - " + exerciseId);
         uniqueModelElementList = hazelcastInstance.getQueue("elements - " + exerciseId);
@@ -39,18 +49,24 @@ public class ModelIndex {
      * @return the similarity ID for the given model element, i.e. the ID of the similarity set the element belongs to
      */
     int retrieveSimilarityId(UMLElement element) {
-        if (elementSimilarityMap.containsKey(element)) {
-            return elementSimilarityMap.get(element);
+        // one remote call instead of containsKey and get
+        Integer knownSimilarityId = elementSimilarityMap.get(element);
+        if (knownSimilarityId != null) {
+            return knownSimilarityId;
         }
 
         // Pair of similarity value and similarity ID
         var bestSimilarityFit = Pair.of(-1.0, -1);
 
-        for (final var knownElement : uniqueModelElementList) {
+        for (final var knownElement : getCandidates(element)) {
             final var similarity = knownElement.similarity(element);
             if (similarity > CompassConfiguration.EQUALITY_THRESHOLD && similarity > bestSimilarityFit.getFirst()) {
                 // element is similar to existing element and has a higher similarity than another element
                 bestSimilarityFit = Pair.of(similarity, knownElement.getSimilarityID());
+                if (similarity >= 1.0) {
+                    // no other element can have a higher similarity
+                    break;
+                }
             }
         }
 
@@ -65,10 +81,33 @@ public class ModelIndex {
         int similarityId = uniqueModelElementList.size();
         element.setSimilarityID(similarityId);
         uniqueModelElementList.add(element);
+        // the distributed queue stores a serialized snapshot of the element, so we do the same locally to compare against the same state
+        addCandidate(SerializationUtils.clone(element));
         elementSimilarityMap.put(element, similarityId);
         return similarityId;
     }
 
+    /**
+     * Get the unique elements that can be similar to the given element, i.e. the unique elements of the same type in the order they were added.
+     * The local candidate index is rebuilt from the distributed queue if another instance added unique elements in the meantime.
+     *
+     * @param element the element for which similar unique elements should be found
+     * @return the unique elements that have the same type as the given element
+     */
+    private List<UMLElement> getCandidates(UMLElement element) {
+        if (numberOfLocalCandidates != uniqueModelElementList.size()) {
+            candidatesByType.clear();
+            numberOfLocalCandidates = 0;
+            uniqueModelElementList.forEach(this::addCandidate);
+        }
+        return candidatesByType.getOrDefault(element.getClass(), List.of());
+    }
+
+    private void addCandidate(UMLElement element) {
+        candidatesByType.computeIfAbsent(element.getClass(), type -> new ArrayList<>()).add(element);
+        numberOfLocalCandidates++;
+    }
+
     /**
      * Add a new model to the model map.
      *
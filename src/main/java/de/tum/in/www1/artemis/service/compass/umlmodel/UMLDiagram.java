@@ -1,7 +1,9 @@
 package de.tum.in.www1.artemis.service.compass.umlmodel;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public abstract class UMLDiagram implements Similarity<UMLDiagram>, Serializable {
 
@@ -83,6 +85,51 @@ public abstract class UMLDiagram implements Similarity<UMLDiagram>, Serializable
         return Math.min(Math.max(similarity, 0), 1);
     }
 
+    /**
+     * Counts the first level model elements of this diagram (see {@link #getModelElements()}) by their type. As elements of different types always have a similarity of 0,
+     * two element type counts can be used to calculate an upper bound for the similarity of two diagrams without comparing any elements,
+     * see {@link #similarityUpperBound(Map, Map)}.
+     *
+     * @return the number of first level model elements for each element class
+     */
+    public Map<Class<?>, Integer> getModelElementTypeCounts() {
+        Map<Class<?>, Integer> typeCounts = new HashMap<>();
+        for (UMLElement element : getModelElements()) {
+            typeCounts.merge(element.getClass(), 1, Integer::sum);
+        }
+        return typeCounts;
+    }
+
+    /**
+     * Calculates an upper bound for {@code diagram.similarity(reference)} based on the element type counts of both diagrams (see {@link #getModelElementTypeCounts()}).
+     * <p>
+     * In the similarity calculation, every element of the smaller diagram contributes at most <code>1 / (number of elements of the larger diagram)</code>, and only if the
+     * larger diagram contains an element of the same type. This method sums up exactly those maximum contributions, so the real similarity can never be higher.
+     *
+     * @param typeCounts          the element type counts of the diagram
+     * @param referenceTypeCounts the element type counts of the reference diagram
+     * @return a value between 0 and 1 that is greater than or equal to the similarity of the two diagrams
+     */
+    public static double similarityUpperBound(Map<Class<?>, Integer> typeCounts, Map<Class<?>, Integer> referenceTypeCounts) {
+        int size = typeCounts.values().stream().mapToInt(Integer::intValue).sum();
+        int referenceSize = referenceTypeCounts.values().stream().mapToInt(Integer::intValue).sum();
+        // Same as in similarity(): the smaller diagram is compared against the larger one
+        if (size > referenceSize) {
+            return similarityUpperBound(referenceTypeCounts, typeCounts);
+        }
+        if (referenceSize == 0) {
+            // we cannot say anything about empty diagrams
+            return 1;
+        }
+        int elementsWithPossibleMatch = 0;
+        for (var typeCount : typeCounts.entrySet()) {
+            if (referenceTypeCounts.getOrDefault(typeCount.getKey(), 0) > 0) {
+                elementsWithPossibleMatch += typeCount.getValue();
+            }
+        }
+        return Math.min((double) elementsWithPossibleMatch / referenceSize, 1);
+    }
+
     /**
      * Compares a reference element to the list of model elements of this diagram and returns the maximum similarity score, i.e. the similarity between the reference element and
      * the most similar element of this diagram.
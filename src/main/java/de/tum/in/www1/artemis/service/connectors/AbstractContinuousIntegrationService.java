@@ -157,36 +157,9 @@ public abstract class AbstractContinuousIntegrationService implements Continuous
      * @param unfilteredBuildLogs the original, unfiltered list
      * @return the filtered list
      */
-    // TODO: think about moving it into the build log service
     protected List<BuildLogEntry> filterBuildLogs(List<BuildLogEntry> unfilteredBuildLogs, ProgrammingLanguage programmingLanguage) {
-        List<BuildLogEntry> filteredBuildLogs = new ArrayList<>();
-        for (BuildLogEntry unfilteredBuildLog : unfilteredBuildLogs) {
-            boolean compilationErrorFound = false;
-            String logString = unfilteredBuildLog.getLog();
-
-            if (logString.contains("COMPILATION ERROR")) {
-                compilationErrorFound = true;
-            }
-
-            if (compilationErrorFound && logString.contains("BUILD FAILURE")) {
-                // hide duplicated information that is displayed in the section COMPILATION ERROR and in the section BUILD FAILURE and stop here
-                break;
-            }
-
-            // filter unnecessary logs and illegal reflection logs
-            if (buildLogService.isUnnecessaryBuildLogForProgrammingLanguage(logString, programmingLanguage) || buildLogService.isIllegalReflectionLog(logString)) {
-                continue;
-            }
-
-            // Replace some unnecessary information and hide complex details to make it easier to read the important information
-            final String shortenedLogString = ASSIGNMENT_PATH.matcher(logString).replaceAll("");
-
-            // Avoid duplicate log entries
-            if (buildLogService.checkIfBuildLogIsNotADuplicate(programmingLanguage, filteredBuildLogs, shortenedLogString)) {
-                filteredBuildLogs.add(new BuildLogEntry(unfilteredBuildLog.getTime(), shortenedLogString, unfilteredBuildLog.getProgrammingSubmission()));
-            }
-        }
-
-        return filteredBuildLogs;
+        // hide duplicated information that is displayed in the section COMPILATION ERROR and in the section BUILD FAILURE and stop here
+        return buildLogService.filterBuildLogs(unfilteredBuildLogs, programmingLanguage, logString -> logString.contains("COMPILATION ERROR") && logString.contains("BUILD FAILURE"),
+                logString -> false);
     }
 }
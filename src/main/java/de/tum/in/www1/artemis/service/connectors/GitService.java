@@ -87,22 +87,23 @@ public class GitService {
     @Value("${artemis.git.email}")
     private String artemisGitEmail;
 
-    private final Map<Path, Repository> cachedRepositories = new ConcurrentHashMap<>();
-
     private final Map<Path, Path> cloneInProgressOperations = new ConcurrentHashMap<>();
 
     private final ZipFileService zipFileService;
 
+    private final RepositoryCache repositoryCache;
+
     private TransportConfigCallback sshCallback;
 
     private static final int JGIT_TIMEOUT_IN_SECONDS = 5;
 
-    public GitService(ZipFileService zipFileService) {
+    public GitService(ZipFileService zipFileService, RepositoryCache repositoryCache) {
         log.info("file.encoding={}", System.getProperty("file.encoding"));
         log.info("sun.jnu.encoding={}", System.getProperty("sun.jnu.encoding"));
         log.info("Default Charset={}", Charset.defaultCharset());
         log.info("Default Charset in Use={}", new OutputStreamWriter(new ByteArrayOutputStream()).getEncoding());
         this.zipFileService = zipFileService;
+        this.repositoryCache = repositoryCache;
     }
 
     /**
@@ -434,7 +435,7 @@ public class GitService {
 
     /**
      * Get an existing git repository that is checked out on the server. Returns immediately null if the localPath does not exist. Will first try to retrieve a cached repository
-     * from cachedRepositories. Side effect: This method caches retrieved repositories in a HashMap, so continuous retrievals can be avoided (reduces load).
+     * from the repository cache. Side effect: This method caches retrieved repositories, so continuous retrievals can be avoided (reduces load).
      *
      * @param localPath           to git repo on server.
      * @param remoteRepositoryUrl the remote repository url for the git repository, will be added to the Repository object for later use, can be null
@@ -443,12 +444,12 @@ public class GitService {
     public Repository getExistingCheckedOutRepositoryByLocalPath(@NotNull Path localPath, @Nullable VcsRepositoryUrl remoteRepositoryUrl) {
         // Check if there is a folder with the provided path of the git repository.
         if (!Files.exists(localPath)) {
-            // In this case we should remove the repository if cached, because it can't exist anymore.
-            cachedRepositories.remove(localPath);
+            // In this case we should remove and close the repository if cached, because it can't exist anymore.
+            repositoryCache.invalidate(localPath);
             return null;
         }
         // Check if the repository is already cached in the server's session.
-        Repository cachedRepository = cachedRepositories.get(localPath);
+        Repository cachedRepository = repositoryCache.get(localPath);
         if (cachedRepository != null) {
             return cachedRepository;
         }
@@ -465,7 +466,7 @@ public class GitService {
             // and https://git-scm.com/docs/git-gc for an explanation of the parameter
             repository.getConfig().setInt(ConfigConstants.CONFIG_GC_SECTION, null, ConfigConstants.CONFIG_KEY_AUTO, 0);
             // Cache the JGit repository object for later use: avoids the expensive re-opening of local repositories
-            cachedRepositories.put(localPath, repository);
+            repositoryCache.put(localPath, repository);
             return repository;
         }
         catch (IOException ex) {
@@ -497,12 +498,19 @@ public class GitService {
     public void commitAndPush(Repository repo, String message, @Nullable User user) throws GitAPIException {
         var name = user != null ? user.getName() : artemisGitName;
         var email = user != null ? user.getEmail() : artemisGitEmail;
-        Git git = new Git(repo);
-        git.commit().setMessage(message).setAllowEmpty(true).setCommitter(name, email).call();
-        log.debug("commitAndPush -> Push {}", repo.getLocalPath());
-        setRemoteUrl(repo);
-        git.push().setTransportConfigCallback(sshCallback).call();
-        git.close();
+        // the repository must not be closed by the repository cache while pushing
+        repositoryCache.retain(repo);
+        try {
+            Git git = new Git(repo);
+            git.commit().setMessage(message).setAllowEmpty(true).setCommitter(name, email).call();
+            log.debug("commitAndPush -> Push {}", repo.getLocalPath());
+            setRemoteUrl(repo);
+            git.push().setTransportConfigCallback(sshCallback).call();
+            git.close();
+        }
+        finally {
+            repositoryCache.release(repo);
+        }
     }
 
     /**
@@ -516,6 +524,7 @@ public class GitService {
      */
     public void pushSourceToTargetRepo(Repository targetRepo, VcsRepositoryUrl targetRepoUrl) throws GitAPIException {
         Git git = new Git(targetRepo);
+        repositoryCache.retain(targetRepo);
         try {
             // overwrite the old remote uri with the target uri
             git.remoteSetUrl().setRemoteName("origin").setRemoteUri(new URIish(getGitUriAsString(targetRepoUrl))).call();
@@ -527,6 +536,9 @@ public class GitService {
         catch (URISyntaxException e) {
             log.error("Error while pushing to remote target: ", e);
         }
+        finally {
+            repositoryCache.release(targetRepo);
+        }
     }
 
     /**
@@ -565,11 +577,17 @@ public class GitService {
      * @throws GitAPIException if the fetch failed.
      */
     public void fetchAll(Repository repo) throws GitAPIException {
-        Git git = new Git(repo);
-        log.debug("Fetch {}", repo.getLocalPath());
-        setRemoteUrl(repo);
-        git.fetch().setForceUpdate(true).setRemoveDeletedRefs(true).setTransportConfigCallback(sshCallback).call();
-        git.close();
+        repositoryCache.retain(repo);
+        try {
+            Git git = new Git(repo);
+            log.debug("Fetch {}", repo.getLocalPath());
+            setRemoteUrl(repo);
+            git.fetch().setForceUpdate(true).setRemoveDeletedRefs(true).setTransportConfigCallback(sshCallback).call();
+            git.close();
+        }
+        finally {
+            repositoryCache.release(repo);
+        }
     }
 
     /**
@@ -603,6 +621,7 @@ public class GitService {
      * @param repo Local Repository Object.
      */
     public void pullIgnoreConflicts(Repository repo) {
+        repositoryCache.retain(repo);
         try {
             Git git = new Git(repo);
             // flush cache of files
@@ -615,6 +634,9 @@ public class GitService {
             log.error("Cannot pull the repo " + repo.getLocalPath(), ex);
             // TODO: we should send this error to the client and let the user handle it there, e.g. by choosing to reset the repository
         }
+        finally {
+            repositoryCache.release(repo);
+        }
     }
 
     /**
@@ -625,12 +647,18 @@ public class GitService {
      * @throws GitAPIException if the pull failed.
      */
     public PullResult pull(Repository repo) throws GitAPIException {
-        Git git = new Git(repo);
-        // flush cache of files
-        repo.setContent(null);
-        log.debug("Pull {}", repo.getLocalPath());
-        setRemoteUrl(repo);
-        return git.pull().setTransportConfigCallback(sshCallback).call();
+        repositoryCache.retain(repo);
+        try {
+            Git git = new Git(repo);
+            // flush cache of files
+            repo.setContent(null);
+            log.debug("Pull {}", repo.getLocalPath());
+            setRemoteUrl(repo);
+            return git.pull().setTransportConfigCallback(sshCallback).call();
+        }
+        finally {
+            repositoryCache.release(repo);
+        }
     }
 
     /**
@@ -867,6 +895,7 @@ public class GitService {
      */
     public void combineAllCommitsIntoInitialCommit(Repository repo) throws IllegalStateException, GitAPIException {
         Git git = new Git(repo);
+        repositoryCache.retain(repo);
         try {
             resetToOriginMaster(repo);
             List<RevCommit> commits = StreamSupport.stream(git.log().call().spliterator(), false).collect(Collectors.toList());
@@ -893,6 +922,9 @@ public class GitService {
             log.error("Could not combine repository {} due to exception: {}", repo, ex);
             throw (ex);
         }
+        finally {
+            repositoryCache.release(repo);
+        }
     }
 
     /**
@@ -903,7 +935,7 @@ public class GitService {
      */
     public void deleteLocalRepository(Repository repository) throws IOException {
         Path repoPath = repository.getLocalPath();
-        cachedRepositories.remove(repoPath);
+        repositoryCache.remove(repoPath);
         // if repository is not closed, it causes weird IO issues when trying to delete the repository again
         // java.io.IOException: Unable to delete file: ...\.git\objects\pack\...
         repository.closeBeforeDelete();
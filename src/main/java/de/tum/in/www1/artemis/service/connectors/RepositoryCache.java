@@ -0,0 +1,290 @@
+package de.tum.in.www1.artemis.service.connectors;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import de.tum.in.www1.artemis.domain.Repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caches the opened JGit repositories of this server, so that they do not have to be opened again for every request. Every opened repository keeps file handles
+ * (e.g. of its pack files) open, therefore the cache is bounded:
+ * - at most <code>max-size</code> repositories are cached, the least recently used ones are evicted first
+ * - repositories that were not used for <code>idle-timeout-minutes</code> are evicted
+ * <p>
+ * Evicted repositories are closed. A repository that is in use (see {@link #retain(Repository)}) is not evicted because of its idle time and is only closed after
+ * its last user released it, so that e.g. a long running push is not interrupted.
+ * <p>
+ * Most callers use a repository right after they got it without retaining it. Therefore, a repository that is evicted because the cache is full is only closed once
+ * it was not handed out for <code>eviction-grace-period-seconds</code>, so that it is not closed while such a caller still uses it.
+ */
+@Component
+class RepositoryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositoryCache.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${artemis.git.repository-cache.max-size:500}")
+    private int maxSize;
+
+    @Value("${artemis.git.repository-cache.idle-timeout-minutes:30}")
+    private long idleTimeoutMinutes;
+
+    @Value("${artemis.git.repository-cache.eviction-grace-period-seconds:300}")
+    private long evictionGracePeriodSeconds;
+
+    /**
+     * The cached repositories in access order (least recently used first), guarded by this
+     */
+    private final LinkedHashMap<Path, CachedRepository> cachedRepositories = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The repositories that were evicted while they were in use or within the grace period after they were handed out; they are closed as soon as they are released
+     * or when the grace period is over. Guarded by this
+     */
+    private final Map<Repository, CachedRepository> evictedRepositoriesInUse = new IdentityHashMap<>();
+
+    private Counter hitCounter;
+
+    private Counter missCounter;
+
+    private Counter evictionCounter;
+
+    RepositoryCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        hitCounter = Counter.builder("artemis.git.repository.cache.requests").tag("result", "hit").description("Number of requested repositories that were already open")
+                .register(meterRegistry);
+        missCounter = Counter.builder("artemis.git.repository.cache.requests").tag("result", "miss").description("Number of requested repositories that had to be opened")
+                .register(meterRegistry);
+        evictionCounter = Counter.builder("artemis.git.repository.cache.evictions").description("Number of repositories that were closed by the cache").register(meterRegistry);
+        Gauge.builder("artemis.git.repository.cache.open", this, RepositoryCache::getNumberOfOpenRepositories)
+                .description("Number of open repositories, including evicted repositories that are still in use").register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached repository of the given path and marks it as used recently
+     *
+     * @param localPath the path of the repository on this server
+     * @return the cached repository or null if it is not cached
+     */
+    synchronized Repository get(Path localPath) {
+        CachedRepository cachedRepository = cachedRepositories.get(localPath);
+        if (cachedRepository == null) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        cachedRepository.lastAccess = System.nanoTime();
+        return cachedRepository.repository;
+    }
+
+    /**
+     * Caches the given repository. If the cache is full afterwards, the least recently used repositories are evicted.
+     *
+     * @param localPath  the path of the repository on this server
+     * @param repository the opened repository, which is closed by the cache on eviction
+     */
+    void put(Path localPath, Repository repository) {
+        List<Repository> repositoriesToClose = new ArrayList<>();
+        synchronized (this) {
+            CachedRepository previous = cachedRepositories.put(localPath, new CachedRepository(repository));
+            if (previous != null && previous.repository != repository) {
+                evict(previous, repositoriesToClose, true);
+            }
+            var iterator = cachedRepositories.values().iterator();
+            while (cachedRepositories.size() > maxSize && iterator.hasNext()) {
+                CachedRepository eldest = iterator.next();
+                if (eldest.repository != repository) {
+                    iterator.remove();
+                    evict(eldest, repositoriesToClose, true);
+                }
+            }
+        }
+        close(repositoriesToClose);
+    }
+
+    /**
+     * Removes the repository of the given path from the cache without closing it, e.g. because the caller deletes it
+     *
+     * @param localPath the path of the repository on this server
+     */
+    synchronized void remove(Path localPath) {
+        cachedRepositories.remove(localPath);
+    }
+
+    /**
+     * Removes the repository of the given path from the cache and closes it, e.g. because its folder no longer exists
+     *
+     * @param localPath the path of the repository on this server
+     */
+    void invalidate(Path localPath) {
+        List<Repository> repositoriesToClose = new ArrayList<>();
+        synchronized (this) {
+            CachedRepository cachedRepository = cachedRepositories.remove(localPath);
+            if (cachedRepository == null) {
+                return;
+            }
+            // the folder of the repository does not exist anymore, so its users cannot use it anyway
+            evict(cachedRepository, repositoriesToClose, false);
+        }
+        close(repositoriesToClose);
+    }
+
+    /**
+     * Marks the given repository as in use until {@link #release(Repository)} is invoked, so that it is not closed in the meantime
+     *
+     * @param repository a repository that might be cached
+     */
+    synchronized void retain(Repository repository) {
+        CachedRepository cachedRepository = find(repository);
+        if (cachedRepository != null) {
+            cachedRepository.users++;
+        }
+    }
+
+    /**
+     * Marks the given repository as no longer in use by one user and closes it if it was evicted in the meantime
+     *
+     * @param repository a repository that was retained before
+     */
+    void release(Repository repository) {
+        synchronized (this) {
+            CachedRepository cachedRepository = find(repository);
+            if (cachedRepository == null || cachedRepository.users == 0) {
+                return;
+            }
+            cachedRepository.users--;
+            cachedRepository.lastAccess = System.nanoTime();
+            if (cachedRepository.users > 0 || evictedRepositoriesInUse.remove(repository) == null) {
+                return;
+            }
+        }
+        close(List.of(repository));
+    }
+
+    /**
+     * Evicts the repositories that were not used within the idle timeout. Repositories in use are only evicted when they become idle after their release.
+     * Also closes the evicted repositories whose grace period is over and that are not in use.
+     */
+    @Scheduled(fixedDelay = 60 * 1000, initialDelay = 60 * 1000)
+    public void evictIdleRepositories() {
+        long idleSince = System.nanoTime() - TimeUnit.MINUTES.toNanos(idleTimeoutMinutes);
+        List<Repository> repositoriesToClose = new ArrayList<>();
+        synchronized (this) {
+            var iterator = cachedRepositories.values().iterator();
+            while (iterator.hasNext()) {
+                CachedRepository cachedRepository = iterator.next();
+                if (cachedRepository.users == 0 && cachedRepository.lastAccess - idleSince < 0) {
+                    iterator.remove();
+                    evict(cachedRepository, repositoriesToClose, false);
+                }
+            }
+            var evictedIterator = evictedRepositoriesInUse.values().iterator();
+            while (evictedIterator.hasNext()) {
+                CachedRepository evictedRepository = evictedIterator.next();
+                if (evictedRepository.users == 0 && !isWithinGracePeriod(evictedRepository)) {
+                    evictedIterator.remove();
+                    repositoriesToClose.add(evictedRepository.repository);
+                }
+            }
+        }
+        if (!repositoriesToClose.isEmpty()) {
+            log.debug("Closed {} idle repositories", repositoriesToClose.size());
+        }
+        close(repositoriesToClose);
+    }
+
+    /**
+     * Closes all cached repositories when the server shuts down
+     */
+    @PreDestroy
+    void closeAll() {
+        List<Repository> repositoriesToClose = new ArrayList<>();
+        synchronized (this) {
+            cachedRepositories.values().forEach(cachedRepository -> repositoriesToClose.add(cachedRepository.repository));
+            cachedRepositories.clear();
+            evictedRepositoriesInUse.clear();
+        }
+        close(repositoriesToClose);
+    }
+
+    synchronized int getNumberOfOpenRepositories() {
+        return cachedRepositories.size() + evictedRepositoriesInUse.size();
+    }
+
+    private CachedRepository find(Repository repository) {
+        CachedRepository cachedRepository = repository.getLocalPath() != null ? cachedRepositories.get(repository.getLocalPath()) : null;
+        if (cachedRepository != null && cachedRepository.repository == repository) {
+            return cachedRepository;
+        }
+        return evictedRepositoriesInUse.get(repository);
+    }
+
+    /**
+     * Either adds the evicted repository to the repositories to close or defers closing it until its last user released it or its grace period is over
+     *
+     * @param applyGracePeriod whether a repository that was handed out recently should stay open, because a caller that did not retain it might still use it
+     */
+    private void evict(CachedRepository cachedRepository, List<Repository> repositoriesToClose, boolean applyGracePeriod) {
+        evictionCounter.increment();
+        if (cachedRepository.users > 0 || applyGracePeriod && isWithinGracePeriod(cachedRepository)) {
+            evictedRepositoriesInUse.put(cachedRepository.repository, cachedRepository);
+        }
+        else {
+            repositoriesToClose.add(cachedRepository.repository);
+        }
+    }
+
+    private boolean isWithinGracePeriod(CachedRepository cachedRepository) {
+        return System.nanoTime() - cachedRepository.lastAccess < TimeUnit.SECONDS.toNanos(evictionGracePeriodSeconds);
+    }
+
+    /**
+     * Closes the repositories outside of the lock, as this might take a while
+     */
+    private void close(List<Repository> repositories) {
+        for (Repository repository : repositories) {
+            try {
+                // releases the file handles even if a user of the repository already closed it before
+                repository.closeBeforeDelete();
+            }
+            catch (RuntimeException ex) {
+                log.warn("Cannot close the repository {}: {}", repository.getLocalPath(), ex.getMessage());
+            }
+        }
+    }
+
+    private static final class CachedRepository {
+
+        private final Repository repository;
+
+        /**
+         * The number of users that retained the repository and did not release it yet, guarded by the cache
+         */
+        private int users;
+
+        private volatile long lastAccess = System.nanoTime();
+
+        private CachedRepository(Repository repository) {
+            this.repository = repository;
+        }
+    }
+}
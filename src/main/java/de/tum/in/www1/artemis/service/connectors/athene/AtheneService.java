@@ -19,6 +19,7 @@ import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.Language;
 import de.tum.in.www1.artemis.exception.NetworkingError;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.TextAssessmentQueueService;
 import de.tum.in.www1.artemis.web.rest.dto.AtheneDTO;
 
@@ -181,6 +182,21 @@ public class AtheneService {
         // Save clusters in Database
         processClusters(clusters, textBlockMap, exerciseId);
 
+        // The ranking does not contain the new clusters, so it is removed even if it cannot be built again below
+        textAssessmentQueueService.evictRanking(exerciseId);
+
+        // Rank the submissions for the assessment once, instead of on every request of a tutor
+        try {
+            // Athene is not logged into Artemis, this leads to an issue when accessing custom repository methods.
+            // Therefore a mock auth object has to be created.
+            SecurityUtils.setAuthorizationObject();
+            textExerciseRepository.findById(exerciseId).ifPresent(textAssessmentQueueService::rebuildRanking);
+        }
+        catch (Exception e) {
+            // the ranking is built on the first request of a tutor instead
+            log.error("Error while ranking the submissions of exercise {} for the assessment: {}", exerciseId, e.getMessage());
+        }
+
         // Notify atheneService of finished task
         finishTask(exerciseId);
 
@@ -275,10 +275,8 @@ public class BambooService extends AbstractContinuousIntegrationService {
         ProgrammingLanguage programmingLanguage = programmingExerciseParticipation.getProgrammingExercise().getProgrammingLanguage();
 
         var buildLogEntries = filterBuildLogs(retrieveLatestBuildLogsFromBamboo(programmingExerciseParticipation.getBuildPlanId()), programmingLanguage);
-        var savedBuildLogs = buildLogService.saveBuildLogs(buildLogEntries, programmingSubmission);
-
         // Set the received logs in order to avoid duplicate entries (this removes existing logs) & save them into the database
-        programmingSubmission.setBuildLogEntries(savedBuildLogs);
+        buildLogService.saveBuildLogs(buildLogEntries, programmingSubmission);
         programmingSubmissionRepository.save(programmingSubmission);
 
         return buildLogEntries;
@@ -507,10 +505,8 @@ public class BambooService extends AbstractContinuousIntegrationService {
 
             var programmingLanguage = participation.getProgrammingExercise().getProgrammingLanguage();
             var buildLogs = extractAndFilterBuildLogs(buildResult, programmingLanguage);
-            var savedBuildLogs = buildLogService.saveBuildLogs(buildLogs, latestSubmission);
-
             // Set the received logs in order to avoid duplicate entries (this removes existing logs)
-            latestSubmission.setBuildLogEntries(savedBuildLogs);
+            buildLogService.saveBuildLogs(buildLogs, latestSubmission);
 
             // Note: we only set one side of the relationship because we don't know yet whether the result will actually be saved
             newResult.setSubmission(latestSubmission);
@@ -407,36 +407,12 @@ public class JenkinsService extends AbstractContinuousIntegrationService {
             }
 
             // Jenkins logs all steps of the build pipeline. We remove those as they are irrelevant to the students
-            List<BuildLogEntry> prunedBuildLogs = new ArrayList<>();
-            for (BuildLogEntry entry : buildLog) {
-                String logString = entry.getLog();
-                if (logString.contains("Compilation failure")) {
-                    break;
-                }
-
-                // filter unnecessary logs and illegal reflection logs
-                if (buildLogService.isUnnecessaryBuildLogForProgrammingLanguage(logString, programmingLanguage) || buildLogService.isIllegalReflectionLog(logString)) {
-                    continue;
-                }
-
-                // Jenkins outputs each executed shell command with '+ <shell command>'
-                if (logString.startsWith("+")) {
-                    continue;
-                }
-
-                // Remove the path from the log entries
-                final String shortenedLogString = ASSIGNMENT_PATH.matcher(logString).replaceAll("");
-
-                // Avoid duplicate log entries
-                if (buildLogService.checkIfBuildLogIsNotADuplicate(programmingLanguage, prunedBuildLogs, shortenedLogString)) {
-                    entry.setLog(shortenedLogString);
-                    prunedBuildLogs.add(entry);
-                }
-            }
+            // Jenkins outputs each executed shell command with '+ <shell command>'
+            List<BuildLogEntry> prunedBuildLogs = buildLogService.filterBuildLogs(buildLog, programmingLanguage, logString -> logString.contains("Compilation failure"),
+                    logString -> logString.startsWith("+"));
 
             // Save build logs
-            var savedBuildLogs = buildLogService.saveBuildLogs(prunedBuildLogs, programmingSubmission);
-            programmingSubmission.setBuildLogEntries(savedBuildLogs);
+            buildLogService.saveBuildLogs(prunedBuildLogs, programmingSubmission);
             programmingSubmissionRepository.save(programmingSubmission);
 
             return prunedBuildLogs;
@@ -0,0 +1,316 @@
+package de.tum.in.www1.artemis.service.exam;
+
+import static de.tum.in.www1.artemis.domain.enumeration.InitializationState.INITIALIZED;
+import static de.tum.in.www1.artemis.domain.enumeration.InitializationState.UNINITIALIZED;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.Submission;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.StudentExam;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
+import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
+import de.tum.in.www1.artemis.repository.SubmissionRepository;
+import de.tum.in.www1.artemis.service.ParticipationService;
+import de.tum.in.www1.artemis.service.programming.ProgrammingParticipationSetupPipeline;
+import de.tum.in.www1.artemis.web.websocket.dto.ExamExerciseStartProgressDTO;
+
+/**
+ * Prepares the participations and initial submissions of all students of an exam before the exam starts.
+ * <p>
+ * The existing participations are loaded with one query per exercise. Missing participations and submissions of quiz, text, modeling and file upload exercises are
+ * created in chunks, one transaction per chunk. Programming participations need a repository and a build plan, they are set up concurrently by the
+ * {@link ProgrammingParticipationSetupPipeline}.
+ * The progress is sent to the instructors via websocket.
+ */
+@Service
+public class ExamExercisePreparationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamExercisePreparationService.class);
+
+    private static final long PROGRESS_INTERVAL_MILLIS = 1000;
+
+    private final StudentParticipationRepository studentParticipationRepository;
+
+    private final SubmissionRepository submissionRepository;
+
+    private final ProgrammingExerciseRepository programmingExerciseRepository;
+
+    private final ProgrammingParticipationSetupPipeline programmingParticipationSetupPipeline;
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final TransactionTemplate chunkTransactionTemplate;
+
+    @Value("${artemis.exam.preparation.chunk-size:200}")
+    private int chunkSize;
+
+    public ExamExercisePreparationService(StudentParticipationRepository studentParticipationRepository, SubmissionRepository submissionRepository,
+            ProgrammingExerciseRepository programmingExerciseRepository, ProgrammingParticipationSetupPipeline programmingParticipationSetupPipeline,
+            SimpMessageSendingOperations messagingTemplate, PlatformTransactionManager transactionManager) {
+        this.studentParticipationRepository = studentParticipationRepository;
+        this.submissionRepository = submissionRepository;
+        this.programmingExerciseRepository = programmingExerciseRepository;
+        this.programmingParticipationSetupPipeline = programmingParticipationSetupPipeline;
+        this.messagingTemplate = messagingTemplate;
+        this.chunkTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Prepares the exercises of all student exams of the given exam: every student gets an initialized participation (and an initial submission for quiz, text,
+     * modeling and file upload exercises) for every exercise of the student exam. Participations that are already initialized are not changed, so the method can be
+     * invoked again to prepare the participations whose preparation failed.
+     *
+     * @param exam the exam with its student exams and their exercises
+     * @return the number of participations that were prepared
+     */
+    public int prepareExercises(Exam exam) {
+        // group the students by exercise, so that the participations of an exercise can be loaded at once
+        Map<Long, Exercise> exercises = new HashMap<>();
+        Map<Long, List<User>> studentsByExercise = new HashMap<>();
+        for (StudentExam studentExam : exam.getStudentExams()) {
+            for (Exercise exercise : studentExam.getExercises()) {
+                exercises.putIfAbsent(exercise.getId(), exercise);
+                studentsByExercise.computeIfAbsent(exercise.getId(), exerciseId -> new ArrayList<>()).add(studentExam.getUser());
+            }
+        }
+
+        Map<Exercise, List<PendingParticipation>> pendingParticipations = new HashMap<>();
+        for (var entry : studentsByExercise.entrySet()) {
+            Exercise exercise = exercises.get(entry.getKey());
+            List<PendingParticipation> pending = findPendingParticipations(exercise, entry.getValue());
+            if (!pending.isEmpty()) {
+                pendingParticipations.put(exercise, pending);
+            }
+        }
+
+        var progress = new PreparationProgress(exam.getId(), pendingParticipations.values().stream().mapToInt(List::size).sum());
+        log.info("Preparing {} participations for {} exercises of exam {}", progress.participationsToPrepare, pendingParticipations.size(), exam.getId());
+
+        // the programming participations are slow to set up, therefore they are started first and the other participations are prepared in the meantime
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        pendingParticipations.forEach((exercise, pending) -> {
+            if (exercise instanceof ProgrammingExercise) {
+                futures.addAll(startProgrammingParticipations((ProgrammingExercise) exercise, pending, progress));
+            }
+        });
+        pendingParticipations.forEach((exercise, pending) -> {
+            if (!(exercise instanceof ProgrammingExercise)) {
+                prepareParticipationsInChunks(exercise, pending, progress);
+            }
+        });
+
+        // failures of single participations are already counted, so this only waits until all participations are processed
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(ex -> null).join();
+        progress.send(true);
+        log.info("Prepared {} participations of exam {}, {} failed", progress.prepared.get(), exam.getId(), progress.failed.get());
+        return progress.prepared.get();
+    }
+
+    /**
+     * Loads the participations of the exercise with one query and determines the students who do not have an initialized participation yet
+     */
+    private List<PendingParticipation> findPendingParticipations(Exercise exercise, List<User> students) {
+        Map<Long, List<StudentParticipation>> participationsByStudent = studentParticipationRepository.findByExerciseIdWithEagerStudentAndSubmissions(exercise.getId())
+                .stream().collect(Collectors.groupingBy(participation -> participation.getStudent().get().getId()));
+        List<PendingParticipation> pending = new ArrayList<>();
+        for (User student : students) {
+            List<StudentParticipation> participations = participationsByStudent.getOrDefault(student.getId(), List.of());
+            boolean initialized = participations.stream().anyMatch(
+                    participation -> participation.getInitializationState() != null && participation.getInitializationState().hasCompletedState(INITIALIZED));
+            if (!initialized) {
+                pending.add(new PendingParticipation(student, participations.isEmpty() ? null : participations.get(0)));
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Creates the missing programming participations in chunks and passes all participations to the setup pipeline, which resumes the setup of existing
+     * participations from their initialization state
+     */
+    private List<CompletableFuture<?>> startProgrammingParticipations(ProgrammingExercise exercise, List<PendingParticipation> pending, PreparationProgress progress) {
+        // the setup pipeline copies the template repository and build plan of the exercise
+        var programmingExercise = programmingExerciseRepository.findByIdWithTemplateAndSolutionParticipationElseThrow(exercise.getId());
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        int effectiveChunkSize = Math.max(1, chunkSize);
+        for (int from = 0; from < pending.size(); from += effectiveChunkSize) {
+            List<PendingParticipation> chunk = pending.subList(from, Math.min(from + effectiveChunkSize, pending.size()));
+            List<ProgrammingExerciseStudentParticipation> participations;
+            try {
+                participations = chunkTransactionTemplate.execute(status -> createProgrammingParticipations(programmingExercise, chunk));
+            }
+            catch (Exception ex) {
+                log.warn("Start exercise {} for {} students failed with exception: {}", exercise.getId(), chunk.size(), ex.getMessage(), ex);
+                progress.failed(chunk.size());
+                continue;
+            }
+            for (ProgrammingExerciseStudentParticipation participation : participations) {
+                participation.setExercise(programmingExercise);
+                futures.add(programmingParticipationSetupPipeline.setUpInBulk(programmingExercise, participation).whenComplete((initializedParticipation, ex) -> {
+                    if (ex == null) {
+                        progress.prepared(1);
+                    }
+                    else {
+                        log.warn("Start exercise {} for participation {} failed with exception: {}", exercise.getId(), participation.getId(), ex.getMessage(), ex);
+                        progress.failed(1);
+                    }
+                }));
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * Saves the participations of the chunk that do not exist yet in the state UNINITIALIZED, in the same way as {@link ParticipationService#startExercise}
+     *
+     * @return all participations of the chunk
+     */
+    private List<ProgrammingExerciseStudentParticipation> createProgrammingParticipations(ProgrammingExercise exercise, List<PendingParticipation> chunk) {
+        List<ProgrammingExerciseStudentParticipation> participations = new ArrayList<>(chunk.size());
+        List<ProgrammingExerciseStudentParticipation> newParticipations = new ArrayList<>();
+        for (PendingParticipation pendingParticipation : chunk) {
+            if (pendingParticipation.participation != null) {
+                participations.add((ProgrammingExerciseStudentParticipation) pendingParticipation.participation);
+            }
+            else {
+                var participation = new ProgrammingExerciseStudentParticipation();
+                participation.setInitializationState(UNINITIALIZED);
+                participation.setExercise(exercise);
+                participation.setParticipant(pendingParticipation.student);
+                newParticipations.add(participation);
+            }
+        }
+        participations.addAll(studentParticipationRepository.saveAll(newParticipations));
+        return participations;
+    }
+
+    private void prepareParticipationsInChunks(Exercise exercise, List<PendingParticipation> pending, PreparationProgress progress) {
+        int effectiveChunkSize = Math.max(1, chunkSize);
+        for (int from = 0; from < pending.size(); from += effectiveChunkSize) {
+            List<PendingParticipation> chunk = pending.subList(from, Math.min(from + effectiveChunkSize, pending.size()));
+            try {
+                chunkTransactionTemplate.executeWithoutResult(status -> prepareChunk(exercise, chunk));
+                progress.prepared(chunk.size());
+            }
+            catch (Exception ex) {
+                // the other chunks are still prepared, the failed ones are prepared when the exercises are started again
+                log.warn("Start exercise {} for {} students failed with exception: {}", exercise.getId(), chunk.size(), ex.getMessage(), ex);
+                progress.failed(chunk.size());
+            }
+        }
+    }
+
+    /**
+     * Creates or initializes the participations of the chunk and creates the initial submissions of the participations without submission, in the same way as
+     * {@link ParticipationService#startExercise} but with one saveAll per chunk
+     */
+    private void prepareChunk(Exercise exercise, List<PendingParticipation> chunk) {
+        ZonedDateTime now = ZonedDateTime.now();
+        List<StudentParticipation> participations = new ArrayList<>(chunk.size());
+        List<Boolean> needsSubmission = new ArrayList<>(chunk.size());
+        for (PendingParticipation pendingParticipation : chunk) {
+            StudentParticipation participation = pendingParticipation.participation;
+            if (participation == null) {
+                participation = new StudentParticipation();
+                participation.setParticipant(pendingParticipation.student);
+            }
+            participation.setExercise(exercise);
+            if (participation.getInitializationState() == null || participation.getInitializationState() == UNINITIALIZED) {
+                participation.setInitializationState(INITIALIZED);
+            }
+            if (participation.getInitializationDate() == null) {
+                participation.setInitializationDate(now);
+            }
+            participations.add(participation);
+            needsSubmission.add(pendingParticipation.participation == null || pendingParticipation.participation.getSubmissions().isEmpty());
+        }
+
+        List<StudentParticipation> savedParticipations = studentParticipationRepository.saveAll(participations);
+        List<Submission> submissions = new ArrayList<>();
+        for (int i = 0; i < savedParticipations.size(); i++) {
+            if (needsSubmission.get(i)) {
+                Submission submission = submissionRepository.createSubmissionForExercise(exercise);
+                submission.setParticipation(savedParticipations.get(i));
+                submissions.add(submission);
+            }
+        }
+        submissionRepository.saveAll(submissions);
+    }
+
+    private static final class PendingParticipation {
+
+        private final User student;
+
+        /**
+         * The existing participation that is not initialized yet or null if the participation has to be created
+         */
+        private final StudentParticipation participation;
+
+        private PendingParticipation(User student, StudentParticipation participation) {
+            this.student = student;
+            this.participation = participation;
+        }
+    }
+
+    /**
+     * Counts the prepared participations and sends the progress at most once per second, because many threads update it
+     */
+    private final class PreparationProgress {
+
+        private final long examId;
+
+        private final int participationsToPrepare;
+
+        private final AtomicInteger prepared = new AtomicInteger();
+
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private final AtomicLong lastSent = new AtomicLong();
+
+        private PreparationProgress(long examId, int participationsToPrepare) {
+            this.examId = examId;
+            this.participationsToPrepare = participationsToPrepare;
+        }
+
+        private void prepared(int participations) {
+            prepared.addAndGet(participations);
+            send(false);
+        }
+
+        private void failed(int participations) {
+            failed.addAndGet(participations);
+            send(false);
+        }
+
+        private void send(boolean finished) {
+            long now = System.currentTimeMillis();
+            long last = lastSent.get();
+            if (!finished && (now - last < PROGRESS_INTERVAL_MILLIS || !lastSent.compareAndSet(last, now))) {
+                return;
+            }
+            messagingTemplate.convertAndSend("/topic/exams/" + examId + "/exercise-start-progress",
+                    new ExamExerciseStartProgressDTO(participationsToPrepare, prepared.get(), failed.get(), finished));
+        }
+    }
+}
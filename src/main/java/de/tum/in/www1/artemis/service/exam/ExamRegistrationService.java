@@ -17,6 +17,7 @@ import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.CourseDashboardCacheService;
 import de.tum.in.www1.artemis.service.ParticipationService;
 import de.tum.in.www1.artemis.service.dto.StudentDTO;
 import de.tum.in.www1.artemis.service.user.UserService;
@@ -46,9 +47,14 @@ public class ExamRegistrationService {
 
     private final StudentParticipationRepository studentParticipationRepository;
 
+    private final CourseDashboardCacheService courseDashboardCacheService;
+
+    private final StudentExamAuthorizationCache studentExamAuthorizationCache;
+
     public ExamRegistrationService(ExamRepository examRepository, UserService userService, ParticipationService participationService, UserRepository userRepository,
             AuditEventRepository auditEventRepository, CourseRepository courseRepository, StudentExamRepository studentExamRepository,
-            StudentParticipationRepository studentParticipationRepository) {
+            StudentParticipationRepository studentParticipationRepository, CourseDashboardCacheService courseDashboardCacheService,
+            StudentExamAuthorizationCache studentExamAuthorizationCache) {
         this.examRepository = examRepository;
         this.userService = userService;
         this.userRepository = userRepository;
@@ -57,6 +63,8 @@ public class ExamRegistrationService {
         this.courseRepository = courseRepository;
         this.studentExamRepository = studentExamRepository;
         this.studentParticipationRepository = studentParticipationRepository;
+        this.courseDashboardCacheService = courseDashboardCacheService;
+        this.studentExamAuthorizationCache = studentExamAuthorizationCache;
     }
 
     /**
@@ -124,6 +132,8 @@ public class ExamRegistrationService {
             notFoundStudentsDTOs.add(studentDto);
         }
         examRepository.save(exam);
+        // the registered exams are shown in the course dashboards of the students
+        courseDashboardCacheService.clearCachedCourseDashboards();
 
         try {
             User currentUser = userRepository.getUserWithGroupsAndAuthorities();
@@ -180,6 +190,7 @@ public class ExamRegistrationService {
             userService.addUserToGroup(student, course.getStudentGroupName());
         }
         examRepository.save(exam);
+        courseDashboardCacheService.invalidateCourseDashboard(student.getLogin());
 
         User currentUser = userRepository.getUserWithGroupsAndAuthorities();
         AuditEvent auditEvent = new AuditEvent(currentUser.getLogin(), Constants.ADD_USER_TO_EXAM, "exam=" + exam.getTitle(), "student=" + student.getLogin());
@@ -200,6 +211,7 @@ public class ExamRegistrationService {
         // Note: we intentionally do not remove the user from the course, because the student might just have "unregistered" from the exam, but should
         // still have access to the course.
         examRepository.save(exam);
+        courseDashboardCacheService.invalidateCourseDashboard(student.getLogin());
 
         // The student exam might already be generated, then we need to delete it
         Optional<StudentExam> optionalStudentExam = studentExamRepository.findWithExercisesByUserIdAndExamId(student.getId(), exam.getId());
@@ -222,8 +234,9 @@ public class ExamRegistrationService {
             }
         }
 
-        // Delete the student exam
+        // Delete the student exam, the student must not save submissions with its cached authorization anymore
         studentExamRepository.deleteById(studentExam.getId());
+        studentExamAuthorizationCache.evict(studentExam);
     }
 
     /**
@@ -241,6 +254,7 @@ public class ExamRegistrationService {
         List<User> registeredStudentsList = userRepository.findAllById(userIds);
         registeredStudentsList.forEach(exam::removeRegisteredUser);
         examRepository.save(exam);
+        courseDashboardCacheService.clearCachedCourseDashboards();
 
         // remove all students exams
         Set<StudentExam> studentExams = studentExamRepository.findAllWithExercisesByExamId(examId);
@@ -273,6 +287,7 @@ public class ExamRegistrationService {
                 }
             });
             examRepository.save(exam);
+            courseDashboardCacheService.clearCachedCourseDashboards();
         }
 
     }
@@ -0,0 +1,170 @@
+package de.tum.in.www1.artemis.service.exam;
+
+import static de.tum.in.www1.artemis.service.util.RoundingUtil.round;
+
+import java.util.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.IncludedInOverallScore;
+import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
+import de.tum.in.www1.artemis.domain.exam.StudentExam;
+import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
+import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import de.tum.in.www1.artemis.web.rest.dto.ExamScoresDTO;
+
+/**
+ * Puts the students, results and exercise groups of an exam together to an {@link ExamScoresDTO} without accessing the database.
+ * <p>
+ * The participations are indexed by student in one pass over all participations (which also counts the participants of each exercise),
+ * so the calculation takes linear time in the number of student exams and participations.
+ */
+final class ExamScoresCalculator {
+
+    /**
+     * Only used to parse the models of modeling submissions, the mapper is thread-safe and expensive to create
+     */
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExamScoresCalculator() {
+    }
+
+    /**
+     * @param exam                  the exam with its exercise groups and exercises
+     * @param studentParticipations the participations of the students (without test runs) with their submissions and their relevant result
+     * @param studentExams          the student exams with their users (without test runs)
+     * @return the scores of the exam
+     */
+    static ExamScoresDTO calculateExamScores(Exam exam, Collection<StudentParticipation> studentParticipations, Collection<StudentExam> studentExams) {
+        // Adding exam information to DTO
+        ExamScoresDTO scores = new ExamScoresDTO(exam.getId(), exam.getTitle(), exam.getMaxPoints());
+
+        // Counts how many participants each exercise has and indexes the participations by student in the same pass
+        Map<Long, Long> exerciseIdToNumberParticipations = new HashMap<>();
+        Map<Long, List<StudentParticipation>> studentIdToParticipations = new HashMap<>();
+        for (StudentParticipation studentParticipation : studentParticipations) {
+            exerciseIdToNumberParticipations.merge(studentParticipation.getExercise().getId(), 1L, Long::sum);
+            studentParticipation.getStudent()
+                    .ifPresent(student -> studentIdToParticipations.computeIfAbsent(student.getId(), studentId -> new ArrayList<>()).add(studentParticipation));
+        }
+
+        // Adding exercise group information to DTO
+        for (ExerciseGroup exerciseGroup : exam.getExerciseGroups()) {
+            // Find the maximum points for this exercise group
+            OptionalDouble optionalMaxPointsGroup = exerciseGroup.getExercises().stream().mapToDouble(Exercise::getMaxPoints).max();
+            Double maxPointsGroup = optionalMaxPointsGroup.orElse(0);
+
+            // Counter for exerciseGroup participations. Is calculated by summing up the number of exercise participations
+            long numberOfExerciseGroupParticipants = 0;
+            // Add information about exercise groups and exercises
+            var exerciseGroupDTO = new ExamScoresDTO.ExerciseGroup(exerciseGroup.getId(), exerciseGroup.getTitle(), maxPointsGroup);
+            for (Exercise exercise : exerciseGroup.getExercises()) {
+                // If no participation exists for an exercise then no entry exists in the map
+                Long participantsForExercise = exerciseIdToNumberParticipations.getOrDefault(exercise.getId(), 0L);
+                numberOfExerciseGroupParticipants += participantsForExercise;
+                exerciseGroupDTO.containedExercises
+                        .add(new ExamScoresDTO.ExerciseGroup.ExerciseInfo(exercise.getId(), exercise.getTitle(), exercise.getMaxPoints(), participantsForExercise));
+            }
+            exerciseGroupDTO.numberOfParticipants = numberOfExerciseGroupParticipants;
+            scores.exerciseGroups.add(exerciseGroupDTO);
+        }
+
+        // Adding registered student information to DTO
+        for (StudentExam studentExam : studentExams) {
+
+            User user = studentExam.getUser();
+            var studentResult = new ExamScoresDTO.StudentResult(user.getId(), user.getName(), user.getEmail(), user.getLogin(), user.getRegistrationNumber(),
+                    studentExam.isSubmitted());
+
+            // Adding student results information to DTO
+            List<StudentParticipation> participationsOfStudent = studentIdToParticipations.getOrDefault(studentResult.userId, List.of());
+
+            studentResult.overallPointsAchieved = 0.0;
+            for (StudentParticipation studentParticipation : participationsOfStudent) {
+                Exercise exercise = studentParticipation.getExercise();
+
+                // Relevant Result is already calculated
+                if (studentParticipation.getResults() != null && !studentParticipation.getResults().isEmpty()) {
+                    Result relevantResult = studentParticipation.getResults().iterator().next();
+                    // Note: It is important that we round on the individual exercise level first and then sum up.
+                    // This is necessary so that the student arrives at the same overall result when doing his own recalculation.
+                    // Let's assume that the student achieved 1.05 points in each of 5 exercises.
+                    // In the client, these are now displayed rounded as 1.1 points.
+                    // If the student adds up the displayed points, he gets a total of 5.5 points.
+                    // In order to get the same total result as the student, we have to round before summing.
+                    double achievedPoints = round(relevantResult.getScore() / 100.0 * exercise.getMaxPoints());
+
+                    // points earned in NOT_INCLUDED exercises do not count towards the students result in the exam
+                    if (!exercise.getIncludedInOverallScore().equals(IncludedInOverallScore.NOT_INCLUDED)) {
+                        studentResult.overallPointsAchieved += achievedPoints;
+                    }
+
+                    // Check whether the student attempted to solve the exercise
+                    boolean hasNonEmptySubmission = hasNonEmptySubmission(studentParticipation.getSubmissions(), exercise);
+                    studentResult.exerciseGroupIdToExerciseResult.put(exercise.getExerciseGroup().getId(), new ExamScoresDTO.ExerciseResult(exercise.getId(), exercise.getTitle(),
+                            exercise.getMaxPoints(), relevantResult.getScore(), achievedPoints, hasNonEmptySubmission));
+                }
+            }
+
+            if (scores.maxPoints != null) {
+                studentResult.overallScoreAchieved = (studentResult.overallPointsAchieved / scores.maxPoints) * 100.0;
+            }
+            scores.studentResults.add(studentResult);
+        }
+
+        // Updating exam information in DTO
+        double sumOverallPoints = scores.studentResults.stream().mapToDouble(studentResult -> studentResult.overallPointsAchieved).sum();
+
+        int numberOfStudentResults = scores.studentResults.size();
+
+        if (numberOfStudentResults != 0) {
+            scores.averagePointsAchieved = sumOverallPoints / numberOfStudentResults;
+        }
+
+        return scores;
+    }
+
+    /**
+     * Checks whether one of the submissions is not empty
+     *
+     * @param submissions Submissions to check
+     * @param exercise    Exercise of the submissions
+     * @return true if at least one submission is not empty else false
+     */
+    private static boolean hasNonEmptySubmission(Set<Submission> submissions, Exercise exercise) {
+        if (exercise instanceof ProgrammingExercise) {
+            return submissions.stream().anyMatch(submission -> submission.getType() == SubmissionType.MANUAL);
+        }
+        else if (exercise instanceof FileUploadExercise) {
+            FileUploadSubmission textSubmission = (FileUploadSubmission) submissions.iterator().next();
+            return textSubmission.getFilePath() != null && !textSubmission.getFilePath().isEmpty();
+        }
+        else if (exercise instanceof TextExercise) {
+            TextSubmission textSubmission = (TextSubmission) submissions.iterator().next();
+            return textSubmission.getText() != null && !textSubmission.getText().isBlank();
+        }
+        else if (exercise instanceof ModelingExercise) {
+            ModelingSubmission modelingSubmission = (ModelingSubmission) submissions.iterator().next();
+            try {
+                return !modelingSubmission.isEmpty(objectMapper);
+            }
+            catch (Exception e) {
+                // Then the student most likely submitted something which breaks the model, if parsing fails
+                return true;
+            }
+        }
+        else if (exercise instanceof QuizExercise) {
+            QuizSubmission quizSubmission = (QuizSubmission) submissions.iterator().next();
+            return quizSubmission != null && !quizSubmission.getSubmittedAnswers().isEmpty();
+        }
+        else {
+            throw new IllegalArgumentException("The exercise type of the exercise with id " + exercise.getId() + " is not supported");
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package de.tum.in.www1.artemis.service.exam;
 
-import static de.tum.in.www1.artemis.service.util.RoundingUtil.round;
+import static de.tum.in.www1.artemis.service.util.TransactionUtil.runNowAndAfterCommit;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.validation.constraints.NotNull;
@@ -20,7 +22,8 @@ import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
 
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
@@ -28,11 +31,8 @@ import de.tum.in.www1.artemis.domain.enumeration.*;
 import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
-import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
-import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
-import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.*;
@@ -52,6 +52,9 @@ public class ExamService {
     @Value("${artemis.course-archives-path}")
     private String examArchivesDirPath;
 
+    @Value("${artemis.exam.scores-cache.time-to-live-seconds:600}")
+    private long examScoresTimeToLiveSeconds;
+
     private final Logger log = LoggerFactory.getLogger(ExamService.class);
 
     private final UserRepository userRepository;
@@ -90,12 +93,28 @@ public class ExamService {
 
     private final GroupNotificationService groupNotificationService;
 
+    /**
+     * The calculated scores of each exam, mapped by exam id. An entry is removed as soon as the scores might change
+     * (see {@link de.tum.in.www1.artemis.service.listeners.ExamScoresListener}) and expires after a while in case of changes that are not observed, e.g. changed user names.
+     */
+    private final IMap<Long, ExamScoresDTO> examScores;
+
+    /**
+     * The exam of each exercise whose exam scores are cached, mapped by exercise id
+     */
+    private final IMap<Long, Long> examIdsByExerciseId;
+
+    /**
+     * A random version of the scores of each exam, mapped by exam id. It changes whenever the scores are invalidated, so that scores calculated from older data are not cached.
+     */
+    private final IMap<Long, Long> examScoresVersions;
+
     public ExamService(ExamRepository examRepository, StudentExamRepository studentExamRepository, ExamQuizService examQuizService, ExerciseService exerciseService,
             InstanceMessageSendService instanceMessageSendService, TutorLeaderboardService tutorLeaderboardService, AuditEventRepository auditEventRepository,
             StudentParticipationRepository studentParticipationRepository, ComplaintRepository complaintRepository, ComplaintResponseRepository complaintResponseRepository,
             UserRepository userRepository, ProgrammingExerciseRepository programmingExerciseRepository, QuizExerciseRepository quizExerciseRepository,
             ResultRepository resultRepository, SubmissionRepository submissionRepository, CourseExamExportService courseExamExportService, GitService gitService,
-            GroupNotificationService groupNotificationService) {
+            GroupNotificationService groupNotificationService, HazelcastInstance hazelcastInstance) {
         this.examRepository = examRepository;
         this.studentExamRepository = studentExamRepository;
         this.userRepository = userRepository;
@@ -114,6 +133,9 @@ public class ExamService {
         this.courseExamExportService = courseExamExportService;
         this.groupNotificationService = groupNotificationService;
         this.gitService = gitService;
+        this.examScores = hazelcastInstance.getMap("examScores");
+        this.examIdsByExerciseId = hazelcastInstance.getMap("examScoresExamIdsByExerciseId");
+        this.examScoresVersions = hazelcastInstance.getMap("examScoresVersions");
     }
 
     /**
@@ -176,145 +198,96 @@ public class ExamService {
     }
 
     /**
-     * Puts students, result and exerciseGroups together for ExamScoresDTO
+     * Puts students, result and exerciseGroups together for ExamScoresDTO.
+     * The scores are cached until a result, participation, student exam or exercise of the exam changes (see {@link #invalidateExamScores(Long)}).
+     * Scores calculated from data that was changed in the meantime are not cached.
      *
      * @param examId the id of the exam
      * @return return ExamScoresDTO with students, scores and exerciseGroups for exam
      */
     public ExamScoresDTO calculateExamScores(Long examId) {
-        Exam exam = examRepository.findWithExerciseGroupsAndExercisesById(examId).orElseThrow(() -> new EntityNotFoundException("Exam", examId));
-
-        List<StudentParticipation> studentParticipations = studentParticipationRepository.findByExamIdWithSubmissionRelevantResult(examId); // without test run participations
-
-        // Adding exam information to DTO
-        ExamScoresDTO scores = new ExamScoresDTO(exam.getId(), exam.getTitle(), exam.getMaxPoints());
-
-        // Counts how many participants each exercise has
-        Map<Long, Long> exerciseIdToNumberParticipations = studentParticipations.stream()
-                .collect(Collectors.groupingBy(studentParticipation -> studentParticipation.getExercise().getId(), Collectors.counting()));
+        ExamScoresDTO cachedScores = examScores.get(examId);
+        if (cachedScores != null) {
+            return cachedScores;
+        }
 
-        // Adding exercise group information to DTO
+        long start = System.currentTimeMillis();
+        Exam exam = examRepository.findWithExerciseGroupsAndExercisesById(examId).orElseThrow(() -> new EntityNotFoundException("Exam", examId));
+        // remember the exam of each exercise before loading the results, so that a result changed during the calculation invalidates the calculated scores
         for (ExerciseGroup exerciseGroup : exam.getExerciseGroups()) {
-            // Find the maximum points for this exercise group
-            OptionalDouble optionalMaxPointsGroup = exerciseGroup.getExercises().stream().mapToDouble(Exercise::getMaxPoints).max();
-            Double maxPointsGroup = optionalMaxPointsGroup.orElse(0);
-
-            // Counter for exerciseGroup participations. Is calculated by summing up the number of exercise participations
-            long numberOfExerciseGroupParticipants = 0;
-            // Add information about exercise groups and exercises
-            var exerciseGroupDTO = new ExamScoresDTO.ExerciseGroup(exerciseGroup.getId(), exerciseGroup.getTitle(), maxPointsGroup);
             for (Exercise exercise : exerciseGroup.getExercises()) {
-                Long participantsForExercise = exerciseIdToNumberParticipations.get(exercise.getId());
-                // If no participation exists for an exercise then no entry exists in the map
-                if (participantsForExercise == null) {
-                    participantsForExercise = 0L;
-                }
-                numberOfExerciseGroupParticipants += participantsForExercise;
-                exerciseGroupDTO.containedExercises
-                        .add(new ExamScoresDTO.ExerciseGroup.ExerciseInfo(exercise.getId(), exercise.getTitle(), exercise.getMaxPoints(), participantsForExercise));
+                examIdsByExerciseId.set(exercise.getId(), examId, examScoresTimeToLiveSeconds, TimeUnit.SECONDS);
             }
-            exerciseGroupDTO.numberOfParticipants = numberOfExerciseGroupParticipants;
-            scores.exerciseGroups.add(exerciseGroupDTO);
         }
-
-        // Adding registered student information to DTO
+        Long version = examScoresVersions.get(examId);
+        List<StudentParticipation> studentParticipations = studentParticipationRepository.findByExamIdWithSubmissionRelevantResult(examId); // without test run participations
         Set<StudentExam> studentExams = studentExamRepository.findByExamId(examId); // fetched without test runs
-        ObjectMapper objectMapper = new ObjectMapper();
-        for (StudentExam studentExam : studentExams) {
-
-            User user = studentExam.getUser();
-            var studentResult = new ExamScoresDTO.StudentResult(user.getId(), user.getName(), user.getEmail(), user.getLogin(), user.getRegistrationNumber(),
-                    studentExam.isSubmitted());
-
-            // Adding student results information to DTO
-            List<StudentParticipation> participationsOfStudent = studentParticipations.stream()
-                    .filter(studentParticipation -> studentParticipation.getStudent().get().getId().equals(studentResult.userId)).collect(Collectors.toList());
-
-            studentResult.overallPointsAchieved = 0.0;
-            for (StudentParticipation studentParticipation : participationsOfStudent) {
-                Exercise exercise = studentParticipation.getExercise();
-
-                // Relevant Result is already calculated
-                if (studentParticipation.getResults() != null && !studentParticipation.getResults().isEmpty()) {
-                    Result relevantResult = studentParticipation.getResults().iterator().next();
-                    // Note: It is important that we round on the individual exercise level first and then sum up.
-                    // This is necessary so that the student arrives at the same overall result when doing his own recalculation.
-                    // Let's assume that the student achieved 1.05 points in each of 5 exercises.
-                    // In the client, these are now displayed rounded as 1.1 points.
-                    // If the student adds up the displayed points, he gets a total of 5.5 points.
-                    // In order to get the same total result as the student, we have to round before summing.
-                    double achievedPoints = round(relevantResult.getScore() / 100.0 * exercise.getMaxPoints());
-
-                    // points earned in NOT_INCLUDED exercises do not count towards the students result in the exam
-                    if (!exercise.getIncludedInOverallScore().equals(IncludedInOverallScore.NOT_INCLUDED)) {
-                        studentResult.overallPointsAchieved += achievedPoints;
-                    }
-
-                    // Check whether the student attempted to solve the exercise
-                    boolean hasNonEmptySubmission = hasNonEmptySubmission(studentParticipation.getSubmissions(), exercise, objectMapper);
-                    studentResult.exerciseGroupIdToExerciseResult.put(exercise.getExerciseGroup().getId(), new ExamScoresDTO.ExerciseResult(exercise.getId(), exercise.getTitle(),
-                            exercise.getMaxPoints(), relevantResult.getScore(), achievedPoints, hasNonEmptySubmission));
-                }
 
-            }
+        ExamScoresDTO scores = ExamScoresCalculator.calculateExamScores(exam, studentParticipations, studentExams);
+        log.info("Calculated the scores of {} students in exam {} in {}ms", studentExams.size(), examId, System.currentTimeMillis() - start);
 
-            if (scores.maxPoints != null) {
-                studentResult.overallScoreAchieved = (studentResult.overallPointsAchieved / scores.maxPoints) * 100.0;
+        examScores.lock(examId);
+        try {
+            if (Objects.equals(version, examScoresVersions.get(examId))) {
+                examScores.set(examId, scores, examScoresTimeToLiveSeconds, TimeUnit.SECONDS);
             }
-            scores.studentResults.add(studentResult);
         }
-
-        // Updating exam information in DTO
-        double sumOverallPoints = scores.studentResults.stream().mapToDouble(studentResult -> studentResult.overallPointsAchieved).sum();
-
-        int numberOfStudentResults = scores.studentResults.size();
-
-        if (numberOfStudentResults != 0) {
-            scores.averagePointsAchieved = sumOverallPoints / numberOfStudentResults;
+        finally {
+            examScores.unlock(examId);
         }
-
         return scores;
     }
 
     /**
-     * Checks whether one of the submissions is not empty
+     * Removes the cached scores of the given exam, so that they are calculated again on the next access.
+     * If called within a transaction, the scores are removed again after the commit, so that scores calculated concurrently from the old data do not stay in the cache.
      *
-     * @param submissions         Submissions to check
-     * @param exercise            Exercise of the submissions
-     * @param jacksonObjectMapper Mapper to parse a modeling exercise model string to JSON
-     * @return true if at least one submission is not empty else false
+     * @param examId the id of the exam whose results, participations, student exams or exercises changed
      */
-    private boolean hasNonEmptySubmission(Set<Submission> submissions, Exercise exercise, ObjectMapper jacksonObjectMapper) {
-        if (exercise instanceof ProgrammingExercise) {
-            return submissions.stream().anyMatch(submission -> submission.getType() == SubmissionType.MANUAL);
-        }
-        else if (exercise instanceof FileUploadExercise) {
-            FileUploadSubmission textSubmission = (FileUploadSubmission) submissions.iterator().next();
-            return textSubmission.getFilePath() != null && !textSubmission.getFilePath().isEmpty();
-        }
-        else if (exercise instanceof TextExercise) {
-            TextSubmission textSubmission = (TextSubmission) submissions.iterator().next();
-            return textSubmission.getText() != null && !textSubmission.getText().isBlank();
-        }
-        else if (exercise instanceof ModelingExercise) {
-            ModelingSubmission modelingSubmission = (ModelingSubmission) submissions.iterator().next();
-            try {
-                return !modelingSubmission.isEmpty(jacksonObjectMapper);
-            }
-            catch (Exception e) {
-                // Then the student most likely submitted something which breaks the model, if parsing fails
-                return true;
+    public void invalidateExamScores(Long examId) {
+        runNowAndAfterCommit(() -> removeExamScores(examId));
+    }
+
+    /**
+     * Removes the cached scores of the exam the given exercise belongs to, if they are cached or being calculated.
+     * If called within a transaction, the exam of the exercise is looked up again after the commit, as the scores might have been calculated in the meantime.
+     *
+     * @param exerciseId the id of the exercise whose results or participations changed
+     */
+    public void invalidateExamScoresOfExercise(Long exerciseId) {
+        runNowAndAfterCommit(() -> {
+            Long examId = examIdsByExerciseId.get(exerciseId);
+            if (examId != null) {
+                removeExamScores(examId);
             }
+        });
+    }
+
+    /**
+     * Changes the version of the scores of the given exam, so that scores that are currently calculated from the old data are not cached, and removes the cached scores
+     *
+     * @param examId the id of the exam
+     */
+    private void removeExamScores(Long examId) {
+        examScores.lock(examId);
+        try {
+            examScoresVersions.set(examId, ThreadLocalRandom.current().nextLong(), examScoresTimeToLiveSeconds, TimeUnit.SECONDS);
+            examScores.delete(examId);
         }
-        else if (exercise instanceof QuizExercise) {
-            QuizSubmission quizSubmission = (QuizSubmission) submissions.iterator().next();
-            return quizSubmission != null && !quizSubmission.getSubmittedAnswers().isEmpty();
-        }
-        else {
-            throw new IllegalArgumentException("The exercise type of the exercise with id " + exercise.getId() + " is not supported");
+        finally {
+            examScores.unlock(examId);
         }
     }
 
+    /**
+     * Removes all cached exam scores, e.g. after the database was reset
+     */
+    public void clearCachedExamScores() {
+        examScores.clear();
+        examIdsByExerciseId.clear();
+        examScoresVersions.clear();
+    }
+
     /**
      * Validates exercise settings.
      *
@@ -0,0 +1,399 @@
+package de.tum.in.www1.artemis.service.exam;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.InitializationState;
+import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.repository.ModelingSubmissionRepository;
+import de.tum.in.www1.artemis.repository.TextSubmissionRepository;
+import de.tum.in.www1.artemis.repository.UserRepository;
+import de.tum.in.www1.artemis.service.SubmissionVersionService;
+import de.tum.in.www1.artemis.web.rest.errors.InternalServerErrorException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Buffers the autosaves of text and modeling exam submissions in a distributed Hazelcast map and persists them in batches (write-behind).
+ * <p>
+ * Autosaves are the dominant write load of an exam: every student saves the open submission every 30 seconds. Instead of updating the submission and inserting a
+ * submission version for every autosave, only the latest content of each submission is kept in the map, so autosaves that arrive before the next flush replace each
+ * other. Each server flushes the entries that it owns every <code>flush-interval-ms</code> milliseconds with one transaction per <code>batch-size</code> submissions.
+ * The entries of a student are also flushed before the student exam is submitted or loaded again, and autosaves shortly before the individual end of the exam are
+ * saved directly, so that no autosaves are pending when the exam ends.
+ * <p>
+ * Durability: the map keeps the configured number of backups on other servers, so buffered autosaves survive the failure of as many servers, and a server flushes its
+ * entries when it shuts down. An entry is only removed after its flush committed and only if no newer autosave replaced it in the meantime. A flush never overwrites a
+ * submission that was saved at the same time or later.
+ * <p>
+ * With an interval of 0, every autosave is saved directly, which is used in the tests.
+ */
+@Service
+public class ExamSubmissionAutosaveBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamSubmissionAutosaveBuffer.class);
+
+    static final String HAZELCAST_AUTOSAVE_BUFFER = "examSubmissionAutosaves";
+
+    @Value("${artemis.exam.autosave-buffer.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    @Value("${artemis.exam.autosave-buffer.batch-size:200}")
+    private int batchSize;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final TextSubmissionRepository textSubmissionRepository;
+
+    private final ModelingSubmissionRepository modelingSubmissionRepository;
+
+    private final UserRepository userRepository;
+
+    private final SubmissionVersionService submissionVersionService;
+
+    private final StudentExamAuthorizationCache studentExamAuthorizationCache;
+
+    private final TransactionTemplate batchTransactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The latest autosave of each submission that was not persisted yet, mapped by submission id
+     */
+    private IMap<Long, BufferedAutosave> autosaves;
+
+    private ScheduledExecutorService executor;
+
+    private Counter bufferedCounter;
+
+    private Counter coalescedCounter;
+
+    private Counter flushedCounter;
+
+    private Counter outdatedCounter;
+
+    private Counter failedCounter;
+
+    private Timer flushLagTimer;
+
+    public ExamSubmissionAutosaveBuffer(HazelcastInstance hazelcastInstance, TextSubmissionRepository textSubmissionRepository,
+            ModelingSubmissionRepository modelingSubmissionRepository, UserRepository userRepository, SubmissionVersionService submissionVersionService,
+            StudentExamAuthorizationCache studentExamAuthorizationCache, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.textSubmissionRepository = textSubmissionRepository;
+        this.modelingSubmissionRepository = modelingSubmissionRepository;
+        this.userRepository = userRepository;
+        this.submissionVersionService = submissionVersionService;
+        this.studentExamAuthorizationCache = studentExamAuthorizationCache;
+        this.meterRegistry = meterRegistry;
+        // a batch is flushed independently of a surrounding transaction, e.g. when the student exam is submitted
+        this.batchTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Buffered autosaves must never be evicted from the map before they are persisted
+     *
+     * @param config the Hazelcast config, which already contains the default map config
+     */
+    public static void configureHazelcast(Config config) {
+        config.getMapConfig(HAZELCAST_AUTOSAVE_BUFFER).setEvictionConfig(new EvictionConfig().setEvictionPolicy(EvictionPolicy.NONE));
+    }
+
+    @PostConstruct
+    void init() {
+        autosaves = hazelcastInstance.getMap(HAZELCAST_AUTOSAVE_BUFFER);
+        bufferedCounter = Counter.builder("artemis.exam.autosave.buffered").description("Number of exam autosaves that were buffered instead of saved directly")
+                .register(meterRegistry);
+        coalescedCounter = Counter.builder("artemis.exam.autosave.coalesced").description("Number of buffered exam autosaves that were replaced by a newer autosave")
+                .register(meterRegistry);
+        flushedCounter = Counter.builder("artemis.exam.autosave.flushed").description("Number of buffered exam autosaves that were persisted").register(meterRegistry);
+        outdatedCounter = Counter.builder("artemis.exam.autosave.outdated")
+                .description("Number of buffered exam autosaves that were not persisted, because the submission was saved later").register(meterRegistry);
+        failedCounter = Counter.builder("artemis.exam.autosave.failed").description("Number of buffered exam autosaves that could not be persisted and are retried")
+                .register(meterRegistry);
+        flushLagTimer = Timer.builder("artemis.exam.autosave.flush.lag").description("Time between an exam autosave and its persistence").register(meterRegistry);
+        Gauge.builder("artemis.exam.autosave.pending", this, buffer -> buffer.autosaves.getLocalMapStats().getOwnedEntryCount())
+                .description("Number of buffered exam autosaves owned by this server that are not persisted yet").register(meterRegistry);
+        Gauge.builder("artemis.exam.autosave.backups", this, buffer -> buffer.hazelcastInstance.getConfig().getMapConfig(HAZELCAST_AUTOSAVE_BUFFER).getTotalBackupCount())
+                .description("Number of other servers that keep a copy of each buffered exam autosave, i.e. the number of server failures that buffered autosaves survive")
+                .register(meterRegistry);
+
+        if (flushIntervalMs > 0) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "exam-autosave-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::flushLocalAutosaves, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Persists the buffered autosaves of this server before it stops, the other servers cannot flush them if this is the last server
+     */
+    @PreDestroy
+    void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("The exam autosave flusher did not stop within 10 seconds");
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushLocalAutosaves();
+    }
+
+    /**
+     * Buffers the autosave of an existing text or modeling exam submission instead of saving it. The caller has to save the submission directly if it was not buffered.
+     *
+     * @param submission    the submission with the new content and submission date
+     * @param participation the participation of the student with its submissions
+     * @param exercise      the exercise of the submission
+     * @param username      the login of the student
+     * @return true if the autosave was buffered, false if it has to be saved directly
+     */
+    public boolean buffer(Submission submission, StudentParticipation participation, Exercise exercise, String username) {
+        if (flushIntervalMs <= 0 || !exercise.isExamExercise() || exercise.isTeamMode() || !(submission instanceof TextSubmission || submission instanceof ModelingSubmission)) {
+            return false;
+        }
+        // only the content of submissions is buffered, the first save of a new submission also finishes its participation
+        if (submission.getId() == null || participation.getInitializationState() != InitializationState.FINISHED || participation.getStudent().isEmpty()
+                || participation.getSubmissions().stream().noneMatch(existingSubmission -> submission.getId().equals(existingSubmission.getId()))) {
+            return false;
+        }
+        long examId = exercise.getExerciseGroup().getExam().getId();
+        long studentId = participation.getStudent().get().getId();
+        // autosaves shortly before the individual end of the exam are saved directly, test runs do not have a cached authorization
+        ZonedDateTime latestBufferedEndDate = ZonedDateTime.now().plus(2 * flushIntervalMs, ChronoUnit.MILLIS);
+        boolean endsSoon = studentExamAuthorizationCache.getAuthorization(examId, studentId).map(authorization -> !authorization.getEndDate().isAfter(latestBufferedEndDate))
+                .orElse(true);
+        if (endsSoon) {
+            return false;
+        }
+        if (autosaves.put(submission.getId(), new BufferedAutosave(submission, examId, studentId, username)) != null) {
+            coalescedCounter.increment();
+        }
+        bufferedCounter.increment();
+        return true;
+    }
+
+    /**
+     * Persists the buffered autosaves of the given student in the given exam on the calling thread, e.g. before the student exam is submitted or loaded again
+     *
+     * @param examId   the id of the exam
+     * @param username the login of the student
+     * @throws InternalServerErrorException if the autosaves could not be persisted, they stay in the buffer and are retried with the next flush
+     */
+    public void flushStudent(long examId, String username) {
+        if (flushIntervalMs <= 0) {
+            return;
+        }
+        Map<Long, BufferedAutosave> studentAutosaves = new HashMap<>();
+        autosaves.entrySet(Predicates.and(Predicates.equal("examId", examId), Predicates.equal("username", username)))
+                .forEach(entry -> studentAutosaves.put(entry.getKey(), entry.getValue()));
+        if (studentAutosaves.isEmpty()) {
+            return;
+        }
+        try {
+            flush(studentAutosaves);
+        }
+        catch (Exception e) {
+            // the scheduled flush will try again, it cannot overwrite submissions that are saved in the meantime
+            failedCounter.increment(studentAutosaves.size());
+            log.error("Could not persist the buffered autosaves of user {} in exam {}: {}", username, examId, e.getMessage());
+            throw new InternalServerErrorException("Could not save the latest autosaves of the exam");
+        }
+    }
+
+    /**
+     * Persists the buffered autosaves that are owned by this server in batches
+     */
+    public void flushLocalAutosaves() {
+        try {
+            List<Long> submissionIds = new ArrayList<>(autosaves.localKeySet());
+            for (int start = 0; start < submissionIds.size(); start += Math.max(1, batchSize)) {
+                Set<Long> batchIds = new HashSet<>(submissionIds.subList(start, Math.min(submissionIds.size(), start + Math.max(1, batchSize))));
+                Map<Long, BufferedAutosave> batch = autosaves.getAll(batchIds);
+                try {
+                    flush(batch);
+                }
+                catch (Exception e) {
+                    // the autosaves stay in the buffer and are retried with the next flush
+                    failedCounter.increment(batch.size());
+                    log.error("Could not persist {} buffered exam autosaves, will try again: {}", batch.size(), e.getMessage());
+                }
+            }
+        }
+        catch (Exception e) {
+            log.error("Unexpected error while persisting the buffered exam autosaves: {}", e.getMessage(), e);
+        }
+    }
+
+    private void flush(Map<Long, BufferedAutosave> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int persisted = batchTransactionTemplate.execute(status -> {
+            Map<Submission, User> authorsBySubmission = new LinkedHashMap<>();
+            batch.forEach((submissionId, autosave) -> {
+                if (persist(submissionId, autosave) == 0) {
+                    // the submission was saved directly after this autosave (e.g. when the student exam was submitted) or does not exist anymore
+                    outdatedCounter.increment();
+                    return;
+                }
+                // the version only references the submission and the student, so neither has to be loaded
+                authorsBySubmission.put(autosave.toSubmission(submissionId), userRepository.getOne(autosave.getStudentId()));
+            });
+            submissionVersionService.saveVersionsForIndividuals(authorsBySubmission);
+            return authorsBySubmission.size();
+        });
+        long now = System.currentTimeMillis();
+        batch.forEach((submissionId, autosave) -> {
+            // a newer autosave that was buffered during the flush stays in the buffer
+            autosaves.remove(submissionId, autosave);
+            flushLagTimer.record(now - autosave.getBufferedAt(), TimeUnit.MILLISECONDS);
+        });
+        flushedCounter.increment(persisted);
+        log.debug("Persisted {} of {} buffered exam autosaves in {}ms", persisted, batch.size(), now - start);
+    }
+
+    /**
+     * @return the number of updated submissions, 0 if the submission does not exist anymore or was saved at the same time or later
+     */
+    private int persist(long submissionId, BufferedAutosave autosave) {
+        if (autosave.isModeling()) {
+            return modelingSubmissionRepository.updateModelOfAutosave(submissionId, autosave.getContent(), autosave.getExplanationText(), autosave.getSubmissionDate());
+        }
+        return textSubmissionRepository.updateTextOfAutosave(submissionId, autosave.getContent(), autosave.getSubmissionDate());
+    }
+
+    /**
+     * The latest content of a text or modeling exam submission that is not persisted yet
+     */
+    public static final class BufferedAutosave implements Serializable {
+
+        private final long examId;
+
+        private final long studentId;
+
+        private final String username;
+
+        private final boolean modeling;
+
+        /**
+         * The text of a text submission or the model of a modeling submission
+         */
+        private final String content;
+
+        private final String explanationText;
+
+        private final ZonedDateTime submissionDate;
+
+        private final long bufferedAt = System.currentTimeMillis();
+
+        BufferedAutosave(Submission submission, long examId, long studentId, String username) {
+            this.examId = examId;
+            this.studentId = studentId;
+            this.username = username;
+            this.submissionDate = submission.getSubmissionDate();
+            if (submission instanceof ModelingSubmission modelingSubmission) {
+                this.modeling = true;
+                this.content = modelingSubmission.getModel();
+                this.explanationText = modelingSubmission.getExplanationText();
+            }
+            else {
+                this.modeling = false;
+                this.content = ((TextSubmission) submission).getText();
+                this.explanationText = null;
+            }
+        }
+
+        public long getExamId() {
+            return examId;
+        }
+
+        public long getStudentId() {
+            return studentId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public boolean isModeling() {
+            return modeling;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public String getExplanationText() {
+            return explanationText;
+        }
+
+        public ZonedDateTime getSubmissionDate() {
+            return submissionDate;
+        }
+
+        public long getBufferedAt() {
+            return bufferedAt;
+        }
+
+        /**
+         * @param submissionId the id of the buffered submission
+         * @return a detached submission with the id and the buffered content, used to create the submission version
+         */
+        private Submission toSubmission(long submissionId) {
+            Submission submission;
+            if (modeling) {
+                ModelingSubmission modelingSubmission = new ModelingSubmission();
+                modelingSubmission.setModel(content);
+                modelingSubmission.setExplanationText(explanationText);
+                submission = modelingSubmission;
+            }
+            else {
+                TextSubmission textSubmission = new TextSubmission();
+                textSubmission.setText(content);
+                submission = textSubmission;
+            }
+            submission.setId(submissionId);
+            return submission;
+        }
+    }
+}
@@ -14,10 +14,10 @@ import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
-import de.tum.in.www1.artemis.repository.ExamRepository;
 import de.tum.in.www1.artemis.repository.StudentExamRepository;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.ParticipationService;
+import de.tum.in.www1.artemis.service.exam.StudentExamAuthorizationCache.StudentExamAuthorization;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 @Service
@@ -29,14 +29,14 @@ public class ExamSubmissionService {
 
     private final AuthorizationCheckService authorizationCheckService;
 
-    private final ExamRepository examRepository;
+    private final StudentExamAuthorizationCache studentExamAuthorizationCache;
 
-    public ExamSubmissionService(StudentExamRepository studentExamRepository, ExamRepository examRepository, ParticipationService participationService,
-            AuthorizationCheckService authorizationCheckService) {
+    public ExamSubmissionService(StudentExamRepository studentExamRepository, ParticipationService participationService, AuthorizationCheckService authorizationCheckService,
+            StudentExamAuthorizationCache studentExamAuthorizationCache) {
         this.studentExamRepository = studentExamRepository;
-        this.examRepository = examRepository;
         this.participationService = participationService;
         this.authorizationCheckService = authorizationCheckService;
+        this.studentExamAuthorizationCache = studentExamAuthorizationCache;
     }
 
     /**
@@ -67,10 +67,10 @@ public class ExamSubmissionService {
      */
     public boolean isAllowedToSubmitDuringExam(Exercise exercise, User user) {
         if (isExamSubmission(exercise)) {
-            // Get the student exam if it was not passed to the function
+            // The relevant data of the student exam is cached, because this check is executed for every autosave of every student
             Exam exam = exercise.getExerciseGroup().getExam();
-            Optional<StudentExam> optionalStudentExam = studentExamRepository.findWithExercisesByUserIdAndExamId(user.getId(), exam.getId());
-            if (optionalStudentExam.isEmpty()) {
+            Optional<StudentExamAuthorization> optionalAuthorization = studentExamAuthorizationCache.getAuthorization(exam.getId(), user.getId());
+            if (optionalAuthorization.isEmpty()) {
                 // We check for test exams here for performance issues as this will not be the case for all students who are participating in the exam
                 // isAllowedToSubmitDuringExam is called everytime an exercise is saved (e.g. autosave every 30 seconds for every student) therefore it is best to limit
                 // unnecessary database calls
@@ -79,19 +79,19 @@ public class ExamSubmissionService {
                 }
                 return true;
             }
-            StudentExam studentExam = optionalStudentExam.get();
+            StudentExamAuthorization authorization = optionalAuthorization.get();
             // Check that the current user is allowed to submit to this exercise
-            if (!studentExam.getExercises().contains(exercise)) {
+            if (!authorization.containsExercise(exercise)) {
                 return false;
             }
 
             // if the student exam was already submitted, the user cannot save any more
-            if (Boolean.TRUE.equals(studentExam.isSubmitted()) || studentExam.getSubmissionDate() != null) {
+            if (authorization.isSubmitted()) {
                 return false;
             }
 
             // Check that the submission is in time
-            return isSubmissionInTime(exercise, studentExam);
+            return isSubmissionInTime(authorization);
         }
         return true;
     }
@@ -155,15 +155,10 @@ public class ExamSubmissionService {
         return exercise.isExamExercise();
     }
 
-    private boolean isSubmissionInTime(Exercise exercise, StudentExam studentExam) {
+    private boolean isSubmissionInTime(StudentExamAuthorization authorization) {
         // TODO: we might want to add a grace period here. If so we have to adjust the dueDate checks in the submission
         // services (e.g. in TextSubmissionService::handleTextSubmission())
-        // The attributes of the exam (e.g. startDate) are missing. Therefore we need to load it.
-        Exam exam = examRepository.findByIdElseThrow(exercise.getExerciseGroup().getExam().getId());
-        ZonedDateTime calculatedEndDate = exam.getEndDate();
-        if (studentExam.getWorkingTime() != null && studentExam.getWorkingTime() > 0) {
-            calculatedEndDate = studentExam.getIndividualEndDate();
-        }
-        return exam.getStartDate().isBefore(ZonedDateTime.now()) && calculatedEndDate.isAfter(ZonedDateTime.now());
+        // The end date already takes the individual working time of the student into account
+        return authorization.getStartDate().isBefore(ZonedDateTime.now()) && authorization.getEndDate().isAfter(ZonedDateTime.now());
     }
 }
@@ -0,0 +1,178 @@
+package de.tum.in.www1.artemis.service.exam;
+
+import static de.tum.in.www1.artemis.service.util.TransactionUtil.runNowAndAfterCommit;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.StudentExam;
+import de.tum.in.www1.artemis.repository.StudentExamRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caches the data of the student exams that is needed to decide whether a student is allowed to save a submission during the exam (see
+ * {@link ExamSubmissionService#isAllowedToSubmitDuringExam}), so that the autosaves of the students do not load the student exam every time.
+ * <p>
+ * The entries are stored in a distributed Hazelcast map for <code>time-to-live-seconds</code>. They are removed on all servers when the working time of a student
+ * exam is changed, when a student exam is submitted, unsubmitted or deleted and when the dates of the exam are changed. The time to live limits the staleness of other changes.
+ */
+@Service
+public class StudentExamAuthorizationCache {
+
+    private final StudentExamRepository studentExamRepository;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${artemis.exam.authorization-cache.time-to-live-seconds:300}")
+    private long timeToLiveSeconds;
+
+    private IMap<String, StudentExamAuthorization> authorizations;
+
+    private Counter hitCounter;
+
+    private Counter missCounter;
+
+    public StudentExamAuthorizationCache(StudentExamRepository studentExamRepository, HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        this.studentExamRepository = studentExamRepository;
+        this.hazelcastInstance = hazelcastInstance;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        authorizations = hazelcastInstance.getMap("studentExamAuthorizations");
+        hitCounter = Counter.builder("artemis.exam.authorization.cache.requests").tag("result", "hit")
+                .description("Number of submission authorization checks that found the student exam in the cache").register(meterRegistry);
+        missCounter = Counter.builder("artemis.exam.authorization.cache.requests").tag("result", "miss")
+                .description("Number of submission authorization checks that loaded the student exam").register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached authorization data of the student exam of the given user, the student exam is only loaded if it is not cached
+     *
+     * @param examId the id of the exam
+     * @param userId the id of the student
+     * @return the authorization data or an empty optional if the user does not have a student exam (e.g. because it is a test run)
+     */
+    public Optional<StudentExamAuthorization> getAuthorization(long examId, long userId) {
+        if (timeToLiveSeconds <= 0) {
+            return loadAuthorization(examId, userId);
+        }
+        String key = getKey(examId, userId);
+        StudentExamAuthorization cachedAuthorization = authorizations.get(key);
+        if (cachedAuthorization != null) {
+            hitCounter.increment();
+            return Optional.of(cachedAuthorization);
+        }
+        missCounter.increment();
+        Optional<StudentExamAuthorization> authorization = loadAuthorization(examId, userId);
+        // do not overwrite an entry that was added concurrently
+        authorization.ifPresent(loadedAuthorization -> authorizations.putIfAbsent(key, loadedAuthorization, timeToLiveSeconds, TimeUnit.SECONDS));
+        return authorization;
+    }
+
+    private Optional<StudentExamAuthorization> loadAuthorization(long examId, long userId) {
+        return studentExamRepository.findWithExercisesByUserIdAndExamId(userId, examId).map(StudentExamAuthorization::new);
+    }
+
+    /**
+     * Removes the cached authorization data of the given student exam, e.g. because its working time changed or it was submitted.
+     * If called within a transaction, the entry is removed again after the commit, so that data loaded concurrently before the commit does not stay in the cache.
+     *
+     * @param studentExam the changed student exam with its exam and user
+     */
+    public void evict(StudentExam studentExam) {
+        if (studentExam.getExam() == null || studentExam.getUser() == null) {
+            return;
+        }
+        String key = getKey(studentExam.getExam().getId(), studentExam.getUser().getId());
+        runNowAndAfterCommit(() -> authorizations.delete(key));
+    }
+
+    /**
+     * Removes the cached authorization data of all student exams of the given exam, e.g. because the dates of the exam changed
+     *
+     * @param examId the id of the changed exam
+     */
+    public void evictExam(long examId) {
+        runNowAndAfterCommit(() -> authorizations.removeAll(Predicates.equal("examId", examId)));
+    }
+
+    private static String getKey(long examId, long userId) {
+        return examId + "-" + userId;
+    }
+
+    /**
+     * The data of a student exam that determines whether the student is allowed to save a submission
+     */
+    public static final class StudentExamAuthorization implements Serializable {
+
+        private final long examId;
+
+        private final Set<Long> exerciseIds = new HashSet<>();
+
+        private final ZonedDateTime startDate;
+
+        /**
+         * The individual end date of the student or the end date of the exam if the student exam has no working time
+         */
+        private final ZonedDateTime endDate;
+
+        private final boolean submitted;
+
+        StudentExamAuthorization(StudentExam studentExam) {
+            Exam exam = studentExam.getExam();
+            examId = exam.getId();
+            for (Exercise exercise : studentExam.getExercises()) {
+                exerciseIds.add(exercise.getId());
+            }
+            startDate = exam.getStartDate();
+            if (studentExam.getWorkingTime() != null && studentExam.getWorkingTime() > 0) {
+                endDate = studentExam.getIndividualEndDate();
+            }
+            else {
+                endDate = exam.getEndDate();
+            }
+            submitted = Boolean.TRUE.equals(studentExam.isSubmitted()) || studentExam.getSubmissionDate() != null;
+        }
+
+        public long getExamId() {
+            return examId;
+        }
+
+        public boolean containsExercise(Exercise exercise) {
+            return exerciseIds.contains(exercise.getId());
+        }
+
+        public ZonedDateTime getStartDate() {
+            return startDate;
+        }
+
+        public ZonedDateTime getEndDate() {
+            return endDate;
+        }
+
+        public boolean isSubmitted() {
+            return submitted;
+        }
+    }
+}
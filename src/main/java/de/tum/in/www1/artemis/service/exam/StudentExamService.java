@@ -2,9 +2,6 @@ package de.tum.in.www1.artemis.service.exam;
 
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.hibernate.Hibernate;
@@ -70,11 +67,18 @@ public class StudentExamService {
 
     private final ExamRepository examRepository;
 
+    private final ExamExercisePreparationService examExercisePreparationService;
+
+    private final StudentExamAuthorizationCache studentExamAuthorizationCache;
+
+    private final ExamSubmissionAutosaveBuffer examSubmissionAutosaveBuffer;
+
     public StudentExamService(StudentExamRepository studentExamRepository, UserRepository userRepository, ParticipationService participationService,
             QuizSubmissionRepository quizSubmissionRepository, TextSubmissionRepository textSubmissionRepository, ModelingSubmissionRepository modelingSubmissionRepository,
             SubmissionVersionService submissionVersionService, ProgrammingExerciseParticipationService programmingExerciseParticipationService, SubmissionService submissionService,
             ProgrammingSubmissionRepository programmingSubmissionRepository, StudentParticipationRepository studentParticipationRepository, ExamQuizService examQuizService,
-            ProgrammingExerciseRepository programmingExerciseRepository, ExamRepository examRepository) {
+            ProgrammingExerciseRepository programmingExerciseRepository, ExamRepository examRepository, ExamExercisePreparationService examExercisePreparationService,
+            StudentExamAuthorizationCache studentExamAuthorizationCache, ExamSubmissionAutosaveBuffer examSubmissionAutosaveBuffer) {
         this.participationService = participationService;
         this.studentExamRepository = studentExamRepository;
         this.userRepository = userRepository;
@@ -89,6 +93,9 @@ public class StudentExamService {
         this.submissionService = submissionService;
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.examRepository = examRepository;
+        this.examExercisePreparationService = examExercisePreparationService;
+        this.studentExamAuthorizationCache = studentExamAuthorizationCache;
+        this.examSubmissionAutosaveBuffer = examSubmissionAutosaveBuffer;
     }
 
     /**
@@ -105,6 +112,16 @@ public class StudentExamService {
 
         // most important aspect here: set studentExam to submitted and set submission date
         submitStudentExam(studentExam);
+        // the student must not be able to save submissions anymore, even if another server cached the student exam
+        studentExamAuthorizationCache.evict(existingStudentExam);
+        try {
+            // persist the buffered autosaves first, so that they cannot overwrite the submissions of the final submit
+            examSubmissionAutosaveBuffer.flushStudent(existingStudentExam.getExam().getId(), currentUser.getLogin());
+        }
+        catch (Exception e) {
+            // the final submit below is newer than the buffered autosaves, so a later flush cannot overwrite it
+            log.error("flushStudent threw an exception", e);
+        }
 
         try {
             // in case there were last second changes, that have not been submitted yet.
@@ -375,36 +392,14 @@ public class StudentExamService {
     }
 
     /**
-     * Starts all the exercises of all the student exams of an exam
+     * Starts all the exercises of all the student exams of an exam, see {@link ExamExercisePreparationService#prepareExercises(Exam)}
      *
      * @param examId exam to which the student exams belong
      * @return number of generated Participations
      */
     public int startExercises(Long examId) {
         var exam = examRepository.findWithStudentExamsExercisesById(examId).orElseThrow(() -> new EntityNotFoundException("Exam", examId));
-        var studentExams = exam.getStudentExams();
-        List<StudentParticipation> generatedParticipations = Collections.synchronizedList(new ArrayList<>());
-        executeInParallel(() -> studentExams.parallelStream().forEach(studentExam -> setUpExerciseParticipationsAndSubmissions(studentExam, generatedParticipations)));
-        return generatedParticipations.size();
-    }
-
-    private void executeInParallel(Runnable task) {
-        final int numberOfParallelThreads = 10;
-        ForkJoinPool forkJoinPool = new ForkJoinPool(numberOfParallelThreads);
-        Future<?> future = forkJoinPool.submit(task);
-        // Wait for the operation to complete
-        try {
-            future.get();
-        }
-        catch (InterruptedException e) {
-            log.error("Execute in parallel got interrupted while waiting for task to complete", e);
-        }
-        catch (ExecutionException e) {
-            log.error("Execute in parallel failed, an exception was thrown", e.getCause());
-        }
-        finally {
-            forkJoinPool.shutdown();
-        }
+        return examExercisePreparationService.prepareExercises(exam);
     }
 
     /**
@@ -0,0 +1,80 @@
+package de.tum.in.www1.artemis.service.listeners;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+import javax.persistence.PreRemove;
+
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.Submission;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.participation.Participation;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.service.CourseDashboardCacheService;
+
+/**
+ * Removes the cached course dashboards (see {@link CourseDashboardCacheService}) that contain a created, updated or removed entity.
+ * <p>
+ * Participations, submissions and results only appear in the dashboards of their students, so only these dashboards are removed. Courses, exams and exercises
+ * appear in the dashboards of all users of the course, which are not known here, so all cached dashboards are removed.
+ */
+@Component
+public class CourseDashboardListener {
+
+    private final Logger log = LoggerFactory.getLogger(CourseDashboardListener.class);
+
+    private final CourseDashboardCacheService courseDashboardCacheService;
+
+    /**
+     * The service is injected lazily to break the circular dependency with the {@link javax.persistence.EntityManager}, see {@link ResultListener}
+     *
+     * @param courseDashboardCacheService the course dashboard cache service that will be lazily injected by Spring
+     */
+    public CourseDashboardListener(@Lazy CourseDashboardCacheService courseDashboardCacheService) {
+        this.courseDashboardCacheService = courseDashboardCacheService;
+    }
+
+    /**
+     * Will be called by Hibernate AFTER one of the observed entities is created or updated and BEFORE it is removed
+     *
+     * @param entity the participation, submission, result, exercise, exam or course
+     */
+    @PostPersist
+    @PostUpdate
+    @PreRemove
+    public void invalidateCourseDashboards(Object entity) {
+        try {
+            if (entity instanceof Participation participation) {
+                invalidateCourseDashboardsOfParticipation(participation);
+            }
+            else if (entity instanceof Submission submission) {
+                invalidateCourseDashboardsOfParticipation(submission.getParticipation());
+            }
+            else if (entity instanceof Result result) {
+                invalidateCourseDashboardsOfParticipation(result.getParticipation());
+            }
+            else if (entity instanceof Exercise || entity instanceof Exam || entity instanceof Course) {
+                courseDashboardCacheService.clearCachedCourseDashboards();
+            }
+        }
+        catch (Exception e) {
+            // the cached dashboards expire after a short time, so a failed invalidation must not prevent saving the entity
+            log.warn("Could not invalidate the course dashboards for {}: {}", entity.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    private void invalidateCourseDashboardsOfParticipation(Participation participation) {
+        // template and solution participations do not belong to students. A participation proxy is not loaded just for this check, the dashboard expires anyway
+        if (participation == null || !Hibernate.isInitialized(participation) || !(participation instanceof StudentParticipation studentParticipation)) {
+            return;
+        }
+        studentParticipation.getStudents().forEach(student -> courseDashboardCacheService.invalidateCourseDashboard(student.getLogin()));
+    }
+}
@@ -0,0 +1,101 @@
+package de.tum.in.www1.artemis.service.listeners;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+import javax.persistence.PreRemove;
+
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
+import de.tum.in.www1.artemis.domain.exam.StudentExam;
+import de.tum.in.www1.artemis.domain.participation.Participation;
+import de.tum.in.www1.artemis.service.exam.ExamService;
+
+/**
+ * Invalidates the cached scores of an exam when one of its results, participations, student exams, exercises or exercise groups is created, updated or removed.
+ * <p>
+ * Results and participations only reference their exercise, so their exam is looked up in the exercise to exam mapping that is stored together with the cached
+ * scores (see {@link ExamService#invalidateExamScoresOfExercise(Long)}). All other entities reference their exam directly.
+ */
+@Component
+public class ExamScoresListener {
+
+    private final Logger log = LoggerFactory.getLogger(ExamScoresListener.class);
+
+    private final ExamService examService;
+
+    /**
+     * The service is injected lazily to break the circular dependency with the {@link javax.persistence.EntityManager}, see {@link ResultListener}
+     *
+     * @param examService the exam service that will be lazily injected by Spring
+     */
+    public ExamScoresListener(@Lazy ExamService examService) {
+        this.examService = examService;
+    }
+
+    /**
+     * Will be called by Hibernate AFTER one of the observed entities is created or updated and BEFORE it is removed
+     *
+     * @param entity the result, participation, student exam, exam, exercise group or exercise
+     */
+    @PostPersist
+    @PostUpdate
+    @PreRemove
+    public void invalidateExamScores(Object entity) {
+        try {
+            if (entity instanceof Result result) {
+                if (result.getParticipation() != null) {
+                    invalidateExamScoresOfExercise(result.getParticipation().getExercise());
+                }
+            }
+            else if (entity instanceof Participation participation) {
+                invalidateExamScoresOfExercise(participation.getExercise());
+            }
+            else if (entity instanceof Exercise exercise) {
+                invalidateExamScoresOfExercise(exercise);
+                // a new exercise is not known to the cache yet, but its exercise group usually is loaded
+                if (exercise.getExerciseGroup() != null && Hibernate.isInitialized(exercise.getExerciseGroup())) {
+                    invalidateExamScoresOfExam(exercise.getExerciseGroup().getExam());
+                }
+            }
+            else if (entity instanceof StudentExam studentExam) {
+                invalidateExamScoresOfExam(studentExam.getExam());
+            }
+            else if (entity instanceof ExerciseGroup exerciseGroup) {
+                invalidateExamScoresOfExam(exerciseGroup.getExam());
+            }
+            else if (entity instanceof Exam exam) {
+                invalidateExamScoresOfExam(exam);
+            }
+        }
+        catch (Exception e) {
+            // the cached scores expire after a while, so a failed invalidation must not prevent saving the entity
+            log.warn("Could not invalidate the exam scores for {}: {}", entity.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    private void invalidateExamScoresOfExercise(Exercise exercise) {
+        if (exercise == null || exercise.getId() == null) {
+            return;
+        }
+        // course exercises never belong to an exam, so most results (e.g. of builds and quizzes) do not need the lookup in the distributed map.
+        // An exercise proxy is not loaded just for this check
+        if (Hibernate.isInitialized(exercise) && exercise.isCourseExercise()) {
+            return;
+        }
+        examService.invalidateExamScoresOfExercise(exercise.getId());
+    }
+
+    private void invalidateExamScoresOfExam(Exam exam) {
+        if (exam != null && exam.getId() != null) {
+            examService.invalidateExamScores(exam.getId());
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.service.ScoreService;
+import de.tum.in.www1.artemis.service.scheduled.ParticipantScoreScheduleService;
 
 /**
  * Important: As the ResultListener potentially will be called from a situation where no {@link org.springframework.security.core.Authentication}
@@ -17,21 +18,28 @@ import de.tum.in.www1.artemis.service.ScoreService;
  * <p>
  * A workaround can be found in {@link ScoreService#removeOrUpdateAssociatedParticipantScore(Result)} where
  * we check if an authentication is available and if it is not, we set a dummy authentication.
+ * <p>
+ * Created or updated results are not processed here, they are only handed over to the {@link ParticipantScoreScheduleService}, which updates the participant scores
+ * in the background after the transaction has been committed.
  */
 @Component
 public class ResultListener {
 
     private ScoreService scoreService;
 
+    private ParticipantScoreScheduleService participantScoreScheduleService;
+
     /**
      * While {@link javax.persistence.EntityManager} is being initialized it instantiates {@link javax.persistence.EntityListeners} including
      * {@link ResultListener}. Now {@link ResultListener} requires the {@link ScoreService} which requires {@link de.tum.in.www1.artemis.repository.StudentScoreRepository}
      * which requires {@link javax.persistence.EntityManager}. To break this circular dependency we use lazy injection of the service here.
      *
-     * @param scoreService the student score service that will be lazily injected by Spring
+     * @param scoreService                    the student score service that will be lazily injected by Spring
+     * @param participantScoreScheduleService the participant score schedule service that will be lazily injected by Spring
      */
-    public ResultListener(@Lazy ScoreService scoreService) {
+    public ResultListener(@Lazy ScoreService scoreService, @Lazy ParticipantScoreScheduleService participantScoreScheduleService) {
         this.scoreService = scoreService;
+        this.participantScoreScheduleService = participantScoreScheduleService;
     }
 
     /**
@@ -47,15 +55,15 @@ public class ResultListener {
     }
 
     /**
-     * Update or create a new participation score after a result is created or updated
+     * Schedule the update or creation of a participation score after a result is created or updated
      * <p>
-     * Will be called by Hibernate AFTER a result is updated or created
+     * Will be called by Hibernate AFTER a result is updated or created. The participant score is only updated once the transaction is committed.
      *
      * @param createdOrUpdatedResult created or updated result
      */
     @PostUpdate
     @PostPersist
     public void updateOrCreateParticipantScore(Result createdOrUpdatedResult) {
-        scoreService.updateOrCreateParticipantScore(createdOrUpdatedResult);
+        participantScoreScheduleService.scheduleUpdate(createdOrUpdatedResult);
     }
 }
@@ -0,0 +1,73 @@
+package de.tum.in.www1.artemis.service.listeners;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+import javax.persistence.PreRemove;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import de.tum.in.www1.artemis.domain.Complaint;
+import de.tum.in.www1.artemis.domain.ComplaintResponse;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.service.TutorLeaderboardService;
+
+/**
+ * Invalidates the cached tutor leaderboard of an exercise when one of its assessed results, complaints or complaint responses is created, updated or removed.
+ * <p>
+ * Automatic results without an assessor do not count for the leaderboard and are ignored, so new build results do not invalidate anything. The exercise is taken from
+ * the participation of the result, which is loaded together with results, complaints and complaint responses whenever they are saved.
+ */
+@Component
+public class TutorLeaderboardListener {
+
+    private final Logger log = LoggerFactory.getLogger(TutorLeaderboardListener.class);
+
+    private final TutorLeaderboardService tutorLeaderboardService;
+
+    /**
+     * The service is injected lazily to break the circular dependency with the {@link javax.persistence.EntityManager}, see {@link ResultListener}
+     *
+     * @param tutorLeaderboardService the tutor leaderboard service that will be lazily injected by Spring
+     */
+    public TutorLeaderboardListener(@Lazy TutorLeaderboardService tutorLeaderboardService) {
+        this.tutorLeaderboardService = tutorLeaderboardService;
+    }
+
+    /**
+     * Will be called by Hibernate AFTER a result, complaint or complaint response is created or updated and BEFORE it is removed
+     *
+     * @param entity the result, complaint or complaint response
+     */
+    @PostPersist
+    @PostUpdate
+    @PreRemove
+    public void invalidateTutorLeaderboard(Object entity) {
+        Result result = null;
+        if (entity instanceof Result) {
+            result = (Result) entity;
+            // automatic results without assessor are not part of the leaderboard
+            if (result.getAssessor() == null) {
+                return;
+            }
+        }
+        else if (entity instanceof Complaint) {
+            result = ((Complaint) entity).getResult();
+        }
+        else if (entity instanceof ComplaintResponse && ((ComplaintResponse) entity).getComplaint() != null) {
+            result = ((ComplaintResponse) entity).getComplaint().getResult();
+        }
+        if (result == null || result.getParticipation() == null || result.getParticipation().getExercise() == null) {
+            return;
+        }
+        try {
+            tutorLeaderboardService.invalidateExerciseLeaderboard(result.getParticipation().getExercise().getId());
+        }
+        catch (Exception e) {
+            // the leaderboard is rebuilt every night, so a failed invalidation must not prevent saving the entity
+            log.warn("Could not invalidate the tutor leaderboard for {}: {}", entity.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+}
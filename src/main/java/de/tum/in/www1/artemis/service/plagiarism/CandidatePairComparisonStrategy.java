@@ -0,0 +1,195 @@
+package de.tum.in.www1.artemis.service.plagiarism;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jplag.*;
+import jplag.options.SimilarityMetric;
+import jplag.strategy.AbstractComparisonStrategy;
+
+/**
+ * A JPlag comparison strategy that only runs the expensive greedy string tiling for candidate pairs instead of all pairs of submissions.
+ * <p>
+ * Candidates are found with locality sensitive hashing: every submission is reduced to a MinHash signature of the shingles (sequences of
+ * {@link #SHINGLE_LENGTH} consecutive tokens) of its token list and two submissions become candidates if their signatures are equal in at least one band.
+ * The number of rows per band is chosen based on the similarity threshold, so that pairs above the threshold are found with a very high probability.
+ * Pairs whose token counts are too different to reach the threshold are skipped without comparing them.
+ * <p>
+ * Because the candidate search is probabilistic, this strategy is only used for large exercises where comparing all pairs is not feasible,
+ * see {@link TextPlagiarismDetectionService}.
+ */
+class CandidatePairComparisonStrategy extends AbstractComparisonStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(CandidatePairComparisonStrategy.class);
+
+    static final int SHINGLE_LENGTH = 3;
+
+    /**
+     * The minimum probability that a pair with the estimated minimum Jaccard similarity becomes a candidate
+     */
+    private static final double MINIMUM_CANDIDATE_PROBABILITY = 0.99;
+
+    private final int numberOfHashes;
+
+    private final long[] seeds;
+
+    /**
+     * @param options        the options of the JPlag run
+     * @param gsTiling       the greedy string tiling of the JPlag run
+     * @param numberOfHashes the length of the MinHash signatures
+     */
+    CandidatePairComparisonStrategy(JPlagOptions options, GSTiling gsTiling, int numberOfHashes) {
+        super(options, gsTiling);
+        this.numberOfHashes = Math.max(1, numberOfHashes);
+        var random = new Random(numberOfHashes);
+        this.seeds = random.longs(this.numberOfHashes).toArray();
+    }
+
+    @Override
+    public JPlagResult compareSubmissions(Vector<Submission> submissions, Submission baseCodeSubmission) {
+        if (baseCodeSubmission != null) {
+            compareSubmissionsToBaseCode(submissions, baseCodeSubmission);
+        }
+        long start = System.currentTimeMillis();
+
+        Set<Long> candidatePairs = findCandidatePairs(submissions);
+        long numberOfPairs = (long) submissions.size() * (submissions.size() - 1) / 2;
+        log.info("Found {} candidate pairs out of {} pairs of text submissions", candidatePairs.size(), numberOfPairs);
+
+        List<JPlagComparison> comparisons = new ArrayList<>();
+        int skippedPairs = 0;
+        for (long candidatePair : candidatePairs) {
+            Submission first = submissions.elementAt((int) (candidatePair >>> 32));
+            Submission second = submissions.elementAt((int) candidatePair);
+            if (!canReachSimilarityThreshold(first, second)) {
+                skippedPairs++;
+                continue;
+            }
+            JPlagComparison comparison = gSTiling.compare(first, second);
+            if (baseCodeSubmission != null) {
+                comparison.bcMatchesA = baseCodeMatches.get(comparison.subA.name);
+                comparison.bcMatchesB = baseCodeMatches.get(comparison.subB.name);
+            }
+            if (isAboveSimilarityThreshold(comparison)) {
+                comparisons.add(comparison);
+            }
+        }
+        log.debug("Skipped {} candidate pairs because of their different sizes", skippedPairs);
+
+        long durationInMillis = System.currentTimeMillis() - start;
+        return new JPlagResult(comparisons, durationInMillis, submissions.size(), options);
+    }
+
+    /**
+     * @return the candidate pairs, each encoded as <code>(firstIndex << 32) | secondIndex</code> with <code>firstIndex < secondIndex</code>
+     */
+    private Set<Long> findCandidatePairs(List<Submission> submissions) {
+        int rowsPerBand = rowsPerBand(options.getSimilarityThreshold() / 100, numberOfHashes);
+        int numberOfBands = numberOfHashes / rowsPerBand;
+        List<long[]> signatures = submissions.stream().map(this::signature).collect(Collectors.toList());
+
+        Set<Long> candidatePairs = new HashSet<>();
+        for (int band = 0; band < numberOfBands; band++) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int index = 0; index < signatures.size(); index++) {
+                long[] signature = signatures.get(index);
+                if (signature == null) {
+                    continue;
+                }
+                long bucket = band;
+                for (int row = band * rowsPerBand; row < (band + 1) * rowsPerBand; row++) {
+                    bucket = mix(bucket * 31 + signature[row]);
+                }
+                buckets.computeIfAbsent(bucket, key -> new ArrayList<>()).add(index);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    for (int j = i + 1; j < bucket.size(); j++) {
+                        candidatePairs.add(((long) bucket.get(i) << 32) | bucket.get(j));
+                    }
+                }
+            }
+        }
+        return candidatePairs;
+    }
+
+    /**
+     * Calculates the MinHash signature of the shingles of the given submission
+     *
+     * @return the signature or null if the submission has fewer tokens than a shingle
+     */
+    private long[] signature(Submission submission) {
+        Token[] tokens = submission.tokenList == null ? new Token[0] : submission.tokenList.tokens;
+        int numberOfTokens = submission.getNumberOfTokens();
+        if (numberOfTokens < SHINGLE_LENGTH) {
+            return null;
+        }
+        long[] signature = new long[numberOfHashes];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (int start = 0; start + SHINGLE_LENGTH <= numberOfTokens; start++) {
+            long shingle = 0;
+            for (int offset = 0; offset < SHINGLE_LENGTH; offset++) {
+                Token token = tokens[start + offset];
+                shingle = shingle * 1_000_003 + (token == null ? -1 : token.type);
+            }
+            for (int hash = 0; hash < numberOfHashes; hash++) {
+                signature[hash] = Math.min(signature[hash], mix(shingle ^ seeds[hash]));
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * With the average similarity metric, at most all tokens of the smaller submission can match, so the similarity is bounded by the sizes of the submissions
+     */
+    private boolean canReachSimilarityThreshold(Submission first, Submission second) {
+        if (options.getSimilarityMetric() != SimilarityMetric.AVG) {
+            return true;
+        }
+        int firstSize = first.getNumberOfTokens() - (first.files == null ? 0 : first.files.size());
+        int secondSize = second.getNumberOfTokens() - (second.files == null ? 0 : second.files.size());
+        if (firstSize + secondSize <= 0) {
+            return true;
+        }
+        float maximumPercent = 200f * Math.min(firstSize, secondSize) / (firstSize + secondSize);
+        // small tolerance to be on the safe side with rounding
+        return maximumPercent + 0.01f >= options.getSimilarityThreshold();
+    }
+
+    /**
+     * Chooses the largest number of rows per band (i.e. the fewest candidates) for which a pair with the minimum expected Jaccard similarity of its
+     * shingles still becomes a candidate with a probability of at least {@link #MINIMUM_CANDIDATE_PROBABILITY}.
+     * <p>
+     * If a fraction <code>s</code> of the tokens of two submissions match, about the same fraction of their shingles is shared, i.e. their Jaccard similarity is about
+     * <code>s / (2 - s)</code>. Only the shingles that overlap the borders of a match are lost, which is small as matches consist of at least the minimum number of tokens.
+     *
+     * @param similarityThreshold the similarity threshold between 0 and 1
+     * @param numberOfHashes      the length of the signatures
+     * @return the number of rows per band, at least 1
+     */
+    static int rowsPerBand(float similarityThreshold, int numberOfHashes) {
+        double minimumJaccardSimilarity = Math.max(0.0, similarityThreshold / (2.0 - similarityThreshold));
+        int rowsPerBand = 1;
+        for (int rows = 2; rows <= numberOfHashes; rows++) {
+            int bands = numberOfHashes / rows;
+            double candidateProbability = 1 - Math.pow(1 - Math.pow(minimumJaccardSimilarity, rows), bands);
+            if (candidateProbability < MINIMUM_CANDIDATE_PROBABILITY) {
+                break;
+            }
+            rowsPerBand = rows;
+        }
+        return rowsPerBand;
+    }
+
+    /**
+     * The finalizer of SplitMix64, a cheap hash function with good avalanche behavior
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
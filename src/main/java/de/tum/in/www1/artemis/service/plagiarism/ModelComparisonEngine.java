@@ -0,0 +1,180 @@
+package de.tum.in.www1.artemis.service.plagiarism;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagram;
+
+/**
+ * Compares all pairs of UML diagrams in parallel and returns the pairs that are at least as similar as a given threshold.
+ * <p>
+ * The upper triangle of the comparison matrix is split into square tiles of {@link #TILE_SIZE} x {@link #TILE_SIZE} pairs which are processed by the given
+ * {@link ForkJoinPool}, so that idle workers steal tiles from busy ones. The pool is shared by all comparisons, so concurrent comparisons do not use more threads.
+ * Before two diagrams are compared, {@link UMLDiagram#similarityUpperBound(Map, Map)} is used to skip pairs that cannot reach the threshold based on the number and
+ * the types of their elements. The similarity of all remaining pairs is calculated exactly as in a sequential comparison, so the result does not depend on the parallelism.
+ */
+class ModelComparisonEngine {
+
+    static final int TILE_SIZE = 32;
+
+    /**
+     * The similarity is a sum of floating point numbers, so it can be slightly higher than its upper bound due to rounding errors
+     */
+    private static final double UPPER_BOUND_TOLERANCE = 1e-9;
+
+    private final ForkJoinPool forkJoinPool;
+
+    /**
+     * @param forkJoinPool the pool that compares the models, it is not shut down by the engine
+     */
+    ModelComparisonEngine(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Compares every diagram with every other diagram of the given list exactly once.
+     *
+     * @param models            the diagrams to compare
+     * @param minimumSimilarity the minimum similarity (between 0 and 1) of a pair to be included in the result
+     * @param isCancelled       checked before each tile, the comparison stops with a {@link CancellationException} as soon as it returns true
+     * @param progressListener  notified after each tile with the number of processed pairs
+     * @return the similar pairs, the indices of each pair refer to the given list
+     * @throws CancellationException if the comparison was cancelled or the calling thread was interrupted
+     */
+    List<SimilarPair> findSimilarPairs(List<UMLDiagram> models, double minimumSimilarity, BooleanSupplier isCancelled, ProgressListener progressListener) {
+        List<Map<Class<?>, Integer>> typeCounts = models.stream().map(UMLDiagram::getModelElementTypeCounts).collect(Collectors.toList());
+        long numberOfPairs = (long) models.size() * (models.size() - 1) / 2;
+        AtomicLong processedPairs = new AtomicLong();
+        // also stop the workers if the calling thread gives up waiting
+        AtomicBoolean aborted = new AtomicBoolean();
+        BooleanSupplier shouldStop = () -> aborted.get() || isCancelled.getAsBoolean();
+
+        List<Tile> tiles = createTiles(models.size());
+        try {
+            Future<List<SimilarPair>> future = forkJoinPool.submit(() -> tiles.parallelStream().flatMap(tile -> {
+                if (shouldStop.getAsBoolean()) {
+                    throw new CancellationException("The comparison of the models was cancelled");
+                }
+                List<SimilarPair> similarPairs = compareTile(tile, models, typeCounts, minimumSimilarity);
+                progressListener.onProgress(processedPairs.addAndGet(tile.getNumberOfPairs()), numberOfPairs);
+                return similarPairs.stream();
+            }).collect(Collectors.toList()));
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            aborted.set(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while comparing the models");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException cancellationException) {
+                throw cancellationException;
+            }
+            throw new IllegalStateException("Comparing the models failed", e.getCause());
+        }
+    }
+
+    private List<SimilarPair> compareTile(Tile tile, List<UMLDiagram> models, List<Map<Class<?>, Integer>> typeCounts, double minimumSimilarity) {
+        List<SimilarPair> similarPairs = new ArrayList<>();
+        for (int i = tile.rowStart; i < tile.rowEnd; i++) {
+            // on tiles on the diagonal, we only compare each pair once and do not compare a model with itself
+            for (int j = Math.max(tile.columnStart, i + 1); j < tile.columnEnd; j++) {
+                UMLDiagram model1 = models.get(i);
+                UMLDiagram model2 = models.get(j);
+                if (model1.getClass() != model2.getClass()
+                        || UMLDiagram.similarityUpperBound(typeCounts.get(i), typeCounts.get(j)) + UPPER_BOUND_TOLERANCE < minimumSimilarity) {
+                    continue;
+                }
+                double similarity = model1.similarity(model2);
+                if (similarity >= minimumSimilarity) {
+                    similarPairs.add(new SimilarPair(i, j, similarity));
+                }
+            }
+        }
+        return similarPairs;
+    }
+
+    private static List<Tile> createTiles(int numberOfModels) {
+        List<Tile> tiles = new ArrayList<>();
+        for (int rowStart = 0; rowStart < numberOfModels; rowStart += TILE_SIZE) {
+            for (int columnStart = rowStart; columnStart < numberOfModels; columnStart += TILE_SIZE) {
+                tiles.add(new Tile(rowStart, Math.min(rowStart + TILE_SIZE, numberOfModels), columnStart, Math.min(columnStart + TILE_SIZE, numberOfModels)));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Receives the progress of a running comparison, may be called concurrently from different worker threads
+     */
+    @FunctionalInterface
+    interface ProgressListener {
+
+        void onProgress(long processedPairs, long numberOfPairs);
+    }
+
+    /**
+     * A pair of models with a similarity of at least the minimum similarity
+     */
+    static final class SimilarPair {
+
+        private final int firstIndex;
+
+        private final int secondIndex;
+
+        private final double similarity;
+
+        SimilarPair(int firstIndex, int secondIndex, double similarity) {
+            this.firstIndex = firstIndex;
+            this.secondIndex = secondIndex;
+            this.similarity = similarity;
+        }
+
+        int getFirstIndex() {
+            return firstIndex;
+        }
+
+        int getSecondIndex() {
+            return secondIndex;
+        }
+
+        double getSimilarity() {
+            return similarity;
+        }
+    }
+
+    /**
+     * A rectangular part of the upper triangle of the comparison matrix, the end indices are exclusive
+     */
+    private static final class Tile {
+
+        private final int rowStart;
+
+        private final int rowEnd;
+
+        private final int columnStart;
+
+        private final int columnEnd;
+
+        private Tile(int rowStart, int rowEnd, int columnStart, int columnEnd) {
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+            this.columnStart = columnStart;
+            this.columnEnd = columnEnd;
+        }
+
+        private long getNumberOfPairs() {
+            long pairs = 0;
+            for (int i = rowStart; i < rowEnd; i++) {
+                pairs += Math.max(0, columnEnd - Math.max(columnStart, i + 1));
+            }
+            return pairs;
+        }
+    }
+}
@@ -5,10 +5,20 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
+import javax.annotation.PreDestroy;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -22,12 +32,39 @@ import de.tum.in.www1.artemis.domain.plagiarism.modeling.ModelingPlagiarismResul
 import de.tum.in.www1.artemis.domain.plagiarism.modeling.ModelingSubmissionElement;
 import de.tum.in.www1.artemis.service.compass.controller.UMLModelParser;
 import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagram;
+import de.tum.in.www1.artemis.web.websocket.dto.ModelingPlagiarismCheckProgressDTO;
 
 @Service
 public class ModelingPlagiarismDetectionService {
 
     private final Logger log = LoggerFactory.getLogger(ModelingPlagiarismDetectionService.class);
 
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    /**
+     * Compares the models of all running checks, so that concurrent checks do not use more threads
+     */
+    private final ForkJoinPool comparisonPool;
+
+    /**
+     * The cancellation flags of the currently running comparisons, mapped by exercise id
+     */
+    private final Map<Long, AtomicBoolean> runningComparisons = new ConcurrentHashMap<>();
+
+    /**
+     * @param messagingTemplate used to send the progress of a check to the instructors
+     * @param parallelism       the number of threads used to compare the models, 0 uses the number of available processors
+     */
+    public ModelingPlagiarismDetectionService(SimpMessageSendingOperations messagingTemplate, @Value("${artemis.plagiarism.modeling.parallelism:0}") int parallelism) {
+        this.messagingTemplate = messagingTemplate;
+        this.comparisonPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        comparisonPool.shutdownNow();
+    }
+
     /**
      * Convenience method to extract all latest submissions from a ModelingExercise and compute
      * pair-wise distances.
@@ -41,18 +78,29 @@ public class ModelingPlagiarismDetectionService {
      * @param minimumScore                                 the minimum result score (if available)
      *                                                     to be considered as plagiarism
      * @return List of submission id pairs and similarity score
+     * @throws java.util.concurrent.CancellationException if a newer check of the same exercise replaced this one
      */
     public ModelingPlagiarismResult compareSubmissions(ModelingExercise exerciseWithParticipationsSubmissionsResults, double minimumSimilarity, int minimumModelSize,
             int minimumScore) {
         final List<ModelingSubmission> modelingSubmissions = modelingSubmissionsForComparison(exerciseWithParticipationsSubmissionsResults);
 
-        log.info("Found {} modeling submissions in exercise {}", modelingSubmissions.size(), exerciseWithParticipationsSubmissionsResults.getId());
-
-        ModelingPlagiarismResult result = compareSubmissions(modelingSubmissions, minimumSimilarity, minimumModelSize, minimumScore);
+        final Long exerciseId = exerciseWithParticipationsSubmissionsResults.getId();
 
-        result.setExercise(exerciseWithParticipationsSubmissionsResults);
+        log.info("Found {} modeling submissions in exercise {}", modelingSubmissions.size(), exerciseId);
 
-        return result;
+        AtomicBoolean cancelled = new AtomicBoolean();
+        // a new check replaces a running one for the same exercise, because only the latest result is kept anyway
+        Optional.ofNullable(runningComparisons.put(exerciseId, cancelled)).ifPresent(previous -> previous.set(true));
+        try {
+            ModelingPlagiarismResult result = compareSubmissions(modelingSubmissions, minimumSimilarity, minimumModelSize, minimumScore, cancelled::get,
+                    progressInPercent -> messagingTemplate.convertAndSend("/topic/modeling-exercises/" + exerciseId + "/plagiarism-check",
+                            new ModelingPlagiarismCheckProgressDTO(progressInPercent)));
+            result.setExercise(exerciseWithParticipationsSubmissionsResults);
+            return result;
+        }
+        finally {
+            runningComparisons.remove(exerciseId, cancelled);
+        }
     }
 
     /**
@@ -79,6 +127,26 @@ public class ModelingPlagiarismDetectionService {
      * @return List of submission id pairs and similarity score
      */
     public ModelingPlagiarismResult compareSubmissions(List<ModelingSubmission> modelingSubmissions, double minimumSimilarity, int minimumModelSize, int minimumScore) {
+        return compareSubmissions(modelingSubmissions, minimumSimilarity, minimumModelSize, minimumScore, () -> false, progressInPercent -> {
+        });
+    }
+
+    /**
+     * Pairwise comparison of modeling submissions in parallel, see {@link ModelComparisonEngine}
+     *
+     * @param modelingSubmissions List of modeling submissions
+     * @param minimumSimilarity   the minimum similarity so that the result is considered
+     * @param minimumModelSize    the minimum number of model elements to be considered as
+     *                            plagiarism
+     * @param minimumScore        the minimum result score (if available) to be considered as
+     *                            plagiarism
+     * @param isCancelled         checked regularly during the comparison, which is aborted with a
+     *                            {@link java.util.concurrent.CancellationException} once it returns true
+     * @param onProgress          notified with the percentage of compared pairs whenever it increased by at least 10
+     * @return List of submission id pairs and similarity score
+     */
+    private ModelingPlagiarismResult compareSubmissions(List<ModelingSubmission> modelingSubmissions, double minimumSimilarity, int minimumModelSize, int minimumScore,
+            BooleanSupplier isCancelled, IntConsumer onProgress) {
         ModelingPlagiarismResult result = new ModelingPlagiarismResult();
 
         Map<UMLDiagram, ModelingSubmission> models = new HashMap<>();
@@ -108,45 +176,45 @@ public class ModelingPlagiarismDetectionService {
 
         long timeBeforeStartInMillis = System.currentTimeMillis();
 
-        // It is intended to use the classic for loop here, because we only want to check
-        // similarity between two different submissions once
-        for (int i = 0; i < nonEmptyDiagrams.size(); i++) {
-            for (int j = i + 1; j < nonEmptyDiagrams.size(); j++) {
-                UMLDiagram model1 = nonEmptyDiagrams.get(i);
-                UMLDiagram model2 = nonEmptyDiagrams.get(j);
-
-                final double similarity = model1.similarity(model2);
-                log.debug("Compare result {} with {}: {}", i, j, similarity);
+        // the engine compares each pair of different submissions once, pairs that cannot reach the minimum similarity are skipped
+        AtomicInteger loggedProgressInPercent = new AtomicInteger();
+        var similarPairs = new ModelComparisonEngine(comparisonPool).findSimilarPairs(nonEmptyDiagrams, minimumSimilarity, isCancelled, (processedPairs, numberOfPairs) -> {
+            int progressInPercent = numberOfPairs == 0 ? 100 : (int) (processedPairs * 100 / numberOfPairs);
+            int lastLoggedProgress = loggedProgressInPercent.get();
+            if (progressInPercent >= lastLoggedProgress + 10 && loggedProgressInPercent.compareAndSet(lastLoggedProgress, progressInPercent)) {
+                log.info("Compared {} of {} modeling submission combinations ({}%)", processedPairs, numberOfPairs, progressInPercent);
+                onProgress.accept(progressInPercent);
+            }
+        });
 
-                if (similarity < minimumSimilarity) {
-                    // ignore comparison results with too small similarity
-                    continue;
-                }
+        for (var similarPair : similarPairs) {
+            UMLDiagram model1 = nonEmptyDiagrams.get(similarPair.getFirstIndex());
+            UMLDiagram model2 = nonEmptyDiagrams.get(similarPair.getSecondIndex());
+            final double similarity = similarPair.getSimilarity();
 
-                ModelingSubmission modelingSubmissionA = models.get(model1);
-                ModelingSubmission modelingSubmissionB = models.get(model2);
+            ModelingSubmission modelingSubmissionA = models.get(model1);
+            ModelingSubmission modelingSubmissionB = models.get(model2);
 
-                log.info("Found similar models {} with {}: {}", i, j, similarity);
+            log.info("Found similar models {} with {}: {}", similarPair.getFirstIndex(), similarPair.getSecondIndex(), similarity);
 
-                PlagiarismSubmission<ModelingSubmissionElement> submissionA = PlagiarismSubmission.fromModelingSubmission(modelingSubmissionA);
-                submissionA.setSize(model1.getAllModelElements().size());
-                submissionA.setElements(model1.getAllModelElements().stream().map(ModelingSubmissionElement::fromUMLElement).collect(Collectors.toList()));
+            PlagiarismSubmission<ModelingSubmissionElement> submissionA = PlagiarismSubmission.fromModelingSubmission(modelingSubmissionA);
+            submissionA.setSize(model1.getAllModelElements().size());
+            submissionA.setElements(model1.getAllModelElements().stream().map(ModelingSubmissionElement::fromUMLElement).collect(Collectors.toList()));
 
-                PlagiarismSubmission<ModelingSubmissionElement> submissionB = PlagiarismSubmission.fromModelingSubmission(modelingSubmissionB);
-                submissionB.setSize(model2.getAllModelElements().size());
-                submissionB.setElements(model2.getAllModelElements().stream().map(ModelingSubmissionElement::fromUMLElement).collect(Collectors.toList()));
+            PlagiarismSubmission<ModelingSubmissionElement> submissionB = PlagiarismSubmission.fromModelingSubmission(modelingSubmissionB);
+            submissionB.setSize(model2.getAllModelElements().size());
+            submissionB.setElements(model2.getAllModelElements().stream().map(ModelingSubmissionElement::fromUMLElement).collect(Collectors.toList()));
 
-                PlagiarismComparison<ModelingSubmissionElement> comparison = new PlagiarismComparison<>();
+            PlagiarismComparison<ModelingSubmissionElement> comparison = new PlagiarismComparison<>();
 
-                comparison.setPlagiarismResult(result);
-                comparison.setSimilarity(similarity * 100);
-                comparison.setSubmissionA(submissionA);
-                comparison.setSubmissionB(submissionB);
-                // TODO: Add matches to highlight similar modeling elements
-                comparison.setMatches(new HashSet<>());
+            comparison.setPlagiarismResult(result);
+            comparison.setSimilarity(similarity * 100);
+            comparison.setSubmissionA(submissionA);
+            comparison.setSubmissionB(submissionB);
+            // TODO: Add matches to highlight similar modeling elements
+            comparison.setMatches(new HashSet<>());
 
-                comparisons.add(comparison);
-            }
+            comparisons.add(comparison);
         }
 
         log.info("Found {} similar modeling submission combinations (>{})", comparisons.size(), minimumSimilarity);
@@ -10,6 +10,7 @@ import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 
@@ -31,6 +32,15 @@ public class TextPlagiarismDetectionService {
 
     private final TextSubmissionExportService textSubmissionExportService;
 
+    /**
+     * From this number of submissions on, JPlag only compares candidate pairs instead of all pairs, see {@link CandidatePairComparisonStrategy}
+     */
+    @Value("${artemis.plagiarism.text.candidate-filter.min-submissions:200}")
+    private int candidateFilterMinSubmissions;
+
+    @Value("${artemis.plagiarism.text.candidate-filter.number-of-hashes:128}")
+    private int candidateFilterNumberOfHashes;
+
     public TextPlagiarismDetectionService(TextSubmissionExportService textSubmissionExportService) {
         this.textSubmissionExportService = textSubmissionExportService;
     }
@@ -115,6 +125,12 @@ public class TextPlagiarismDetectionService {
 
         log.info("Start JPlag Text comparison");
         JPlag jplag = new JPlag(options);
+        // comparing all pairs grows quadratically with the number of submissions, for large exercises we only compare pairs that are likely similar.
+        // Without a threshold, all pairs are part of the result anyway
+        if (submissionsSize >= candidateFilterMinSubmissions && similarityThreshold > 0) {
+            log.info("Only compare candidate pairs of the {} text submissions", submissionsSize);
+            jplag.comparisonStrategy = new CandidatePairComparisonStrategy(options, new GSTiling(jplag), candidateFilterNumberOfHashes);
+        }
         JPlagResult jPlagResult = jplag.run();
         log.info("JPlag Text comparison finished with {} comparisons", jPlagResult.getComparisons().size());
 
@@ -0,0 +1,496 @@
+package de.tum.in.www1.artemis.service.programming;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.cluster.MembershipEvent;
+import com.hazelcast.cluster.MembershipListener;
+import com.hazelcast.collection.IQueue;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceNotActiveException;
+import com.hazelcast.map.IMap;
+import com.hazelcast.transaction.TransactionContext;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.enumeration.BuildPlanType;
+import de.tum.in.www1.artemis.domain.participation.*;
+import de.tum.in.www1.artemis.repository.ProgrammingExerciseStudentParticipationRepository;
+import de.tum.in.www1.artemis.repository.SolutionProgrammingExerciseParticipationRepository;
+import de.tum.in.www1.artemis.repository.TemplateProgrammingExerciseParticipationRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.WebsocketMessagingService;
+import de.tum.in.www1.artemis.service.connectors.ContinuousIntegrationService;
+import de.tum.in.www1.artemis.service.connectors.LtiService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Processes the build results that the continuous integration server sends to Artemis after a build has finished.
+ * <p>
+ * By default, the results are processed synchronously while the continuous integration server waits for the response. If the asynchronous processing is enabled, the
+ * notifications are only put into a distributed queue, so that the continuous integration server gets its response immediately even if thousands of builds finish
+ * at the same time (e.g. at the due date). Every instance takes notifications from the queue and processes them on a bounded number of workers. The notifications
+ * of the same build plan are never processed concurrently, but they are not necessarily processed in the order in which they were received.
+ * <p>
+ * A notification is moved from the queue into a map of claimed notifications in one transaction and only removed from this map after it was processed. If an
+ * instance shuts down, it puts the notifications that it claimed but did not process back into the queue. If an instance leaves the cluster unexpectedly, the
+ * remaining instances put its claimed notifications back into the queue, so a notification that was being processed during a crash is processed again.
+ */
+@Service
+public class BuildResultIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BuildResultIngestionService.class);
+
+    private static final String NOTIFICATIONS_QUEUE = "buildResultNotifications";
+
+    private static final String CLAIMED_NOTIFICATIONS_MAP = "buildResultClaimedNotifications";
+
+    /**
+     * How long a shutdown waits for the notifications that are processed at the moment
+     */
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Optional<ContinuousIntegrationService> continuousIntegrationService;
+
+    private final ProgrammingExerciseGradingService programmingExerciseGradingService;
+
+    private final WebsocketMessagingService messagingService;
+
+    private final LtiService ltiService;
+
+    private final TemplateProgrammingExerciseParticipationRepository templateProgrammingExerciseParticipationRepository;
+
+    private final SolutionProgrammingExerciseParticipationRepository solutionProgrammingExerciseParticipationRepository;
+
+    private final ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    @Value("${artemis.continuous-integration.asynchronous-result-processing.enabled:false}")
+    private boolean asynchronousProcessingEnabled;
+
+    @Value("${artemis.continuous-integration.asynchronous-result-processing.workers:8}")
+    private int numberOfWorkers;
+
+    @Value("${artemis.continuous-integration.asynchronous-result-processing.max-pending-notifications:64}")
+    private int maxPendingNotifications;
+
+    /**
+     * The notifications that were received but not processed yet, the queue has a backup on another instance of the cluster
+     */
+    private final IQueue<BuildResultNotification> notifications;
+
+    /**
+     * The notifications that an instance took from the queue, but did not process completely yet, by their id
+     */
+    private final IMap<UUID, BuildResultNotification> claimedNotifications;
+
+    /**
+     * Used to lock the build plans whose notifications are processed at the moment
+     */
+    private final IMap<String, Boolean> processingLocks;
+
+    /**
+     * The ids of the notifications that this instance claimed and did not process yet
+     */
+    private final Set<UUID> localClaimedNotifications = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean stopping;
+
+    private ExecutorService[] workers;
+
+    private Thread dispatcher;
+
+    private Semaphore pendingNotifications;
+
+    private Timer latencyTimer;
+
+    private Counter processedCounter;
+
+    private Counter failedCounter;
+
+    public BuildResultIngestionService(Optional<ContinuousIntegrationService> continuousIntegrationService, ProgrammingExerciseGradingService programmingExerciseGradingService,
+            WebsocketMessagingService messagingService, LtiService ltiService,
+            TemplateProgrammingExerciseParticipationRepository templateProgrammingExerciseParticipationRepository,
+            SolutionProgrammingExerciseParticipationRepository solutionProgrammingExerciseParticipationRepository,
+            ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository, HazelcastInstance hazelcastInstance, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.continuousIntegrationService = continuousIntegrationService;
+        this.programmingExerciseGradingService = programmingExerciseGradingService;
+        this.messagingService = messagingService;
+        this.ltiService = ltiService;
+        this.templateProgrammingExerciseParticipationRepository = templateProgrammingExerciseParticipationRepository;
+        this.solutionProgrammingExerciseParticipationRepository = solutionProgrammingExerciseParticipationRepository;
+        this.programmingExerciseStudentParticipationRepository = programmingExerciseStudentParticipationRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.hazelcastInstance = hazelcastInstance;
+        this.notifications = hazelcastInstance.getQueue(NOTIFICATIONS_QUEUE);
+        this.claimedNotifications = hazelcastInstance.getMap(CLAIMED_NOTIFICATIONS_MAP);
+        this.processingLocks = hazelcastInstance.getMap("buildResultProcessingLocks");
+    }
+
+    @PostConstruct
+    void init() {
+        if (!asynchronousProcessingEnabled) {
+            return;
+        }
+        Gauge.builder("artemis.ci.result.queue.size", notifications, IQueue::size).description("Number of build results waiting to be processed").register(meterRegistry);
+        latencyTimer = Timer.builder("artemis.ci.result.queue.latency").description("Time between receiving and processing a build result").register(meterRegistry);
+        processedCounter = Counter.builder("artemis.ci.result.queue.processed").description("Number of processed build results").register(meterRegistry);
+        failedCounter = Counter.builder("artemis.ci.result.queue.failed").description("Number of build results that could not be processed").register(meterRegistry);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ExecutorService[Math.max(1, numberOfWorkers)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "build-result-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        pendingNotifications = new Semaphore(Math.max(1, maxPendingNotifications));
+
+        hazelcastInstance.getCluster().addMembershipListener(new MembershipListener() {
+
+            @Override
+            public void memberAdded(MembershipEvent membershipEvent) {
+                // nothing to do, the new instance takes notifications from the queue itself
+            }
+
+            @Override
+            public void memberRemoved(MembershipEvent membershipEvent) {
+                // only the oldest instance restores the notifications, the others would not find any afterwards
+                if (membershipEvent.getMembers().iterator().next().localMember()) {
+                    requeueOrphanedNotifications();
+                }
+            }
+        });
+        // an instance might have left the cluster while no other instance was running the listener above
+        requeueOrphanedNotifications();
+
+        dispatcher = new Thread(this::dispatchNotifications, "build-result-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (dispatcher == null) {
+            return;
+        }
+        // notifications that were not started yet stay claimed and are put back into the queue below
+        stopping = true;
+        dispatcher.interrupt();
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        try {
+            dispatcher.join(SHUTDOWN_TIMEOUT.toMillis());
+            long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+            for (ExecutorService worker : workers) {
+                if (!worker.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    log.warn("Build results were still processed when the application shut down, they will be processed again");
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            for (UUID notificationId : List.copyOf(localClaimedNotifications)) {
+                requeueClaimedNotification(notificationId, null);
+            }
+        }
+        catch (HazelcastInstanceNotActiveException e) {
+            log.error("Could not put {} claimed build results back into the queue: {}", localClaimedNotifications.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return true if the build results are put into the queue and processed later
+     */
+    public boolean isAsynchronousProcessingEnabled() {
+        return asynchronousProcessingEnabled;
+    }
+
+    /**
+     * Retrieves the key of the build plan from the notification of the continuous integration server
+     *
+     * @param requestBody the build result of the continuous integration server
+     * @return the key of the build plan
+     * @throws Exception if the request body is malformed
+     */
+    public String getPlanKey(Object requestBody) throws Exception {
+        return continuousIntegrationService.get().getPlanKey(requestBody);
+    }
+
+    /**
+     * Puts the build result into the queue, it will be processed by one of the instances of the cluster
+     *
+     * @param planKey     the key of the build plan
+     * @param requestBody the build result of the continuous integration server
+     * @throws JsonProcessingException if the build result cannot be serialized
+     */
+    public void enqueueNewResult(String planKey, Object requestBody) throws JsonProcessingException {
+        notifications.add(new BuildResultNotification(UUID.randomUUID(), planKey, objectMapper.writeValueAsString(requestBody), Instant.now(), null));
+    }
+
+    /**
+     * Creates the result from the build result, saves it and informs the participants about it
+     *
+     * @param planKey     the key of the build plan
+     * @param requestBody the build result of the continuous integration server
+     * @return false if there is no participation for the build plan
+     */
+    public boolean processNewResult(String planKey, Object requestBody) {
+        // Try to retrieve the participation with the build plan key.
+        var participation = getParticipationWithResults(planKey);
+        if (participation == null) {
+            log.warn("Participation is missing for notifyResultNew (PlanKey: {}).", planKey);
+            return false;
+        }
+
+        // Process the new result from the build result.
+        Optional<Result> optResult = programmingExerciseGradingService.processNewProgrammingExerciseResult(participation, requestBody);
+
+        // Only notify the user about the new result if the result was created successfully.
+        if (optResult.isPresent()) {
+            Result result = optResult.get();
+            log.debug("Send result to client over websocket. Result: {}, Submission: {}, Participation: {}", result, result.getSubmission(), result.getParticipation());
+            // notify user via websocket
+            messagingService.broadcastNewResult((Participation) participation, result);
+            if (participation instanceof StudentParticipation) {
+                // do not try to report results for template or solution participations
+                ltiService.onNewResult((ProgrammingExerciseStudentParticipation) participation);
+            }
+            log.info("The new result for {} was saved successfully", planKey);
+        }
+        return true;
+    }
+
+    @Nullable
+    private ProgrammingExerciseParticipation getParticipationWithResults(String planKey) {
+        // we have to support template, solution and student build plans here
+        if (planKey.endsWith("-" + BuildPlanType.TEMPLATE.getName())) {
+            return templateProgrammingExerciseParticipationRepository.findByBuildPlanIdWithResults(planKey).orElse(null);
+        }
+        else if (planKey.endsWith("-" + BuildPlanType.SOLUTION.getName())) {
+            return solutionProgrammingExerciseParticipationRepository.findByBuildPlanIdWithResults(planKey).orElse(null);
+        }
+        List<ProgrammingExerciseStudentParticipation> participations = programmingExerciseStudentParticipationRepository.findByBuildPlanId(planKey);
+        ProgrammingExerciseStudentParticipation participation = null;
+        if (participations.size() > 0) {
+            participation = participations.get(0);
+            if (participations.size() > 1) {
+                // in the rare case of multiple participations, take the latest one.
+                for (ProgrammingExerciseStudentParticipation otherParticipation : participations) {
+                    if (otherParticipation.getInitializationDate().isAfter(participation.getInitializationDate())) {
+                        participation = otherParticipation;
+                    }
+                }
+            }
+        }
+        return participation;
+    }
+
+    /**
+     * Takes the notifications from the queue and hands them to the worker of their build plan. At most <code>max-pending-notifications</code> notifications are claimed
+     * by this instance at the same time, the others stay in the queue and can be processed by other instances.
+     */
+    private void dispatchNotifications() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                pendingNotifications.acquire();
+                BuildResultNotification notification;
+                try {
+                    notification = claimNextNotification();
+                }
+                catch (InterruptedException | RuntimeException e) {
+                    pendingNotifications.release();
+                    throw e;
+                }
+                if (notification == null) {
+                    pendingNotifications.release();
+                    continue;
+                }
+                localClaimedNotifications.add(notification.id);
+                workers[Math.floorMod(notification.planKey.hashCode(), workers.length)].execute(() -> {
+                    try {
+                        if (!stopping) {
+                            processNotification(notification);
+                            claimedNotifications.delete(notification.id);
+                            localClaimedNotifications.remove(notification.id);
+                        }
+                    }
+                    finally {
+                        pendingNotifications.release();
+                    }
+                });
+            }
+            catch (InterruptedException | HazelcastInstanceNotActiveException | RejectedExecutionException e) {
+                // the application shuts down, the claimed notifications are put back into the queue
+                return;
+            }
+            catch (RuntimeException e) {
+                log.error("Could not take the next build result from the queue: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Moves the next notification from the queue into the claimed notifications of this instance, both in one transaction, so that the notification is never only
+     * held in the memory of this instance.
+     *
+     * @return the claimed notification or null if the queue stayed empty for one second
+     * @throws InterruptedException if the dispatcher was interrupted while waiting for a notification
+     */
+    @Nullable
+    private BuildResultNotification claimNextNotification() throws InterruptedException {
+        TransactionContext context = hazelcastInstance.newTransactionContext();
+        context.beginTransaction();
+        try {
+            BuildResultNotification notification = context.<BuildResultNotification>getQueue(NOTIFICATIONS_QUEUE).poll(1, TimeUnit.SECONDS);
+            if (notification != null) {
+                notification = notification.claimedBy(hazelcastInstance.getCluster().getLocalMember().getUuid());
+                context.<UUID, BuildResultNotification>getMap(CLAIMED_NOTIFICATIONS_MAP).set(notification.id, notification);
+            }
+            context.commitTransaction();
+            return notification;
+        }
+        catch (InterruptedException | RuntimeException e) {
+            context.rollbackTransaction();
+            throw e;
+        }
+    }
+
+    /**
+     * Puts the notifications that were claimed by instances that are no longer part of the cluster back into the queue
+     */
+    void requeueOrphanedNotifications() {
+        try {
+            Set<UUID> memberIds = hazelcastInstance.getCluster().getMembers().stream().map(Member::getUuid).collect(Collectors.toSet());
+            for (BuildResultNotification notification : claimedNotifications.values()) {
+                if (!memberIds.contains(notification.owner)) {
+                    requeueClaimedNotification(notification.id, notification.owner);
+                }
+            }
+        }
+        catch (HazelcastInstanceNotActiveException e) {
+            log.warn("Could not put the build results of instances that left the cluster back into the queue: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Puts a claimed notification back into the queue, unless another instance already did this
+     *
+     * @param notificationId the id of the claimed notification
+     * @param expectedOwner  the instance that is expected to have claimed the notification or null for this instance
+     */
+    private void requeueClaimedNotification(UUID notificationId, @Nullable UUID expectedOwner) {
+        UUID owner = expectedOwner != null ? expectedOwner : hazelcastInstance.getCluster().getLocalMember().getUuid();
+        BuildResultNotification notification = claimedNotifications.get(notificationId);
+        if (notification != null && owner.equals(notification.owner) && claimedNotifications.remove(notificationId, notification)) {
+            notifications.add(notification.claimedBy(null));
+            log.info("Put the build result for build plan {} back into the queue", notification.planKey);
+        }
+        localClaimedNotifications.remove(notificationId);
+    }
+
+    private void processNotification(BuildResultNotification notification) {
+        // No 'user' is properly logged into Artemis, this leads to an issue when accessing custom repository methods.
+        SecurityUtils.setAuthorizationObject();
+        processingLocks.lock(notification.planKey);
+        try {
+            Object requestBody = objectMapper.readValue(notification.payload, Object.class);
+            processNewResult(notification.planKey, requestBody);
+            processedCounter.increment();
+        }
+        catch (Exception e) {
+            // the notification is not put back into the queue, because it would most likely fail again
+            failedCounter.increment();
+            log.error("Could not process the build result for build plan {}: {}", notification.planKey, e.getMessage(), e);
+        }
+        finally {
+            processingLocks.unlock(notification.planKey);
+            latencyTimer.record(Duration.between(notification.receivedAt, Instant.now()));
+        }
+    }
+
+    /**
+     * A build result that was received from the continuous integration server, but not processed yet
+     */
+    static final class BuildResultNotification implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final UUID id;
+
+        private final String planKey;
+
+        /**
+         * The request body of the continuous integration server as JSON
+         */
+        private final String payload;
+
+        private final Instant receivedAt;
+
+        /**
+         * The instance that claimed the notification or null if it is in the queue
+         */
+        private final UUID owner;
+
+        BuildResultNotification(UUID id, String planKey, String payload, Instant receivedAt, @Nullable UUID owner) {
+            this.id = id;
+            this.planKey = planKey;
+            this.payload = payload;
+            this.receivedAt = receivedAt;
+            this.owner = owner;
+        }
+
+        BuildResultNotification claimedBy(@Nullable UUID owner) {
+            return new BuildResultNotification(id, planKey, payload, receivedAt, owner);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            BuildResultNotification that = (BuildResultNotification) obj;
+            return id.equals(that.id) && Objects.equals(owner, that.owner);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, owner);
+        }
+    }
+}
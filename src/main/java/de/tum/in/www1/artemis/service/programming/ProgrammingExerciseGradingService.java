@@ -3,17 +3,29 @@ package de.tum.in.www1.artemis.service.programming;
 import static de.tum.in.www1.artemis.config.Constants.TEST_CASES_DUPLICATE_NOTIFICATION;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.validation.constraints.NotNull;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
@@ -23,11 +35,13 @@ import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.domain.participation.*;
 import de.tum.in.www1.artemis.exception.ContinuousIntegrationException;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.GroupNotificationService;
 import de.tum.in.www1.artemis.service.StaticCodeAnalysisService;
 import de.tum.in.www1.artemis.service.connectors.ContinuousIntegrationService;
 import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseGradingStatisticsDTO;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+import de.tum.in.www1.artemis.web.websocket.dto.ProgrammingExerciseReEvaluationProgressDTO;
 
 @Service
 public class ProgrammingExerciseGradingService {
@@ -60,12 +74,22 @@ public class ProgrammingExerciseGradingService {
 
     private final GroupNotificationService groupNotificationService;
 
+    private final TransactionTemplate chunkTransactionTemplate;
+
+    @Value("${artemis.programming.re-evaluation.chunk-size:100}")
+    private int reEvaluationChunkSize;
+
+    @Value("${artemis.programming.re-evaluation.pool-size:4}")
+    private int reEvaluationPoolSize;
+
+    private ExecutorService reEvaluationExecutor;
+
     public ProgrammingExerciseGradingService(ProgrammingExerciseTestCaseService testCaseService, ProgrammingSubmissionService programmingSubmissionService,
             StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository, Optional<ContinuousIntegrationService> continuousIntegrationService,
             SimpMessageSendingOperations messagingTemplate, StaticCodeAnalysisService staticCodeAnalysisService, ProgrammingAssessmentService programmingAssessmentService,
             TemplateProgrammingExerciseParticipationRepository templateProgrammingExerciseParticipationRepository,
             SolutionProgrammingExerciseParticipationRepository solutionProgrammingExerciseParticipationRepository, ProgrammingSubmissionRepository programmingSubmissionRepository,
-            AuditEventRepository auditEventRepository, GroupNotificationService groupNotificationService) {
+            AuditEventRepository auditEventRepository, GroupNotificationService groupNotificationService, PlatformTransactionManager transactionManager) {
         this.testCaseService = testCaseService;
         this.programmingSubmissionService = programmingSubmissionService;
         this.studentParticipationRepository = studentParticipationRepository;
@@ -79,6 +103,23 @@ public class ProgrammingExerciseGradingService {
         this.programmingSubmissionRepository = programmingSubmissionRepository;
         this.auditEventRepository = auditEventRepository;
         this.groupNotificationService = groupNotificationService;
+        this.chunkTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        reEvaluationExecutor = Executors.newFixedThreadPool(Math.max(1, reEvaluationPoolSize), runnable -> {
+            Thread thread = new Thread(runnable, "programming-re-evaluation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reEvaluationExecutor.shutdownNow();
     }
 
     /**
@@ -242,17 +283,21 @@ public class ProgrammingExerciseGradingService {
     }
 
     /**
-     * Updates <b>all</b> latest automatic results of the given exercise with the information of the exercises test cases. This update includes:
+     * Updates and saves <b>all</b> latest automatic results of the given exercise with the information of the exercises test cases. This update includes:
      * - Checking which test cases were not executed as this is not part of the bamboo build (not all test cases are executed in an exercise with sequential test runs)
      * - Checking the due date and the visibility.
      * - Recalculating the score based based on the successful test cases weight vs the total weight of all test cases.
      *
      * If there are no test cases stored in the database for the given exercise (i.e. we have a legacy exercise) or the weight has not been changed, then the result will not change
      *
+     * The student participations are re-evaluated in chunks on a bounded thread pool. Every chunk is loaded, re-evaluated and saved in its own transaction, so that
+     * neither all results of the exercise nor one huge transaction have to be kept in memory. The progress is sent to the instructors after every chunk.
+     * If a chunk fails, the results of the other chunks are still saved and its participations are counted as failed.
+     *
      * @param exercise the exercise whose results should be updated
-     * @return the results of the exercise that have been updated
+     * @return the final progress, i.e. the number of results of the exercise that have been updated and the number of participations that could not be re-evaluated
      */
-    public List<Result> updateAllResults(ProgrammingExercise exercise) {
+    public ProgrammingExerciseReEvaluationProgressDTO updateAllResults(ProgrammingExercise exercise) {
         Set<ProgrammingExerciseTestCase> testCases = testCaseService.findActiveByExerciseId(exercise.getId());
 
         ArrayList<Result> updatedResults = new ArrayList<>();
@@ -267,38 +312,90 @@ public class ProgrammingExerciseGradingService {
                     calculateScoreForResult(testCases, testCases, result, exercise);
                     updatedResults.add(result);
                 });
+        resultRepository.saveAll(updatedResults);
 
         // filter the test cases for the student results if necessary
         Set<ProgrammingExerciseTestCase> testCasesForCurrentDate = filterTestCasesForCurrentDate(exercise, testCases);
-        // We only update the latest automatic results here, later manual assessments are not affected
-        List<StudentParticipation> participations = studentParticipationRepository.findByExerciseIdWithLatestAutomaticResultAndFeedbacks(exercise.getId());
-
-        for (StudentParticipation studentParticipation : participations) {
-            Result result = studentParticipation.findLatestResult();
-            if (result != null) {
-                calculateScoreForResult(testCases, testCasesForCurrentDate, result, exercise);
-                updatedResults.add(result);
-            }
+        List<Long> participationIds = studentParticipationRepository.findIdsByExerciseId(exercise.getId());
+        AtomicInteger processedParticipations = new AtomicInteger();
+        AtomicInteger numberOfUpdatedResults = new AtomicInteger(updatedResults.size());
+        AtomicInteger failedParticipations = new AtomicInteger();
+        int effectiveChunkSize = Math.max(1, reEvaluationChunkSize);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < participationIds.size(); from += effectiveChunkSize) {
+            List<Long> chunk = participationIds.subList(from, Math.min(from + effectiveChunkSize, participationIds.size()));
+            futures.add(reEvaluationExecutor.submit(() -> {
+                SecurityUtils.setAuthorizationObject();
+                try {
+                    // We only update the latest automatic results here, later manual assessments are not affected
+                    numberOfUpdatedResults.addAndGet(reEvaluateChunk(() -> studentParticipationRepository.findByIdsWithLatestAutomaticResultAndFeedbacks(chunk), testCases,
+                            testCasesForCurrentDate, exercise));
+                    // Update also manual results, in a separate transaction because the same participations are loaded with other results
+                    numberOfUpdatedResults.addAndGet(reEvaluateChunk(() -> studentParticipationRepository.findByIdsWithManualResultAndFeedbacks(chunk), testCases,
+                            testCasesForCurrentDate, exercise));
+                }
+                catch (Exception e) {
+                    // the results of the other chunks are still saved
+                    log.error("Could not re-evaluate the results of {} participations of programming exercise {}", chunk.size(), exercise.getId(), e);
+                    failedParticipations.addAndGet(chunk.size());
+                }
+                sendReEvaluationProgress(exercise, new ProgrammingExerciseReEvaluationProgressDTO(processedParticipations.addAndGet(chunk.size()), participationIds.size(),
+                        numberOfUpdatedResults.get(), failedParticipations.get(), false));
+            }));
         }
 
-        // Update also manual results
-        List<StudentParticipation> participationsWithManualResult = studentParticipationRepository.findByExerciseIdWithManualResultAndFeedbacks(exercise.getId());
-        for (StudentParticipation studentParticipation : participationsWithManualResult) {
-            Result result = studentParticipation.findLatestResult();
-            if (result != null) {
-                calculateScoreForResult(testCases, testCasesForCurrentDate, result, exercise);
-                updatedResults.add(result);
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while re-evaluating the results of programming exercise {}", exercise.getId());
+                break;
+            }
+            catch (ExecutionException e) {
+                log.error("Could not re-evaluate a chunk of results of programming exercise {}", exercise.getId(), e);
             }
         }
+        // participations of chunks that were not processed (e.g. because of an interrupt) also count as failed
+        var progress = new ProgrammingExerciseReEvaluationProgressDTO(processedParticipations.get(), participationIds.size(), numberOfUpdatedResults.get(),
+                failedParticipations.get() + participationIds.size() - processedParticipations.get(), true);
+        sendReEvaluationProgress(exercise, progress);
+        return progress;
+    }
+
+    /**
+     * Re-evaluates the latest result of the loaded participations and saves them in a new transaction
+     *
+     * @return the number of updated results
+     */
+    private int reEvaluateChunk(Supplier<List<StudentParticipation>> participationLoader, Set<ProgrammingExerciseTestCase> testCases,
+            Set<ProgrammingExerciseTestCase> testCasesForCurrentDate, ProgrammingExercise exercise) {
+        Integer numberOfUpdatedResults = chunkTransactionTemplate.execute(status -> {
+            List<Result> updatedResults = new ArrayList<>();
+            for (StudentParticipation studentParticipation : participationLoader.get()) {
+                Result result = studentParticipation.findLatestResult();
+                if (result != null) {
+                    calculateScoreForResult(testCases, testCasesForCurrentDate, result, exercise);
+                    updatedResults.add(result);
+                }
+            }
+            resultRepository.saveAll(updatedResults);
+            return updatedResults.size();
+        });
+        return numberOfUpdatedResults == null ? 0 : numberOfUpdatedResults;
+    }
 
-        return updatedResults;
+    private void sendReEvaluationProgress(ProgrammingExercise exercise, ProgrammingExerciseReEvaluationProgressDTO progress) {
+        messagingTemplate.convertAndSend("/topic/programming-exercise/" + exercise.getId() + "/re-evaluation", progress);
     }
 
-    public void logReEvaluate(User user, ProgrammingExercise exercise, Course course, List<Result> results) {
+    public void logReEvaluate(User user, ProgrammingExercise exercise, Course course, int numberOfResults) {
         var auditEvent = new AuditEvent(user.getLogin(), Constants.RE_EVALUATE_RESULTS, "exercise=" + exercise.getTitle(), "course=" + course.getTitle(),
-                "results=" + results.size());
+                "results=" + numberOfResults);
         auditEventRepository.add(auditEvent);
-        log.info("User {} triggered a re-evaluation of {} results for exercise {} with id {}", user.getLogin(), results.size(), exercise.getTitle(), exercise.getId());
+        log.info("User {} triggered a re-evaluation of {} results for exercise {} with id {}", user.getLogin(), numberOfResults, exercise.getTitle(), exercise.getId());
     }
 
     /**
@@ -0,0 +1,338 @@
+package de.tum.in.www1.artemis.service.programming;
+
+import static de.tum.in.www1.artemis.domain.enumeration.InitializationState.*;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.enumeration.BuildPlanType;
+import de.tum.in.www1.artemis.domain.enumeration.InitializationState;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
+import de.tum.in.www1.artemis.exception.ContinuousIntegrationException;
+import de.tum.in.www1.artemis.repository.ProgrammingExerciseStudentParticipationRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.UrlService;
+import de.tum.in.www1.artemis.service.connectors.ContinuousIntegrationService;
+import de.tum.in.www1.artemis.service.connectors.VersionControlService;
+
+/**
+ * Sets up the repositories and build plans of programming exercise participations in stages. The stages of the version control server and of the continuous
+ * integration server that do not depend on each other run at the same time:
+ * <pre>
+ * VCS: copy repository ──┬── configure repository ──┐                        ┌── add web hook
+ * CI:  copy build plan ──┴── configure build plan ──┴── empty setup commit ──┘
+ * </pre>
+ * Each server has its own thread pool, so at most <code>vcs-concurrency</code> requests are sent to the version control server and at most
+ * <code>ci-concurrency</code> requests are sent to the continuous integration server at the same time, no matter how many participations are set up.
+ * Students that start an exercise wait for the response, therefore their participations are set up on separate thread pools with
+ * <code>interactive-concurrency</code> threads per server and never queue behind the participations that are prepared in bulk (e.g. for an exam).
+ * <p>
+ * The completed stages are persisted in the {@link InitializationState} of the participation. It is linear, therefore a stage is only persisted when all previous
+ * stages of the order REPO_COPIED, REPO_CONFIGURED, BUILD_PLAN_COPIED, BUILD_PLAN_CONFIGURED are completed as well. If the setup fails, it resumes from the persisted
+ * state when the participation is set up again; copying the repository and the build plan again only retrieves the existing ones.
+ */
+@Service
+public class ProgrammingParticipationSetupPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgrammingParticipationSetupPipeline.class);
+
+    private final Optional<VersionControlService> versionControlService;
+
+    private final Optional<ContinuousIntegrationService> continuousIntegrationService;
+
+    private final UrlService urlService;
+
+    private final ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository;
+
+    @Value("${artemis.programming.participation-setup.vcs-concurrency:8}")
+    private int vcsConcurrency;
+
+    @Value("${artemis.programming.participation-setup.ci-concurrency:8}")
+    private int ciConcurrency;
+
+    @Value("${artemis.programming.participation-setup.interactive-concurrency:4}")
+    private int interactiveConcurrency;
+
+    private ExecutorService vcsExecutor;
+
+    private ExecutorService ciExecutor;
+
+    private ExecutorService interactiveVcsExecutor;
+
+    private ExecutorService interactiveCiExecutor;
+
+    public ProgrammingParticipationSetupPipeline(Optional<VersionControlService> versionControlService, Optional<ContinuousIntegrationService> continuousIntegrationService,
+            UrlService urlService, ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository) {
+        this.versionControlService = versionControlService;
+        this.continuousIntegrationService = continuousIntegrationService;
+        this.urlService = urlService;
+        this.programmingExerciseStudentParticipationRepository = programmingExerciseStudentParticipationRepository;
+    }
+
+    @PostConstruct
+    void init() {
+        vcsExecutor = createExecutor(vcsConcurrency, "participation-setup-vcs-");
+        ciExecutor = createExecutor(ciConcurrency, "participation-setup-ci-");
+        interactiveVcsExecutor = createExecutor(interactiveConcurrency, "participation-setup-interactive-vcs-");
+        interactiveCiExecutor = createExecutor(interactiveConcurrency, "participation-setup-interactive-ci-");
+    }
+
+    private static ExecutorService createExecutor(int threads, String threadNamePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        vcsExecutor.shutdownNow();
+        ciExecutor.shutdownNow();
+        interactiveVcsExecutor.shutdownNow();
+        interactiveCiExecutor.shutdownNow();
+    }
+
+    /**
+     * Starts the setup of the repository and the build plan of a participation for a student who waits for it, e.g. after clicking on start exercise.
+     * The stages that were already completed before are skipped. The participation must not be changed by the caller until the setup is completed.
+     *
+     * @param exercise      the programming exercise of the participation
+     * @param participation the stored participation of a student or team, its programming exercise needs to have the template participation eagerly loaded
+     * @return a future that completes with the initialized participation or exceptionally with the exception of the first failed stage
+     */
+    public CompletableFuture<ProgrammingExerciseStudentParticipation> setUp(ProgrammingExercise exercise, ProgrammingExerciseStudentParticipation participation) {
+        return setUp(exercise, participation, interactiveVcsExecutor, interactiveCiExecutor);
+    }
+
+    /**
+     * Starts the setup of the repository and the build plan of one of many participations that are prepared at once, e.g. before an exam, see
+     * {@link #setUp(ProgrammingExercise, ProgrammingExerciseStudentParticipation)}
+     *
+     * @param exercise      the programming exercise of the participation
+     * @param participation the stored participation of a student or team, its programming exercise needs to have the template participation eagerly loaded
+     * @return a future that completes with the initialized participation or exceptionally with the exception of the first failed stage
+     */
+    public CompletableFuture<ProgrammingExerciseStudentParticipation> setUpInBulk(ProgrammingExercise exercise, ProgrammingExerciseStudentParticipation participation) {
+        return setUp(exercise, participation, vcsExecutor, ciExecutor);
+    }
+
+    private CompletableFuture<ProgrammingExerciseStudentParticipation> setUp(ProgrammingExercise exercise, ProgrammingExerciseStudentParticipation participation,
+            ExecutorService vcsExecutor, ExecutorService ciExecutor) {
+        ParticipationSetup setup = new ParticipationSetup(participation);
+
+        CompletableFuture<Void> repositoryCopied = CompletableFuture.runAsync(asSystem(() -> copyRepository(setup)), vcsExecutor);
+        CompletableFuture<Void> buildPlanCopied = CompletableFuture.runAsync(asSystem(() -> copyBuildPlan(setup)), ciExecutor);
+        CompletableFuture<Void> repositoryConfigured = repositoryCopied.thenRunAsync(asSystem(() -> configureRepository(exercise, setup)), vcsExecutor);
+        // the build plan has to know the url of the student repository
+        CompletableFuture<Void> buildPlanConfigured = CompletableFuture.allOf(repositoryCopied, buildPlanCopied).thenRunAsync(asSystem(() -> configureBuildPlan(setup)),
+                ciExecutor);
+
+        return CompletableFuture.allOf(repositoryConfigured, buildPlanConfigured)
+                // we might need to perform an empty commit (as a workaround, depending on the CI system) here, because it should not trigger a new programming submission
+                .thenRunAsync(asSystem(() -> performEmptySetupCommit(setup)), ciExecutor)
+                // Note: we configure the repository webhook last, so that the potential empty commit does not trigger a new programming submission
+                .thenRunAsync(asSystem(() -> configureRepositoryWebHook(setup)), vcsExecutor).thenApply(ignored -> setup.initialized());
+    }
+
+    /**
+     * Creates and configures the build plan of an inactive participation (whose build plan was deleted) again. The student repository and its web hook still exist,
+     * therefore only the build plan stages are executed, in the thread of the caller.
+     *
+     * @param participation the inactive participation of a student or team
+     * @return the initialized participation
+     */
+    public ProgrammingExerciseStudentParticipation resumeBuildPlan(ProgrammingExerciseStudentParticipation participation) {
+        ParticipationSetup setup = new ParticipationSetup(participation);
+        // the repository stages were completed when the participation was started
+        setup.repositoryCopied = true;
+        setup.repositoryConfigured = true;
+        copyBuildPlan(setup);
+        configureBuildPlan(setup);
+        return setup.resumed();
+    }
+
+    private static Runnable asSystem(Runnable stage) {
+        return () -> {
+            SecurityUtils.setAuthorizationObject();
+            stage.run();
+        };
+    }
+
+    private void copyRepository(ParticipationSetup setup) {
+        if (setup.repositoryCopied) {
+            return;
+        }
+        final var participation = setup.participation;
+        final var programmingExercise = participation.getProgrammingExercise();
+        final var projectKey = programmingExercise.getProjectKey();
+        final var participantIdentifier = participation.getParticipantIdentifier();
+        // NOTE: we have to get the repository slug of the template participation here, because not all exercises (in particular old ones) follow the naming conventions
+        final var templateRepoName = urlService.getRepositorySlugFromRepositoryUrl(programmingExercise.getTemplateParticipation().getVcsRepositoryUrl());
+        // the next action includes recovery, which means if the repository has already been copied, we simply retrieve the repository url and do not copy it again
+        var newRepoUrl = versionControlService.get().copyRepository(projectKey, templateRepoName, projectKey, participantIdentifier);
+        // add the userInfo part to the repoURL only if the participation belongs to a single student (and not a team of students)
+        if (participation.getStudent().isPresent()) {
+            newRepoUrl = newRepoUrl.withUser(participantIdentifier);
+        }
+        final var repositoryUrl = newRepoUrl.toString();
+        setup.update(() -> {
+            participation.setRepositoryUrl(repositoryUrl);
+            setup.repositoryCopied = true;
+        });
+    }
+
+    private void configureRepository(ProgrammingExercise exercise, ParticipationSetup setup) {
+        if (setup.repositoryConfigured) {
+            return;
+        }
+        // do not allow the student to access the repository if this is an exam exercise that has not started yet
+        boolean allowAccess = !exercise.isExamExercise() || ZonedDateTime.now().isAfter(exercise.getIndividualReleaseDate());
+        versionControlService.get().configureRepository(exercise, setup.participation.getVcsRepositoryUrl(), setup.participation.getStudents(), allowAccess);
+        setup.update(() -> setup.repositoryConfigured = true);
+    }
+
+    private void copyBuildPlan(ParticipationSetup setup) {
+        if (setup.buildPlanCopied) {
+            return;
+        }
+        final var exercise = setup.participation.getProgrammingExercise();
+        final var projectKey = exercise.getProjectKey();
+        final var planName = BuildPlanType.TEMPLATE.getName();
+        final var username = setup.participation.getParticipantIdentifier();
+        final var buildProjectName = exercise.getCourseViaExerciseGroupOrCourseMember().getShortName().toUpperCase() + " " + exercise.getTitle();
+        // the next action includes recovery, which means if the build plan has already been copied, we simply retrieve the build plan id and do not copy it again
+        final var buildPlanId = continuousIntegrationService.get().copyBuildPlan(projectKey, planName, projectKey, buildProjectName, username.toUpperCase(), true);
+        setup.update(() -> {
+            setup.participation.setBuildPlanId(buildPlanId);
+            setup.buildPlanCopied = true;
+        });
+    }
+
+    private void configureBuildPlan(ParticipationSetup setup) {
+        if (setup.buildPlanConfigured) {
+            return;
+        }
+        try {
+            continuousIntegrationService.get().configureBuildPlan(setup.participation);
+        }
+        catch (ContinuousIntegrationException ex) {
+            // this means something with the configuration of the build plan is wrong.
+            // we try to recover from typical edge cases by setting the initialization state back, so that the previous stage (copy build plan) is executed again,
+            // when the participation is set up again
+            setup.resetBuildPlan();
+            throw ex;
+        }
+        setup.update(() -> setup.buildPlanConfigured = true);
+    }
+
+    private void performEmptySetupCommit(ParticipationSetup setup) {
+        if (!setup.initialized) {
+            continuousIntegrationService.get().performEmptySetupCommit(setup.participation);
+        }
+    }
+
+    private void configureRepositoryWebHook(ParticipationSetup setup) {
+        if (!setup.initialized) {
+            versionControlService.get().addWebHookForParticipation(setup.participation);
+        }
+    }
+
+    /**
+     * The completed stages of one participation. The stages of the two servers complete concurrently, therefore all changes of the participation are made under
+     * the lock of this object, which also serializes the updates of the participation in the database.
+     */
+    private final class ParticipationSetup {
+
+        private final ProgrammingExerciseStudentParticipation participation;
+
+        private final boolean initialized;
+
+        private volatile boolean repositoryCopied;
+
+        private volatile boolean repositoryConfigured;
+
+        private volatile boolean buildPlanCopied;
+
+        private volatile boolean buildPlanConfigured;
+
+        private ParticipationSetup(ProgrammingExerciseStudentParticipation participation) {
+            this.participation = participation;
+            InitializationState state = participation.getInitializationState() == null ? UNINITIALIZED : participation.getInitializationState();
+            if (state == UNINITIALIZED) {
+                // make sure that the state is never null in the database afterwards
+                participation.setInitializationState(UNINITIALIZED);
+            }
+            initialized = state.hasCompletedState(INITIALIZED);
+            // the repository url and the build plan id might be missing for some reason, then the stage is executed again
+            repositoryCopied = state.hasCompletedState(REPO_COPIED) && participation.getVcsRepositoryUrl() != null;
+            repositoryConfigured = state.hasCompletedState(REPO_CONFIGURED);
+            buildPlanCopied = state.hasCompletedState(BUILD_PLAN_COPIED) && participation.getBuildPlanId() != null;
+            buildPlanConfigured = state.hasCompletedState(BUILD_PLAN_CONFIGURED);
+        }
+
+        /**
+         * Applies the result of a completed stage and stores the participation if its state advanced
+         */
+        private synchronized void update(Runnable change) {
+            change.run();
+            InitializationState state = getCompletedState();
+            if (!participation.getInitializationState().hasCompletedState(state)) {
+                participation.setInitializationState(state);
+                programmingExerciseStudentParticipationRepository.saveAndFlush(participation);
+            }
+        }
+
+        private synchronized void resetBuildPlan() {
+            buildPlanCopied = false;
+            participation.setInitializationState(getCompletedState());
+            programmingExerciseStudentParticipationRepository.saveAndFlush(participation);
+        }
+
+        private synchronized ProgrammingExerciseStudentParticipation initialized() {
+            participation.setInitializationState(INITIALIZED);
+            participation.setInitializationDate(ZonedDateTime.now());
+            log.debug("Set up the repository and the build plan of participation {}", participation.getId());
+            return programmingExerciseStudentParticipationRepository.saveAndFlush(participation);
+        }
+
+        private synchronized ProgrammingExerciseStudentParticipation resumed() {
+            participation.setInitializationState(INITIALIZED);
+            if (participation.getInitializationDate() == null) {
+                // only set the date if it was not set before (which should NOT be the case)
+                participation.setInitializationDate(ZonedDateTime.now());
+            }
+            return programmingExerciseStudentParticipationRepository.saveAndFlush(participation);
+        }
+
+        /**
+         * @return the last state of the linear order for which all previous stages are completed
+         */
+        private InitializationState getCompletedState() {
+            if (!repositoryCopied) {
+                return UNINITIALIZED;
+            }
+            if (!repositoryConfigured) {
+                return REPO_COPIED;
+            }
+            if (!buildPlanCopied) {
+                return REPO_CONFIGURED;
+            }
+            return buildPlanConfigured ? BUILD_PLAN_CONFIGURED : BUILD_PLAN_COPIED;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import static de.tum.in.www1.artemis.service.util.TimeLogUtil.formatDurationFrom;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import de.tum.in.www1.artemis.security.SecurityUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Executes an operation on the repositories of many participations concurrently, e.g. locking all student repositories at the end of an exam.
+ * <p>
+ * At most <code>concurrency</code> operations run at the same time. In addition, the operations that contact the same server (e.g. the Bitbucket or GitLab
+ * instance that hosts the repositories) are started at most <code>max-operations-per-second</code> times per second, so that the server is not overloaded.
+ * Failed operations are retried with an exponential backoff; the items for which all attempts failed are returned to the caller.
+ */
+@Component
+class BulkRepositoryOperationExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkRepositoryOperationExecutor.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${artemis.version-control.bulk-operations.concurrency:8}")
+    private int concurrency;
+
+    @Value("${artemis.version-control.bulk-operations.max-operations-per-second:20}")
+    private double maxOperationsPerSecond;
+
+    @Value("${artemis.version-control.bulk-operations.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${artemis.version-control.bulk-operations.retry-backoff-millis:1000}")
+    private long retryBackoffMillis;
+
+    @Value("${artemis.version-control.bulk-operations.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    /**
+     * The rate limiters of the servers that were contacted so far, mapped by server (e.g. the host of the repository url)
+     */
+    private final Map<String, ServerRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    private Counter succeededCounter;
+
+    private Counter retriedCounter;
+
+    private Counter failedCounter;
+
+    BulkRepositoryOperationExecutor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, concurrency), runnable -> {
+            Thread thread = new Thread(runnable, "bulk-repository-operation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        succeededCounter = Counter.builder("artemis.repository.bulk.operations").tag("result", "success").description("Number of successful bulk repository operations")
+                .register(meterRegistry);
+        retriedCounter = Counter.builder("artemis.repository.bulk.operations").tag("result", "retry").description("Number of retried bulk repository operations")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("artemis.repository.bulk.operations").tag("result", "failure")
+                .description("Number of bulk repository operations that failed after all attempts").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Invokes the operation on all items and waits until all of them were processed.
+     * <p>
+     * The operations are executed as the system user (see {@link SecurityUtils#setAuthorizationObject()}), so they must not rely on the security context of the
+     * caller. The operation must be thread safe, because it is invoked for several items at the same time.
+     *
+     * @param items         the items to process, e.g. the student participations of an exercise
+     * @param serverOf      determines the server that is contacted for an item, used for the rate limit
+     * @param operation     the operation, may throw an exception if it fails
+     * @param operationName the name of the operation, this is only used for logging
+     * @param <T>           the type of the items
+     * @return all items for which the operation failed or could not be executed within the timeout
+     */
+    <T> List<T> invokeOnAll(Collection<T> items, Function<T, String> serverOf, Consumer<T> operation, String operationName) {
+        long start = System.nanoTime();
+        AtomicInteger processed = new AtomicInteger();
+        int progressStep = Math.max(1, items.size() / 10);
+        Map<T, Future<Boolean>> futures = new LinkedHashMap<>();
+        for (T item : items) {
+            ServerRateLimiter rateLimiter = rateLimiters.computeIfAbsent(String.valueOf(serverOf.apply(item)), server -> new ServerRateLimiter(maxOperationsPerSecond));
+            futures.put(item, executor.submit(() -> {
+                boolean succeeded = invokeWithRetries(item, rateLimiter, operation, operationName);
+                int numberOfProcessedItems = processed.incrementAndGet();
+                if (numberOfProcessedItems % progressStep == 0) {
+                    log.info("'{}': processed {} of {} items", operationName, numberOfProcessedItems, items.size());
+                }
+                return succeeded;
+            }));
+        }
+
+        List<T> failedItems = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(timeoutMinutes);
+        for (var entry : futures.entrySet()) {
+            try {
+                if (!entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    failedItems.add(entry.getKey());
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entry.getValue().cancel(true);
+                failedItems.add(entry.getKey());
+            }
+            catch (TimeoutException | ExecutionException | CancellationException e) {
+                entry.getValue().cancel(true);
+                failedItems.add(entry.getKey());
+            }
+        }
+        log.info("'{}' finished for {} items ({} failed) in {}", operationName, items.size(), failedItems.size(), formatDurationFrom(start));
+        return failedItems;
+    }
+
+    private <T> boolean invokeWithRetries(T item, ServerRateLimiter rateLimiter, Consumer<T> operation, String operationName) throws InterruptedException {
+        SecurityUtils.setAuthorizationObject();
+        int attempts = Math.max(1, maxAttempts);
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            rateLimiter.acquire();
+            try {
+                operation.accept(item);
+                succeededCounter.increment();
+                return true;
+            }
+            catch (Exception e) {
+                if (attempt == attempts) {
+                    failedCounter.increment();
+                    log.error("'{}' failed for {} after {} attempts", operationName, item, attempts, e);
+                    return false;
+                }
+                retriedCounter.increment();
+                long backoffMillis = retryBackoffMillis << (attempt - 1);
+                log.warn("'{}' failed for {} (attempt {} of {}), retrying in {} ms: {}", operationName, item, attempt, attempts, backoffMillis, e.getMessage());
+                Thread.sleep(backoffMillis);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spaces out the operations on one server evenly, so that at most the configured number of operations is started per second
+     */
+    static final class ServerRateLimiter {
+
+        private final long intervalNanos;
+
+        private long nextPermitNanos = System.nanoTime();
+
+        ServerRateLimiter(double maxOperationsPerSecond) {
+            this.intervalNanos = maxOperationsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxOperationsPerSecond) : 0;
+        }
+
+        /**
+         * Waits until the next operation on the server may be started
+         *
+         * @throws InterruptedException if the thread was interrupted while waiting
+         */
+        void acquire() throws InterruptedException {
+            long waitNanos = reserve(System.nanoTime());
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+
+        /**
+         * Reserves the next free slot
+         *
+         * @param nowNanos the current time
+         * @return the time to wait for the reserved slot in nanoseconds
+         */
+        synchronized long reserve(long nowNanos) {
+            long permitNanos = Math.max(nowNanos, nextPermitNanos);
+            nextPermitNanos = permitNanos + intervalNanos;
+            return permitNanos - nowNanos;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.hibernate.proxy.HibernateProxy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.participation.Participation;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.ScoreService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Updates the participant scores of created or updated results in the background instead of within the transaction that saves the result.
+ * <p>
+ * The {@link de.tum.in.www1.artemis.service.listeners.ResultListener} only records the id of a saved result in a buffer of the current transaction. When the transaction
+ * commits, the ids are moved to the pending updates, which are coalesced per participation (i.e. per participant and exercise): a result that is saved several times
+ * is only processed once. A single worker thread applies the pending updates in batches every <code>update-interval-ms</code> milliseconds, using the committed
+ * state of the results. Results of rolled back transactions are never processed.
+ * <p>
+ * Removed results are still handled synchronously by the listener, because the participant score references its last (rated) result and has to be updated before the
+ * result can be deleted.
+ * <p>
+ * With an interval of 0, the pending updates are applied directly after the commit on the committing thread, which is used in the tests.
+ */
+@Service
+public class ParticipantScoreScheduleService {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticipantScoreScheduleService.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Value("${artemis.participant-scores.update-interval-ms:1000}")
+    private long updateIntervalMs;
+
+    @Value("${artemis.participant-scores.batch-size:500}")
+    private int batchSize;
+
+    private final ScoreService scoreService;
+
+    private final ResultRepository resultRepository;
+
+    private final TransactionTemplate nonTransactionalTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The pending updates of committed results, mapped by participation id
+     */
+    private final Map<Long, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    private Counter appliedCounter;
+
+    private Counter failedCounter;
+
+    public ParticipantScoreScheduleService(ScoreService scoreService, ResultRepository resultRepository, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.scoreService = scoreService;
+        this.resultRepository = resultRepository;
+        this.meterRegistry = meterRegistry;
+        // the results are read outside of any transaction (also outside of the already committed transaction while we are in afterCommit)
+        this.nonTransactionalTemplate = new TransactionTemplate(transactionManager);
+        this.nonTransactionalTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+    }
+
+    @PostConstruct
+    void init() {
+        appliedCounter = Counter.builder("artemis.scores.participant.updates.applied").description("Number of results applied to participant scores").register(meterRegistry);
+        failedCounter = Counter.builder("artemis.scores.participant.updates.failed").description("Number of results that could not be applied to participant scores")
+                .register(meterRegistry);
+        Gauge.builder("artemis.scores.participant.updates.pending", pendingUpdates, Map::size).description("Number of participations with pending participant score updates")
+                .register(meterRegistry);
+        Gauge.builder("artemis.scores.participant.staleness", this, ParticipantScoreScheduleService::getStalenessInSeconds)
+                .description("Age in seconds of the oldest pending participant score update").baseUnit("seconds").register(meterRegistry);
+
+        if (updateIntervalMs > 0) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "participant-score-updater");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::processPendingUpdates, updateIntervalMs, updateIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Applies the remaining updates before the server stops, so that they are not lost
+     */
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("The participant score updater did not stop within 10 seconds");
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!pendingUpdates.isEmpty()) {
+            log.info("Applying {} pending participant score updates before shutdown", pendingUpdates.size());
+            try {
+                processPendingUpdates();
+            }
+            catch (Exception e) {
+                log.error("Could not apply the pending participant score updates before shutdown: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Records that the participant score of the given result has to be updated. The update is only scheduled when the current transaction commits.
+     * <p>
+     * Must not use any custom @Query methods, as it is called by the {@link de.tum.in.www1.artemis.service.listeners.ResultListener}.
+     *
+     * @param result the created or updated result
+     */
+    public void scheduleUpdate(Result result) {
+        if (result.getId() == null || result.getScore() == null || result.getCompletionDate() == null || !mightBelongToStudentParticipation(result.getParticipation())) {
+            return;
+        }
+        long participationId = result.getParticipation().getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addPendingUpdates(Map.of(result.getId(), participationId));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Long> transactionBuffer = (Map<Long, Long>) TransactionSynchronizationManager.getResource(this);
+        if (transactionBuffer == null) {
+            Map<Long, Long> buffer = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    addPendingUpdates(buffer);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    // the buffer of a rolled back transaction is simply dropped
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ParticipantScoreScheduleService.this);
+                }
+            });
+            transactionBuffer = buffer;
+        }
+        transactionBuffer.put(result.getId(), participationId);
+    }
+
+    /**
+     * Applies the pending updates in batches, until there are no more pending updates
+     */
+    public void processPendingUpdates() {
+        try {
+            while (!pendingUpdates.isEmpty()) {
+                processBatch();
+            }
+        }
+        catch (Exception e) {
+            // the next run will try again
+            log.error("Unexpected error while applying the pending participant score updates: {}", e.getMessage(), e);
+        }
+    }
+
+    private void addPendingUpdates(Map<Long, Long> participationIdsByResultId) {
+        long now = System.currentTimeMillis();
+        participationIdsByResultId.forEach((resultId, participationId) -> pendingUpdates.compute(participationId, (id, pendingUpdate) -> {
+            PendingUpdate update = pendingUpdate != null ? pendingUpdate : new PendingUpdate(now);
+            update.resultIds.add(resultId);
+            return update;
+        }));
+        if (updateIntervalMs <= 0) {
+            processPendingUpdates();
+        }
+    }
+
+    private void processBatch() {
+        Map<Long, PendingUpdate> batch = new HashMap<>();
+        for (Long participationId : pendingUpdates.keySet()) {
+            if (batch.size() >= Math.max(1, batchSize)) {
+                break;
+            }
+            PendingUpdate pendingUpdate = pendingUpdates.remove(participationId);
+            if (pendingUpdate != null) {
+                batch.put(participationId, pendingUpdate);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        // the score service uses custom @Query methods, which require an authentication
+        boolean authorizationObjectSet = SecurityContextHolder.getContext().getAuthentication() == null;
+        if (authorizationObjectSet) {
+            SecurityUtils.setAuthorizationObject();
+        }
+        try {
+            nonTransactionalTemplate.executeWithoutResult(status -> {
+                Set<Long> resultIds = batch.values().stream().flatMap(pendingUpdate -> pendingUpdate.resultIds.stream()).collect(Collectors.toSet());
+                // results that were removed in the meantime are not found anymore and do not need to be applied
+                Map<Long, Result> resultsById = resultRepository.findAllById(resultIds).stream().collect(Collectors.toMap(Result::getId, Function.identity()));
+                batch.forEach((participationId, pendingUpdate) -> applyUpdate(participationId, pendingUpdate, resultsById));
+            });
+        }
+        finally {
+            // with an interval of 0, this runs on the committing thread, which must not keep the authorization object
+            if (authorizationObjectSet) {
+                SecurityContextHolder.clearContext();
+            }
+        }
+        log.debug("Applied the participant score updates of {} participations in {}ms", batch.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Applies the results of one participation in the order in which they were created, so that the newest result ends up as the last result of the participant score
+     */
+    private void applyUpdate(Long participationId, PendingUpdate pendingUpdate, Map<Long, Result> resultsById) {
+        List<Long> sortedResultIds = new ArrayList<>(pendingUpdate.resultIds);
+        Collections.sort(sortedResultIds);
+        for (Long resultId : sortedResultIds) {
+            Result result = resultsById.get(resultId);
+            if (result == null) {
+                continue;
+            }
+            try {
+                scoreService.updateOrCreateParticipantScore(result);
+                appliedCounter.increment();
+            }
+            catch (Exception e) {
+                failedCounter.increment();
+                if (pendingUpdate.attempts + 1 < MAX_ATTEMPTS) {
+                    log.warn("Could not update the participant score of participation {}, will try again: {}", participationId, e.getMessage());
+                    retryLater(participationId, pendingUpdate, sortedResultIds.subList(sortedResultIds.indexOf(resultId), sortedResultIds.size()));
+                }
+                else {
+                    log.error("Could not update the participant score of participation {} with results {}: {}", participationId, sortedResultIds, e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    private void retryLater(Long participationId, PendingUpdate failedUpdate, List<Long> remainingResultIds) {
+        pendingUpdates.compute(participationId, (id, pendingUpdate) -> {
+            PendingUpdate update = pendingUpdate != null ? pendingUpdate : new PendingUpdate(failedUpdate.queuedAt);
+            update.resultIds.addAll(remainingResultIds);
+            update.attempts = Math.max(update.attempts, failedUpdate.attempts + 1);
+            return update;
+        });
+    }
+
+    /**
+     * Only student participations have participant scores. A participation that was not loaded yet (a proxy) is added as well, the score service checks its type later.
+     */
+    private static boolean mightBelongToStudentParticipation(Participation participation) {
+        return participation != null && participation.getId() != null && (participation instanceof StudentParticipation || participation instanceof HibernateProxy);
+    }
+
+    /**
+     * @return the age in seconds of the oldest pending update, 0 if there are no pending updates
+     */
+    private double getStalenessInSeconds() {
+        long now = System.currentTimeMillis();
+        return pendingUpdates.values().stream().mapToLong(pendingUpdate -> now - pendingUpdate.queuedAt).max().orElse(0) / 1000.0;
+    }
+
+    /**
+     * The results of one participation that still have to be applied to its participant score
+     */
+    private static final class PendingUpdate {
+
+        private final long queuedAt;
+
+        private final Set<Long> resultIds = new HashSet<>();
+
+        private int attempts;
+
+        private PendingUpdate(long queuedAt) {
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package de.tum.in.www1.artemis.service.scheduled;
 
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -18,11 +19,9 @@ import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.ProgrammingExercise;
-import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.enumeration.ExerciseLifecycle;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
-import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.GroupNotificationService;
@@ -49,8 +48,6 @@ public class ProgrammingExerciseScheduleService implements IExerciseScheduleServ
 
     private final ProgrammingExerciseTestCaseRepository programmingExerciseTestCaseRepository;
 
-    private final ResultRepository resultRepository;
-
     private final ProgrammingSubmissionService programmingSubmissionService;
 
     private final ProgrammingExerciseParticipationService programmingExerciseParticipationService;
@@ -65,15 +62,16 @@ public class ProgrammingExerciseScheduleService implements IExerciseScheduleServ
 
     private final GitService gitService;
 
+    private final BulkRepositoryOperationExecutor bulkRepositoryOperationExecutor;
+
     public ProgrammingExerciseScheduleService(ScheduleService scheduleService, ProgrammingExerciseRepository programmingExerciseRepository,
-            ProgrammingExerciseTestCaseRepository programmingExerciseTestCaseRepository, ResultRepository resultRepository, Environment env,
+            ProgrammingExerciseTestCaseRepository programmingExerciseTestCaseRepository, Environment env,
             ProgrammingSubmissionService programmingSubmissionService, ProgrammingExerciseGradingService programmingExerciseGradingService,
             GroupNotificationService groupNotificationService, ExamDateService examDateService, ProgrammingExerciseParticipationService programmingExerciseParticipationService,
-            StudentExamRepository studentExamRepository, GitService gitService) {
+            StudentExamRepository studentExamRepository, GitService gitService, BulkRepositoryOperationExecutor bulkRepositoryOperationExecutor) {
         this.scheduleService = scheduleService;
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.programmingExerciseTestCaseRepository = programmingExerciseTestCaseRepository;
-        this.resultRepository = resultRepository;
         this.programmingSubmissionService = programmingSubmissionService;
         this.groupNotificationService = groupNotificationService;
         this.studentExamRepository = studentExamRepository;
@@ -82,6 +80,7 @@ public class ProgrammingExerciseScheduleService implements IExerciseScheduleServ
         this.programmingExerciseGradingService = programmingExerciseGradingService;
         this.env = env;
         this.gitService = gitService;
+        this.bulkRepositoryOperationExecutor = bulkRepositoryOperationExecutor;
     }
 
     @PostConstruct
@@ -343,8 +342,8 @@ public class ProgrammingExerciseScheduleService implements IExerciseScheduleServ
     public Runnable updateAllStudentScores(ProgrammingExercise exercise) {
         return () -> {
             SecurityUtils.setAuthorizationObject();
-            final List<Result> updatedResults = programmingExerciseGradingService.updateAllResults(exercise);
-            resultRepository.saveAll(updatedResults);
+            // the results are saved in chunks while they are updated
+            programmingExerciseGradingService.updateAllResults(exercise);
         };
     }
 
@@ -419,7 +418,7 @@ public class ProgrammingExerciseScheduleService implements IExerciseScheduleServ
         return () -> {
             SecurityUtils.setAuthorizationObject();
             try {
-                Set<Tuple<ZonedDateTime, ProgrammingExerciseStudentParticipation>> individualDueDates = new HashSet<>();
+                Set<Tuple<ZonedDateTime, ProgrammingExerciseStudentParticipation>> individualDueDates = ConcurrentHashMap.newKeySet();
                 // This operation unlocks the repositories and collects all individual due dates
                 BiConsumer<ProgrammingExercise, ProgrammingExerciseStudentParticipation> unlockAndCollectOperation = (programmingExercise, participation) -> {
                     var dueDate = studentExamRepository.getIndividualDueDate(programmingExercise, participation);
@@ -503,6 +502,7 @@ public class ProgrammingExerciseScheduleService implements IExerciseScheduleServ
     /**
      * Invokes the given <code>operation</code> on all student participations that satisfy the <code>condition</code>-{@link Predicate}.
      * <p>
+     * The operation is invoked concurrently for several participations (see {@link BulkRepositoryOperationExecutor}), so it has to be thread safe.
      *
      * @param programmingExerciseId the programming exercise whose participations should be processed
      * @param operation the operation to perform
@@ -520,29 +520,20 @@ public class ProgrammingExerciseScheduleService implements IExerciseScheduleServ
         if (programmingExercise.isEmpty()) {
             throw new EntityNotFoundException("programming exercise not found with id " + programmingExerciseId);
         }
-        List<ProgrammingExerciseStudentParticipation> failedOperations = new LinkedList<>();
-
-        // TODO: we should think about executing those operations again in batches to avoid issues on the vcs server, however those operations are typically executed
-        // synchronously so this might not be an issue
-
-        for (StudentParticipation studentParticipation : programmingExercise.get().getStudentParticipations()) {
-            ProgrammingExerciseStudentParticipation programmingExerciseStudentParticipation = (ProgrammingExerciseStudentParticipation) studentParticipation;
-
-            // ignore all participations that don't fulfill the condition
-            if (!condition.test(programmingExerciseStudentParticipation)) {
-                continue;
-            }
-
-            try {
-                // this actually invokes the operation
-                operation.accept(programmingExercise.get(), programmingExerciseStudentParticipation);
-            }
-            catch (Exception e) {
-                log.error(String.format("'%s' failed for programming exercise with id %d for student repository with participation id %d", operationName, programmingExerciseId,
-                        studentParticipation.getId()), e);
-                failedOperations.add(programmingExerciseStudentParticipation);
-            }
-        }
+        List<ProgrammingExerciseStudentParticipation> participations = programmingExercise.get().getStudentParticipations().stream()
+                .map(studentParticipation -> (ProgrammingExerciseStudentParticipation) studentParticipation)
+                // ignore all participations that don't fulfill the condition
+                .filter(condition).collect(Collectors.toList());
+
+        // the operations are executed concurrently, but rate limited per version control server to avoid issues on the vcs server
+        List<ProgrammingExerciseStudentParticipation> failedOperations = bulkRepositoryOperationExecutor.invokeOnAll(participations,
+                ProgrammingExerciseScheduleService::getRepositoryServer, participation -> operation.accept(programmingExercise.get(), participation),
+                operationName + " of programming exercise " + programmingExerciseId);
         return failedOperations;
     }
+
+    private static String getRepositoryServer(ProgrammingExerciseStudentParticipation participation) {
+        var repositoryUrl = participation.getVcsRepositoryUrl();
+        return repositoryUrl == null ? "unknown" : repositoryUrl.getURL().getHost();
+    }
 }
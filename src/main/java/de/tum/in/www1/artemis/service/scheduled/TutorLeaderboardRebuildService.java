@@ -0,0 +1,39 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.TutorLeaderboardService;
+
+@Service
+@Profile("scheduling")
+public class TutorLeaderboardRebuildService {
+
+    private static final Logger log = LoggerFactory.getLogger(TutorLeaderboardRebuildService.class);
+
+    private final TutorLeaderboardService tutorLeaderboardService;
+
+    public TutorLeaderboardRebuildService(TutorLeaderboardService tutorLeaderboardService) {
+        this.tutorLeaderboardService = tutorLeaderboardService;
+    }
+
+    /**
+     * Rebuilds the cached tutor leaderboards of all exercises at 4:00:00 am in the night in form of a repeating "cron" job,
+     * so that changes which do not invalidate the cache (e.g. of the tutor groups) are reflected at least once a day
+     */
+    @Scheduled(cron = "0 0 4 * * *") // execute this every night at 4:00:00 am
+    public void rebuildTutorLeaderboards() {
+        // the leaderboard queries require an authentication
+        SecurityUtils.setAuthorizationObject();
+        try {
+            tutorLeaderboardService.rebuildCachedExerciseLeaderboards();
+        }
+        catch (Exception ex) {
+            log.error("Exception occurred during rebuildCachedExerciseLeaderboards", ex);
+        }
+    }
+}
@@ -47,11 +47,21 @@ final class EmptyQuizExerciseCache extends QuizExerciseCache {
         return Map.of();
     }
 
+    @Override
+    boolean saveSubmissionUnlessSubmitted(String username, QuizSubmission quizSubmission) {
+        return false;
+    }
+
     @Override
     Map<String, StudentParticipation> getParticipations() {
         return Map.of();
     }
 
+    @Override
+    Map<String, Boolean> getSubmittedUsers() {
+        return Map.of();
+    }
+
     @Override
     List<ScheduledTaskHandler> getQuizStart() {
         return List.of();
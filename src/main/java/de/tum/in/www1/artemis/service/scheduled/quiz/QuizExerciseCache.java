@@ -40,11 +40,28 @@ abstract class QuizExerciseCache {
      */
     abstract Map<String, QuizSubmission> getSubmissions();
 
+    /**
+     * Stores the saved submission of the user, unless the cached submission of the user is already submitted. The check and the update are one atomic operation, so
+     * that a save cannot overwrite the submitted submission of a concurrent submit.
+     *
+     * @param username       the user name of the user who saved the submission
+     * @param quizSubmission the saved (not submitted) submission
+     * @return true if the submission was stored, false if the cached submission of the user is already submitted
+     */
+    abstract boolean saveSubmissionUnlessSubmitted(String username, QuizSubmission quizSubmission);
+
     /**
      * StudentParticipations by user name
      */
     abstract Map<String, StudentParticipation> getParticipations();
 
+    /**
+     * The user names of the users who submitted the quiz, the values are always <code>true</code>
+     * <p>
+     * Must be a Map because Hazelcast does not provide an atomic putIfAbsent for sets
+     */
+    abstract Map<String, Boolean> getSubmittedUsers();
+
     /**
      * The scheduled start tasks of the QuizExercise
      */
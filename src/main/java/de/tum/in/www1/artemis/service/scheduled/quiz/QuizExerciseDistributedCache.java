@@ -13,6 +13,7 @@ import com.hazelcast.config.SerializerConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.HazelcastInstanceAware;
 import com.hazelcast.internal.serialization.impl.SerializationServiceV1;
+import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.IMap;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
@@ -41,6 +42,8 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
 
     private static final String HAZELCAST_CACHE_RESULTS = "-results";
 
+    private static final String HAZELCAST_CACHE_SUBMITTED_USERS = "-submitted-users";
+
     /**
      * All {@link List} classes that are supported by Hazelcast {@link SerializationServiceV1}
      */
@@ -57,7 +60,7 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
     private transient QuizExercise exercise;
 
     /*
-     * All three IMaps are distributed Hazelcast objects and must not be (de-)serialized, they are all set in the setHazelcastInstance method.
+     * All IMaps are distributed Hazelcast objects and must not be (de-)serialized, they are all set in the setHazelcastInstance method.
      */
 
     private transient IMap<String, StudentParticipation> participations;
@@ -69,6 +72,8 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
      */
     private transient IMap<Long, Result> results;
 
+    private transient IMap<String, Boolean> submittedUsers;
+
     QuizExerciseDistributedCache(Long exerciseId, List<ScheduledTaskHandler> quizStart, QuizExercise exercise) {
         super(Objects.requireNonNull(exerciseId, "exerciseId must not be null"));
         setQuizStart(quizStart);
@@ -94,11 +99,21 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         return submissions;
     }
 
+    @Override
+    boolean saveSubmissionUnlessSubmitted(String username, QuizSubmission quizSubmission) {
+        return submissions.executeOnKey(username, new SaveUnlessSubmittedProcessor(quizSubmission));
+    }
+
     @Override
     Map<String, StudentParticipation> getParticipations() {
         return participations;
     }
 
+    @Override
+    Map<String, Boolean> getSubmittedUsers() {
+        return submittedUsers;
+    }
+
     @Override
     List<ScheduledTaskHandler> getQuizStart() {
         return quizStart;
@@ -142,6 +157,7 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         participations.destroy();
         submissions.destroy();
         results.destroy();
+        submittedUsers.destroy();
         exercise = null;
     }
 
@@ -154,6 +170,29 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         participations = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_PARTICIPATIONS);
         submissions = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_SUBMISSIONS);
         results = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_RESULTS);
+        submittedUsers = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_SUBMITTED_USERS);
+    }
+
+    /**
+     * Replaces the cached submission of a user on the member that owns the entry, unless the cached submission is already submitted
+     */
+    static class SaveUnlessSubmittedProcessor implements EntryProcessor<String, QuizSubmission, Boolean> {
+
+        private final QuizSubmission quizSubmission;
+
+        SaveUnlessSubmittedProcessor(QuizSubmission quizSubmission) {
+            this.quizSubmission = quizSubmission;
+        }
+
+        @Override
+        public Boolean process(Map.Entry<String, QuizSubmission> entry) {
+            QuizSubmission cachedSubmission = entry.getValue();
+            if (cachedSubmission != null && Boolean.TRUE.equals(cachedSubmission.isSubmitted())) {
+                return false;
+            }
+            entry.setValue(quizSubmission);
+            return true;
+        }
     }
 
     /**
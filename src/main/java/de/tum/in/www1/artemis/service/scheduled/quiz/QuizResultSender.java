@@ -0,0 +1,240 @@
+package de.tum.in.www1.artemis.service.scheduled.quiz;
+
+import static de.tum.in.www1.artemis.service.util.TimeLogUtil.formatDurationFrom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends quiz results to the participants at the end of a quiz on a dedicated thread pool.
+ * <p>
+ * The messages are grouped into batches that are sent sequentially by one worker thread each. At most <code>max-pending-batches</code> batches
+ * are queued or in flight at the same time: if this limit is reached, the quiz schedule blocks until a worker is done, so that we do not
+ * flood the STOMP broker relay with thousands of messages at once. In contrast to the common ForkJoin pool, this pool is not shared with
+ * other work of the server.
+ * <p>
+ * If sending does not finish within <code>timeout-seconds</code>, the remaining messages are not sent anymore, so that they are not sent twice when the caller retries them
+ * in its next run.
+ */
+@Component
+class QuizResultSender {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizResultSender.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger queuedMessages = new AtomicInteger();
+
+    @Value("${artemis.quiz.result-sending.pool-size:4}")
+    private int poolSize;
+
+    @Value("${artemis.quiz.result-sending.batch-size:50}")
+    private int batchSize;
+
+    @Value("${artemis.quiz.result-sending.max-pending-batches:16}")
+    private int maxPendingBatches;
+
+    @Value("${artemis.quiz.result-sending.timeout-seconds:120}")
+    private int timeoutSeconds;
+
+    private ExecutorService executor;
+
+    private Semaphore pendingBatches;
+
+    private Counter sentCounter;
+
+    private Counter failedCounter;
+
+    QuizResultSender(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, poolSize), runnable -> {
+            Thread thread = new Thread(runnable, "quiz-result-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pendingBatches = new Semaphore(Math.max(1, maxPendingBatches));
+        sentCounter = Counter.builder("artemis.quiz.results.sent").description("Number of quiz results sent to participants").register(meterRegistry);
+        failedCounter = Counter.builder("artemis.quiz.results.failed").description("Number of quiz results that could not be sent to participants").register(meterRegistry);
+        Gauge.builder("artemis.quiz.results.queued", queuedMessages, AtomicInteger::get).description("Number of quiz results waiting to be sent to participants")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sends all the given messages with the given operation in batches on the dedicated thread pool and waits until all of them were processed.
+     * <p>
+     * The callback <code>onSent</code> is only invoked for messages that were sent successfully; failed messages are only counted, so that they
+     * can be retried by the caller in the next run. Messages that were not sent before the timeout are skipped and also left to the next run.
+     *
+     * @param messages      the messages to send, e.g. the finished participations of a quiz
+     * @param sendOperation sends one message, may throw an exception if the message cannot be delivered
+     * @param onSent        invoked after a message was sent successfully
+     * @param <T>           the type of the messages
+     * @return the report with the number of sent, failed and still queued messages
+     */
+    <T> SendReport sendAll(List<T> messages, Consumer<T> sendOperation, Consumer<T> onSent) {
+        long start = System.nanoTime();
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<Future<?>> futures = new ArrayList<>();
+        queuedMessages.addAndGet(messages.size());
+        int effectiveBatchSize = Math.max(1, batchSize);
+        int submittedMessages = 0;
+        try {
+            for (int from = 0; from < messages.size(); from += effectiveBatchSize) {
+                List<T> batch = messages.subList(from, Math.min(from + effectiveBatchSize, messages.size()));
+                // backpressure: wait until one of the pending batches is done before we queue the next one
+                pendingBatches.acquire();
+                try {
+                    futures.add(executor.submit(() -> sendBatch(batch, sendOperation, onSent, sent, failed, cancelled)));
+                    submittedMessages += batch.size();
+                }
+                catch (RejectedExecutionException e) {
+                    pendingBatches.release();
+                    throw e;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while queuing quiz results, {} messages were not queued", messages.size() - submittedMessages);
+        }
+        catch (RejectedExecutionException e) {
+            log.error("Could not queue {} quiz results: {}", messages.size() - submittedMessages, e.getMessage());
+        }
+        queuedMessages.addAndGet(submittedMessages - messages.size());
+        if (!awaitCompletion(futures, timeoutSeconds)) {
+            log.warn("Sending quiz results did not finish within {} seconds, the remaining results are sent in the next run", timeoutSeconds);
+            cancelled.set(true);
+            // the messages that are being sent right now are still finished, wait for them so that the caller does not send them again
+            if (!Thread.currentThread().isInterrupted() && !awaitCompletion(futures, timeoutSeconds)) {
+                log.error("Sending quiz results could not be stopped within {} seconds", timeoutSeconds);
+            }
+        }
+        int queued = Math.max(0, messages.size() - sent.get() - failed.get());
+        var report = new SendReport(sent.get(), failed.get(), queued);
+        log.info("Sent {} quiz results ({} failed, {} not processed) in {}", report.getSent(), report.getFailed(), report.getQueued(), formatDurationFrom(start));
+        return report;
+    }
+
+    private <T> void sendBatch(List<T> batch, Consumer<T> sendOperation, Consumer<T> onSent, AtomicInteger sent, AtomicInteger failed, AtomicBoolean cancelled) {
+        int processedMessages = 0;
+        try {
+            for (T message : batch) {
+                if (cancelled.get()) {
+                    break;
+                }
+                processedMessages++;
+                try {
+                    sendOperation.accept(message);
+                    onSent.accept(message);
+                    sent.incrementAndGet();
+                    sentCounter.increment();
+                }
+                catch (Exception e) {
+                    failed.incrementAndGet();
+                    failedCounter.increment();
+                    log.warn("Could not send quiz result: {}", e.getMessage());
+                }
+                finally {
+                    queuedMessages.decrementAndGet();
+                }
+            }
+        }
+        finally {
+            // the skipped messages are not queued anymore
+            queuedMessages.addAndGet(processedMessages - batch.size());
+            pendingBatches.release();
+        }
+    }
+
+    /**
+     * Waits until all the given batches are done
+     *
+     * @return false if the batches were not done within the timeout or the waiting thread was interrupted
+     */
+    private boolean awaitCompletion(List<Future<?>> futures, int timeoutSeconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        for (Future<?> future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            catch (TimeoutException e) {
+                return false;
+            }
+            catch (ExecutionException e) {
+                log.error("Unexpected error while sending quiz results: {}", e.getMessage(), e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The outcome of one {@link #sendAll(List, Consumer, Consumer)} call
+     */
+    static final class SendReport {
+
+        private final int sent;
+
+        private final int failed;
+
+        private final int queued;
+
+        SendReport(int sent, int failed, int queued) {
+            this.sent = sent;
+            this.failed = failed;
+            this.queued = queued;
+        }
+
+        /**
+         * @return the number of messages that were sent successfully
+         */
+        int getSent() {
+            return sent;
+        }
+
+        /**
+         * @return the number of messages that could not be sent
+         */
+        int getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return the number of messages that were not processed (yet), e.g. due to a timeout
+         */
+        int getQueued() {
+            return queued;
+        }
+    }
+}
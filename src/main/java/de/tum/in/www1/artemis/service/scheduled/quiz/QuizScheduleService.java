@@ -6,12 +6,15 @@ import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.validation.constraints.NotNull;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
@@ -35,6 +38,7 @@ import de.tum.in.www1.artemis.domain.quiz.SubmittedAnswer;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.QuizMessagingService;
 import de.tum.in.www1.artemis.service.QuizStatisticService;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class QuizScheduleService {
@@ -65,9 +69,33 @@ public class QuizScheduleService {
 
     private final QuizExerciseRepository quizExerciseRepository;
 
+    private final QuizSubmissionBatchProcessor quizSubmissionBatchProcessor;
+
+    private final QuizResultSender quizResultSender;
+
+    @Value("${artemis.quiz.bulk-processing.enabled:true}")
+    private boolean bulkProcessingEnabled;
+
+    @Value("${artemis.quiz.bulk-processing.batch-size:100}")
+    private int bulkProcessingBatchSize;
+
+    @Value("${artemis.quiz.statistics.persist-interval-seconds:30}")
+    private int statisticsPersistIntervalSeconds;
+
+    /**
+     * The time (in ms) the statistics of a quiz were persisted the last time by this instance
+     */
+    private final Map<Long, Long> statisticsPersistedAt = new ConcurrentHashMap<>();
+
+    /**
+     * The ids of the cached results of a quiz that this instance already added to the live statistics, but did not persist yet
+     */
+    private final Map<Long, Set<Long>> appliedResultIds = new ConcurrentHashMap<>();
+
     public QuizScheduleService(SimpMessageSendingOperations messagingTemplate, StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository,
             UserRepository userRepository, QuizSubmissionRepository quizSubmissionRepository, HazelcastInstance hazelcastInstance, QuizExerciseRepository quizExerciseRepository,
-            QuizMessagingService quizMessagingService, QuizStatisticService quizStatisticService) {
+            QuizMessagingService quizMessagingService, QuizStatisticService quizStatisticService, MeterRegistry meterRegistry,
+            QuizResultSender quizResultSender) {
         this.messagingTemplate = messagingTemplate;
         this.studentParticipationRepository = studentParticipationRepository;
         this.resultRepository = resultRepository;
@@ -76,9 +104,12 @@ public class QuizScheduleService {
         this.quizExerciseRepository = quizExerciseRepository;
         this.quizMessagingService = quizMessagingService;
         this.quizStatisticService = quizStatisticService;
+        this.quizResultSender = quizResultSender;
         this.scheduledProcessQuizSubmissions = hazelcastInstance.getCPSubsystem().getAtomicReference(HAZELCAST_PROCESS_CACHE_HANDLER);
         this.threadPoolTaskScheduler = hazelcastInstance.getScheduledExecutorService(Constants.HAZELCAST_QUIZ_SCHEDULER);
         this.quizCache = new QuizCache(hazelcastInstance);
+        this.quizSubmissionBatchProcessor = new QuizSubmissionBatchProcessor(studentParticipationRepository, resultRepository, userRepository, quizSubmissionRepository,
+                meterRegistry);
     }
 
     /**
@@ -111,6 +142,41 @@ public class QuizScheduleService {
         }
     }
 
+    /**
+     * add a saved (not submitted) quizSubmission to the submissionHashMap, unless the cached submission of the user is already submitted.
+     * The check and the update are atomic, so that a save which runs concurrently to a submit of the same user cannot overwrite the submitted submission.
+     *
+     * @param quizExerciseId the quizExerciseId of the quiz the submission belongs to (first Key)
+     * @param username       the username of the user, who saved the submission (second Key)
+     * @param quizSubmission the quizSubmission, which should be added (Value)
+     * @return true if the submission was added, false if the user submitted the quiz in the meantime
+     */
+    public boolean saveSubmissionUnlessSubmitted(Long quizExerciseId, String username, QuizSubmission quizSubmission) {
+        return quizCache.getTransientWriteCacheFor(quizExerciseId).saveSubmissionUnlessSubmitted(username, quizSubmission);
+    }
+
+    /**
+     * mark the quiz as submitted by the given user, this is an atomic operation so that concurrent submits of the same user can be detected
+     *
+     * @param quizExerciseId the quizExerciseId of the quiz the user submitted
+     * @param username       the username of the user who submitted the quiz
+     * @return true if the user was marked as submitted, false if the user already submitted the quiz before
+     */
+    public boolean markSubmitted(Long quizExerciseId, String username) {
+        return quizCache.getTransientWriteCacheFor(quizExerciseId).getSubmittedUsers().putIfAbsent(username, Boolean.TRUE) == null;
+    }
+
+    /**
+     * check whether the given user already submitted the quiz, without loading the cached participation or submission of the user
+     *
+     * @param quizExerciseId the quizExerciseId of the quiz
+     * @param username       the username of the user
+     * @return true if the user submitted the quiz while it was cached
+     */
+    public boolean hasSubmitted(Long quizExerciseId, String username) {
+        return quizCache.getReadCacheFor(quizExerciseId).getSubmittedUsers().containsKey(username);
+    }
+
     /**
      * add a result to resultHashMap for a statistic-update
      * this should only be invoked once, when the quiz was submitted
@@ -355,6 +421,7 @@ public class QuizScheduleService {
      * @param quizExerciseId refers to one specific quiz exercise for which the data should be cleared
      */
     public void clearQuizData(Long quizExerciseId) {
+        quizStatisticService.clearUnpersistedResults(quizExerciseId);
         quizCache.removeAndClear(quizExerciseId);
     }
 
@@ -392,8 +459,12 @@ public class QuizScheduleService {
                 // Note that those might not be true later on due to concurrency and a distributed system,
                 // do not rely on that for actions upon the whole set, such as clear()
                 boolean hasNewSubmissions = !cachedQuiz.getSubmissions().isEmpty();
-                boolean hasNewParticipations = !cachedQuiz.getParticipations().isEmpty();
-                boolean hasNewResults = !cachedQuiz.getResults().isEmpty();
+                // the participations are only sent to the users when the quiz has ended, until then they do not need to be processed
+                boolean hasNewParticipations = hasEnded && !cachedQuiz.getParticipations().isEmpty();
+                // the cached results that were already added to the live statistics are only added again when new results arrived or when the statistics are persisted
+                Set<Long> cachedResultIds = Set.copyOf(cachedQuiz.getResults().keySet());
+                boolean hasNewResults = !cachedResultIds.isEmpty() && (hasEnded || isStatisticsPersistenceDue(quizExerciseId)
+                        || !appliedResultIds.getOrDefault(quizExerciseId, Set.of()).containsAll(cachedResultIds));
 
                 // Skip quizzes with no cached changes
                 if (!hasNewSubmissions && !hasNewParticipations && !hasNewResults) {
@@ -416,7 +487,13 @@ public class QuizScheduleService {
                     // Create Participations and Results if the submission was submitted or if the quiz has ended and save them to Database (DB Write)
                     Map<String, QuizSubmission> submissions = cachedQuiz.getSubmissions();
                     // This call will remove the processed Submission map entries itself
-                    int numberOfSubmittedSubmissions = saveQuizSubmissionWithParticipationAndResultToDatabase(quizExercise, submissions);
+                    int numberOfSubmittedSubmissions;
+                    if (bulkProcessingEnabled) {
+                        numberOfSubmittedSubmissions = saveQuizSubmissionsWithParticipationsAndResultsToDatabaseInBatches(quizExercise, submissions);
+                    }
+                    else {
+                        numberOfSubmittedSubmissions = saveQuizSubmissionWithParticipationAndResultToDatabase(quizExercise, submissions);
+                    }
                     // .. and likely generate new participations and results
                     if (numberOfSubmittedSubmissions > 0) {
                         // .. so we set the boolean variables here again if some were submitted
@@ -432,20 +509,18 @@ public class QuizScheduleService {
 
                 if (hasNewParticipations && hasEnded) {
                     // Send the participation with containing result and quiz back to the users via websocket and remove the participation from the ParticipationHashMap
-                    Collection<Entry<String, StudentParticipation>> finishedParticipations = cachedQuiz.getParticipations().entrySet();
-                    // TODO maybe find a better way to optimize the performance (use an executor service with e.g. X parallel threads)
-                    finishedParticipations.parallelStream().forEach(entry -> {
+                    List<Entry<String, StudentParticipation>> finishedParticipations = new ArrayList<>(cachedQuiz.getParticipations().entrySet());
+                    // Send them in batches on a dedicated thread pool, so that the common ForkJoin pool (and the rest of the server) is not blocked
+                    var sendReport = quizResultSender.sendAll(finishedParticipations, entry -> {
                         StudentParticipation participation = entry.getValue();
                         if (participation.getParticipant() == null || participation.getParticipantIdentifier() == null) {
-                            log.error("Participation is missing student (or student is missing username): {}", participation);
+                            throw new IllegalStateException("Participation is missing student (or student is missing username): " + participation);
                         }
-                        else {
-                            sendQuizResultToUser(quizExerciseId, participation);
-                            cachedQuiz.getParticipations().remove(entry.getKey());
-                        }
-                    });
+                        sendQuizResultToUser(quizExerciseId, participation);
+                    }, entry -> cachedQuiz.getParticipations().remove(entry.getKey()));
                     if (finishedParticipations.size() > 0) {
-                        log.info("Sent out {} participations in {} for quiz {}", finishedParticipations.size(), formatDurationFrom(start), quizExercise.getTitle());
+                        log.info("Sent out {} participations ({} failed, {} queued) in {} for quiz {}", sendReport.getSent(), sendReport.getFailed(), sendReport.getQueued(),
+                                formatDurationFrom(start), quizExercise.getTitle());
                     }
                 }
 
@@ -457,12 +532,23 @@ public class QuizScheduleService {
                     try {
                         // Get a Set because QuizStatisticService needs one (currently)
                         Set<Result> newResultsForQuiz = Set.copyOf(cachedQuiz.getResults().values());
+                        // The results stay in the (distributed) cache until the statistics are persisted: until then, they are added again to the statistics loaded from the
+                        // database in each run, so that the instructors see the live statistics without a database write in every run
+                        boolean persistStatistics = hasEnded || isStatisticsPersistenceDue(quizExerciseId);
                         // Update the statistics
-                        quizStatisticService.updateStatistics(newResultsForQuiz, quizExercise);
-                        log.info("Updated statistics with {} new results in {} for quiz {}", newResultsForQuiz.size(), formatDurationFrom(start), quizExercise.getTitle());
-                        // Remove only processed results
-                        for (Result result : newResultsForQuiz) {
-                            cachedQuiz.getResults().remove(result.getId());
+                        quizStatisticService.updateStatistics(newResultsForQuiz, quizExercise, persistStatistics);
+                        log.info("Updated statistics with {} new results in {} for quiz {} (persisted: {})", newResultsForQuiz.size(), formatDurationFrom(start),
+                                quizExercise.getTitle(), persistStatistics);
+                        if (persistStatistics) {
+                            statisticsPersistedAt.put(quizExerciseId, System.currentTimeMillis());
+                            appliedResultIds.remove(quizExerciseId);
+                            // Remove only processed results
+                            for (Result result : newResultsForQuiz) {
+                                cachedQuiz.getResults().remove(result.getId());
+                            }
+                        }
+                        else {
+                            appliedResultIds.put(quizExerciseId, newResultsForQuiz.stream().map(Result::getId).collect(Collectors.toSet()));
                         }
                     }
                     catch (Exception e) {
@@ -476,7 +562,22 @@ public class QuizScheduleService {
         }
     }
 
+    /**
+     * Checks if the cached results of the given quiz should be persisted in the quiz statistics in this run.
+     * If this instance has not persisted the statistics of the quiz so far (e.g. because another instance processed the quiz before), we persist them directly.
+     *
+     * @param quizExerciseId the id of the quiz exercise
+     * @return true if the last persistence of the statistics is older than <code>artemis.quiz.statistics.persist-interval-seconds</code>
+     */
+    private boolean isStatisticsPersistenceDue(Long quizExerciseId) {
+        Long lastPersisted = statisticsPersistedAt.get(quizExerciseId);
+        return lastPersisted == null || System.currentTimeMillis() - lastPersisted >= statisticsPersistIntervalSeconds * 1000L;
+    }
+
     private void removeCachedQuiz(QuizExerciseCache cachedQuiz) {
+        statisticsPersistedAt.remove(cachedQuiz.getExerciseId());
+        appliedResultIds.remove(cachedQuiz.getExerciseId());
+        quizStatisticService.clearUnpersistedResults(cachedQuiz.getExerciseId());
         cancelScheduledQuizStart(cachedQuiz.getExerciseId());
         quizCache.remove(cachedQuiz.getExerciseId());
     }
@@ -514,6 +615,62 @@ public class QuizScheduleService {
         }
     }
 
+    /**
+     * Batched variant of {@link #saveQuizSubmissionWithParticipationAndResultToDatabase(QuizExercise, Map)}: all submissions that were submitted (or timed out because the quiz
+     * has ended) are persisted together with their participations and results in batches of <code>artemis.quiz.bulk-processing.batch-size</code>.
+     * Processed submissions are removed from the SubmissionHashMap and the participations and results are written into the cache, exactly like in the single submission variant.
+     *
+     * @param quizExercise      the quiz which should be checked
+     * @param userSubmissionMap a Map with all submissions for the given quizExercise mapped by the username
+     * @return the number of persisted submissions (submit or timeout)
+     */
+    private int saveQuizSubmissionsWithParticipationsAndResultsToDatabaseInBatches(@NotNull QuizExercise quizExercise, Map<String, QuizSubmission> userSubmissionMap) {
+        Map<String, QuizSubmission> finishedSubmissions = new HashMap<>();
+        for (String username : userSubmissionMap.keySet()) {
+            QuizSubmission quizSubmission = userSubmissionMap.get(username);
+            if (quizSubmission != null && prepareFinishedSubmission(quizExercise, quizSubmission)) {
+                finishedSubmissions.put(username, quizSubmission);
+            }
+        }
+        if (finishedSubmissions.isEmpty()) {
+            return 0;
+        }
+        return quizSubmissionBatchProcessor.persistInBatches(quizExercise, finishedSubmissions, Math.max(1, bulkProcessingBatchSize), (username, participation) -> {
+            // add the participation to the participationHashMap for the send out at the end of the quiz
+            addParticipation(quizExercise.getId(), participation);
+            // remove the submission only after the participation has been added to the participation hashmap to avoid duplicated key exceptions for multiple participations for
+            // the same user
+            userSubmissionMap.remove(username);
+            // add the result of the participation resultHashMap for the statistic-Update
+            addResultForStatisticUpdate(quizExercise.getId(), participation.getResults().iterator().next());
+        });
+    }
+
+    /**
+     * Checks if the given submission was submitted by the user or if the quiz has ended and sets the submission type accordingly.
+     *
+     * @param quizExercise   the quiz the submission belongs to
+     * @param quizSubmission the cached submission
+     * @return true if the submission should be persisted, false if the quiz is still running and the submission was not yet submitted
+     */
+    private boolean prepareFinishedSubmission(QuizExercise quizExercise, QuizSubmission quizSubmission) {
+        // first case: the user submitted the quizSubmission
+        if (quizSubmission.isSubmitted()) {
+            if (quizSubmission.getType() == null) {
+                quizSubmission.setType(SubmissionType.MANUAL);
+            }
+            return true;
+        } // second case: the quiz has ended
+        else if (quizExercise.isEnded()) {
+            quizSubmission.setSubmitted(true);
+            quizSubmission.setType(SubmissionType.TIMEOUT);
+            quizSubmission.setSubmissionDate(ZonedDateTime.now());
+            return true;
+        }
+        // the quiz is running and the submission was not yet submitted.
+        return false;
+    }
+
     /**
      * check if the user submitted the submission or if the quiz has ended: if true: -> Create Participation and Result and save to Database (DB Write) Remove processed Submissions
      * from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
@@ -528,20 +685,8 @@ public class QuizScheduleService {
 
         for (String username : userSubmissionMap.keySet()) {
             try {
-                // first case: the user submitted the quizSubmission
                 QuizSubmission quizSubmission = userSubmissionMap.get(username);
-                if (quizSubmission.isSubmitted()) {
-                    if (quizSubmission.getType() == null) {
-                        quizSubmission.setType(SubmissionType.MANUAL);
-                    }
-                } // second case: the quiz has ended
-                else if (quizExercise.isEnded()) {
-                    quizSubmission.setSubmitted(true);
-                    quizSubmission.setType(SubmissionType.TIMEOUT);
-                    quizSubmission.setSubmissionDate(ZonedDateTime.now());
-                }
-                else {
-                    // the quiz is running and the submission was not yet submitted.
+                if (!prepareFinishedSubmission(quizExercise, quizSubmission)) {
                     continue;
                 }
 
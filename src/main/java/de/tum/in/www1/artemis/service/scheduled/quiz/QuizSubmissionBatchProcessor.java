@@ -0,0 +1,301 @@
+package de.tum.in.www1.artemis.service.scheduled.quiz;
+
+import static de.tum.in.www1.artemis.service.util.TimeLogUtil.formatDurationFrom;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
+import de.tum.in.www1.artemis.domain.enumeration.InitializationState;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import de.tum.in.www1.artemis.domain.quiz.SubmittedAnswer;
+import de.tum.in.www1.artemis.repository.QuizSubmissionRepository;
+import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
+import de.tum.in.www1.artemis.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Persists submitted (or timed out) cached quiz submissions together with their participations and results in batches.
+ * <p>
+ * The processing of one batch is split into the same steps as the single submission processing in {@link QuizScheduleService}:
+ * <ol>
+ *     <li>resolve all users of the batch with one query</li>
+ *     <li>save all participations</li>
+ *     <li>save all submissions and re-read them with one query</li>
+ *     <li>save all (empty) results</li>
+ *     <li>calculate the scores and save submissions and results again</li>
+ * </ol>
+ * Each step is executed with one <code>saveAll</code> call (and therefore one transaction and JDBC batched updates where possible).
+ * If one step fails for a batch, the step is repeated for each submission of the batch individually, so that one failing submission
+ * (e.g. due to a duplicated key) cannot destroy the answers of the other students in the same batch.
+ * <p>
+ * Note: we intentionally do not use one transaction for the whole batch, because the {@link de.tum.in.www1.artemis.service.listeners.ResultListener}
+ * needs to see the committed participations and results to update the participant scores.
+ */
+final class QuizSubmissionBatchProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizSubmissionBatchProcessor.class);
+
+    private static final String METRIC_BATCH_DURATION = "artemis.quiz.submissions.batch.duration";
+
+    private static final String METRIC_PROCESSED_SUBMISSIONS = "artemis.quiz.submissions.batch.processed";
+
+    private static final String METRIC_FAILED_SUBMISSIONS = "artemis.quiz.submissions.batch.failed";
+
+    private final StudentParticipationRepository studentParticipationRepository;
+
+    private final ResultRepository resultRepository;
+
+    private final UserRepository userRepository;
+
+    private final QuizSubmissionRepository quizSubmissionRepository;
+
+    private final Timer batchTimer;
+
+    private final Counter processedSubmissionsCounter;
+
+    private final Counter failedSubmissionsCounter;
+
+    QuizSubmissionBatchProcessor(StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository, UserRepository userRepository,
+            QuizSubmissionRepository quizSubmissionRepository, MeterRegistry meterRegistry) {
+        this.studentParticipationRepository = studentParticipationRepository;
+        this.resultRepository = resultRepository;
+        this.userRepository = userRepository;
+        this.quizSubmissionRepository = quizSubmissionRepository;
+        this.batchTimer = Timer.builder(METRIC_BATCH_DURATION).description("Time needed to persist one batch of cached quiz submissions").register(meterRegistry);
+        this.processedSubmissionsCounter = Counter.builder(METRIC_PROCESSED_SUBMISSIONS).description("Number of cached quiz submissions persisted in batches")
+                .register(meterRegistry);
+        this.failedSubmissionsCounter = Counter.builder(METRIC_FAILED_SUBMISSIONS).description("Number of cached quiz submissions that could not be persisted in batches")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Persists the given submissions with new participations and results in batches of the given size.
+     * <p>
+     * The given consumer is invoked for each submission that was persisted successfully (with the participation that contains the result and the submission),
+     * so that the caller can update the cache accordingly. Submissions that could not be persisted are not passed to the consumer and stay in the cache.
+     *
+     * @param quizExercise            the quiz exercise (including questions and statistics) of all submissions
+     * @param submissionsByUsername   the submitted submissions that should be persisted, mapped by the username
+     * @param batchSize               the maximum number of submissions persisted in one batch
+     * @param onParticipationPersisted called with the username and the saved participation for each successfully persisted submission
+     * @return the number of successfully persisted submissions
+     */
+    int persistInBatches(QuizExercise quizExercise, Map<String, QuizSubmission> submissionsByUsername, int batchSize,
+            PersistedParticipationConsumer onParticipationPersisted) {
+        List<PendingSubmission> pendingSubmissions = submissionsByUsername.entrySet().stream().map(entry -> new PendingSubmission(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        int persisted = 0;
+        for (int from = 0; from < pendingSubmissions.size(); from += batchSize) {
+            List<PendingSubmission> batch = pendingSubmissions.subList(from, Math.min(from + batchSize, pendingSubmissions.size()));
+            long start = System.nanoTime();
+            List<PendingSubmission> persistedBatch = persistBatch(quizExercise, batch);
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            processedSubmissionsCounter.increment(persistedBatch.size());
+            failedSubmissionsCounter.increment(batch.size() - persistedBatch.size());
+            log.info("Persisted batch of {}/{} quiz submissions in {} for quiz {}", persistedBatch.size(), batch.size(), formatDurationFrom(start), quizExercise.getId());
+            for (PendingSubmission pendingSubmission : persistedBatch) {
+                onParticipationPersisted.accept(pendingSubmission.username, pendingSubmission.participation);
+            }
+            persisted += persistedBatch.size();
+        }
+        return persisted;
+    }
+
+    private List<PendingSubmission> persistBatch(QuizExercise quizExercise, List<PendingSubmission> batch) {
+        resolveUsers(batch);
+        List<PendingSubmission> remaining = executeStep("save participations", batch, pending -> saveParticipations(quizExercise, pending));
+        remaining = executeStep("save submissions", remaining, this::saveSubmissions);
+        remaining = executeStep("save results", remaining, this::saveResults);
+        remaining = executeStep("evaluate results", remaining, pending -> evaluateAndSaveResults(quizExercise, pending));
+        // reconnect entities after save
+        for (PendingSubmission pendingSubmission : remaining) {
+            pendingSubmission.participation.setSubmissions(Set.of(pendingSubmission.submission));
+            pendingSubmission.participation.setResults(Set.of(pendingSubmission.result));
+            pendingSubmission.result.setSubmission(pendingSubmission.submission);
+            pendingSubmission.result.setParticipation(pendingSubmission.participation);
+        }
+        return remaining;
+    }
+
+    /**
+     * Executes the given step for all pending submissions at once. If this fails, the step is repeated for each pending submission individually.
+     *
+     * @return the pending submissions for which the step was successful
+     */
+    private List<PendingSubmission> executeStep(String stepName, List<PendingSubmission> pendingSubmissions, Consumer<List<PendingSubmission>> step) {
+        if (pendingSubmissions.isEmpty()) {
+            return pendingSubmissions;
+        }
+        try {
+            step.accept(pendingSubmissions);
+            return pendingSubmissions;
+        }
+        catch (Exception batchException) {
+            log.warn("Could not {} for a batch of {} quiz submissions, retrying them individually: {}", stepName, pendingSubmissions.size(), batchException.getMessage());
+        }
+        List<PendingSubmission> successful = new ArrayList<>();
+        for (PendingSubmission pendingSubmission : pendingSubmissions) {
+            try {
+                pendingSubmission.resetUnsavedIds();
+                step.accept(List.of(pendingSubmission));
+                successful.add(pendingSubmission);
+            }
+            catch (Exception e) {
+                log.error("Could not {} for the quiz submission of user {}: {}", stepName, pendingSubmission.username, e.getMessage(), e);
+            }
+        }
+        return successful;
+    }
+
+    private void resolveUsers(List<PendingSubmission> batch) {
+        Set<String> logins = batch.stream().map(pending -> pending.username).collect(Collectors.toSet());
+        Map<String, User> usersByLogin = userRepository.findAllByLoginIn(logins).stream().collect(Collectors.toMap(User::getLogin, Function.identity()));
+        for (PendingSubmission pendingSubmission : batch) {
+            pendingSubmission.user = usersByLogin.get(pendingSubmission.username);
+        }
+    }
+
+    private void saveParticipations(QuizExercise quizExercise, List<PendingSubmission> pendingSubmissions) {
+        List<StudentParticipation> participations = new ArrayList<>(pendingSubmissions.size());
+        for (PendingSubmission pendingSubmission : pendingSubmissions) {
+            StudentParticipation participation = new StudentParticipation();
+            // TODO: when this is set earlier for the individual quiz start of a student, we don't need to set this here anymore
+            participation.setInitializationDate(pendingSubmission.submission.getSubmissionDate());
+            if (pendingSubmission.user != null) {
+                participation.setParticipant(pendingSubmission.user);
+            }
+            participation.setExercise(quizExercise);
+            participation.setInitializationState(InitializationState.FINISHED);
+            participations.add(participation);
+        }
+        List<StudentParticipation> savedParticipations = studentParticipationRepository.saveAll(participations);
+        for (int i = 0; i < pendingSubmissions.size(); i++) {
+            pendingSubmissions.get(i).participation = savedParticipations.get(i);
+        }
+    }
+
+    private void saveSubmissions(List<PendingSubmission> pendingSubmissions) {
+        List<QuizSubmission> submissions = new ArrayList<>(pendingSubmissions.size());
+        for (PendingSubmission pendingSubmission : pendingSubmissions) {
+            pendingSubmission.submission.setParticipation(pendingSubmission.participation);
+            submissions.add(pendingSubmission.submission);
+        }
+        List<QuizSubmission> savedSubmissions = quizSubmissionRepository.saveAll(submissions);
+        // re-read all saved submissions with one query
+        List<Long> submissionIds = savedSubmissions.stream().map(QuizSubmission::getId).collect(Collectors.toList());
+        Map<Long, QuizSubmission> reloadedSubmissions = quizSubmissionRepository.findAllById(submissionIds).stream()
+                .collect(Collectors.toMap(QuizSubmission::getId, Function.identity()));
+        for (int i = 0; i < pendingSubmissions.size(); i++) {
+            PendingSubmission pendingSubmission = pendingSubmissions.get(i);
+            pendingSubmission.participation.setSubmissions(Set.of(savedSubmissions.get(i)));
+            pendingSubmission.submission = Objects.requireNonNull(reloadedSubmissions.get(submissionIds.get(i)), "Saved quiz submission could not be read again");
+            pendingSubmission.submissionSaved = true;
+        }
+    }
+
+    private void saveResults(List<PendingSubmission> pendingSubmissions) {
+        List<Result> results = new ArrayList<>(pendingSubmissions.size());
+        for (PendingSubmission pendingSubmission : pendingSubmissions) {
+            Result result = new Result().participation(pendingSubmission.participation);
+            result.setRated(true);
+            result.setAssessmentType(AssessmentType.AUTOMATIC);
+            result.setCompletionDate(pendingSubmission.submission.getSubmissionDate());
+            results.add(result);
+        }
+        List<Result> savedResults = resultRepository.saveAll(results);
+        for (int i = 0; i < pendingSubmissions.size(); i++) {
+            pendingSubmissions.get(i).result = savedResults.get(i);
+        }
+    }
+
+    private void evaluateAndSaveResults(QuizExercise quizExercise, List<PendingSubmission> pendingSubmissions) {
+        List<QuizSubmission> submissions = new ArrayList<>(pendingSubmissions.size());
+        List<Result> results = new ArrayList<>(pendingSubmissions.size());
+        for (PendingSubmission pendingSubmission : pendingSubmissions) {
+            // set submission, calculate scores and update result and submission accordingly
+            Result result = pendingSubmission.result;
+            QuizSubmission submission = pendingSubmission.submission;
+            result.setSubmission(submission);
+            submission.calculateAndUpdateScores(quizExercise);
+            result.evaluateSubmission();
+            // add result to submission
+            submission.setResults(List.of(result));
+            submissions.add(submission);
+            results.add(result);
+        }
+        // save submissions to set result index column
+        List<QuizSubmission> savedSubmissions = quizSubmissionRepository.saveAll(submissions);
+        List<Result> savedResults = resultRepository.saveAll(results);
+        for (int i = 0; i < pendingSubmissions.size(); i++) {
+            pendingSubmissions.get(i).submission = savedSubmissions.get(i);
+            pendingSubmissions.get(i).result = savedResults.get(i);
+        }
+    }
+
+    /**
+     * Consumer for successfully persisted submissions
+     */
+    @FunctionalInterface
+    interface PersistedParticipationConsumer {
+
+        void accept(String username, StudentParticipation participation);
+    }
+
+    /**
+     * The intermediate state of one cached submission while it is persisted
+     */
+    private static final class PendingSubmission {
+
+        private final String username;
+
+        private final Long originalSubmissionId;
+
+        private final Map<SubmittedAnswer, Long> originalSubmittedAnswerIds = new IdentityHashMap<>();
+
+        private QuizSubmission submission;
+
+        private User user;
+
+        private StudentParticipation participation;
+
+        private Result result;
+
+        private boolean submissionSaved;
+
+        private PendingSubmission(String username, QuizSubmission submission) {
+            this.username = username;
+            this.submission = submission;
+            this.originalSubmissionId = submission.getId();
+            if (submission.getSubmittedAnswers() != null) {
+                submission.getSubmittedAnswers().forEach(submittedAnswer -> originalSubmittedAnswerIds.put(submittedAnswer, submittedAnswer.getId()));
+            }
+        }
+
+        /**
+         * A failed saveAll call is rolled back, but the ids generated during the insert stay on the Java objects.
+         * We reset those ids before retrying, so that the entities are inserted again instead of being merged.
+         */
+        private void resetUnsavedIds() {
+            if (!submissionSaved) {
+                submission.setId(originalSubmissionId);
+                if (submission.getSubmittedAnswers() != null) {
+                    submission.getSubmittedAnswers().forEach(submittedAnswer -> submittedAnswer.setId(originalSubmittedAnswerIds.get(submittedAnswer)));
+                }
+            }
+        }
+    }
+}
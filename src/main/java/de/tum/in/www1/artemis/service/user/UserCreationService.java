@@ -23,6 +23,7 @@ import de.tum.in.www1.artemis.domain.Organization;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.CourseDashboardCacheService;
 import de.tum.in.www1.artemis.service.connectors.CIUserManagementService;
 import de.tum.in.www1.artemis.service.connectors.VcsUserManagementService;
 import de.tum.in.www1.artemis.web.rest.vm.ManagedUserVM;
@@ -61,9 +62,11 @@ public class UserCreationService {
 
     private final CacheManager cacheManager;
 
+    private final CourseDashboardCacheService courseDashboardCacheService;
+
     public UserCreationService(UserRepository userRepository, PasswordService passwordService, AuthorityRepository authorityRepository, CourseRepository courseRepository,
             Optional<VcsUserManagementService> optionalVcsUserManagementService, Optional<CIUserManagementService> optionalCIUserManagementService, CacheManager cacheManager,
-            OrganizationRepository organizationRepository) {
+            OrganizationRepository organizationRepository, CourseDashboardCacheService courseDashboardCacheService) {
         this.userRepository = userRepository;
         this.passwordService = passwordService;
         this.authorityRepository = authorityRepository;
@@ -72,6 +75,7 @@ public class UserCreationService {
         this.optionalCIUserManagementService = optionalCIUserManagementService;
         this.cacheManager = cacheManager;
         this.organizationRepository = organizationRepository;
+        this.courseDashboardCacheService = courseDashboardCacheService;
     }
 
     /**
@@ -259,6 +263,9 @@ public class UserCreationService {
         if (userCache != null) {
             userCache.evict(user.getLogin());
         }
+        userRepository.evictCachedUserWithGroupsAndAuthorities(user.getLogin());
+        // the groups of the user determine the courses in the dashboard
+        courseDashboardCacheService.invalidateCourseDashboard(user.getLogin());
     }
 
     /**
@@ -0,0 +1,139 @@
+package de.tum.in.www1.artemis.service.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import de.tum.in.www1.artemis.domain.BuildLogArchive;
+import de.tum.in.www1.artemis.domain.BuildLogEntry;
+
+/**
+ * The format in which the build log entries of a submission are stored in a {@link BuildLogArchive}.
+ * <p>
+ * The entries are written one after the other (time in epoch milliseconds, length of the log in bytes, log in UTF-8) after a 3 byte header (magic bytes, version) and
+ * compressed with GZIP. Build logs consist of many similar lines, so they typically shrink to a fraction of their size. The entries can be read one after the other
+ * without decompressing the whole archive first.
+ */
+public final class BuildLogArchiveFormat {
+
+    static final byte VERSION = 1;
+
+    private static final byte[] MAGIC = { 'B', 'L' };
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final int NO_LOG = -1;
+
+    private BuildLogArchiveFormat() {
+    }
+
+    /**
+     * Compresses the given build log entries
+     *
+     * @param buildLogs the entries in the order of the build
+     * @return the compressed entries
+     */
+    public static byte[] encode(Collection<BuildLogEntry> buildLogs) {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(bytes)))) {
+            output.write(MAGIC);
+            output.writeByte(VERSION);
+            for (BuildLogEntry buildLog : buildLogs) {
+                output.writeLong(buildLog.getTime() == null ? NO_TIME : buildLog.getTime().toInstant().toEpochMilli());
+                if (buildLog.getLog() == null) {
+                    output.writeInt(NO_LOG);
+                }
+                else {
+                    byte[] log = buildLog.getLog().getBytes(StandardCharsets.UTF_8);
+                    output.writeInt(log.length);
+                    output.write(log);
+                }
+            }
+        }
+        catch (IOException e) {
+            // cannot happen when writing into memory
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decompresses the build log entries lazily, i.e. an entry is only read when the stream requests it
+     *
+     * @param compressedEntries the entries compressed with {@link #encode(Collection)}
+     * @return the entries in the order of the build, the times are in UTC
+     * @throws IllegalArgumentException if the data is not in this format
+     */
+    public static Stream<BuildLogEntry> stream(byte[] compressedEntries) {
+        DataInputStream input;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new ByteArrayInputStream(compressedEntries))));
+            if (input.readByte() != MAGIC[0] || input.readByte() != MAGIC[1] || input.readByte() != VERSION) {
+                throw new IllegalArgumentException("The data is not a build log archive of version " + VERSION);
+            }
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("The data is not a build log archive", e);
+        }
+        var entries = new Iterator<BuildLogEntry>() {
+
+            private BuildLogEntry next = readEntry(input);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public BuildLogEntry next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                BuildLogEntry current = next;
+                next = readEntry(input);
+                return current;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(entries, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+            try {
+                input.close();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * @return the next entry or null at the end of the archive
+     */
+    private static BuildLogEntry readEntry(DataInputStream input) {
+        try {
+            long time;
+            try {
+                time = input.readLong();
+            }
+            catch (EOFException e) {
+                return null;
+            }
+            int length = input.readInt();
+            String log = null;
+            if (length != NO_LOG) {
+                byte[] bytes = new byte[length];
+                input.readFully(bytes);
+                log = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return new BuildLogEntry(time == NO_TIME ? null : ZonedDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneOffset.UTC), log);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("The build log archive is corrupt", e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package de.tum.in.www1.artemis.service.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+import de.tum.in.www1.artemis.domain.TextCluster;
+
+/**
+ * The binary format in which the distance matrix and the probabilities of a {@link TextCluster} are stored in the database.
+ * <p>
+ * A distance matrix is stored with float precision after a 12 byte header (magic bytes, version, layout, number of rows, number of columns). A symmetric matrix only
+ * stores its upper triangle including the diagonal row by row, which roughly halves its size again. The probabilities are stored with double precision after an 8
+ * byte header (magic bytes, version, unused byte, length).
+ * <p>
+ * Older rows still contain the arrays serialized with an {@link ObjectOutputStream}. They are recognized by the magic bytes of the Java serialization and can still be
+ * read, until they are converted by the Liquibase changeset 20210402120000.
+ */
+public final class TextClusterBinaryFormat {
+
+    static final byte VERSION = 1;
+
+    static final byte LAYOUT_FULL = 0;
+
+    static final byte LAYOUT_PACKED_SYMMETRIC = 1;
+
+    static final int DISTANCE_MATRIX_HEADER_SIZE = 12;
+
+    private static final int PROBABILITIES_HEADER_SIZE = 8;
+
+    private static final byte[] DISTANCE_MATRIX_MAGIC = { 'T', 'D' };
+
+    private static final byte[] PROBABILITIES_MAGIC = { 'T', 'P' };
+
+    private static final byte[] JAVA_SERIALIZATION_MAGIC = { (byte) 0xAC, (byte) 0xED };
+
+    private TextClusterBinaryFormat() {
+    }
+
+    /**
+     * Encodes the given distance matrix in the compact format
+     *
+     * @param distanceMatrix a matrix with rows of the same length
+     * @return the encoded matrix or null if the matrix is null
+     * @throws IllegalArgumentException if the rows of the matrix have different lengths
+     */
+    public static byte[] encodeDistanceMatrix(double[][] distanceMatrix) {
+        if (distanceMatrix == null) {
+            return null;
+        }
+        int rows = distanceMatrix.length;
+        int columns = rows == 0 ? 0 : distanceMatrix[0].length;
+        for (double[] row : distanceMatrix) {
+            if (row == null || row.length != columns) {
+                throw new IllegalArgumentException("All rows of the distance matrix must have the same length");
+            }
+        }
+        boolean symmetric = isSymmetric(distanceMatrix);
+        long numberOfValues = symmetric ? (long) rows * (rows + 1) / 2 : (long) rows * columns;
+        long size = DISTANCE_MATRIX_HEADER_SIZE + numberOfValues * Float.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The distance matrix with " + rows + " rows is too large to be stored");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.put(DISTANCE_MATRIX_MAGIC).put(VERSION).put(symmetric ? LAYOUT_PACKED_SYMMETRIC : LAYOUT_FULL).putInt(rows).putInt(columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = symmetric ? i : 0; j < columns; j++) {
+                buffer.putFloat((float) distanceMatrix[i][j]);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Encodes the given probabilities in the compact format
+     *
+     * @param probabilities the probabilities of the text blocks of a cluster
+     * @return the encoded probabilities or null if the probabilities are null
+     */
+    public static byte[] encodeProbabilities(double[] probabilities) {
+        if (probabilities == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(PROBABILITIES_HEADER_SIZE + probabilities.length * Double.BYTES);
+        buffer.put(PROBABILITIES_MAGIC).put(VERSION).put((byte) 0).putInt(probabilities.length);
+        for (double probability : probabilities) {
+            buffer.putDouble(probability);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes stored probabilities, both in the compact and in the legacy format
+     *
+     * @param data the stored probabilities
+     * @return the decoded probabilities or null if there is no data
+     * @throws IllegalArgumentException if the data is in neither format
+     */
+    public static double[] decodeProbabilities(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (isLegacyFormat(data)) {
+            return readLegacyFormat(data, double[].class);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        checkHeader(buffer, PROBABILITIES_MAGIC, PROBABILITIES_HEADER_SIZE);
+        buffer.get();
+        int length = buffer.getInt();
+        if (buffer.remaining() != length * Double.BYTES) {
+            throw new IllegalArgumentException("The stored probabilities are truncated");
+        }
+        double[] probabilities = new double[length];
+        buffer.asDoubleBuffer().get(probabilities);
+        return probabilities;
+    }
+
+    /**
+     * Reads a stored distance matrix without copying it, both in the compact and in the legacy format. A matrix in the legacy format is converted in memory.
+     *
+     * @param data the stored distance matrix
+     * @return a reader of the matrix or null if there is no data
+     * @throws IllegalArgumentException if the data is in neither format
+     */
+    public static TextClusterDistanceMatrix readDistanceMatrix(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (isLegacyFormat(data)) {
+            data = encodeDistanceMatrix(readLegacyFormat(data, double[][].class));
+            if (data == null) {
+                return null;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data).asReadOnlyBuffer();
+        checkHeader(buffer, DISTANCE_MATRIX_MAGIC, DISTANCE_MATRIX_HEADER_SIZE);
+        byte layout = buffer.get();
+        int rows = buffer.getInt();
+        int columns = buffer.getInt();
+        if (layout != LAYOUT_FULL && layout != LAYOUT_PACKED_SYMMETRIC) {
+            throw new IllegalArgumentException("Unknown layout " + layout + " of the stored distance matrix");
+        }
+        long numberOfValues = layout == LAYOUT_PACKED_SYMMETRIC ? (long) rows * (rows + 1) / 2 : (long) rows * columns;
+        if (buffer.remaining() != numberOfValues * Float.BYTES) {
+            throw new IllegalArgumentException("The stored distance matrix is truncated");
+        }
+        return new TextClusterDistanceMatrix(buffer, layout == LAYOUT_PACKED_SYMMETRIC, rows, columns);
+    }
+
+    /**
+     * Converts stored data from the legacy format (Java serialization) into the compact format
+     *
+     * @param data the stored distance matrix or probabilities
+     * @return the data in the compact format, or the given data if it is not in the legacy format
+     */
+    public static byte[] convertLegacyFormat(byte[] data) {
+        if (data == null || !isLegacyFormat(data)) {
+            return data;
+        }
+        Object value = readLegacyFormat(data, Object.class);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof double[][] distanceMatrix) {
+            return encodeDistanceMatrix(distanceMatrix);
+        }
+        if (value instanceof double[] probabilities) {
+            return encodeProbabilities(probabilities);
+        }
+        throw new IllegalArgumentException("Unexpected value of type " + value.getClass().getSimpleName() + " in the legacy format");
+    }
+
+    /**
+     * @param data stored data
+     * @return true if the data was serialized with an {@link ObjectOutputStream}
+     */
+    public static boolean isLegacyFormat(byte[] data) {
+        return data != null && data.length >= 2 && data[0] == JAVA_SERIALIZATION_MAGIC[0] && data[1] == JAVA_SERIALIZATION_MAGIC[1];
+    }
+
+    private static boolean isSymmetric(double[][] matrix) {
+        if (matrix.length == 0 || matrix.length != matrix[0].length) {
+            return false;
+        }
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = i + 1; j < matrix.length; j++) {
+                // compare with the precision in which the values are stored
+                if (Float.compare((float) matrix[i][j], (float) matrix[j][i]) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void checkHeader(ByteBuffer buffer, byte[] magic, int headerSize) {
+        if (buffer.remaining() < headerSize || buffer.get() != magic[0] || buffer.get() != magic[1]) {
+            throw new IllegalArgumentException("The stored data is not in the expected format");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported version " + version + " of the stored data");
+        }
+    }
+
+    private static <T> T readLegacyFormat(byte[] data, Class<T> type) {
+        try (final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            // the legacy format only ever contained double arrays
+            ois.setObjectInputFilter(info -> info.serialClass() == null || info.serialClass() == double[].class || info.serialClass() == double[][].class
+                    ? ObjectInputFilter.Status.ALLOWED
+                    : ObjectInputFilter.Status.REJECTED);
+            return type.cast(ois.readObject());
+        }
+        catch (IOException | ClassNotFoundException | ClassCastException e) {
+            throw new IllegalArgumentException("The stored data in the legacy format cannot be read", e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package de.tum.in.www1.artemis.service.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Random access to a distance matrix that is stored in the compact {@link TextClusterBinaryFormat}.
+ * <p>
+ * The reader works directly on the stored bytes, i.e. reading single distances or rows neither deserializes nor copies the whole matrix. Instances are immutable and
+ * can be shared between threads.
+ */
+public final class TextClusterDistanceMatrix {
+
+    private final ByteBuffer buffer;
+
+    private final boolean packedSymmetric;
+
+    private final int rows;
+
+    private final int columns;
+
+    TextClusterDistanceMatrix(ByteBuffer buffer, boolean packedSymmetric, int rows, int columns) {
+        this.buffer = buffer;
+        this.packedSymmetric = packedSymmetric;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the distance between the text blocks at the given positions of the cluster
+     *
+     * @param row    the position of the first text block
+     * @param column the position of the second text block
+     * @return the stored distance (with float precision)
+     * @throws IndexOutOfBoundsException if one of the positions is outside of the matrix
+     */
+    public double distance(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Position (" + row + ", " + column + ") is outside of the " + rows + "x" + columns + " distance matrix");
+        }
+        return buffer.getFloat(TextClusterBinaryFormat.DISTANCE_MATRIX_HEADER_SIZE + offset(row, column) * Float.BYTES);
+    }
+
+    /**
+     * Sums up the similarities (1 - distance) of one row, including the similarity of the text block to itself
+     *
+     * @param row the position of the text block
+     * @return the sum of the similarities of the row
+     */
+    public double sumOfSimilarities(int row) {
+        double sum = 0.0;
+        for (int column = 0; column < columns; column++) {
+            sum += 1.0 - distance(row, column);
+        }
+        return sum;
+    }
+
+    /**
+     * Copies the whole matrix into an array, which should only be necessary for the REST API
+     *
+     * @return the distance matrix as array
+     */
+    public double[][] toArray() {
+        double[][] matrix = new double[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                matrix[row][column] = distance(row, column);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * The index of the value at the given position, a symmetric matrix only stores the upper triangle (including the diagonal) row by row
+     */
+    private int offset(int row, int column) {
+        if (!packedSymmetric) {
+            return (int) ((long) row * columns + column);
+        }
+        int upper = Math.max(row, column);
+        int lower = Math.min(row, column);
+        // the rows above start with (rows - 0) + (rows - 1) + ... + (rows - lower + 1) values
+        return (int) ((long) lower * rows - (long) lower * (lower - 1) / 2 + (upper - lower));
+    }
+}
@@ -0,0 +1,26 @@
+package de.tum.in.www1.artemis.service.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtil {
+
+    /**
+     * Runs the given action now and, if the current thread is in a transaction, once more after the transaction committed.
+     * This is used to remove cached data that depends on the changed entities: the data can be cached again from the old database state until the transaction commits.
+     *
+     * @param action the action that removes the cached data, it must not access the database
+     */
+    public static void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
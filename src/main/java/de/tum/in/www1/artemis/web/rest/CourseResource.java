@@ -32,6 +32,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.ComplaintType;
@@ -113,13 +115,16 @@ public class CourseResource {
 
     private final ResultRepository resultRepository;
 
+    private final CourseDashboardCacheService courseDashboardCacheService;
+
     public CourseResource(UserRepository userRepository, CourseService courseService, CourseRepository courseRepository, ExerciseService exerciseService,
             AuthorizationCheckService authCheckService, TutorParticipationService tutorParticipationService, Environment env,
             ArtemisAuthenticationProvider artemisAuthenticationProvider, ComplaintRepository complaintRepository, ComplaintResponseRepository complaintResponseRepository,
             SubmissionService submissionService, ComplaintService complaintService, TutorLeaderboardService tutorLeaderboardService,
             ProgrammingExerciseRepository programmingExerciseRepository, AuditEventRepository auditEventRepository,
             Optional<VcsUserManagementService> optionalVcsUserManagementService, AssessmentDashboardService assessmentDashboardService, ExerciseRepository exerciseRepository,
-            SubmissionRepository submissionRepository, ResultRepository resultRepository, Optional<CIUserManagementService> optionalCiUserManagementService) {
+            SubmissionRepository submissionRepository, ResultRepository resultRepository, Optional<CIUserManagementService> optionalCiUserManagementService,
+            CourseDashboardCacheService courseDashboardCacheService) {
         this.courseService = courseService;
         this.courseRepository = courseRepository;
         this.exerciseService = exerciseService;
@@ -141,6 +146,7 @@ public class CourseResource {
         this.exerciseRepository = exerciseRepository;
         this.submissionRepository = submissionRepository;
         this.resultRepository = resultRepository;
+        this.courseDashboardCacheService = courseDashboardCacheService;
     }
 
     /**
@@ -522,11 +528,13 @@ public class CourseResource {
         if (participationsOfUserInExercises.isEmpty()) {
             return;
         }
+        // group the participations once, so that each exercise only has to look at its own participations
+        Map<Long, List<StudentParticipation>> participationsByExerciseId = ExerciseService.groupParticipationsByExerciseId(participationsOfUserInExercises);
         for (Course course : courses) {
             boolean isStudent = !authCheckService.isAtLeastTeachingAssistantInCourse(course, user);
             for (Exercise exercise : course.getExercises()) {
                 // add participation with submission and result to each exercise
-                exerciseService.filterForCourseDashboard(exercise, participationsOfUserInExercises, user.getLogin(), isStudent);
+                exerciseService.filterForCourseDashboard(exercise, participationsByExerciseId.getOrDefault(exercise.getId(), List.of()), user.getLogin(), isStudent);
                 // remove sensitive information from the exercise for students
                 if (isStudent) {
                     exercise.filterSensitiveInformation();
@@ -543,19 +551,25 @@ public class CourseResource {
     /**
      * GET /courses/for-dashboard
      *
+     * The serialized courses are cached for a short time per user, see {@link CourseDashboardCacheService}.
+     *
      * @return the list of courses (the user has access to) including all exercises with participation and result for the user
+     * @throws JsonProcessingException if the courses cannot be serialized
      */
     @GetMapping("/courses/for-dashboard")
     @PreAuthorize("hasRole('USER')")
-    public List<Course> getAllCoursesForDashboard() {
+    public ResponseEntity<byte[]> getAllCoursesForDashboard() throws JsonProcessingException {
         long start = System.currentTimeMillis();
         log.debug("REST request to get all Courses the user has access to with exercises, participations and results");
         User user = userRepository.getUserWithGroupsAndAuthorities();
 
-        // get all courses with exercises for this user
-        List<Course> courses = courseService.findAllActiveWithExercisesAndLecturesAndExamsForUser(user);
-        fetchParticipationsWithSubmissionsAndResultsForCourses(courses, user, start);
-        return courses;
+        byte[] courses = courseDashboardCacheService.getCourseDashboard(user.getLogin(), () -> {
+            // get all courses with exercises for this user
+            List<Course> coursesOfUser = courseService.findAllActiveWithExercisesAndLecturesAndExamsForUser(user);
+            fetchParticipationsWithSubmissionsAndResultsForCourses(coursesOfUser, user, start);
+            return coursesOfUser;
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(courses);
     }
 
     /**
@@ -82,10 +82,12 @@ public class ExamResource {
 
     private final StudentExamRepository studentExamRepository;
 
+    private final StudentExamAuthorizationCache studentExamAuthorizationCache;
+
     public ExamResource(UserRepository userRepository, CourseRepository courseRepository, ExamService examService, ExamAccessService examAccessService,
             InstanceMessageSendService instanceMessageSendService, ExamRepository examRepository, SubmissionService submissionService, AuthorizationCheckService authCheckService,
             ExamDateService examDateService, TutorParticipationService tutorParticipationService, AssessmentDashboardService assessmentDashboardService,
-            ExamRegistrationService examRegistrationService, StudentExamRepository studentExamRepository) {
+            ExamRegistrationService examRegistrationService, StudentExamRepository studentExamRepository, StudentExamAuthorizationCache studentExamAuthorizationCache) {
         this.userRepository = userRepository;
         this.courseRepository = courseRepository;
         this.examService = examService;
@@ -99,6 +101,7 @@ public class ExamResource {
         this.tutorParticipationService = tutorParticipationService;
         this.assessmentDashboardService = assessmentDashboardService;
         this.studentExamRepository = studentExamRepository;
+        this.studentExamAuthorizationCache = studentExamAuthorizationCache;
     }
 
     /**
@@ -189,6 +192,8 @@ public class ExamResource {
         updatedExam.setRegisteredUsers(originalExam.getRegisteredUsers());
 
         Exam result = examRepository.save(updatedExam);
+        // the dates of the exam determine whether the students are allowed to save their submissions
+        studentExamAuthorizationCache.evictExam(result.getId());
 
         // We can't test dates for equality as the dates retrieved from the database lose precision. Also use instant to take timezones into account
         Comparator<ZonedDateTime> comparator = Comparator.comparing(date -> date.truncatedTo(ChronoUnit.SECONDS).toInstant());
@@ -529,6 +534,7 @@ public class ExamResource {
         examService.combineTemplateCommitsOfAllProgrammingExercisesInExam(exam);
 
         List<StudentExam> studentExams = studentExamRepository.generateStudentExams(exam);
+        studentExamAuthorizationCache.evictExam(examId);
 
         // we need to break a cycle for the serialization
         for (StudentExam studentExam : studentExams) {
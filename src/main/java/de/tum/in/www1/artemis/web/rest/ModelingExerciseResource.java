@@ -10,6 +10,7 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -467,7 +468,7 @@ public class ModelingExerciseResource {
      * @param minimumSize         consider only submissions whose size is greater or equal to this
      *                            value
      * @return the ResponseEntity with status 200 (OK) and the list of pair-wise submission
-     * similarities above a threshold of 80%.
+     * similarities above a threshold of 80%, or with status 409 (Conflict) if a newer check of the exercise replaced this one
      */
     @GetMapping("/modeling-exercises/{exerciseId}/check-plagiarism")
     @PreAuthorize("hasRole('INSTRUCTOR')")
@@ -477,7 +478,13 @@ public class ModelingExerciseResource {
         if (!authCheckService.isAtLeastInstructorForExercise(modelingExercise)) {
             return forbidden();
         }
-        ModelingPlagiarismResult result = modelingPlagiarismDetectionService.compareSubmissions(modelingExercise, similarityThreshold / 100, minimumSize, minimumScore);
+        ModelingPlagiarismResult result;
+        try {
+            result = modelingPlagiarismDetectionService.compareSubmissions(modelingExercise, similarityThreshold / 100, minimumSize, minimumScore);
+        }
+        catch (CancellationException e) {
+            return conflict(ENTITY_NAME, "plagiarismCheckReplaced", "A newer plagiarism check of this exercise was started, its result replaces this one");
+        }
         plagiarismService.savePlagiarismResultAndRemovePrevious(result);
         return ResponseEntity.ok(result);
     }
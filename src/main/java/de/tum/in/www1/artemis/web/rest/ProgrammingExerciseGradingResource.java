@@ -2,8 +2,6 @@ package de.tum.in.www1.artemis.web.rest;
 
 import static de.tum.in.www1.artemis.web.rest.util.ResponseUtil.forbidden;
 
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -12,11 +10,11 @@ import org.springframework.web.bind.annotation.*;
 
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
-import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.repository.UserRepository;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseGradingService;
 import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseGradingStatisticsDTO;
+import de.tum.in.www1.artemis.web.rest.errors.InternalServerErrorException;
 
 /**
  * REST controller for managing ProgrammingExerciseTestCase. Test cases are created automatically from build run results which is why there are not endpoints available for POST,
@@ -40,22 +38,19 @@ public class ProgrammingExerciseGradingResource {
 
     private final UserRepository userRepository;
 
-    private final ResultRepository resultRepository;
-
     public ProgrammingExerciseGradingResource(ProgrammingExerciseGradingService programmingExerciseGradingService, ProgrammingExerciseRepository programmingExerciseRepository,
-            AuthorizationCheckService authCheckService, UserRepository userRepository, ResultRepository resultRepository) {
+            AuthorizationCheckService authCheckService, UserRepository userRepository) {
         this.programmingExerciseGradingService = programmingExerciseGradingService;
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.authCheckService = authCheckService;
         this.userRepository = userRepository;
-        this.resultRepository = resultRepository;
     }
 
     /**
      * Use with care: Re-evaluates all latest automatic results for the given programming exercise.
      *
      * @param exerciseId the id of the exercise to re-evaluate the test case weights of.
-     * @return the number of results that were updated.
+     * @return the number of results that were updated, or status 500 (Internal Server Error) if the results of some participations could not be re-evaluated.
      */
     @PutMapping(RE_EVALUATE)
     @PreAuthorize("hasRole('INSTRUCTOR')")
@@ -69,11 +64,15 @@ public class ProgrammingExerciseGradingResource {
             return forbidden();
         }
 
-        List<Result> updatedResults = programmingExerciseGradingService.updateAllResults(programmingExercise);
+        var reEvaluation = programmingExerciseGradingService.updateAllResults(programmingExercise);
 
-        programmingExerciseGradingService.logReEvaluate(user, programmingExercise, course, updatedResults);
-        resultRepository.saveAll(updatedResults);
-        return ResponseEntity.ok(updatedResults.size());
+        programmingExerciseGradingService.logReEvaluate(user, programmingExercise, course, reEvaluation.getUpdatedResults());
+        if (reEvaluation.getFailedParticipations() > 0) {
+            // the results of the other participations are saved nevertheless
+            throw new InternalServerErrorException("The results of " + reEvaluation.getFailedParticipations() + " of " + reEvaluation.getTotalParticipations()
+                    + " participations could not be re-evaluated, " + reEvaluation.getUpdatedResults() + " results were updated");
+        }
+        return ResponseEntity.ok(reEvaluation.getUpdatedResults());
     }
 
     /**
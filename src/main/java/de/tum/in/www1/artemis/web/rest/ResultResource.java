@@ -10,8 +10,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import javax.annotation.Nullable;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,6 +18,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.*;
@@ -30,10 +30,8 @@ import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.*;
-import de.tum.in.www1.artemis.service.connectors.ContinuousIntegrationService;
-import de.tum.in.www1.artemis.service.connectors.LtiService;
 import de.tum.in.www1.artemis.service.exam.ExamDateService;
-import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseGradingService;
+import de.tum.in.www1.artemis.service.programming.BuildResultIngestionService;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseParticipationService;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -71,52 +69,30 @@ public class ResultResource {
 
     private final UserRepository userRepository;
 
-    private final Optional<ContinuousIntegrationService> continuousIntegrationService;
-
     private final ProgrammingExerciseParticipationService programmingExerciseParticipationService;
 
-    private final WebsocketMessagingService messagingService;
-
-    private final LtiService ltiService;
-
-    private final ProgrammingExerciseGradingService programmingExerciseGradingService;
-
     private final ParticipationRepository participationRepository;
 
     private final StudentParticipationRepository studentParticipationRepository;
 
-    private final TemplateProgrammingExerciseParticipationRepository templateProgrammingExerciseParticipationRepository;
-
-    private final SolutionProgrammingExerciseParticipationRepository solutionProgrammingExerciseParticipationRepository;
-
-    private final ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository;
+    private final BuildResultIngestionService buildResultIngestionService;
 
     public ResultResource(ProgrammingExerciseParticipationService programmingExerciseParticipationService, ParticipationService participationService, ResultService resultService,
-            ExerciseService exerciseService, ExerciseRepository exerciseRepository, AuthorizationCheckService authCheckService,
-            Optional<ContinuousIntegrationService> continuousIntegrationService, LtiService ltiService, ResultRepository resultRepository,
-            WebsocketMessagingService messagingService, UserRepository userRepository, ExamDateService examDateService,
-            ProgrammingExerciseGradingService programmingExerciseGradingService, ParticipationRepository participationRepository,
-            StudentParticipationRepository studentParticipationRepository, TemplateProgrammingExerciseParticipationRepository templateProgrammingExerciseParticipationRepository,
-            SolutionProgrammingExerciseParticipationRepository solutionProgrammingExerciseParticipationRepository,
-            ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository) {
+            ExerciseService exerciseService, ExerciseRepository exerciseRepository, AuthorizationCheckService authCheckService, ResultRepository resultRepository,
+            UserRepository userRepository, ExamDateService examDateService, ParticipationRepository participationRepository,
+            StudentParticipationRepository studentParticipationRepository, BuildResultIngestionService buildResultIngestionService) {
         this.exerciseRepository = exerciseRepository;
         this.resultRepository = resultRepository;
         this.participationService = participationService;
         this.resultService = resultService;
         this.exerciseService = exerciseService;
         this.authCheckService = authCheckService;
-        this.continuousIntegrationService = continuousIntegrationService;
         this.programmingExerciseParticipationService = programmingExerciseParticipationService;
-        this.messagingService = messagingService;
-        this.ltiService = ltiService;
         this.userRepository = userRepository;
         this.examDateService = examDateService;
-        this.programmingExerciseGradingService = programmingExerciseGradingService;
         this.participationRepository = participationRepository;
         this.studentParticipationRepository = studentParticipationRepository;
-        this.templateProgrammingExerciseParticipationRepository = templateProgrammingExerciseParticipationRepository;
-        this.solutionProgrammingExerciseParticipationRepository = solutionProgrammingExerciseParticipationRepository;
-        this.programmingExerciseStudentParticipationRepository = programmingExerciseStudentParticipationRepository;
+        this.buildResultIngestionService = buildResultIngestionService;
     }
 
     /**
@@ -126,6 +102,7 @@ public class ResultResource {
      * - Assign the result to an existing submission OR create a new submission if needed
      * - Update the result's score based on the exercise's test cases (weights, etc.)
      * - Update the exercise's test cases if the build is from a solution participation
+     * If the asynchronous result processing is enabled, these steps are executed after the response was sent (see {@link BuildResultIngestionService}).
      *
      * @param token CI auth token
      * @param requestBody build result of CI system
@@ -146,7 +123,7 @@ public class ResultResource {
         // Retrieving the plan key can fail if e.g. the requestBody is malformed. In this case nothing else can be done.
         String planKey;
         try {
-            planKey = continuousIntegrationService.get().getPlanKey(requestBody);
+            planKey = buildResultIngestionService.getPlanKey(requestBody);
         }
         // TODO: How can we catch a more specific exception here? Because of the adapter pattern this is always just Exception...
         catch (Exception ex) {
@@ -155,54 +132,22 @@ public class ResultResource {
         }
         log.info("Artemis received a new result for build plan {}", planKey);
 
-        // Try to retrieve the participation with the build plan key.
-        var participation = getParticipationWithResults(planKey);
-        if (participation == null) {
-            log.warn("Participation is missing for notifyResultNew (PlanKey: {}).", planKey);
-            return notFound();
-        }
-
-        // Process the new result from the build result.
-        Optional<Result> optResult = programmingExerciseGradingService.processNewProgrammingExerciseResult(participation, requestBody);
-
-        // Only notify the user about the new result if the result was created successfully.
-        if (optResult.isPresent()) {
-            Result result = optResult.get();
-            log.debug("Send result to client over websocket. Result: {}, Submission: {}, Participation: {}", result, result.getSubmission(), result.getParticipation());
-            // notify user via websocket
-            messagingService.broadcastNewResult((Participation) participation, result);
-            if (participation instanceof StudentParticipation) {
-                // do not try to report results for template or solution participations
-                ltiService.onNewResult((ProgrammingExerciseStudentParticipation) participation);
+        if (buildResultIngestionService.isAsynchronousProcessingEnabled()) {
+            // Acknowledge the result immediately, it is processed as soon as one of the workers is available
+            try {
+                buildResultIngestionService.enqueueNewResult(planKey, requestBody);
+            }
+            catch (JsonProcessingException ex) {
+                log.error("Could not queue the new result for build plan {}: {}", planKey, ex.getMessage());
+                return badRequest();
             }
-            log.info("The new result for {} was saved successfully", planKey);
+            return ResponseEntity.ok().build();
         }
-        return ResponseEntity.ok().build();
-    }
 
-    @Nullable
-    private ProgrammingExerciseParticipation getParticipationWithResults(String planKey) {
-        // we have to support template, solution and student build plans here
-        if (planKey.endsWith("-" + BuildPlanType.TEMPLATE.getName())) {
-            return templateProgrammingExerciseParticipationRepository.findByBuildPlanIdWithResults(planKey).orElse(null);
-        }
-        else if (planKey.endsWith("-" + BuildPlanType.SOLUTION.getName())) {
-            return solutionProgrammingExerciseParticipationRepository.findByBuildPlanIdWithResults(planKey).orElse(null);
-        }
-        List<ProgrammingExerciseStudentParticipation> participations = programmingExerciseStudentParticipationRepository.findByBuildPlanId(planKey);
-        ProgrammingExerciseStudentParticipation participation = null;
-        if (participations.size() > 0) {
-            participation = participations.get(0);
-            if (participations.size() > 1) {
-                // in the rare case of multiple participations, take the latest one.
-                for (ProgrammingExerciseStudentParticipation otherParticipation : participations) {
-                    if (otherParticipation.getInitializationDate().isAfter(participation.getInitializationDate())) {
-                        participation = otherParticipation;
-                    }
-                }
-            }
+        if (!buildResultIngestionService.processNewResult(planKey, requestBody)) {
+            return notFound();
         }
-        return participation;
+        return ResponseEntity.ok().build();
     }
 
     /**
@@ -67,10 +67,15 @@ public class StudentExamResource {
 
     private final AuthorizationCheckService authorizationCheckService;
 
+    private final StudentExamAuthorizationCache studentExamAuthorizationCache;
+
+    private final ExamSubmissionAutosaveBuffer examSubmissionAutosaveBuffer;
+
     public StudentExamResource(ExamAccessService examAccessService, StudentExamService studentExamService, StudentExamAccessService studentExamAccessService,
             UserRepository userRepository, AuditEventRepository auditEventRepository, StudentExamRepository studentExamRepository, ExamDateService examDateService,
             ExamSessionService examSessionService, StudentParticipationRepository studentParticipationRepository, QuizExerciseRepository quizExerciseRepository,
-            ExamRepository examRepository, AuthorizationCheckService authorizationCheckService) {
+            ExamRepository examRepository, AuthorizationCheckService authorizationCheckService,
+            StudentExamAuthorizationCache studentExamAuthorizationCache, ExamSubmissionAutosaveBuffer examSubmissionAutosaveBuffer) {
         this.examAccessService = examAccessService;
         this.studentExamService = studentExamService;
         this.studentExamAccessService = studentExamAccessService;
@@ -83,6 +88,8 @@ public class StudentExamResource {
         this.quizExerciseRepository = quizExerciseRepository;
         this.examRepository = examRepository;
         this.authorizationCheckService = authorizationCheckService;
+        this.studentExamAuthorizationCache = studentExamAuthorizationCache;
+        this.examSubmissionAutosaveBuffer = examSubmissionAutosaveBuffer;
     }
 
     /**
@@ -167,7 +174,9 @@ public class StudentExamResource {
         }
 
         studentExam.setWorkingTime(workingTime);
-        return ResponseEntity.ok(studentExamRepository.save(studentExam));
+        StudentExam savedStudentExam = studentExamRepository.save(studentExam);
+        studentExamAuthorizationCache.evict(savedStudentExam);
+        return ResponseEntity.ok(savedStudentExam);
     }
 
     /**
@@ -239,6 +248,9 @@ public class StudentExamResource {
             return courseAndExamAccessFailure.get();
         }
 
+        // the student continues with the latest autosaves, e.g. after reloading the exam. If they cannot be saved, the request fails, because the client would
+        // otherwise continue with outdated submissions and overwrite the buffered autosaves with its next autosave
+        examSubmissionAutosaveBuffer.flushStudent(examId, user.getLogin());
         prepareStudentExamForConduction(request, user, studentExam);
 
         log.info("getStudentExamForConduction done in {}ms for {} exercises for user {}", System.currentTimeMillis() - start, studentExam.getExercises().size(), user.getLogin());
@@ -661,7 +673,9 @@ public class StudentExamResource {
                 "studentExamId=" + studentExamId);
         auditEventRepository.add(auditEvent);
 
-        return ResponseEntity.ok(studentExamRepository.save(studentExam));
+        StudentExam savedStudentExam = studentExamRepository.save(studentExam);
+        studentExamAuthorizationCache.evict(savedStudentExam);
+        return ResponseEntity.ok(savedStudentExam);
     }
 
     /**
@@ -700,6 +714,8 @@ public class StudentExamResource {
                 "studentExamId=" + studentExamId);
         auditEventRepository.add(auditEvent);
 
-        return ResponseEntity.ok(studentExamRepository.save(studentExam));
+        StudentExam savedStudentExam = studentExamRepository.save(studentExam);
+        studentExamAuthorizationCache.evict(savedStudentExam);
+        return ResponseEntity.ok(savedStudentExam);
     }
 }
@@ -63,12 +63,17 @@ public class TextAssessmentResource extends AssessmentResource {
 
     private final FeedbackConflictRepository feedbackConflictRepository;
 
+    private final Optional<TextAssessmentQueueService> textAssessmentQueueService;
+
+    private final Optional<AutomaticTextFeedbackService> automaticTextFeedbackService;
+
     public TextAssessmentResource(AuthorizationCheckService authCheckService, TextAssessmentService textAssessmentService, TextBlockService textBlockService,
             TextExerciseRepository textExerciseRepository, TextSubmissionRepository textSubmissionRepository, UserRepository userRepository,
             TextSubmissionService textSubmissionService, WebsocketMessagingService messagingService, ExerciseRepository exerciseRepository, ResultRepository resultRepository,
             GradingCriterionRepository gradingCriterionRepository, Optional<AtheneTrackingTokenProvider> atheneTrackingTokenProvider, ExamService examService,
             Optional<AutomaticTextAssessmentConflictService> automaticTextAssessmentConflictService, FeedbackConflictRepository feedbackConflictRepository,
-            ExampleSubmissionRepository exampleSubmissionRepository, SubmissionRepository submissionRepository) {
+            ExampleSubmissionRepository exampleSubmissionRepository, SubmissionRepository submissionRepository,
+            Optional<TextAssessmentQueueService> textAssessmentQueueService, Optional<AutomaticTextFeedbackService> automaticTextFeedbackService) {
         super(authCheckService, userRepository, exerciseRepository, textAssessmentService, resultRepository, examService, messagingService, exampleSubmissionRepository,
                 submissionRepository);
 
@@ -81,6 +86,8 @@ public class TextAssessmentResource extends AssessmentResource {
         this.atheneTrackingTokenProvider = atheneTrackingTokenProvider;
         this.automaticTextAssessmentConflictService = automaticTextAssessmentConflictService;
         this.feedbackConflictRepository = feedbackConflictRepository;
+        this.textAssessmentQueueService = textAssessmentQueueService;
+        this.automaticTextFeedbackService = automaticTextFeedbackService;
     }
 
     /**
@@ -105,6 +112,7 @@ public class TextAssessmentResource extends AssessmentResource {
 
         if (response.getStatusCode().is2xxSuccessful()) {
             saveTextBlocks(textAssessment.getTextBlocks(), textSubmission);
+            updateFeedbackSuggestions(textSubmission, response.getBody());
         }
 
         return response;
@@ -190,6 +198,7 @@ public class TextAssessmentResource extends AssessmentResource {
 
         if (response.getStatusCode().is2xxSuccessful()) {
             saveTextBlocks(textAssessment.getTextBlocks(), textSubmission);
+            updateFeedbackSuggestions(textSubmission, response.getBody());
 
             // call feedback conflict service
             if (exercise.isAutomaticAssessmentEnabled() && automaticTextAssessmentConflictService.isPresent()) {
@@ -221,6 +230,7 @@ public class TextAssessmentResource extends AssessmentResource {
         checkAuthorization(textExercise, user);
         saveTextBlocks(assessmentUpdate.getTextBlocks(), textSubmission);
         Result result = textAssessmentService.updateAssessmentAfterComplaint(textSubmission.getLatestResult(), textExercise, assessmentUpdate);
+        updateFeedbackSuggestions(textSubmission, result);
 
         if (result.getParticipation() != null && result.getParticipation() instanceof StudentParticipation && !authCheckService.isAtLeastInstructorForExercise(textExercise)) {
             ((StudentParticipation) result.getParticipation()).setParticipant(null);
@@ -240,7 +250,15 @@ public class TextAssessmentResource extends AssessmentResource {
     @PutMapping("/exercise/{exerciseId}/submission/{submissionId}/cancel-assessment")
     @PreAuthorize("hasRole('TA')")
     public ResponseEntity<Void> cancelAssessment(@PathVariable Long exerciseId, @PathVariable Long submissionId) {
-        return super.cancelAssessment(submissionId);
+        ResponseEntity<Void> response = super.cancelAssessment(submissionId);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            // the submission can be proposed to the tutors again
+            textAssessmentQueueService.ifPresent(service -> service.markSubmissionAsOpen(exerciseId, submissionId));
+            // its feedback was deleted, so it must not be suggested anymore
+            automaticTextFeedbackService.ifPresent(service -> textSubmissionRepository.findWithEagerResultsAndFeedbackAndTextBlocksById(submissionId)
+                    .ifPresent(textSubmission -> service.updateFeedbackIndexes(textSubmission, List.of())));
+        }
+        return response;
     }
 
     /**
@@ -494,6 +512,18 @@ public class TextAssessmentResource extends AssessmentResource {
         checkAuthorization(textExercise, user);
     }
 
+    /**
+     * Adds the saved feedback to the feedback that is suggested for similar text blocks of the same cluster
+     *
+     * @param textSubmission the assessed text submission with its text blocks
+     * @param result the saved result
+     */
+    private void updateFeedbackSuggestions(final TextSubmission textSubmission, @Nullable final Result result) {
+        if (automaticTextFeedbackService.isPresent() && result != null) {
+            automaticTextFeedbackService.get().updateFeedbackIndexes(textSubmission, result.getFeedbacks());
+        }
+    }
+
     /**
      * Save TextBlocks received from Client (if present). We need to reference them to the submission first.
      * @param textBlocks received from Client
@@ -234,6 +234,7 @@ public class UserResource {
         log.debug("REST request to update notification date for logged in user");
         User user = userRepository.getUser();
         userRepository.updateUserNotificationReadDate(user.getId());
+        userRepository.evictCachedUserWithGroupsAndAuthorities(user.getLogin());
         return ResponseEntity.ok().build();
     }
 }
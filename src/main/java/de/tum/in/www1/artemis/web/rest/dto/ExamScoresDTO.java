@@ -1,11 +1,12 @@
 package de.tum.in.www1.artemis.web.rest.dto;
 
+import java.io.Serializable;
 import java.util.*;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
-public class ExamScoresDTO {
+public class ExamScoresDTO implements Serializable {
 
     public Long examId;
 
@@ -31,7 +32,7 @@ public class ExamScoresDTO {
 
     // Inner DTO
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
-    public static class ExerciseGroup {
+    public static class ExerciseGroup implements Serializable {
 
         public Long id;
 
@@ -54,7 +55,7 @@ public class ExamScoresDTO {
         }
 
         @JsonInclude(JsonInclude.Include.NON_EMPTY)
-        public static class ExerciseInfo {
+        public static class ExerciseInfo implements Serializable {
 
             public Long exerciseId;
 
@@ -79,7 +80,7 @@ public class ExamScoresDTO {
 
     // Inner DTO
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
-    public static class StudentResult {
+    public static class StudentResult implements Serializable {
 
         public Long userId;
 
@@ -115,7 +116,7 @@ public class ExamScoresDTO {
 
     // Inner DTO
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
-    public static class ExerciseResult {
+    public static class ExerciseResult implements Serializable {
 
         public Long exerciseId;
 
@@ -1,9 +1,17 @@
 package de.tum.in.www1.artemis.web.websocket;
 
 import java.security.Principal;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -17,6 +25,10 @@ import de.tum.in.www1.artemis.service.ParticipationService;
 import de.tum.in.www1.artemis.service.QuizExerciseService;
 import de.tum.in.www1.artemis.service.QuizSubmissionService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @SuppressWarnings("unused")
 @Controller
 public class QuizSubmissionWebsocketService {
@@ -31,12 +43,49 @@ public class QuizSubmissionWebsocketService {
 
     private final SimpMessageSendingOperations messagingTemplate;
 
+    private final MeterRegistry meterRegistry;
+
+    @Value("${artemis.quiz.submission-errors.pool-size:2}")
+    private int errorPoolSize;
+
+    @Value("${artemis.quiz.submission-errors.queue-capacity:1000}")
+    private int errorQueueCapacity;
+
+    /**
+     * Sends the error replies, so that the outbound channel does not block the inbound channel (e.g. due to a slow client). Replies that do not fit into the queue are dropped,
+     * the client only misses the error message in this case.
+     */
+    private ThreadPoolExecutor errorSender;
+
+    private Counter droppedErrorCounter;
+
     public QuizSubmissionWebsocketService(QuizExerciseService quizExerciseService, ParticipationService participationService, SimpMessageSendingOperations messagingTemplate,
-            QuizSubmissionService quizSubmissionService) {
+            QuizSubmissionService quizSubmissionService, MeterRegistry meterRegistry) {
         this.quizExerciseService = quizExerciseService;
         this.participationService = participationService;
         this.messagingTemplate = messagingTemplate;
         this.quizSubmissionService = quizSubmissionService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        int poolSize = Math.max(1, errorPoolSize);
+        droppedErrorCounter = Counter.builder("artemis.quiz.submission.errors.dropped").description("Number of quiz submission error replies dropped because the queue was full")
+                .register(meterRegistry);
+        errorSender = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, errorQueueCapacity)), runnable -> {
+            Thread thread = new Thread(runnable, "quiz-submission-error-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, (runnable, executor) -> droppedErrorCounter.increment());
+        Gauge.builder("artemis.quiz.submission.errors.queued", errorSender, executor -> executor.getQueue().size())
+                .description("Number of quiz submission error replies waiting to be sent").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        errorSender.shutdownNow();
     }
 
     // TODO it would be nice to have some kind of startQuiz call that creates the participation with an initialization date. This should happen when the quiz is first shown
@@ -63,8 +112,8 @@ public class QuizSubmissionWebsocketService {
             // log.info("WS.Inbound: Sent quiz submission (async) back to user {} in quiz {} after {} µs ", principal.getName(), exerciseId, (System.nanoTime() - start) / 1000);
         }
         catch (QuizSubmissionException ex) {
-            // send error message over websocket (use a thread to prevent that the outbound channel blocks the inbound channel (e.g. due a slow client))
-            new Thread(() -> messagingTemplate.convertAndSendToUser(username, "/topic/quizExercise/" + exerciseId + "/submission", new WebsocketError(ex.getMessage()))).start();
+            // send error message over websocket (use the error sender to prevent that the outbound channel blocks the inbound channel (e.g. due a slow client))
+            errorSender.execute(() -> messagingTemplate.convertAndSendToUser(username, "/topic/quizExercise/" + exerciseId + "/submission", new WebsocketError(ex.getMessage())));
         }
     }
 
@@ -0,0 +1,42 @@
+package de.tum.in.www1.artemis.web.websocket.dto;
+
+/**
+ * This DTO informs the instructors about the progress of preparing the exercises of all student exams of an exam:
+ * - participationsToPrepare: the number of participations that have to be created or initialized
+ * - preparedParticipations: the number of participations that were prepared so far
+ * - failedParticipations: the number of participations whose preparation failed, they are prepared again when the exercises are started again
+ * - finished: whether all participations were processed
+ */
+public class ExamExerciseStartProgressDTO {
+
+    private final int participationsToPrepare;
+
+    private final int preparedParticipations;
+
+    private final int failedParticipations;
+
+    private final boolean finished;
+
+    public ExamExerciseStartProgressDTO(int participationsToPrepare, int preparedParticipations, int failedParticipations, boolean finished) {
+        this.participationsToPrepare = participationsToPrepare;
+        this.preparedParticipations = preparedParticipations;
+        this.failedParticipations = failedParticipations;
+        this.finished = finished;
+    }
+
+    public int getParticipationsToPrepare() {
+        return participationsToPrepare;
+    }
+
+    public int getPreparedParticipations() {
+        return preparedParticipations;
+    }
+
+    public int getFailedParticipations() {
+        return failedParticipations;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+}
@@ -0,0 +1,18 @@
+package de.tum.in.www1.artemis.web.websocket.dto;
+
+/**
+ * This DTO informs the instructors about the progress of a running plagiarism check of a modeling exercise:
+ * - progressInPercent: the percentage of submission pairs that were already compared
+ */
+public class ModelingPlagiarismCheckProgressDTO {
+
+    private final int progressInPercent;
+
+    public ModelingPlagiarismCheckProgressDTO(int progressInPercent) {
+        this.progressInPercent = progressInPercent;
+    }
+
+    public int getProgressInPercent() {
+        return progressInPercent;
+    }
+}
@@ -0,0 +1,50 @@
+package de.tum.in.www1.artemis.web.websocket.dto;
+
+/**
+ * This DTO informs the instructors about the progress of the re-evaluation of all results of a programming exercise:
+ * - processedParticipations: the number of student participations whose results were already re-evaluated
+ * - totalParticipations: the number of student participations of the exercise
+ * - updatedResults: the number of results that were updated so far
+ * - failedParticipations: the number of processed student participations whose results could not be re-evaluated
+ * - finished: whether all participations were processed
+ */
+public class ProgrammingExerciseReEvaluationProgressDTO {
+
+    private final int processedParticipations;
+
+    private final int totalParticipations;
+
+    private final int updatedResults;
+
+    private final int failedParticipations;
+
+    private final boolean finished;
+
+    public ProgrammingExerciseReEvaluationProgressDTO(int processedParticipations, int totalParticipations, int updatedResults, int failedParticipations, boolean finished) {
+        this.processedParticipations = processedParticipations;
+        this.totalParticipations = totalParticipations;
+        this.updatedResults = updatedResults;
+        this.failedParticipations = failedParticipations;
+        this.finished = finished;
+    }
+
+    public int getProcessedParticipations() {
+        return processedParticipations;
+    }
+
+    public int getTotalParticipations() {
+        return totalParticipations;
+    }
+
+    public int getUpdatedResults() {
+        return updatedResults;
+    }
+
+    public int getFailedParticipations() {
+        return failedParticipations;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+}
@@ -0,0 +1,9 @@
+export class ExamExerciseStartProgressDTO {
+    public participationsToPrepare: number;
+
+    public preparedParticipations: number;
+
+    public failedParticipations: number;
+
+    public finished: boolean;
+}
@@ -0,0 +1,11 @@
+export class ProgrammingExerciseReEvaluationProgressDTO {
+    public processedParticipations: number;
+
+    public totalParticipations: number;
+
+    public updatedResults: number;
+
+    public failedParticipations: number;
+
+    public finished: boolean;
+}
@@ -1,4 +1,4 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { ActivatedRoute } from '@angular/router';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 import { StudentExamService } from 'app/exam/manage/student-exams/student-exam.service';
@@ -17,12 +17,14 @@ import { TranslateService } from '@ngx-translate/core';
 import * as moment from 'moment';
 import { Moment } from 'moment';
 import { defaultLongDateTimeFormat } from 'app/shared/pipes/artemis-date.pipe';
+import { JhiWebsocketService } from 'app/core/websocket/websocket.service';
+import { ExamExerciseStartProgressDTO } from 'app/entities/exam-exercise-start-progress.model';
 
 @Component({
     selector: 'jhi-student-exams',
     templateUrl: './student-exams.component.html',
 })
-export class StudentExamsComponent implements OnInit {
+export class StudentExamsComponent implements OnInit, OnDestroy {
     courseId: number;
     examId: number;
     studentExams: StudentExam[];
@@ -37,6 +39,8 @@ export class StudentExamsComponent implements OnInit {
     isExamStarted = false;
     isExamOver = false;
     longestWorkingTime: number;
+    exerciseStartProgress?: ExamExerciseStartProgressDTO;
+    private exerciseStartProgressChannel?: string;
 
     constructor(
         private route: ActivatedRoute,
@@ -46,6 +50,7 @@ export class StudentExamsComponent implements OnInit {
         private jhiAlertService: JhiAlertService,
         private modalService: NgbModal,
         private translateService: TranslateService,
+        private jhiWebsocketService: JhiWebsocketService,
     ) {}
 
     /**
@@ -58,6 +63,13 @@ export class StudentExamsComponent implements OnInit {
         this.loadAll();
     }
 
+    /**
+     * Unsubscribe from the progress of starting the exercises
+     */
+    ngOnDestroy(): void {
+        this.unsubscribeFromExerciseStartProgress();
+    }
+
     private loadAll() {
         this.paramSub = this.route.params.subscribe(() => {
             this.courseService.find(this.courseId).subscribe((courseResponse) => {
@@ -168,12 +180,14 @@ export class StudentExamsComponent implements OnInit {
     }
 
     /**
-     * Starts all the exercises of the student exams that belong to the exam
+     * Starts all the exercises of the student exams that belong to the exam and shows the progress that the server sends while preparing the participations
      */
     startExercises() {
         this.isLoading = true;
+        this.subscribeToExerciseStartProgress();
         this.examManagementService.startExercises(this.courseId, this.examId).subscribe(
             (res) => {
+                this.unsubscribeFromExerciseStartProgress();
                 this.jhiAlertService.addAlert(
                     {
                         type: 'success',
@@ -186,12 +200,30 @@ export class StudentExamsComponent implements OnInit {
                 this.loadAll();
             },
             (err: HttpErrorResponse) => {
+                this.unsubscribeFromExerciseStartProgress();
                 this.onError(err.error);
                 this.isLoading = false;
             },
         );
     }
 
+    private subscribeToExerciseStartProgress() {
+        this.unsubscribeFromExerciseStartProgress();
+        this.exerciseStartProgressChannel = `/topic/exams/${this.examId}/exercise-start-progress`;
+        this.jhiWebsocketService.subscribe(this.exerciseStartProgressChannel);
+        this.jhiWebsocketService.receive(this.exerciseStartProgressChannel).subscribe((progress: ExamExerciseStartProgressDTO) => {
+            this.exerciseStartProgress = progress;
+        });
+    }
+
+    private unsubscribeFromExerciseStartProgress() {
+        if (this.exerciseStartProgressChannel) {
+            this.jhiWebsocketService.unsubscribe(this.exerciseStartProgressChannel);
+            this.exerciseStartProgressChannel = undefined;
+        }
+        this.exerciseStartProgress = undefined;
+    }
+
     /**
      * Evaluates all the quiz exercises that belong to the exam
      */
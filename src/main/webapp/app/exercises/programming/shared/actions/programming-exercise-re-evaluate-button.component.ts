@@ -1,10 +1,12 @@
-import { Component, Input } from '@angular/core';
+import { Component, Input, OnDestroy } from '@angular/core';
 import { HttpErrorResponse } from '@angular/common/http';
 import { JhiAlertService } from 'ng-jhipster';
 import { ProgrammingExerciseGradingService } from 'app/exercises/programming/manage/services/programming-exercise-grading.service';
 import { FeatureToggle } from 'app/shared/feature-toggle/feature-toggle.service';
 import { ProgrammingExercise } from 'app/entities/programming-exercise.model';
 import { ButtonType } from 'app/shared/components/button.component';
+import { JhiWebsocketService } from 'app/core/websocket/websocket.service';
+import { ProgrammingExerciseReEvaluationProgressDTO } from 'app/entities/programming-exercise-re-evaluation-progress.model';
 
 /**
  * A button that re-evaluates all latest automatic results of the given programming exercise.
@@ -25,32 +27,68 @@ import { ButtonType } from 'app/shared/components/button.component';
             (onClick)="triggerReEvaluate()"
         >
         </jhi-button>
+        <span *ngIf="isReEvaluationRunning && reEvaluationProgress" id="re-evaluation-progress" class="ml-1">
+            {{
+                'artemisApp.programmingExercise.reEvaluateProgress'
+                    | artemisTranslate: { processed: reEvaluationProgress.processedParticipations, total: reEvaluationProgress.totalParticipations }
+            }}
+        </span>
     `,
 })
-export class ProgrammingExerciseReEvaluateButtonComponent {
+export class ProgrammingExerciseReEvaluateButtonComponent implements OnDestroy {
     FeatureToggle = FeatureToggle;
     ButtonType = ButtonType;
     @Input() exercise: ProgrammingExercise;
     @Input() disabled = false;
 
     isReEvaluationRunning = false;
+    reEvaluationProgress?: ProgrammingExerciseReEvaluationProgressDTO;
+    private reEvaluationProgressChannel?: string;
 
-    constructor(private testCaseService: ProgrammingExerciseGradingService, private alertService: JhiAlertService) {}
+    constructor(private testCaseService: ProgrammingExerciseGradingService, private alertService: JhiAlertService, private jhiWebsocketService: JhiWebsocketService) {}
 
     /**
-     * Triggers the re-evaluation of the programming exercise and displays the result in the end using an alert.
+     * Unsubscribe from the progress of a running re-evaluation
+     */
+    ngOnDestroy(): void {
+        this.unsubscribeFromReEvaluationProgress();
+    }
+
+    /**
+     * Triggers the re-evaluation of the programming exercise, shows its progress while it is running and displays the result in the end using an alert.
      */
     triggerReEvaluate() {
         this.isReEvaluationRunning = true;
+        this.subscribeToReEvaluationProgress();
         this.testCaseService.reEvaluate(this.exercise.id!).subscribe(
             (updatedResultsCount: number) => {
                 this.isReEvaluationRunning = false;
+                this.unsubscribeFromReEvaluationProgress();
                 this.alertService.success(`artemisApp.programmingExercise.reEvaluateSuccessful`, { number: updatedResultsCount });
             },
             (error: HttpErrorResponse) => {
                 this.isReEvaluationRunning = false;
-                this.alertService.error(`artemisApp.programmingExercise.reEvaluateFailed`, { message: error.message });
+                this.unsubscribeFromReEvaluationProgress();
+                // the server describes which participations could not be re-evaluated in the title of the problem
+                this.alertService.error(`artemisApp.programmingExercise.reEvaluateFailed`, { message: error.error?.title ?? error.message });
             },
         );
     }
+
+    private subscribeToReEvaluationProgress() {
+        this.unsubscribeFromReEvaluationProgress();
+        this.reEvaluationProgressChannel = `/topic/programming-exercise/${this.exercise.id}/re-evaluation`;
+        this.jhiWebsocketService.subscribe(this.reEvaluationProgressChannel);
+        this.jhiWebsocketService.receive(this.reEvaluationProgressChannel).subscribe((progress: ProgrammingExerciseReEvaluationProgressDTO) => {
+            this.reEvaluationProgress = progress;
+        });
+    }
+
+    private unsubscribeFromReEvaluationProgress() {
+        if (this.reEvaluationProgressChannel) {
+            this.jhiWebsocketService.unsubscribe(this.reEvaluationProgressChannel);
+            this.reEvaluationProgressChannel = undefined;
+        }
+        this.reEvaluationProgress = undefined;
+    }
 }
@@ -1,4 +1,4 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { ActivatedRoute, Router } from '@angular/router';
 import { HttpResponse } from '@angular/common/http';
 import { ModelingExerciseService } from 'app/exercises/modeling/manage/modeling-exercise.service';
@@ -14,13 +14,14 @@ import { ModelingSubmissionElement } from 'app/exercises/shared/plagiarism/types
 import { TextSubmissionElement } from 'app/exercises/shared/plagiarism/types/text/TextSubmissionElement';
 import { ProgrammingExerciseService } from 'app/exercises/programming/manage/services/programming-exercise.service';
 import { PlagiarismOptions } from 'app/exercises/shared/plagiarism/types/PlagiarismOptions';
+import { JhiWebsocketService } from 'app/core/websocket/websocket.service';
 
 @Component({
     selector: 'jhi-plagiarism-inspector',
     styleUrls: ['./plagiarism-inspector.component.scss'],
     templateUrl: './plagiarism-inspector.component.html',
 })
-export class PlagiarismInspectorComponent implements OnInit {
+export class PlagiarismInspectorComponent implements OnInit, OnDestroy {
     /**
      * The modeling exercise for which plagiarism is to be detected.
      */
@@ -36,6 +37,13 @@ export class PlagiarismInspectorComponent implements OnInit {
      */
     detectionInProgress: boolean;
 
+    /**
+     * The percentage of compared submission pairs of a running detection, if the server reported it.
+     */
+    detectionProgressInPercent?: number;
+
+    private detectionProgressChannel?: string;
+
     /**
      * Index of the currently selected comparison.
      */
@@ -87,6 +95,7 @@ export class PlagiarismInspectorComponent implements OnInit {
         private modelingExerciseService: ModelingExerciseService,
         private programmingExerciseService: ProgrammingExerciseService,
         private textExerciseService: TextExerciseService,
+        private jhiWebsocketService: JhiWebsocketService,
     ) {}
 
     ngOnInit() {
@@ -97,6 +106,10 @@ export class PlagiarismInspectorComponent implements OnInit {
         });
     }
 
+    ngOnDestroy() {
+        this.unsubscribeFromDetectionProgress();
+    }
+
     /**
      * Fetch the latest plagiarism result. There might be no plagiarism result for the given exercise yet.
      */
@@ -196,13 +209,37 @@ export class PlagiarismInspectorComponent implements OnInit {
      */
     checkPlagiarismModeling(options?: PlagiarismOptions) {
         this.detectionInProgress = true;
+        this.subscribeToDetectionProgress(`/topic/modeling-exercises/${this.exercise.id}/plagiarism-check`);
 
         this.modelingExerciseService.checkPlagiarism(this.exercise.id!, options).subscribe(
-            (result: ModelingPlagiarismResult) => this.handlePlagiarismResult(result),
-            () => (this.detectionInProgress = false),
+            (result: ModelingPlagiarismResult) => {
+                this.unsubscribeFromDetectionProgress();
+                this.handlePlagiarismResult(result);
+            },
+            () => {
+                this.unsubscribeFromDetectionProgress();
+                this.detectionInProgress = false;
+            },
         );
     }
 
+    private subscribeToDetectionProgress(channel: string) {
+        this.unsubscribeFromDetectionProgress();
+        this.detectionProgressChannel = channel;
+        this.jhiWebsocketService.subscribe(channel);
+        this.jhiWebsocketService.receive(channel).subscribe((progress: { progressInPercent: number }) => {
+            this.detectionProgressInPercent = progress.progressInPercent;
+        });
+    }
+
+    private unsubscribeFromDetectionProgress() {
+        if (this.detectionProgressChannel) {
+            this.jhiWebsocketService.unsubscribe(this.detectionProgressChannel);
+            this.detectionProgressChannel = undefined;
+        }
+        this.detectionProgressInPercent = undefined;
+    }
+
     handlePlagiarismResult(result: ModelingPlagiarismResult | TextPlagiarismResult) {
         this.detectionInProgress = false;
 
@@ -44,6 +44,7 @@ import de.tum.in.www1.artemis.service.ldap.LdapUserDto;
 import de.tum.in.www1.artemis.util.ModelFactory;
 import de.tum.in.www1.artemis.util.ZipFileTestUtilService;
 import de.tum.in.www1.artemis.web.rest.dto.*;
+import de.tum.in.www1.artemis.web.websocket.dto.ExamExerciseStartProgressDTO;
 
 public class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
 
@@ -324,6 +325,15 @@ public class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucke
             var textSubmission = (TextSubmission) participation.getSubmissions().iterator().next();
             assertThat(textSubmission.getText()).isNull();
         }
+        verify(messagingTemplate).convertAndSend(eq("/topic/exams/" + exam2.getId() + "/exercise-start-progress"),
+                argThat((ExamExerciseStartProgressDTO progress) -> progress.isFinished() && progress.getPreparedParticipations() == 2));
+
+        // the participations are already prepared, so starting the exercises again neither creates participations nor submissions
+        noGeneratedParticipations = request.postWithResponseBody("/api/courses/" + course1.getId() + "/exams/" + exam2.getId() + "/student-exams/start-exercises",
+                Optional.empty(), Integer.class, HttpStatus.OK);
+        assertThat(noGeneratedParticipations).isZero();
+        assertThat(participationTestRepository.findAllWithSubmissions()).hasSize(studentParticipations.size())
+                .allSatisfy(participation -> assertThat(participation.getSubmissions()).hasSize(1));
 
         // Cleanup of Bidirectional Relationships
         for (StudentExam studentExam : createdStudentExams) {
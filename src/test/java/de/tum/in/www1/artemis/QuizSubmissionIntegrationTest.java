@@ -22,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.Course;
@@ -67,6 +68,9 @@ public class QuizSubmissionIntegrationTest extends AbstractSpringIntegrationBamb
     @Autowired
     private ResultRepository resultRepository;
 
+    @Autowired
+    private StudentParticipationRepository studentParticipationRepository;
+
     private final int multiplier = 10;
 
     @BeforeEach
@@ -181,6 +185,83 @@ public class QuizSubmissionIntegrationTest extends AbstractSpringIntegrationBamb
         assertThat(submissionRepository.countByExerciseIdSubmitted(quizExercise.getId())).isEqualTo(numberOfParticipants);
     }
 
+    @Test
+    @WithMockUser(value = "student1", roles = "USER")
+    public void testLiveStatisticsArePersistedPeriodically() throws Exception {
+        List<Course> courses = database.createCoursesWithExercisesAndLectures(true);
+        QuizExercise quizExercise = database.createQuiz(courses.get(0), ZonedDateTime.now(), null);
+        quizExercise.duration(240);
+        quizExercise.setIsPlannedToStart(true);
+        quizExercise.setIsVisibleBeforeStart(true);
+        quizExercise = quizExerciseService.save(quizExercise);
+        final Long quizExerciseId = quizExercise.getId();
+        ReflectionTestUtils.setField(quizScheduleService, "statisticsPersistIntervalSeconds", 3600);
+        try {
+            submitQuiz(quizExercise, 1, 5);
+            // the first run saves the submissions, the second one persists the statistics for the first time
+            quizScheduleService.processCachedQuizSubmissions();
+            quizScheduleService.processCachedQuizSubmissions();
+            assertThat(quizExerciseRepository.findOneWithQuestionsAndStatistics(quizExerciseId).getQuizPointStatistic().getParticipantsRated()).isEqualTo(5);
+
+            submitQuiz(quizExercise, 6, 10);
+            quizScheduleService.processCachedQuizSubmissions();
+            quizScheduleService.processCachedQuizSubmissions();
+
+            // the instructors get the live statistics, but they are not persisted before the interval is over
+            verify(messagingTemplate).convertAndSend(eq("/topic/statistic/" + quizExerciseId),
+                    argThat(quiz -> quiz instanceof QuizExercise && ((QuizExercise) quiz).getQuizPointStatistic().getParticipantsRated() == 10));
+            assertThat(quizExerciseRepository.findOneWithQuestionsAndStatistics(quizExerciseId).getQuizPointStatistic().getParticipantsRated()).isEqualTo(5);
+
+            // End the quiz right now, so that the statistics are persisted
+            quizExercise = quizExerciseRepository.findOneWithQuestionsAndStatistics(quizExerciseId);
+            quizExercise.setDuration((int) (Duration.between(quizExercise.getReleaseDate(), ZonedDateTime.now()).getSeconds() - Constants.QUIZ_GRACE_PERIOD_IN_SECONDS));
+            exerciseRepository.saveAndFlush(quizExercise);
+            quizScheduleService.processCachedQuizSubmissions();
+
+            // every result is counted exactly once
+            QuizExercise quizExerciseWithStatistic = quizExerciseRepository.findOneWithQuestionsAndStatistics(quizExerciseId);
+            assertThat(quizExerciseWithStatistic.getQuizPointStatistic().getParticipantsRated()).isEqualTo(10);
+            assertThat(quizExerciseWithStatistic.getQuizPointStatistic().getParticipantsUnrated()).isEqualTo(0);
+        }
+        finally {
+            ReflectionTestUtils.setField(quizScheduleService, "statisticsPersistIntervalSeconds", 0);
+        }
+    }
+
+    @Test
+    @WithMockUser(value = "student1", roles = "USER")
+    public void testQuizSubmitAfterCacheLossIsRejected() {
+        List<Course> courses = database.createCoursesWithExercisesAndLectures(true);
+        QuizExercise quizExercise = database.createQuiz(courses.get(0), ZonedDateTime.now(), null);
+        quizExercise.duration(240);
+        quizExercise.setIsPlannedToStart(true);
+        quizExercise.setIsVisibleBeforeStart(true);
+        quizExercise = quizExerciseService.save(quizExercise);
+        final Long quizExerciseId = quizExercise.getId();
+
+        submitQuiz(quizExercise, 1, 1);
+        quizScheduleService.processCachedQuizSubmissions();
+        assertThat(submissionRepository.countByExerciseIdSubmitted(quizExerciseId)).isEqualTo(1);
+
+        // the cached quiz data is lost, e.g. because the only instance restarted during the quiz
+        quizScheduleService.clearQuizData(quizExerciseId);
+        submitQuiz(quizExercise, 1, 1);
+        quizScheduleService.processCachedQuizSubmissions();
+
+        // the second submit is rejected based on the persisted result
+        assertThat(submissionRepository.countByExerciseIdSubmitted(quizExerciseId)).isEqualTo(1);
+        assertThat(studentParticipationRepository.findByExerciseId(quizExerciseId)).hasSize(1);
+    }
+
+    private void submitQuiz(QuizExercise quizExercise, int firstStudent, int lastStudent) {
+        for (int i = firstStudent; i <= lastStudent; i++) {
+            QuizSubmission quizSubmission = database.generateSubmissionForThreeQuestions(quizExercise, i, true, null);
+            final var username = "student" + i;
+            final Principal principal = () -> username;
+            quizSubmissionWebsocketService.saveSubmission(quizExercise.getId(), quizSubmission, principal);
+        }
+    }
+
     @Test
     @WithMockUser(value = "student1", roles = "USER")
     public void testQuizSubmitPractice() throws Exception {
@@ -22,12 +22,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.enumeration.RepositoryType;
+import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
@@ -40,6 +42,7 @@ import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.ParticipationService;
 import de.tum.in.www1.artemis.service.exam.ExamQuizService;
+import de.tum.in.www1.artemis.service.exam.ExamSubmissionAutosaveBuffer;
 import de.tum.in.www1.artemis.util.LocalRepository;
 import de.tum.in.www1.artemis.util.ProgrammingExerciseTestService;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
@@ -85,6 +88,9 @@ public class StudentExamIntegrationTest extends AbstractSpringIntegrationBambooB
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ExamSubmissionAutosaveBuffer examSubmissionAutosaveBuffer;
+
     private List<User> users;
 
     private Course course1;
@@ -1009,6 +1015,78 @@ public class StudentExamIntegrationTest extends AbstractSpringIntegrationBambooB
         deleteExam1WithInstructor();
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    public void testSubmitStudentExam_withBufferedAutosaves() throws Exception {
+        // the buffer is disabled in the tests, it is only flushed explicitly here
+        ReflectionTestUtils.setField(examSubmissionAutosaveBuffer, "flushIntervalMs", 10_000L);
+        try {
+            List<StudentExam> studentExams = prepareStudentExamsForConduction();
+            bitbucketRequestMockProvider.reset();
+            bitbucketRequestMockProvider.enableMockingOfRequests(true);
+
+            database.changeUser(studentExams.get(0).getUser().getLogin());
+            var studentExamResponse = request.get("/api/courses/" + course2.getId() + "/exams/" + exam2.getId() + "/student-exams/conduction", HttpStatus.OK, StudentExam.class);
+            var textExercise = studentExamResponse.getExercises().stream().filter(exercise -> exercise instanceof TextExercise).findFirst().get();
+            var modelingExercise = studentExamResponse.getExercises().stream().filter(exercise -> exercise instanceof ModelingExercise).findFirst().get();
+            var textSubmission = (TextSubmission) textExercise.getStudentParticipations().iterator().next().getSubmissions().iterator().next();
+            var modelingSubmission = (ModelingSubmission) modelingExercise.getStudentParticipations().iterator().next().getSubmissions().iterator().next();
+
+            // the first autosave finishes the participation and is saved directly, the second one is buffered
+            textSubmission.setText("First text");
+            request.put("/api/exercises/" + textExercise.getId() + "/text-submissions", textSubmission, HttpStatus.OK);
+            modelingSubmission.setModel("First model");
+            request.put("/api/exercises/" + modelingExercise.getId() + "/modeling-submissions", modelingSubmission, HttpStatus.OK);
+            textSubmission.setText("Buffered text");
+            request.put("/api/exercises/" + textExercise.getId() + "/text-submissions", textSubmission, HttpStatus.OK);
+            modelingSubmission.setModel("Buffered model");
+            request.put("/api/exercises/" + modelingExercise.getId() + "/modeling-submissions", modelingSubmission, HttpStatus.OK);
+            assertThat(((TextSubmission) submissionRepository.findById(textSubmission.getId()).get()).getText()).isEqualTo("First text");
+            assertThat(((ModelingSubmission) submissionRepository.findById(modelingSubmission.getId()).get()).getModel()).isEqualTo("First model");
+
+            // autosave -> flush: the submissions and their versions contain the buffered content
+            examSubmissionAutosaveBuffer.flushLocalAutosaves();
+            var savedTextSubmission = (TextSubmission) submissionRepository.findById(textSubmission.getId()).get();
+            assertThat(savedTextSubmission.getText()).isEqualTo("Buffered text");
+            assertThat(savedTextSubmission.isSubmitted()).isTrue();
+            assertThat(savedTextSubmission.getType()).isEqualTo(SubmissionType.MANUAL);
+            assertThat(((ModelingSubmission) submissionRepository.findById(modelingSubmission.getId()).get()).getModel()).isEqualTo("Buffered model");
+            assertVersionedSubmission(textSubmission);
+            assertVersionedSubmission(modelingSubmission);
+
+            // autosave -> reload: the conduction contains the buffered content
+            textSubmission.setText("Reloaded text");
+            request.put("/api/exercises/" + textExercise.getId() + "/text-submissions", textSubmission, HttpStatus.OK);
+            var reloadedStudentExam = request.get("/api/courses/" + course2.getId() + "/exams/" + exam2.getId() + "/student-exams/conduction", HttpStatus.OK,
+                    StudentExam.class);
+            var reloadedTextSubmission = (TextSubmission) reloadedStudentExam.getExercises().stream().filter(exercise -> exercise.getId().equals(textExercise.getId()))
+                    .findFirst().get().getStudentParticipations().iterator().next().getSubmissions().iterator().next();
+            assertThat(reloadedTextSubmission.getText()).isEqualTo("Reloaded text");
+
+            // autosave -> submit: the final submit wins, also against a later flush
+            textSubmission.setText("Autosaved text");
+            request.put("/api/exercises/" + textExercise.getId() + "/text-submissions", textSubmission, HttpStatus.OK);
+            reloadedTextSubmission.setText("Final text");
+            for (var exercise : reloadedStudentExam.getExercises()) {
+                if (exercise instanceof ProgrammingExercise) {
+                    var programmingExercise = (ProgrammingExercise) exercise;
+                    var participation = exercise.getStudentParticipations().iterator().next();
+                    final var repositorySlug = (programmingExercise.getProjectKey() + "-" + participation.getParticipantIdentifier()).toLowerCase();
+                    bitbucketRequestMockProvider.mockSetRepositoryPermissionsToReadOnly(repositorySlug, programmingExercise.getProjectKey(), participation.getStudents());
+                }
+            }
+            request.postWithResponseBody("/api/courses/" + course2.getId() + "/exams/" + exam2.getId() + "/student-exams/submit", reloadedStudentExam, StudentExam.class,
+                    HttpStatus.OK);
+            examSubmissionAutosaveBuffer.flushLocalAutosaves();
+            assertThat(((TextSubmission) submissionRepository.findById(textSubmission.getId()).get()).getText()).isEqualTo("Final text");
+            assertVersionedSubmission(reloadedTextSubmission);
+        }
+        finally {
+            ReflectionTestUtils.setField(examSubmissionAutosaveBuffer, "flushIntervalMs", 0L);
+        }
+        deleteExam1WithInstructor();
+    }
+
     private void submitQuizInExam(QuizExercise quizExercise, QuizSubmission quizSubmission) throws Exception {
         // check that the submission was saved and that a submitted version was created
         int dndDragItemIndex = 1;
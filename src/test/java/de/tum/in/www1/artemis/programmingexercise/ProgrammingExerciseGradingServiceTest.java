@@ -3,7 +3,8 @@ package de.tum.in.www1.artemis.programmingexercise;
 import static de.tum.in.www1.artemis.config.Constants.TEST_CASES_DUPLICATE_NOTIFICATION;
 import static de.tum.in.www1.artemis.web.rest.ProgrammingExerciseResource.Endpoints.ROOT;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 import java.time.ZonedDateTime;
 import java.util.*;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -35,6 +37,7 @@ import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseTestCaseSer
 import de.tum.in.www1.artemis.util.ModelFactory;
 import de.tum.in.www1.artemis.web.rest.ProgrammingExerciseGradingResource;
 import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseGradingStatisticsDTO;
+import de.tum.in.www1.artemis.web.websocket.dto.ProgrammingExerciseReEvaluationProgressDTO;
 
 public class ProgrammingExerciseGradingServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
 
@@ -451,6 +454,9 @@ public class ProgrammingExerciseGradingServiceTest extends AbstractSpringIntegra
         final var endpoint = ProgrammingExerciseGradingResource.RE_EVALUATE.replace("{exerciseId}", programmingExercise.getId().toString());
         final var response = request.putWithResponseBody(ROOT + endpoint, "{}", Integer.class, HttpStatus.OK);
         assertThat(response).isEqualTo(7);
+        verify(messagingTemplate).convertAndSend(eq("/topic/programming-exercise/" + programmingExercise.getId() + "/re-evaluation"),
+                argThat((ProgrammingExerciseReEvaluationProgressDTO progress) -> progress.isFinished() && progress.getUpdatedResults() == 7
+                        && progress.getFailedParticipations() == 0));
 
         // this fixes an issue with the authentication context after a mock request
         SecurityContextHolder.setContext(TestSecurityContextHolder.getContext());
@@ -481,6 +487,19 @@ public class ProgrammingExerciseGradingServiceTest extends AbstractSpringIntegra
         verifyStudentScoreCalculations(testParticipations);
     }
 
+    @Test
+    @WithMockUser(value = "instructor1", roles = "INSTRUCTOR")
+    public void shouldReportParticipationsThatCouldNotBeReEvaluated() throws Exception {
+        doReturn(new ProgrammingExerciseReEvaluationProgressDTO(5, 5, 3, 2, true)).when(programmingExerciseGradingService).updateAllResults(any());
+        try {
+            final var endpoint = ProgrammingExerciseGradingResource.RE_EVALUATE.replace("{exerciseId}", programmingExercise.getId().toString());
+            request.putWithResponseBody(ROOT + endpoint, "{}", Integer.class, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        finally {
+            Mockito.reset(programmingExerciseGradingService);
+        }
+    }
+
     @ValueSource(booleans = { false, true })
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
     @WithMockUser(value = "instructor1", roles = "INSTRUCTOR")
@@ -0,0 +1,125 @@
+package de.tum.in.www1.artemis.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import org.junit.jupiter.api.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.domain.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CachedUserRepositoryTest {
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private CachedUserRepositoryImpl cachedUserRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TypedQuery<User> query;
+
+    @BeforeAll
+    public static void setUpHazelcast() {
+        Config config = new Config();
+        config.setProperty("hazelcast.shutdownhook.enabled", "false");
+        config.setInstanceName("cachedUserRepositoryTestHazelcastInstance");
+        NetworkConfig network = config.getNetworkConfig();
+        network.getJoin().getTcpIpConfig().setEnabled(false);
+        network.getJoin().getMulticastConfig().setEnabled(false);
+        hazelcastInstance = Hazelcast.getOrCreateHazelcastInstance(config);
+    }
+
+    @AfterAll
+    public static void tearDownHazelcast() {
+        hazelcastInstance.shutdown();
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachedUserRepository = new CachedUserRepositoryImpl(hazelcastInstance, meterRegistry);
+        ReflectionTestUtils.setField(cachedUserRepository, "timeToLiveSeconds", 60L);
+        EntityManager entityManager = mock(EntityManager.class);
+        query = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(User.class))).thenReturn(query);
+        when(query.setParameter(eq("login"), any())).thenReturn(query);
+        when(query.getResultStream()).thenAnswer(invocation -> Stream.of(createUser()));
+        ReflectionTestUtils.setField(cachedUserRepository, "entityManager", entityManager);
+        cachedUserRepository.init();
+        cachedUserRepository.evictCachedUserWithGroupsAndAuthorities("student1");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testUserIsCachedInClusterUntilEvicted() {
+        assertThat(cachedUserRepository.findCachedWithGroupsAndAuthoritiesByLogin("student1")).hasValueSatisfying(user -> assertThat(user.getGroups()).contains("tumuser"));
+        assertThat(cachedUserRepository.findCachedWithGroupsAndAuthoritiesByLogin("student1")).hasValueSatisfying(user -> assertThat(user.getGroups()).contains("tumuser"));
+        verify(query, times(1)).getResultStream();
+
+        cachedUserRepository.evictCachedUserWithGroupsAndAuthorities("student1");
+        cachedUserRepository.findCachedWithGroupsAndAuthoritiesByLogin("student1");
+
+        verify(query, times(2)).getResultStream();
+        assertThat(meterRegistry.get("artemis.user.cache.requests").tag("cache", "cluster").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("artemis.user.cache.requests").tag("cache", "cluster").tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testUserIsLoadedOncePerRequest() {
+        ReflectionTestUtils.setField(cachedUserRepository, "timeToLiveSeconds", 0L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        User firstUser = cachedUserRepository.findCachedWithGroupsAndAuthoritiesByLogin("student1").orElseThrow();
+        User secondUser = cachedUserRepository.findCachedWithGroupsAndAuthoritiesByLogin("student1").orElseThrow();
+        assertThat(secondUser).isSameAs(firstUser);
+        verify(query, times(1)).getResultStream();
+
+        // the next request loads the user again
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        cachedUserRepository.findCachedWithGroupsAndAuthoritiesByLogin("student1");
+        verify(query, times(2)).getResultStream();
+    }
+
+    @Test
+    public void testCacheIsBypassedInTransactions() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            cachedUserRepository.findCachedWithGroupsAndAuthoritiesByLogin("student1");
+            cachedUserRepository.findCachedWithGroupsAndAuthoritiesByLogin("student1");
+        }
+        finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        verify(query, times(2)).getResultStream();
+    }
+
+    private static User createUser() {
+        User user = new User();
+        user.setLogin("student1");
+        user.setGroups(Set.of("tumuser"));
+        return user;
+    }
+}
@@ -0,0 +1,161 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.repository.CourseRepository;
+import de.tum.in.www1.artemis.repository.ExerciseRepository;
+import de.tum.in.www1.artemis.repository.UserRepository;
+import de.tum.in.www1.artemis.service.user.UserCreationService;
+import de.tum.in.www1.artemis.util.ModelFactory;
+
+public class CourseDashboardCacheServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    private CourseDashboardCacheService courseDashboardCacheService;
+
+    @Autowired
+    private UserCreationService userCreationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    private final AtomicInteger numberOfLoads = new AtomicInteger();
+
+    @BeforeEach
+    public void init() {
+        // the cache is disabled in the test configuration, because most tests change the courses of the same users between requests
+        ReflectionTestUtils.setField(courseDashboardCacheService, "timeToLiveSeconds", 60L);
+        courseDashboardCacheService.clearCachedCourseDashboards();
+        numberOfLoads.set(0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        courseDashboardCacheService.clearCachedCourseDashboards();
+        ReflectionTestUtils.setField(courseDashboardCacheService, "timeToLiveSeconds", 0L);
+        database.resetDatabase();
+    }
+
+    @Test
+    public void testCachedDashboardIsReusedUntilInvalidated() throws Exception {
+        byte[] firstDashboard = courseDashboardCacheService.getCourseDashboard("student1", this::loadCourses);
+        byte[] secondDashboard = courseDashboardCacheService.getCourseDashboard("student1", this::loadCourses);
+        assertThat(secondDashboard).isEqualTo(firstDashboard);
+        assertThat(numberOfLoads).hasValue(1);
+
+        // other users have their own dashboard
+        courseDashboardCacheService.getCourseDashboard("student2", this::loadCourses);
+        assertThat(numberOfLoads).hasValue(2);
+
+        courseDashboardCacheService.invalidateCourseDashboard("student1");
+        courseDashboardCacheService.getCourseDashboard("student1", this::loadCourses);
+        courseDashboardCacheService.getCourseDashboard("student2", this::loadCourses);
+        assertThat(numberOfLoads).hasValue(3);
+    }
+
+    @Test
+    public void testCacheIsDisabledWithoutTimeToLive() throws Exception {
+        ReflectionTestUtils.setField(courseDashboardCacheService, "timeToLiveSeconds", 0L);
+        courseDashboardCacheService.getCourseDashboard("student1", this::loadCourses);
+        courseDashboardCacheService.getCourseDashboard("student1", this::loadCourses);
+        assertThat(numberOfLoads).hasValue(2);
+    }
+
+    @Test
+    public void testDashboardIsSerializedAsListOfCourses() throws Exception {
+        byte[] dashboard = courseDashboardCacheService.getCourseDashboard("student1", this::loadCourses);
+        List<?> courses = new ObjectMapper().readValue(dashboard, List.class);
+        assertThat(courses).hasSize(1);
+    }
+
+    @Test
+    @WithMockUser(username = "student1", roles = "USER")
+    public void testDashboardIsInvalidatedWhenParticipationIsStarted() throws Exception {
+        database.addUsers(2, 0, 0);
+        Exercise exercise = database.addCourseWithOneReleasedTextExercise().getExercises().iterator().next();
+        assertThat(getExerciseOfDashboard().getStudentParticipations()).isEmpty();
+
+        database.createAndSaveParticipationForExercise(exercise, "student1");
+        assertThat(getExerciseOfDashboard().getStudentParticipations()).hasSize(1);
+
+        // the participation of another student does not remove the cached dashboard of student1
+        courseDashboardCacheService.getCourseDashboard("student1", this::loadCourses);
+        database.createAndSaveParticipationForExercise(exercise, "student2");
+        courseDashboardCacheService.getCourseDashboard("student1", this::loadCourses);
+        assertThat(numberOfLoads).hasValue(0);
+    }
+
+    @Test
+    @WithMockUser(username = "student1", roles = "USER")
+    public void testDashboardIsInvalidatedWhenExerciseIsUpdated() throws Exception {
+        database.addUsers(1, 0, 0);
+        database.addCourseWithOneReleasedTextExercise("Text");
+        Exercise exercise = getExerciseOfDashboard();
+        assertThat(exercise.getTitle()).isEqualTo("Text");
+
+        exercise = exerciseRepository.findByIdElseThrow(exercise.getId());
+        exercise.setTitle("Updated text");
+        exerciseRepository.save(exercise);
+
+        assertThat(getExerciseOfDashboard().getTitle()).isEqualTo("Updated text");
+    }
+
+    @Test
+    @WithMockUser(username = "student1", roles = "USER")
+    public void testDashboardIsInvalidatedWhenGroupsOfUserChange() throws Exception {
+        database.addUsers(1, 0, 0);
+        database.addCourseWithOneReleasedTextExercise();
+        Course otherCourse = ModelFactory.generateCourse(null, null, null, new HashSet<>(), "other-students", "tutor", "instructor");
+        courseRepository.save(otherCourse);
+        assertThat(request.getList("/api/courses/for-dashboard", HttpStatus.OK, Course.class)).hasSize(1);
+
+        // registering for a course adds the user to the student group of the course
+        User student = userRepository.findOneWithGroupsAndAuthoritiesByLogin("student1").orElseThrow();
+        Set<String> groups = new HashSet<>(student.getGroups());
+        groups.add("other-students");
+        student.setGroups(groups);
+        userCreationService.saveUser(student);
+
+        assertThat(request.getList("/api/courses/for-dashboard", HttpStatus.OK, Course.class)).hasSize(2);
+    }
+
+    private Exercise getExerciseOfDashboard() throws Exception {
+        List<Course> courses = request.getList("/api/courses/for-dashboard", HttpStatus.OK, Course.class);
+        assertThat(courses).hasSize(1);
+        assertThat(courses.get(0).getExercises()).hasSize(1);
+        return courses.get(0).getExercises().iterator().next();
+    }
+
+    private List<Course> loadCourses() {
+        numberOfLoads.incrementAndGet();
+        Course course = new Course();
+        course.setId(1L);
+        course.setTitle("Course " + numberOfLoads.get());
+        return List.of(course);
+    }
+}
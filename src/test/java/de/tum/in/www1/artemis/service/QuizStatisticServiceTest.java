@@ -0,0 +1,112 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.domain.quiz.QuizPointStatistic;
+import de.tum.in.www1.artemis.repository.QuizPointStatisticRepository;
+import de.tum.in.www1.artemis.repository.QuizQuestionStatisticRepository;
+import de.tum.in.www1.artemis.repository.ResultRepository;
+
+public class QuizStatisticServiceTest {
+
+    private static final long QUIZ_ID = 1L;
+
+    private static final long PARTICIPATION_ID = 2L;
+
+    private ResultRepository resultRepository;
+
+    private QuizPointStatisticRepository quizPointStatisticRepository;
+
+    private QuizQuestionStatisticRepository quizQuestionStatisticRepository;
+
+    private SimpMessageSendingOperations messagingTemplate;
+
+    private QuizStatisticService quizStatisticService;
+
+    private Result newResult;
+
+    @BeforeEach
+    public void init() {
+        resultRepository = mock(ResultRepository.class);
+        quizPointStatisticRepository = mock(QuizPointStatisticRepository.class);
+        quizQuestionStatisticRepository = mock(QuizQuestionStatisticRepository.class);
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        quizStatisticService = new QuizStatisticService(resultRepository, messagingTemplate, quizPointStatisticRepository, quizQuestionStatisticRepository);
+
+        var participation = new StudentParticipation();
+        participation.setId(PARTICIPATION_ID);
+        Result previousResult = unratedResult(10L, participation, ZonedDateTime.now().minusMinutes(1));
+        newResult = unratedResult(11L, participation, ZonedDateTime.now());
+        when(resultRepository.findAllByParticipationIdOrderByCompletionDateDesc(PARTICIPATION_ID)).thenReturn(List.of(newResult, previousResult));
+    }
+
+    @Test
+    public void testUnpersistedResultsReplaceTheirPreviousResultOnce() {
+        // the statistics are loaded from the database in every run, they already contain the previous result
+        QuizExercise firstRun = quizWithOneUnratedParticipant();
+        quizStatisticService.updateStatistics(Set.of(newResult), firstRun, false);
+        QuizExercise secondRun = quizWithOneUnratedParticipant();
+        quizStatisticService.updateStatistics(Set.of(newResult), secondRun, false);
+
+        // the live statistics are sent without writing them to the database
+        assertThat(firstRun.getQuizPointStatistic().getParticipantsUnrated()).isEqualTo(1);
+        assertThat(secondRun.getQuizPointStatistic().getParticipantsUnrated()).isEqualTo(1);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/statistic/" + QUIZ_ID), any(QuizExercise.class));
+        verifyNoInteractions(quizPointStatisticRepository, quizQuestionStatisticRepository);
+
+        QuizExercise persistedRun = quizWithOneUnratedParticipant();
+        quizStatisticService.updateStatistics(Set.of(newResult), persistedRun, true);
+
+        // the previous result is only removed once from the persisted statistics and it was only looked up once
+        assertThat(persistedRun.getQuizPointStatistic().getParticipantsUnrated()).isEqualTo(1);
+        verify(quizPointStatisticRepository).save(persistedRun.getQuizPointStatistic());
+        verify(resultRepository, times(1)).findAllByParticipationIdOrderByCompletionDateDesc(PARTICIPATION_ID);
+
+        // the previous results of the persisted results are not kept
+        quizStatisticService.updateStatistics(Set.of(newResult), quizWithOneUnratedParticipant(), false);
+        verify(resultRepository, times(2)).findAllByParticipationIdOrderByCompletionDateDesc(PARTICIPATION_ID);
+    }
+
+    @Test
+    public void testUnpersistedResultsAreClearedWithTheQuiz() {
+        quizStatisticService.updateStatistics(Set.of(newResult), quizWithOneUnratedParticipant(), false);
+
+        quizStatisticService.clearUnpersistedResults(QUIZ_ID);
+        quizStatisticService.updateStatistics(Set.of(newResult), quizWithOneUnratedParticipant(), false);
+
+        verify(resultRepository, times(2)).findAllByParticipationIdOrderByCompletionDateDesc(PARTICIPATION_ID);
+    }
+
+    private static QuizExercise quizWithOneUnratedParticipant() {
+        var quizExercise = new QuizExercise();
+        quizExercise.setId(QUIZ_ID);
+        var quizPointStatistic = new QuizPointStatistic();
+        quizPointStatistic.setQuiz(quizExercise);
+        quizPointStatistic.setParticipantsUnrated(1);
+        quizExercise.setQuizPointStatistic(quizPointStatistic);
+        return quizExercise;
+    }
+
+    private static Result unratedResult(long id, StudentParticipation participation, ZonedDateTime completionDate) {
+        var result = new Result();
+        result.setId(id);
+        result.setRated(false);
+        result.setScore(50.0);
+        result.setCompletionDate(completionDate);
+        result.setParticipation(participation);
+        return result;
+    }
+}
@@ -0,0 +1,68 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.enumeration.Language;
+
+public class TextAssessmentRankingTest {
+
+    private TextAssessmentRanking ranking;
+
+    @BeforeEach
+    public void init() {
+        // cluster 1 is the largest one, 2 is the smallest one
+        Map<Long, Integer> openBlockCounts = Map.of(1L, 3, 2L, 1, 3L, 2);
+        var submission1 = new TextAssessmentRanking.RankedSubmission(1L, Language.ENGLISH, 0.5, new long[] { 1L }, new long[] { 1L });
+        var submission2 = new TextAssessmentRanking.RankedSubmission(2L, Language.ENGLISH, 0.2, new long[] { 2L, 3L }, new long[] { 2L, 3L });
+        var submission3 = new TextAssessmentRanking.RankedSubmission(3L, Language.GERMAN, 0.1, new long[] { 1L }, new long[] { 1L });
+        ranking = new TextAssessmentRanking(openBlockCounts, List.of(submission1, submission2, submission3));
+    }
+
+    @Test
+    public void testSubmissionWithHighestInformationGainIsProposed() {
+        // information gains: 0.5 + 1.0, 0.2 + 0.0 + 1/3 and 0.1 + 1.0
+        assertThat(ranking.getProposedSubmissionId(null)).contains(1L);
+        assertThat(ranking.getProposedSubmissionId(List.of(Language.GERMAN))).contains(3L);
+    }
+
+    @Test
+    public void testRankingIsUpdatedWhenSubmissionIsAssessed() {
+        assertThat(ranking.markAssessed(1L)).isTrue();
+        assertThat(ranking.markAssessed(1L)).isFalse();
+
+        // cluster 1 only has 2 open blocks now, so clusters 1 and 3 are the largest ones: 0.2 + 0.0 + 1.0 and 0.1 + 1.0
+        assertThat(ranking.getProposedSubmissionId(null)).contains(2L);
+
+        assertThat(ranking.markOpen(1L)).isTrue();
+        assertThat(ranking.getProposedSubmissionId(null)).contains(1L);
+    }
+
+    @Test
+    public void testNoSubmissionIsProposedWhenAllAreAssessed() {
+        ranking.markAssessed(1L);
+        ranking.markAssessed(2L);
+        ranking.markAssessed(3L);
+
+        assertThat(ranking.getProposedSubmissionId(null)).isEmpty();
+        assertThat(ranking.markOpen(42L)).isFalse();
+    }
+
+    @Test
+    public void testSmallerClusterPercentage() {
+        int[] sortedOpenBlockCounts = new int[] { 1, 4, 5, 10 };
+
+        // 25% of the clusters are smaller than a cluster with 4 open blocks, 50% than one with 5 open blocks
+        assertThat(TextAssessmentRanking.smallerClusterPercentage(4, sortedOpenBlockCounts)).isCloseTo(0.25, within(0.0001));
+        assertThat(TextAssessmentRanking.smallerClusterPercentage(5, sortedOpenBlockCounts)).isCloseTo(0.5, within(0.0001));
+        // the largest cluster always counts as 100%
+        assertThat(TextAssessmentRanking.smallerClusterPercentage(10, sortedOpenBlockCounts)).isCloseTo(1.0, within(0.0001));
+        assertThat(TextAssessmentRanking.smallerClusterPercentage(1, sortedOpenBlockCounts)).isCloseTo(0.0, within(0.0001));
+    }
+}
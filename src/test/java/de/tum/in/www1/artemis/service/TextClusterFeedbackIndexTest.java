@@ -0,0 +1,69 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.Feedback;
+import de.tum.in.www1.artemis.domain.TextBlock;
+import de.tum.in.www1.artemis.domain.TextCluster;
+
+public class TextClusterFeedbackIndexTest {
+
+    private TextCluster cluster;
+
+    @BeforeEach
+    public void init() {
+        List<TextBlock> blocks = new ArrayList<>();
+        for (String blockId : List.of("a", "b", "c", "d")) {
+            TextBlock block = new TextBlock();
+            block.setId(blockId);
+            blocks.add(block);
+        }
+        cluster = new TextCluster();
+        cluster.setBlocks(blocks);
+        // b is closer to a than to c, d is too far away from all other blocks
+        cluster.setDistanceMatrix(new double[][] { { 0.0, 0.2, 0.6, 1.5 }, { 0.2, 0.0, 0.4, 1.5 }, { 0.6, 0.4, 0.0, 1.5 }, { 1.5, 1.5, 1.5, 0.0 } });
+    }
+
+    @Test
+    public void testNearestAssessedBlockIsSuggested() {
+        var index = TextClusterFeedbackIndex.build(cluster, Map.of("a", feedback(1.0, "a"), "c", feedback(2.0, "c")), 1.0);
+
+        assertThat(index.getSuggestedFeedback("b")).hasValueSatisfying(suggestion -> {
+            assertThat(suggestion.getCredits()).isEqualTo(1.0);
+            assertThat(suggestion.getDetailText()).isEqualTo("a");
+        });
+        assertThat(index.getSuggestedFeedback("a")).hasValueSatisfying(suggestion -> assertThat(suggestion.getDetailText()).isEqualTo("c"));
+        assertThat(index.getSuggestedFeedback("d")).isEmpty();
+    }
+
+    @Test
+    public void testNewFeedbackIsAddedToIndex() {
+        var index = TextClusterFeedbackIndex.build(cluster, Map.of("c", feedback(2.0, "c")), 1.0);
+        assertThat(index.getSuggestedFeedback("b")).hasValueSatisfying(suggestion -> assertThat(suggestion.getDetailText()).isEqualTo("c"));
+
+        assertThat(index.update(cluster, Set.of("a"), Map.of("a", feedback(1.0, "a")))).isTrue();
+
+        assertThat(index.getSuggestedFeedback("b")).hasValueSatisfying(suggestion -> assertThat(suggestion.getDetailText()).isEqualTo("a"));
+        assertThat(index.getSuggestedFeedback("c")).hasValueSatisfying(suggestion -> assertThat(suggestion.getDetailText()).isEqualTo("a"));
+    }
+
+    @Test
+    public void testRemovedFeedbackRequiresRebuild() {
+        var index = TextClusterFeedbackIndex.build(cluster, Map.of("a", feedback(1.0, "a")), 1.0);
+
+        assertThat(index.update(cluster, Set.of("b"), Map.of())).isTrue();
+        assertThat(index.update(cluster, Set.of("a"), Map.of())).isFalse();
+    }
+
+    private static Feedback feedback(double credits, String detailText) {
+        return new Feedback().credits(credits).detailText(detailText);
+    }
+}
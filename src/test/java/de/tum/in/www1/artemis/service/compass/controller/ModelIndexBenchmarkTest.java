@@ -0,0 +1,148 @@
+package de.tum.in.www1.artemis.service.compass.controller;
+
+import static de.tum.in.www1.artemis.service.compass.utils.CompassConfiguration.EQUALITY_THRESHOLD;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.*;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagram;
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
+import de.tum.in.www1.artemis.service.compass.umlmodel.classdiagram.*;
+
+/**
+ * Measures how long it takes to load synthetic class diagrams into the {@link ModelIndex} (which dominates the load time of the Compass calculation engine)
+ * for a growing number of submissions and checks that the similarity sets are the same as with a comparison against all unique elements.
+ * The load times are logged, there is no assertion on them because they depend on the machine.
+ */
+class ModelIndexBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelIndexBenchmarkTest.class);
+
+    private static final List<String> CLASS_NAMES = List.of("Customer", "Order", "Product", "Invoice", "Address", "Payment", "Shipment", "Warehouse", "Supplier", "Employee");
+
+    private static final List<String> ATTRIBUTE_NAMES = List.of("id", "name", "date", "amount", "street", "price", "status", "quantity");
+
+    private static HazelcastInstance hazelcastInstance;
+
+    @BeforeAll
+    static void setUpHazelcast() {
+        Config config = new Config();
+        config.setProperty("hazelcast.shutdownhook.enabled", "false");
+        config.setInstanceName("modelIndexBenchmarkHazelcastInstance");
+        NetworkConfig network = config.getNetworkConfig();
+        network.getJoin().getTcpIpConfig().setEnabled(false);
+        network.getJoin().getMulticastConfig().setEnabled(false);
+        hazelcastInstance = Hazelcast.getOrCreateHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void tearDownHazelcast() {
+        hazelcastInstance.shutdown();
+    }
+
+    @ParameterizedTest(name = "{0} submissions")
+    @ValueSource(ints = { 25, 50, 100, 200 })
+    void loadModels(int numberOfSubmissions) {
+        var modelIndex = new ModelIndex(1000L + numberOfSubmissions, hazelcastInstance);
+        List<UMLDiagram> models = createClassDiagrams(numberOfSubmissions);
+
+        long start = System.nanoTime();
+        for (UMLDiagram model : models) {
+            SimilarityDetector.analyzeSimilarity(model, modelIndex);
+            modelIndex.addModel(model);
+        }
+        long durationInMs = (System.nanoTime() - start) / 1_000_000;
+        int numberOfElements = models.stream().mapToInt(model -> model.getAllModelElements().size()).sum();
+        log.info("Loaded {} submissions with {} elements ({} unique) into the model index in {} ms", numberOfSubmissions, numberOfElements, modelIndex.getNumberOfUniqueElements(),
+                durationInMs);
+        assertThat(modelIndex.getModelCollectionSize()).isEqualTo(numberOfSubmissions);
+    }
+
+    @ParameterizedTest(name = "{0} submissions")
+    @ValueSource(ints = { 25, 50 })
+    void retrieveSimilarityId_sameAsComparisonWithAllUniqueElements(int numberOfSubmissions) {
+        var modelIndex = new ModelIndex(2000L + numberOfSubmissions, hazelcastInstance);
+        // the distributed queue contains serialized snapshots of the unique elements, so we do the same here
+        List<UMLElement> allUniqueElements = new ArrayList<>();
+        for (UMLDiagram model : createClassDiagrams(numberOfSubmissions)) {
+            for (UMLElement element : model.getAllModelElements()) {
+                int expectedSimilarityId = similarityIdOfMostSimilarElement(element, allUniqueElements);
+                int similarityId = modelIndex.retrieveSimilarityId(element);
+                if (expectedSimilarityId == -1) {
+                    assertThat(similarityId).isEqualTo(allUniqueElements.size());
+                    allUniqueElements.add(SerializationUtils.clone(element));
+                }
+                else {
+                    assertThat(similarityId).isEqualTo(expectedSimilarityId);
+                }
+            }
+        }
+        assertThat(modelIndex.getNumberOfUniqueElements()).isEqualTo(allUniqueElements.size());
+    }
+
+    private static int similarityIdOfMostSimilarElement(UMLElement element, List<UMLElement> uniqueElements) {
+        double bestSimilarity = -1.0;
+        int bestSimilarityId = -1;
+        for (UMLElement uniqueElement : uniqueElements) {
+            double similarity = uniqueElement.similarity(element);
+            if (similarity > EQUALITY_THRESHOLD && similarity > bestSimilarity) {
+                bestSimilarity = similarity;
+                bestSimilarityId = uniqueElement.getSimilarityID();
+            }
+        }
+        return bestSimilarityId;
+    }
+
+    private static List<UMLDiagram> createClassDiagrams(int numberOfSubmissions) {
+        var random = new Random(numberOfSubmissions);
+        List<UMLDiagram> models = new ArrayList<>();
+        for (long submissionId = 0; submissionId < numberOfSubmissions; submissionId++) {
+            models.add(createClassDiagram(submissionId, random));
+        }
+        return models;
+    }
+
+    private static UMLClassDiagram createClassDiagram(long submissionId, Random random) {
+        List<UMLClass> classes = new ArrayList<>();
+        int numberOfClasses = 3 + random.nextInt(4);
+        for (int i = 0; i < numberOfClasses; i++) {
+            List<UMLAttribute> attributes = new ArrayList<>();
+            int numberOfAttributes = 1 + random.nextInt(3);
+            for (int j = 0; j < numberOfAttributes; j++) {
+                attributes.add(new UMLAttribute(vary(ATTRIBUTE_NAMES.get(random.nextInt(ATTRIBUTE_NAMES.size())), random), "String", submissionId + "-attribute-" + i + "-" + j));
+            }
+            String className = vary(CLASS_NAMES.get(random.nextInt(CLASS_NAMES.size())), random);
+            classes.add(new UMLClass(className, attributes, new ArrayList<>(), submissionId + "-class-" + i, UMLClass.UMLClassType.CLASS));
+        }
+        List<UMLRelationship> relationships = new ArrayList<>();
+        for (int i = 1; i < classes.size(); i++) {
+            relationships.add(new UMLRelationship(classes.get(i - 1), classes.get(i), UMLRelationship.UMLRelationshipType.CLASS_BIDIRECTIONAL, submissionId + "-relationship-" + i,
+                    "", "", "1", "*"));
+        }
+        return new UMLClassDiagram(submissionId, classes, relationships, new ArrayList<>());
+    }
+
+    /**
+     * Introduces typos into some of the names so that not all elements are equal
+     */
+    private static String vary(String name, Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> name.substring(0, name.length() - 1);
+            case 1 -> name.toLowerCase();
+            default -> name;
+        };
+    }
+}
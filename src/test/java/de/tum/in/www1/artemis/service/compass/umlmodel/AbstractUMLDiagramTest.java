@@ -1,11 +1,13 @@
 package de.tum.in.www1.artemis.service.compass.umlmodel;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import org.assertj.core.data.Offset;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
 
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
@@ -15,7 +17,7 @@ import de.tum.in.www1.artemis.service.plagiarism.ModelingPlagiarismDetectionServ
 
 public abstract class AbstractUMLDiagramTest {
 
-    protected ModelingPlagiarismDetectionService modelingPlagiarismDetectionService = new ModelingPlagiarismDetectionService();
+    protected ModelingPlagiarismDetectionService modelingPlagiarismDetectionService = new ModelingPlagiarismDetectionService(mock(SimpMessageSendingOperations.class), 0);
 
     protected void compareSubmissions(ModelingSubmission modelingSubmission1, ModelingSubmission modelingSubmission2, double minimumSimilarity, double expectedSimilarity) {
         // not really necessary, but avoids issues.
@@ -0,0 +1,125 @@
+package de.tum.in.www1.artemis.service.connectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import de.tum.in.www1.artemis.domain.Repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RepositoryCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RepositoryCache repositoryCache;
+
+    @BeforeEach
+    public void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        repositoryCache = new RepositoryCache(meterRegistry);
+        ReflectionTestUtils.setField(repositoryCache, "maxSize", 2);
+        ReflectionTestUtils.setField(repositoryCache, "idleTimeoutMinutes", 0L);
+        ReflectionTestUtils.setField(repositoryCache, "evictionGracePeriodSeconds", 0L);
+        repositoryCache.init();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedRepositoryIsEvicted() {
+        Repository first = cache("first");
+        Repository second = cache("second");
+        // use the first repository, so that the second one is the least recently used one
+        assertThat(repositoryCache.get(Path.of("first"))).isSameAs(first);
+
+        Repository third = cache("third");
+
+        verify(second).closeBeforeDelete();
+        verify(first, never()).closeBeforeDelete();
+        verify(third, never()).closeBeforeDelete();
+        assertThat(repositoryCache.get(Path.of("second"))).isNull();
+        assertThat(repositoryCache.getNumberOfOpenRepositories()).isEqualTo(2);
+        assertThat(meterRegistry.get("artemis.git.repository.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("artemis.git.repository.cache.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRepositoryInUseIsClosedAfterRelease() {
+        Repository first = cache("first");
+        repositoryCache.retain(first);
+        cache("second");
+        cache("third");
+
+        // the repository was evicted, but it is still open until it is released
+        assertThat(repositoryCache.get(Path.of("first"))).isNull();
+        verify(first, never()).closeBeforeDelete();
+        assertThat(repositoryCache.getNumberOfOpenRepositories()).isEqualTo(3);
+
+        repositoryCache.release(first);
+
+        verify(first).closeBeforeDelete();
+        assertThat(repositoryCache.getNumberOfOpenRepositories()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRecentlyUsedRepositoryIsClosedAfterGracePeriod() {
+        ReflectionTestUtils.setField(repositoryCache, "idleTimeoutMinutes", 60L);
+        ReflectionTestUtils.setField(repositoryCache, "evictionGracePeriodSeconds", 3600L);
+        Repository first = cache("first");
+        cache("second");
+        cache("third");
+
+        // the repository was evicted, but a caller might still use it
+        assertThat(repositoryCache.get(Path.of("first"))).isNull();
+        verify(first, never()).closeBeforeDelete();
+        repositoryCache.evictIdleRepositories();
+        verify(first, never()).closeBeforeDelete();
+        assertThat(repositoryCache.getNumberOfOpenRepositories()).isEqualTo(3);
+
+        ReflectionTestUtils.setField(repositoryCache, "evictionGracePeriodSeconds", 0L);
+        repositoryCache.evictIdleRepositories();
+
+        verify(first).closeBeforeDelete();
+        assertThat(repositoryCache.getNumberOfOpenRepositories()).isEqualTo(2);
+    }
+
+    @Test
+    public void testOnlyIdleRepositoriesAreEvicted() {
+        Repository idle = cache("idle");
+        Repository inUse = cache("inUse");
+        repositoryCache.retain(inUse);
+
+        repositoryCache.evictIdleRepositories();
+
+        verify(idle).closeBeforeDelete();
+        verify(inUse, never()).closeBeforeDelete();
+        assertThat(repositoryCache.get(Path.of("inUse"))).isSameAs(inUse);
+
+        repositoryCache.release(inUse);
+        repositoryCache.evictIdleRepositories();
+
+        verify(inUse).closeBeforeDelete();
+        assertThat(repositoryCache.getNumberOfOpenRepositories()).isZero();
+    }
+
+    @Test
+    public void testRemovedRepositoryIsNotClosed() {
+        Repository repository = cache("deleted");
+
+        repositoryCache.remove(Path.of("deleted"));
+
+        assertThat(repositoryCache.get(Path.of("deleted"))).isNull();
+        verify(repository, never()).closeBeforeDelete();
+    }
+
+    private Repository cache(String path) {
+        Repository repository = mock(Repository.class);
+        when(repository.getLocalPath()).thenReturn(Path.of(path));
+        repositoryCache.put(Path.of(path), repository);
+        return repository;
+    }
+}
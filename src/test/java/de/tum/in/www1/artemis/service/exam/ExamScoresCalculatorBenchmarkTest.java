@@ -0,0 +1,103 @@
+package de.tum.in.www1.artemis.service.exam;
+
+import static de.tum.in.www1.artemis.service.util.RoundingUtil.round;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.*;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.IncludedInOverallScore;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
+import de.tum.in.www1.artemis.domain.exam.StudentExam;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.util.ModelFactory;
+import de.tum.in.www1.artemis.web.rest.dto.ExamScoresDTO;
+
+/**
+ * Measures how long it takes to calculate the scores of synthetic exams with a growing number of students and checks the calculated points against the generated results.
+ * The calculation times are logged, there is no assertion on them because they depend on the machine.
+ */
+class ExamScoresCalculatorBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamScoresCalculatorBenchmarkTest.class);
+
+    private static final int NUMBER_OF_EXERCISE_GROUPS = 10;
+
+    @ParameterizedTest(name = "{0} students")
+    @ValueSource(ints = { 500, 1000, 2000, 5000 })
+    void calculateExamScores(int numberOfStudents) {
+        var random = new Random(numberOfStudents);
+        Exam exam = ModelFactory.generateExam(new Course());
+        exam.setId(1L);
+        List<TextExercise> exercises = new ArrayList<>();
+        for (long groupId = 1; groupId <= NUMBER_OF_EXERCISE_GROUPS; groupId++) {
+            ExerciseGroup exerciseGroup = ModelFactory.generateExerciseGroup(true, exam);
+            exerciseGroup.setId(groupId);
+            TextExercise exercise = ModelFactory.generateTextExerciseForExam(exerciseGroup);
+            exercise.setId(groupId);
+            exercise.setMaxPoints(10.0);
+            if (groupId == NUMBER_OF_EXERCISE_GROUPS) {
+                exercise.setIncludedInOverallScore(IncludedInOverallScore.NOT_INCLUDED);
+            }
+            exerciseGroup.addExercise(exercise);
+            exercises.add(exercise);
+        }
+        exam.setMaxPoints(90);
+
+        List<StudentExam> studentExams = new ArrayList<>();
+        List<StudentParticipation> participations = new ArrayList<>();
+        Map<Long, Double> expectedPointsByStudentId = new HashMap<>();
+        long participationId = 1;
+        for (long userId = 1; userId <= numberOfStudents; userId++) {
+            User student = ModelFactory.generateActivatedUser("student" + userId);
+            student.setId(userId);
+            StudentExam studentExam = ModelFactory.generateStudentExam(exam);
+            studentExam.setUser(student);
+            studentExam.setSubmitted(true);
+            studentExams.add(studentExam);
+
+            double expectedPoints = 0.0;
+            for (TextExercise exercise : exercises) {
+                // some students did not participate in every exercise
+                if (random.nextInt(20) == 0) {
+                    continue;
+                }
+                double score = random.nextInt(1001) / 10.0;
+                StudentParticipation participation = new StudentParticipation();
+                participation.setId(participationId++);
+                participation.setParticipant(student);
+                participation.setExercise(exercise);
+                participation.setSubmissions(Set.of(new TextSubmission().text("Answer of " + student.getLogin())));
+                participation.setResults(Set.of(new Result().score(score)));
+                participations.add(participation);
+                if (exercise.getIncludedInOverallScore() != IncludedInOverallScore.NOT_INCLUDED) {
+                    expectedPoints += round(score / 100.0 * exercise.getMaxPoints());
+                }
+            }
+            expectedPointsByStudentId.put(userId, expectedPoints);
+        }
+        // the participations are not ordered by student in the database either
+        Collections.shuffle(participations, random);
+
+        long start = System.nanoTime();
+        ExamScoresDTO scores = ExamScoresCalculator.calculateExamScores(exam, participations, studentExams);
+        long durationInMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Calculated the scores of an exam with {} students and {} participations in {} ms", numberOfStudents, participations.size(), durationInMs);
+
+        assertThat(scores.studentResults).hasSize(numberOfStudents);
+        for (ExamScoresDTO.StudentResult studentResult : scores.studentResults) {
+            assertThat(studentResult.overallPointsAchieved).isCloseTo(expectedPointsByStudentId.get(studentResult.userId), within(1e-9));
+        }
+        long numberOfParticipants = scores.exerciseGroups.stream().mapToLong(exerciseGroup -> exerciseGroup.numberOfParticipants).sum();
+        assertThat(numberOfParticipants).isEqualTo(participations.size());
+        double expectedAveragePoints = expectedPointsByStudentId.values().stream().mapToDouble(Double::doubleValue).average().orElseThrow();
+        assertThat(scores.averagePointsAchieved).isCloseTo(expectedAveragePoints, within(1e-9));
+    }
+}
@@ -0,0 +1,219 @@
+package de.tum.in.www1.artemis.service.exam;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.domain.Submission;
+import de.tum.in.www1.artemis.domain.TextExercise;
+import de.tum.in.www1.artemis.domain.TextSubmission;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.enumeration.InitializationState;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
+import de.tum.in.www1.artemis.domain.exam.StudentExam;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.repository.ModelingSubmissionRepository;
+import de.tum.in.www1.artemis.repository.TextSubmissionRepository;
+import de.tum.in.www1.artemis.repository.UserRepository;
+import de.tum.in.www1.artemis.service.SubmissionVersionService;
+import de.tum.in.www1.artemis.web.rest.errors.InternalServerErrorException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ExamSubmissionAutosaveBufferTest {
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private TextSubmissionRepository textSubmissionRepository;
+
+    private SubmissionVersionService submissionVersionService;
+
+    private StudentExamAuthorizationCache studentExamAuthorizationCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ExamSubmissionAutosaveBuffer autosaveBuffer;
+
+    private Exam exam;
+
+    private TextExercise exercise;
+
+    @BeforeAll
+    public static void setUpHazelcast() {
+        Config config = new Config();
+        config.setProperty("hazelcast.shutdownhook.enabled", "false");
+        config.setInstanceName("examSubmissionAutosaveBufferTestHazelcastInstance");
+        NetworkConfig network = config.getNetworkConfig();
+        network.getJoin().getTcpIpConfig().setEnabled(false);
+        network.getJoin().getMulticastConfig().setEnabled(false);
+        ExamSubmissionAutosaveBuffer.configureHazelcast(config);
+        hazelcastInstance = Hazelcast.getOrCreateHazelcastInstance(config);
+    }
+
+    @AfterAll
+    public static void tearDownHazelcast() {
+        hazelcastInstance.shutdown();
+    }
+
+    @BeforeEach
+    public void init() {
+        hazelcastInstance.getMap(ExamSubmissionAutosaveBuffer.HAZELCAST_AUTOSAVE_BUFFER).clear();
+        exam = new Exam();
+        exam.setId(1L);
+        exam.setStartDate(ZonedDateTime.now().minusMinutes(10));
+        exam.setEndDate(ZonedDateTime.now().plusMinutes(50));
+        ExerciseGroup exerciseGroup = new ExerciseGroup();
+        exerciseGroup.setExam(exam);
+        exercise = new TextExercise();
+        exercise.setId(2L);
+        exercise.setExerciseGroup(exerciseGroup);
+
+        textSubmissionRepository = mock(TextSubmissionRepository.class);
+        when(textSubmissionRepository.updateTextOfAutosave(anyLong(), any(), any())).thenReturn(1);
+        submissionVersionService = mock(SubmissionVersionService.class);
+        studentExamAuthorizationCache = mock(StudentExamAuthorizationCache.class);
+        when(studentExamAuthorizationCache.getAuthorization(eq(1L), anyLong())).thenAnswer(invocation -> Optional.of(createAuthorization(invocation.getArgument(1))));
+        meterRegistry = new SimpleMeterRegistry();
+
+        autosaveBuffer = new ExamSubmissionAutosaveBuffer(hazelcastInstance, textSubmissionRepository, mock(ModelingSubmissionRepository.class), mock(UserRepository.class),
+                submissionVersionService, studentExamAuthorizationCache, mock(PlatformTransactionManager.class), meterRegistry);
+        // the buffer is only flushed explicitly in the tests
+        ReflectionTestUtils.setField(autosaveBuffer, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(autosaveBuffer, "batchSize", 2);
+        autosaveBuffer.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        autosaveBuffer.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAutosavesOfTheSameSubmissionAreCoalesced() {
+        StudentParticipation participation = createParticipation(3L, 10L);
+
+        assertThat(autosaveBuffer.buffer(createAutosave(10L, "first"), participation, exercise, "student3")).isTrue();
+        assertThat(autosaveBuffer.buffer(createAutosave(10L, "second"), participation, exercise, "student3")).isTrue();
+        autosaveBuffer.flushLocalAutosaves();
+
+        verify(textSubmissionRepository).updateTextOfAutosave(eq(10L), eq("second"), any());
+        verify(textSubmissionRepository, never()).updateTextOfAutosave(anyLong(), eq("first"), any());
+        ArgumentCaptor<Map<Submission, User>> versionCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(submissionVersionService).saveVersionsForIndividuals(versionCaptor.capture());
+        assertThat(versionCaptor.getValue().keySet()).singleElement().satisfies(submission -> assertThat(((TextSubmission) submission).getText()).isEqualTo("second"));
+        assertThat(hazelcastInstance.getMap(ExamSubmissionAutosaveBuffer.HAZELCAST_AUTOSAVE_BUFFER)).isEmpty();
+        assertThat(meterRegistry.get("artemis.exam.autosave.coalesced").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("artemis.exam.autosave.flushed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAutosavesAreFlushedInBatches() {
+        for (long studentId = 3; studentId < 8; studentId++) {
+            long submissionId = studentId * 10;
+            autosaveBuffer.buffer(createAutosave(submissionId, "text"), createParticipation(studentId, submissionId), exercise, "student" + studentId);
+        }
+
+        autosaveBuffer.flushLocalAutosaves();
+
+        // 5 autosaves with a batch size of 2
+        verify(submissionVersionService, times(3)).saveVersionsForIndividuals(any());
+        verify(textSubmissionRepository, times(5)).updateTextOfAutosave(anyLong(), eq("text"), any());
+    }
+
+    @Test
+    public void testOutdatedAutosaveIsDropped() {
+        when(textSubmissionRepository.updateTextOfAutosave(anyLong(), any(), any())).thenReturn(0);
+        autosaveBuffer.buffer(createAutosave(10L, "outdated"), createParticipation(3L, 10L), exercise, "student3");
+
+        autosaveBuffer.flushLocalAutosaves();
+
+        verify(submissionVersionService).saveVersionsForIndividuals(Map.of());
+        assertThat(hazelcastInstance.getMap(ExamSubmissionAutosaveBuffer.HAZELCAST_AUTOSAVE_BUFFER)).isEmpty();
+        assertThat(meterRegistry.get("artemis.exam.autosave.outdated").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOnlyTheAutosavesOfTheStudentAreFlushed() {
+        autosaveBuffer.buffer(createAutosave(10L, "student3"), createParticipation(3L, 10L), exercise, "student3");
+        autosaveBuffer.buffer(createAutosave(20L, "student4"), createParticipation(4L, 20L), exercise, "student4");
+
+        autosaveBuffer.flushStudent(1L, "student3");
+
+        verify(textSubmissionRepository).updateTextOfAutosave(eq(10L), eq("student3"), any());
+        verify(textSubmissionRepository, never()).updateTextOfAutosave(eq(20L), any(), any());
+        assertThat(hazelcastInstance.getMap(ExamSubmissionAutosaveBuffer.HAZELCAST_AUTOSAVE_BUFFER)).containsOnlyKeys(20L);
+    }
+
+    @Test
+    public void testFailedFlushOfStudentFailsAndKeepsAutosaves() {
+        when(textSubmissionRepository.updateTextOfAutosave(anyLong(), any(), any())).thenThrow(new IllegalStateException("database not available"));
+        autosaveBuffer.buffer(createAutosave(10L, "student3"), createParticipation(3L, 10L), exercise, "student3");
+
+        assertThatThrownBy(() -> autosaveBuffer.flushStudent(1L, "student3")).isInstanceOf(InternalServerErrorException.class);
+
+        assertThat(hazelcastInstance.getMap(ExamSubmissionAutosaveBuffer.HAZELCAST_AUTOSAVE_BUFFER)).containsOnlyKeys(10L);
+        assertThat(meterRegistry.get("artemis.exam.autosave.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAutosavesAreSavedDirectlyShortlyBeforeTheEndAndForTestRuns() {
+        exam.setEndDate(ZonedDateTime.now().plusMinutes(1));
+        assertThat(autosaveBuffer.buffer(createAutosave(10L, "text"), createParticipation(3L, 10L), exercise, "student3")).isFalse();
+
+        exam.setEndDate(ZonedDateTime.now().plusMinutes(50));
+        when(studentExamAuthorizationCache.getAuthorization(1L, 4L)).thenReturn(Optional.empty());
+        assertThat(autosaveBuffer.buffer(createAutosave(20L, "text"), createParticipation(4L, 20L), exercise, "instructor4")).isFalse();
+
+        // a new submission has to be created directly
+        assertThat(autosaveBuffer.buffer(createAutosave(30L, "text"), createParticipation(5L, 31L), exercise, "student5")).isFalse();
+        assertThat(hazelcastInstance.getMap(ExamSubmissionAutosaveBuffer.HAZELCAST_AUTOSAVE_BUFFER)).isEmpty();
+    }
+
+    private StudentExamAuthorizationCache.StudentExamAuthorization createAuthorization(long studentId) {
+        User student = new User();
+        student.setId(studentId);
+        StudentExam studentExam = new StudentExam();
+        studentExam.setExam(exam);
+        studentExam.setUser(student);
+        studentExam.setExercises(List.of(exercise));
+        return new StudentExamAuthorizationCache.StudentExamAuthorization(studentExam);
+    }
+
+    private static StudentParticipation createParticipation(long studentId, long submissionId) {
+        User student = new User();
+        student.setId(studentId);
+        StudentParticipation participation = new StudentParticipation();
+        participation.setParticipant(student);
+        participation.setInitializationState(InitializationState.FINISHED);
+        TextSubmission existingSubmission = new TextSubmission();
+        existingSubmission.setId(submissionId);
+        participation.addSubmission(existingSubmission);
+        return participation;
+    }
+
+    private static TextSubmission createAutosave(long submissionId, String text) {
+        TextSubmission submission = new TextSubmission();
+        submission.setId(submissionId);
+        submission.setText(text);
+        submission.setSubmissionDate(ZonedDateTime.now());
+        return submission;
+    }
+}
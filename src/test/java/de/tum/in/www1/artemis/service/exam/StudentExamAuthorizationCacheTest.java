@@ -0,0 +1,122 @@
+package de.tum.in.www1.artemis.service.exam;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.TextExercise;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.StudentExam;
+import de.tum.in.www1.artemis.repository.StudentExamRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class StudentExamAuthorizationCacheTest {
+
+    private static final long EXAM_ID = 1L;
+
+    private static final long USER_ID = 2L;
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private StudentExamRepository studentExamRepository;
+
+    private StudentExamAuthorizationCache authorizationCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StudentExam studentExam;
+
+    private Exercise exercise;
+
+    @BeforeAll
+    public static void setUpHazelcast() {
+        Config config = new Config();
+        config.setProperty("hazelcast.shutdownhook.enabled", "false");
+        config.setInstanceName("studentExamAuthorizationCacheTestHazelcastInstance");
+        NetworkConfig network = config.getNetworkConfig();
+        network.getJoin().getTcpIpConfig().setEnabled(false);
+        network.getJoin().getMulticastConfig().setEnabled(false);
+        hazelcastInstance = Hazelcast.getOrCreateHazelcastInstance(config);
+    }
+
+    @AfterAll
+    public static void tearDownHazelcast() {
+        hazelcastInstance.shutdown();
+    }
+
+    @BeforeEach
+    public void init() {
+        Exam exam = new Exam();
+        exam.setId(EXAM_ID);
+        exam.setStartDate(ZonedDateTime.now().minusMinutes(10));
+        exam.setEndDate(ZonedDateTime.now().plusMinutes(50));
+        User user = new User();
+        user.setId(USER_ID);
+        exercise = new TextExercise();
+        exercise.setId(3L);
+        studentExam = new StudentExam();
+        studentExam.setExam(exam);
+        studentExam.setUser(user);
+        studentExam.setExercises(List.of(exercise));
+
+        studentExamRepository = mock(StudentExamRepository.class);
+        when(studentExamRepository.findWithExercisesByUserIdAndExamId(USER_ID, EXAM_ID)).thenAnswer(invocation -> Optional.of(studentExam));
+        meterRegistry = new SimpleMeterRegistry();
+        authorizationCache = new StudentExamAuthorizationCache(studentExamRepository, hazelcastInstance, meterRegistry);
+        ReflectionTestUtils.setField(authorizationCache, "timeToLiveSeconds", 60L);
+        authorizationCache.init();
+        authorizationCache.evictExam(EXAM_ID);
+    }
+
+    @Test
+    public void testStudentExamIsLoadedOnceUntilEvicted() {
+        var authorization = authorizationCache.getAuthorization(EXAM_ID, USER_ID).orElseThrow();
+        assertThat(authorization.containsExercise(exercise)).isTrue();
+        assertThat(authorization.isSubmitted()).isFalse();
+        authorizationCache.getAuthorization(EXAM_ID, USER_ID);
+        verify(studentExamRepository, times(1)).findWithExercisesByUserIdAndExamId(USER_ID, EXAM_ID);
+
+        studentExam.setSubmitted(true);
+        authorizationCache.evict(studentExam);
+
+        assertThat(authorizationCache.getAuthorization(EXAM_ID, USER_ID)).hasValueSatisfying(updated -> assertThat(updated.isSubmitted()).isTrue());
+        verify(studentExamRepository, times(2)).findWithExercisesByUserIdAndExamId(USER_ID, EXAM_ID);
+        assertThat(meterRegistry.get("artemis.exam.authorization.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("artemis.exam.authorization.cache.requests").tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testEndDateIncludesWorkingTimeAndIsEvictedWithExam() {
+        studentExam.setWorkingTime(7200);
+        assertThat(authorizationCache.getAuthorization(EXAM_ID, USER_ID)).hasValueSatisfying(
+                authorization -> assertThat(authorization.getEndDate()).isEqualTo(studentExam.getExam().getStartDate().plusSeconds(7200)));
+
+        studentExam.getExam().setStartDate(ZonedDateTime.now().plusMinutes(10));
+        authorizationCache.evictExam(EXAM_ID);
+
+        assertThat(authorizationCache.getAuthorization(EXAM_ID, USER_ID))
+                .hasValueSatisfying(authorization -> assertThat(authorization.getStartDate()).isEqualTo(studentExam.getExam().getStartDate()));
+        verify(studentExamRepository, times(2)).findWithExercisesByUserIdAndExamId(USER_ID, EXAM_ID);
+    }
+
+    @Test
+    public void testMissingStudentExamIsNotCached() {
+        assertThat(authorizationCache.getAuthorization(EXAM_ID, 4L)).isEmpty();
+        assertThat(authorizationCache.getAuthorization(EXAM_ID, 4L)).isEmpty();
+        verify(studentExamRepository, times(2)).findWithExercisesByUserIdAndExamId(4L, EXAM_ID);
+    }
+}
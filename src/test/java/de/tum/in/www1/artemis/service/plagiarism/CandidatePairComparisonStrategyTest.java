@@ -0,0 +1,136 @@
+package de.tum.in.www1.artemis.service.plagiarism;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.util.FileSystemUtils;
+
+import jplag.*;
+import jplag.options.LanguageOption;
+import jplag.options.Verbosity;
+
+class CandidatePairComparisonStrategyTest {
+
+    private static final int NUMBER_OF_SUBMISSIONS = 60;
+
+    private static final int NUMBER_OF_WORDS = 150;
+
+    private static Path submissionsFolder;
+
+    /**
+     * The pairs of submissions of which one is a modified copy of the other one, mapped to the fraction of words that were not changed
+     */
+    private static final Map<String, Double> copiedPairs = new HashMap<>();
+
+    /**
+     * Creates a seeded corpus of random texts, every fourth text is a copy of an earlier one in which up to half of the words were replaced
+     */
+    @BeforeAll
+    static void createSubmissions() throws IOException {
+        submissionsFolder = Files.createTempDirectory("candidate-pairs");
+        var random = new Random(42);
+        List<String> vocabulary = IntStream.range(0, 500).mapToObj(index -> "word" + index).collect(Collectors.toList());
+        List<List<String>> texts = new ArrayList<>();
+        for (int index = 0; index < NUMBER_OF_SUBMISSIONS; index++) {
+            List<String> words;
+            if (index % 4 == 3) {
+                int original = random.nextInt(index);
+                words = new ArrayList<>(texts.get(original));
+                Set<Integer> changedPositions = new HashSet<>();
+                int changes = random.nextInt(NUMBER_OF_WORDS / 2);
+                for (int change = 0; change < changes; change++) {
+                    int position = random.nextInt(NUMBER_OF_WORDS);
+                    words.set(position, vocabulary.get(random.nextInt(vocabulary.size())));
+                    changedPositions.add(position);
+                }
+                copiedPairs.put(pair(submissionName(original), submissionName(index)), 1 - (double) changedPositions.size() / NUMBER_OF_WORDS);
+            }
+            else {
+                words = random.ints(NUMBER_OF_WORDS, 0, vocabulary.size()).mapToObj(vocabulary::get).collect(Collectors.toList());
+            }
+            texts.add(words);
+            Files.writeString(submissionsFolder.resolve(submissionName(index)), String.join(" ", words));
+        }
+    }
+
+    @AfterAll
+    static void deleteSubmissions() {
+        FileSystemUtils.deleteRecursively(submissionsFolder.toFile());
+    }
+
+    @ParameterizedTest
+    @ValueSource(floats = { 20f, 50f, 80f })
+    void compareSubmissions_findsSamePairsAsAllPairs(float similarityThreshold) throws ExitException {
+        Set<String> allPairs = similarPairs(similarityThreshold, false);
+        Set<String> candidatePairs = similarPairs(similarityThreshold, true);
+
+        assertThat(allPairs).isNotEmpty();
+        assertThat(candidatePairs).isEqualTo(allPairs);
+    }
+
+    @Test
+    void compareSubmissions_findsCopiedPairsAboveThreshold() throws ExitException {
+        float similarityThreshold = 50f;
+        // copies in which only a few words were replaced are clearly above the threshold
+        Set<String> expectedPairs = copiedPairs.entrySet().stream().filter(copiedPair -> copiedPair.getValue() >= 0.85).map(Map.Entry::getKey).collect(Collectors.toSet());
+
+        Set<String> candidatePairs = similarPairs(similarityThreshold, true);
+
+        assertThat(expectedPairs).isNotEmpty();
+        assertThat(candidatePairs).containsAll(expectedPairs);
+    }
+
+    @Test
+    void rowsPerBand_growsWithSimilarityThreshold() {
+        int lowThreshold = CandidatePairComparisonStrategy.rowsPerBand(0.3f, 128);
+        int mediumThreshold = CandidatePairComparisonStrategy.rowsPerBand(0.7f, 128);
+        int highThreshold = CandidatePairComparisonStrategy.rowsPerBand(1.0f, 128);
+
+        assertThat(lowThreshold).isPositive().isLessThanOrEqualTo(mediumThreshold);
+        assertThat(mediumThreshold).isLessThanOrEqualTo(highThreshold);
+        // identical submissions always have the same signature, so one band is enough
+        assertThat(highThreshold).isEqualTo(128);
+    }
+
+    @Test
+    void rowsPerBand_atLeastOneRow() {
+        assertThat(CandidatePairComparisonStrategy.rowsPerBand(0f, 128)).isEqualTo(1);
+        assertThat(CandidatePairComparisonStrategy.rowsPerBand(0.5f, 1)).isEqualTo(1);
+    }
+
+    /**
+     * Runs JPlag on the corpus either with the default strategy that compares all pairs or with the candidate pair strategy
+     *
+     * @return the pairs of submissions whose similarity is above the threshold
+     */
+    private static Set<String> similarPairs(float similarityThreshold, boolean onlyCandidatePairs) throws ExitException {
+        JPlagOptions options = new JPlagOptions(submissionsFolder.toString(), LanguageOption.TEXT);
+        options.setVerbosity(Verbosity.QUIET);
+        options.setMinTokenMatch(5);
+        options.setSimilarityThreshold(similarityThreshold);
+        JPlag jplag = new JPlag(options);
+        if (onlyCandidatePairs) {
+            jplag.comparisonStrategy = new CandidatePairComparisonStrategy(options, new GSTiling(jplag), 128);
+        }
+        return jplag.run().getComparisons().stream().map(comparison -> pair(comparison.subA.name, comparison.subB.name)).collect(Collectors.toSet());
+    }
+
+    private static String submissionName(int index) {
+        return "submission" + index + ".txt";
+    }
+
+    private static String pair(String first, String second) {
+        return first.compareTo(second) < 0 ? first + "|" + second : second + "|" + first;
+    }
+}
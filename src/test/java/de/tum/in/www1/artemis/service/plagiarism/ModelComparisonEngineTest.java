@@ -0,0 +1,111 @@
+package de.tum.in.www1.artemis.service.plagiarism;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagram;
+import de.tum.in.www1.artemis.service.compass.umlmodel.classdiagram.*;
+
+class ModelComparisonEngineTest {
+
+    private static final List<String> CLASS_NAMES = List.of("Customer", "Order", "Product", "Invoice", "Address", "Payment");
+
+    private static ForkJoinPool forkJoinPool;
+
+    @BeforeAll
+    static void setUpPool() {
+        forkJoinPool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void shutDownPool() {
+        forkJoinPool.shutdown();
+    }
+
+    @ParameterizedTest(name = "minimum similarity {0}")
+    @ValueSource(doubles = { 0.0, 0.5, 0.8 })
+    void findSimilarPairs_sameAsSequentialComparison(double minimumSimilarity) {
+        List<UMLDiagram> models = createClassDiagrams(100);
+
+        var similarPairs = new ModelComparisonEngine(forkJoinPool).findSimilarPairs(models, minimumSimilarity, () -> false, (processedPairs, numberOfPairs) -> {
+        });
+
+        Map<String, Double> expectedSimilarities = new HashMap<>();
+        for (int i = 0; i < models.size(); i++) {
+            for (int j = i + 1; j < models.size(); j++) {
+                double similarity = models.get(i).similarity(models.get(j));
+                if (similarity >= minimumSimilarity) {
+                    expectedSimilarities.put(i + "-" + j, similarity);
+                }
+            }
+        }
+        Map<String, Double> similarities = new HashMap<>();
+        similarPairs.forEach(pair -> similarities.put(pair.getFirstIndex() + "-" + pair.getSecondIndex(), pair.getSimilarity()));
+        assertThat(similarities).isEqualTo(expectedSimilarities);
+    }
+
+    @Test
+    void findSimilarPairs_reportsProgressOfAllPairs() {
+        List<UMLDiagram> models = createClassDiagrams(70);
+        AtomicLong maximumProgress = new AtomicLong();
+
+        new ModelComparisonEngine(forkJoinPool).findSimilarPairs(models, 0.9, () -> false,
+                (processedPairs, numberOfPairs) -> maximumProgress.accumulateAndGet(processedPairs, Math::max));
+
+        assertThat(maximumProgress.get()).isEqualTo(70 * 69 / 2);
+    }
+
+    @Test
+    void findSimilarPairs_cancelled() {
+        List<UMLDiagram> models = createClassDiagrams(70);
+
+        assertThatThrownBy(() -> new ModelComparisonEngine(forkJoinPool).findSimilarPairs(models, 0.5, () -> true, (processedPairs, numberOfPairs) -> {
+        })).isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    void findSimilarPairs_poolIsReusedByNextComparison() {
+        List<UMLDiagram> models = createClassDiagrams(40);
+        var engine = new ModelComparisonEngine(forkJoinPool);
+
+        var firstPairs = engine.findSimilarPairs(models, 0.5, () -> false, (processedPairs, numberOfPairs) -> {
+        });
+        var secondPairs = engine.findSimilarPairs(models, 0.5, () -> false, (processedPairs, numberOfPairs) -> {
+        });
+
+        assertThat(forkJoinPool.isShutdown()).isFalse();
+        assertThat(secondPairs).hasSameSizeAs(firstPairs);
+    }
+
+    private static List<UMLDiagram> createClassDiagrams(int numberOfModels) {
+        var random = new Random(numberOfModels);
+        List<UMLDiagram> models = new ArrayList<>();
+        for (long modelId = 0; modelId < numberOfModels; modelId++) {
+            List<UMLClass> classes = new ArrayList<>();
+            int numberOfClasses = 1 + random.nextInt(5);
+            for (int i = 0; i < numberOfClasses; i++) {
+                String className = CLASS_NAMES.get(random.nextInt(CLASS_NAMES.size()));
+                classes.add(new UMLClass(className, new ArrayList<>(), new ArrayList<>(), modelId + "-class-" + i, UMLClass.UMLClassType.CLASS));
+            }
+            List<UMLRelationship> relationships = new ArrayList<>();
+            // some models only consist of classes, so that the type based upper bound skips comparisons
+            for (int i = 1; i < classes.size() && random.nextBoolean(); i++) {
+                relationships.add(new UMLRelationship(classes.get(i - 1), classes.get(i), UMLRelationship.UMLRelationshipType.CLASS_BIDIRECTIONAL, modelId + "-relationship-" + i,
+                        "", "", "1", "*"));
+            }
+            models.add(new UMLClassDiagram(modelId, classes, relationships, new ArrayList<>()));
+        }
+        return models;
+    }
+}
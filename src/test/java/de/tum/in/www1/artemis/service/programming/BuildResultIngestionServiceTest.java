@@ -0,0 +1,186 @@
+package de.tum.in.www1.artemis.service.programming;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.collection.IQueue;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
+import de.tum.in.www1.artemis.repository.ProgrammingExerciseStudentParticipationRepository;
+import de.tum.in.www1.artemis.repository.SolutionProgrammingExerciseParticipationRepository;
+import de.tum.in.www1.artemis.repository.TemplateProgrammingExerciseParticipationRepository;
+import de.tum.in.www1.artemis.service.WebsocketMessagingService;
+import de.tum.in.www1.artemis.service.connectors.ContinuousIntegrationService;
+import de.tum.in.www1.artemis.service.connectors.LtiService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BuildResultIngestionServiceTest {
+
+    private static final String PLAN_KEY = "CRSEXC-STUDENT1";
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private ProgrammingExerciseGradingService gradingService;
+
+    private WebsocketMessagingService messagingService;
+
+    private LtiService ltiService;
+
+    private ProgrammingExerciseStudentParticipationRepository studentParticipationRepository;
+
+    private ProgrammingExerciseStudentParticipation participation;
+
+    private BuildResultIngestionService ingestionService;
+
+    private IQueue<BuildResultIngestionService.BuildResultNotification> notifications;
+
+    private IMap<UUID, BuildResultIngestionService.BuildResultNotification> claimedNotifications;
+
+    @BeforeAll
+    public static void setUpHazelcast() {
+        Config config = new Config();
+        config.setProperty("hazelcast.shutdownhook.enabled", "false");
+        config.setInstanceName("buildResultIngestionServiceTestHazelcastInstance");
+        NetworkConfig network = config.getNetworkConfig();
+        network.getJoin().getTcpIpConfig().setEnabled(false);
+        network.getJoin().getMulticastConfig().setEnabled(false);
+        hazelcastInstance = Hazelcast.getOrCreateHazelcastInstance(config);
+    }
+
+    @AfterAll
+    public static void tearDownHazelcast() {
+        hazelcastInstance.shutdown();
+    }
+
+    @BeforeEach
+    public void init() {
+        gradingService = mock(ProgrammingExerciseGradingService.class);
+        messagingService = mock(WebsocketMessagingService.class);
+        ltiService = mock(LtiService.class);
+        studentParticipationRepository = mock(ProgrammingExerciseStudentParticipationRepository.class);
+        participation = new ProgrammingExerciseStudentParticipation();
+        participation.setId(1L);
+        participation.setInitializationDate(ZonedDateTime.now());
+        when(studentParticipationRepository.findByBuildPlanId(PLAN_KEY)).thenReturn(List.of(participation));
+
+        ingestionService = new BuildResultIngestionService(Optional.of(mock(ContinuousIntegrationService.class)), gradingService, messagingService, ltiService,
+                mock(TemplateProgrammingExerciseParticipationRepository.class), mock(SolutionProgrammingExerciseParticipationRepository.class), studentParticipationRepository,
+                hazelcastInstance, new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(ingestionService, "numberOfWorkers", 2);
+        ReflectionTestUtils.setField(ingestionService, "maxPendingNotifications", 64);
+
+        notifications = hazelcastInstance.getQueue("buildResultNotifications");
+        claimedNotifications = hazelcastInstance.getMap("buildResultClaimedNotifications");
+        notifications.clear();
+        claimedNotifications.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ingestionService.shutdown();
+    }
+
+    @Test
+    public void testSynchronousProcessingSavesAndSendsResult() {
+        Result result = new Result();
+        when(gradingService.processNewProgrammingExerciseResult(eq(participation), any())).thenReturn(Optional.of(result));
+        ingestionService.init();
+
+        assertThat(ingestionService.isAsynchronousProcessingEnabled()).isFalse();
+        assertThat(ingestionService.processNewResult(PLAN_KEY, Map.of("plan", PLAN_KEY))).isTrue();
+
+        verify(messagingService).broadcastNewResult(participation, result);
+        verify(ltiService).onNewResult(participation);
+    }
+
+    @Test
+    public void testSynchronousProcessingWithoutParticipation() {
+        ingestionService.init();
+
+        assertThat(ingestionService.processNewResult("CRSEXC-UNKNOWN", Map.of())).isFalse();
+
+        verifyNoInteractions(gradingService);
+    }
+
+    @Test
+    public void testAsynchronousProcessingProcessesQueuedResult() throws Exception {
+        ReflectionTestUtils.setField(ingestionService, "asynchronousProcessingEnabled", true);
+        ingestionService.init();
+
+        ingestionService.enqueueNewResult(PLAN_KEY, Map.of("plan", PLAN_KEY));
+
+        verify(gradingService, timeout(5000)).processNewProgrammingExerciseResult(eq(participation), eq(Map.of("plan", PLAN_KEY)));
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            assertThat(notifications).isEmpty();
+            assertThat(claimedNotifications).isEmpty();
+        });
+    }
+
+    @Test
+    public void testShutdownPutsClaimedResultsBackIntoQueue() throws Exception {
+        ReflectionTestUtils.setField(ingestionService, "asynchronousProcessingEnabled", true);
+        ReflectionTestUtils.setField(ingestionService, "numberOfWorkers", 1);
+        CountDownLatch processingStarted = new CountDownLatch(1);
+        CountDownLatch processingReleased = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(gradingService.processNewProgrammingExerciseResult(any(), any())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                processingStarted.countDown();
+                processingReleased.await();
+            }
+            return Optional.empty();
+        });
+        ingestionService.init();
+
+        ingestionService.enqueueNewResult(PLAN_KEY, Map.of("build", 1));
+        ingestionService.enqueueNewResult(PLAN_KEY, Map.of("build", 2));
+        assertThat(processingStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> claimedNotifications.size() == 2);
+
+        CompletableFuture<Void> shutdown = CompletableFuture.runAsync(ingestionService::shutdown);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> (boolean) ReflectionTestUtils.getField(ingestionService, "stopping"));
+        processingReleased.countDown();
+        shutdown.get(10, TimeUnit.SECONDS);
+
+        // the first result was processed, the second one was claimed but not started and is back in the queue
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(claimedNotifications).isEmpty();
+        assertThat(notifications).hasSize(1);
+    }
+
+    @Test
+    public void testResultsClaimedByLeftInstanceAreProcessedAgain() {
+        UUID id = UUID.randomUUID();
+        claimedNotifications.set(id, new BuildResultIngestionService.BuildResultNotification(id, PLAN_KEY, "{\"build\":3}", Instant.now(), UUID.randomUUID()));
+        ReflectionTestUtils.setField(ingestionService, "asynchronousProcessingEnabled", true);
+
+        ingestionService.init();
+
+        verify(gradingService, timeout(5000)).processNewProgrammingExerciseResult(eq(participation), eq(Map.of("build", 3)));
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(claimedNotifications).isEmpty());
+    }
+}
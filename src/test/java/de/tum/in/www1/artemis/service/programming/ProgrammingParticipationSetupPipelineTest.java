@@ -0,0 +1,181 @@
+package de.tum.in.www1.artemis.service.programming;
+
+import static de.tum.in.www1.artemis.domain.enumeration.InitializationState.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.net.MalformedURLException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.VcsRepositoryUrl;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
+import de.tum.in.www1.artemis.domain.participation.TemplateProgrammingExerciseParticipation;
+import de.tum.in.www1.artemis.exception.ContinuousIntegrationException;
+import de.tum.in.www1.artemis.repository.ProgrammingExerciseStudentParticipationRepository;
+import de.tum.in.www1.artemis.service.UrlService;
+import de.tum.in.www1.artemis.service.connectors.ContinuousIntegrationService;
+import de.tum.in.www1.artemis.service.connectors.VersionControlService;
+
+public class ProgrammingParticipationSetupPipelineTest {
+
+    private static final String STUDENT_REPOSITORY_URL = "https://bitbucket.example.com/scm/CRSEXC/crsexc-student1.git";
+
+    private VersionControlService versionControlService;
+
+    private ContinuousIntegrationService continuousIntegrationService;
+
+    private ProgrammingExerciseStudentParticipationRepository participationRepository;
+
+    private ProgrammingParticipationSetupPipeline pipeline;
+
+    private ProgrammingExercise exercise;
+
+    @BeforeEach
+    public void init() throws MalformedURLException {
+        versionControlService = mock(VersionControlService.class);
+        continuousIntegrationService = mock(ContinuousIntegrationService.class);
+        participationRepository = mock(ProgrammingExerciseStudentParticipationRepository.class);
+        UrlService urlService = mock(UrlService.class);
+        when(urlService.getRepositorySlugFromRepositoryUrl(any())).thenReturn("crsexc-exercise");
+        when(versionControlService.copyRepository(any(), any(), any(), any())).thenReturn(new VcsRepositoryUrl(STUDENT_REPOSITORY_URL));
+        when(continuousIntegrationService.copyBuildPlan(any(), any(), any(), any(), any(), anyBoolean())).thenReturn("CRSEXC-STUDENT1");
+        when(participationRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        pipeline = new ProgrammingParticipationSetupPipeline(Optional.of(versionControlService), Optional.of(continuousIntegrationService), urlService,
+                participationRepository);
+        ReflectionTestUtils.setField(pipeline, "vcsConcurrency", 2);
+        ReflectionTestUtils.setField(pipeline, "ciConcurrency", 2);
+        ReflectionTestUtils.setField(pipeline, "interactiveConcurrency", 1);
+        pipeline.init();
+
+        Course course = new Course();
+        course.setShortName("crs");
+        exercise = new ProgrammingExercise();
+        exercise.setCourse(course);
+        exercise.setShortName("exc");
+        exercise.setTitle("Exercise");
+        exercise.generateAndSetProjectKey();
+        var templateParticipation = new TemplateProgrammingExerciseParticipation();
+        templateParticipation.setRepositoryUrl("https://bitbucket.example.com/scm/CRSEXC/crsexc-exercise.git");
+        exercise.setTemplateParticipation(templateParticipation);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    public void testAllStagesAreExecutedInOrderOfEachServer() {
+        var participation = createParticipation();
+
+        var initializedParticipation = pipeline.setUp(exercise, participation).join();
+
+        assertThat(initializedParticipation.getInitializationState()).isEqualTo(INITIALIZED);
+        assertThat(initializedParticipation.getInitializationDate()).isNotNull();
+        assertThat(initializedParticipation.getBuildPlanId()).isEqualTo("CRSEXC-STUDENT1");
+        assertThat(initializedParticipation.getRepositoryUrl()).isEqualTo(STUDENT_REPOSITORY_URL);
+        InOrder vcsOrder = inOrder(versionControlService);
+        vcsOrder.verify(versionControlService).copyRepository("CRSEXC", "crsexc-exercise", "CRSEXC", "student1");
+        vcsOrder.verify(versionControlService).configureRepository(eq(exercise), any(), any(), eq(true));
+        vcsOrder.verify(versionControlService).addWebHookForParticipation(participation);
+        InOrder ciOrder = inOrder(continuousIntegrationService);
+        ciOrder.verify(continuousIntegrationService).copyBuildPlan("CRSEXC", "BASE", "CRSEXC", "CRS Exercise", "STUDENT1", true);
+        ciOrder.verify(continuousIntegrationService).configureBuildPlan(participation);
+        ciOrder.verify(continuousIntegrationService).performEmptySetupCommit(participation);
+    }
+
+    @Test
+    public void testSetupResumesFromPersistedState() {
+        var participation = createParticipation();
+        participation.setInitializationState(REPO_CONFIGURED);
+        participation.setRepositoryUrl(STUDENT_REPOSITORY_URL);
+
+        pipeline.setUp(exercise, participation).join();
+
+        verify(versionControlService, never()).copyRepository(any(), any(), any(), any());
+        verify(versionControlService, never()).configureRepository(any(), any(), any(), anyBoolean());
+        verify(continuousIntegrationService).copyBuildPlan(any(), any(), any(), any(), any(), anyBoolean());
+        verify(continuousIntegrationService).configureBuildPlan(participation);
+        verify(versionControlService).addWebHookForParticipation(participation);
+    }
+
+    @Test
+    public void testFailedBuildPlanConfigurationIsRetriedFromCopy() {
+        var participation = createParticipation();
+        doThrow(new ContinuousIntegrationException("Cannot configure the build plan")).when(continuousIntegrationService).configureBuildPlan(any());
+
+        assertThatThrownBy(() -> pipeline.setUp(exercise, participation).join()).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ContinuousIntegrationException.class);
+
+        // the repository stages completed, but the build plan has to be copied again
+        assertThat(participation.getInitializationState()).isEqualTo(REPO_CONFIGURED);
+        verify(continuousIntegrationService, never()).performEmptySetupCommit(any());
+        verify(versionControlService, never()).addWebHookForParticipation(any());
+    }
+
+    @Test
+    public void testStudentStartIsNotBlockedByBulkSetup() throws Exception {
+        CountDownLatch bulkSetupReleased = new CountDownLatch(1);
+        when(versionControlService.copyRepository(any(), any(), any(), eq("student2"))).thenAnswer(invocation -> {
+            bulkSetupReleased.await();
+            return new VcsRepositoryUrl(STUDENT_REPOSITORY_URL);
+        });
+        // occupy all threads of the bulk setup
+        CompletableFuture<ProgrammingExerciseStudentParticipation> firstBulkSetup = pipeline.setUpInBulk(exercise, createParticipation(2L, "student2"));
+        CompletableFuture<ProgrammingExerciseStudentParticipation> secondBulkSetup = pipeline.setUpInBulk(exercise, createParticipation(3L, "student2"));
+
+        var initializedParticipation = pipeline.setUp(exercise, createParticipation()).get(5, TimeUnit.SECONDS);
+
+        assertThat(initializedParticipation.getInitializationState()).isEqualTo(INITIALIZED);
+        assertThat(firstBulkSetup).isNotDone();
+        bulkSetupReleased.countDown();
+        assertThat(firstBulkSetup.get(5, TimeUnit.SECONDS).getInitializationState()).isEqualTo(INITIALIZED);
+        assertThat(secondBulkSetup.get(5, TimeUnit.SECONDS).getInitializationState()).isEqualTo(INITIALIZED);
+    }
+
+    @Test
+    public void testResumeOnlyCreatesBuildPlan() {
+        var participation = createParticipation();
+        participation.setInitializationState(INACTIVE);
+        participation.setRepositoryUrl(STUDENT_REPOSITORY_URL);
+
+        var resumedParticipation = pipeline.resumeBuildPlan(participation);
+
+        assertThat(resumedParticipation.getInitializationState()).isEqualTo(INITIALIZED);
+        assertThat(resumedParticipation.getBuildPlanId()).isEqualTo("CRSEXC-STUDENT1");
+        verify(continuousIntegrationService).configureBuildPlan(participation);
+        verifyNoInteractions(versionControlService);
+        verify(continuousIntegrationService, never()).performEmptySetupCommit(any());
+    }
+
+    private ProgrammingExerciseStudentParticipation createParticipation() {
+        return createParticipation(1L, "student1");
+    }
+
+    private ProgrammingExerciseStudentParticipation createParticipation(Long id, String login) {
+        User student = new User();
+        student.setLogin(login);
+        var participation = new ProgrammingExerciseStudentParticipation();
+        participation.setId(id);
+        participation.setInitializationState(UNINITIALIZED);
+        participation.setExercise(exercise);
+        participation.setParticipant(student);
+        return participation;
+    }
+}
@@ -0,0 +1,66 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BulkRepositoryOperationExecutorTest {
+
+    private BulkRepositoryOperationExecutor executor;
+
+    @BeforeEach
+    public void init() {
+        executor = new BulkRepositoryOperationExecutor(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(executor, "concurrency", 4);
+        ReflectionTestUtils.setField(executor, "maxOperationsPerSecond", 0.0);
+        ReflectionTestUtils.setField(executor, "maxAttempts", 3);
+        ReflectionTestUtils.setField(executor, "retryBackoffMillis", 1L);
+        ReflectionTestUtils.setField(executor, "timeoutMinutes", 1L);
+        executor.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testFailedOperationsAreRetried() {
+        Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        List<Integer> failedItems = executor.invokeOnAll(List.of(1, 2, 3, 4, 5), item -> "server", item -> {
+            int attempt = attempts.computeIfAbsent(item, key -> new AtomicInteger()).incrementAndGet();
+            // item 2 succeeds in the second attempt, item 4 never succeeds
+            if ((item == 2 && attempt < 2) || item == 4) {
+                throw new IllegalStateException("failed");
+            }
+        }, "test operation");
+
+        assertThat(failedItems).containsExactly(4);
+        assertThat(attempts.get(1)).hasValue(1);
+        assertThat(attempts.get(2)).hasValue(2);
+        assertThat(attempts.get(4)).hasValue(3);
+    }
+
+    @Test
+    public void testOperationsOnSameServerAreSpacedOut() {
+        var rateLimiter = new BulkRepositoryOperationExecutor.ServerRateLimiter(10);
+        long now = System.nanoTime();
+
+        assertThat(rateLimiter.reserve(now)).isZero();
+        assertThat(rateLimiter.reserve(now)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(rateLimiter.reserve(now)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+        // unused slots are not accumulated
+        assertThat(rateLimiter.reserve(now + TimeUnit.SECONDS.toNanos(1))).isZero();
+    }
+}
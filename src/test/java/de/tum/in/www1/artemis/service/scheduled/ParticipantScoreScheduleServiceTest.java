@@ -0,0 +1,127 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.service.ScoreService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ParticipantScoreScheduleServiceTest {
+
+    private ScoreService scoreService;
+
+    private ResultRepository resultRepository;
+
+    private ParticipantScoreScheduleService participantScoreScheduleService;
+
+    @BeforeEach
+    public void init() {
+        scoreService = mock(ScoreService.class);
+        resultRepository = mock(ResultRepository.class);
+        participantScoreScheduleService = new ParticipantScoreScheduleService(scoreService, resultRepository, mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        // apply the updates directly after the commit
+        ReflectionTestUtils.setField(participantScoreScheduleService, "updateIntervalMs", 0L);
+        ReflectionTestUtils.setField(participantScoreScheduleService, "batchSize", 500);
+        participantScoreScheduleService.init();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testUpdatesAreCoalescedAndAppliedAfterCommit() {
+        var participation = studentParticipation(1L);
+        var firstResult = result(10L, participation);
+        var secondResult = result(11L, participation);
+        when(resultRepository.findAllById(any())).thenReturn(List.of(secondResult, firstResult));
+
+        // the first result is saved several times within the same transaction
+        participantScoreScheduleService.scheduleUpdate(firstResult);
+        participantScoreScheduleService.scheduleUpdate(firstResult);
+        participantScoreScheduleService.scheduleUpdate(secondResult);
+        verifyNoInteractions(scoreService);
+
+        commit();
+
+        InOrder inOrder = inOrder(scoreService);
+        inOrder.verify(scoreService).updateOrCreateParticipantScore(firstResult);
+        inOrder.verify(scoreService).updateOrCreateParticipantScore(secondResult);
+        verify(scoreService, times(2)).updateOrCreateParticipantScore(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<Long>> resultIds = ArgumentCaptor.forClass(Iterable.class);
+        verify(resultRepository, times(1)).findAllById(resultIds.capture());
+        assertThat(resultIds.getValue()).containsExactlyInAnyOrder(10L, 11L);
+        // the committing thread does not keep the authorization object that was needed for the update
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    public void testUpdatesOfRolledBackTransactionAreDropped() {
+        participantScoreScheduleService.scheduleUpdate(result(10L, studentParticipation(1L)));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verifyNoInteractions(scoreService, resultRepository);
+    }
+
+    @Test
+    public void testResultsWithoutScoreAreIgnored() {
+        var result = result(10L, studentParticipation(1L));
+        result.setScore(null);
+        participantScoreScheduleService.scheduleUpdate(result);
+
+        commit();
+
+        verifyNoInteractions(scoreService, resultRepository);
+    }
+
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private static StudentParticipation studentParticipation(long id) {
+        var participation = new StudentParticipation();
+        participation.setId(id);
+        return participation;
+    }
+
+    private static Result result(long id, StudentParticipation participation) {
+        var result = new Result();
+        result.setId(id);
+        result.setScore(50.0);
+        result.setCompletionDate(ZonedDateTime.now());
+        result.setParticipation(participation);
+        return result;
+    }
+}
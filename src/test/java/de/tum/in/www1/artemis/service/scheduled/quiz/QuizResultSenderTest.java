@@ -0,0 +1,76 @@
+package de.tum.in.www1.artemis.service.scheduled.quiz;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class QuizResultSenderTest {
+
+    private QuizResultSender quizResultSender;
+
+    @BeforeEach
+    public void init() {
+        quizResultSender = new QuizResultSender(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(quizResultSender, "poolSize", 1);
+        ReflectionTestUtils.setField(quizResultSender, "batchSize", 2);
+        ReflectionTestUtils.setField(quizResultSender, "maxPendingBatches", 4);
+        ReflectionTestUtils.setField(quizResultSender, "timeoutSeconds", 1);
+        quizResultSender.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        quizResultSender.shutdown();
+    }
+
+    @Test
+    public void testAllMessagesAreSent() {
+        Set<Integer> sentMessages = ConcurrentHashMap.newKeySet();
+
+        var report = quizResultSender.sendAll(List.of(1, 2, 3, 4, 5), message -> {
+            if (message == 3) {
+                throw new IllegalStateException("Could not send message");
+            }
+        }, sentMessages::add);
+
+        assertThat(sentMessages).containsExactlyInAnyOrder(1, 2, 4, 5);
+        assertThat(report.getSent()).isEqualTo(4);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getQueued()).isZero();
+    }
+
+    @Test
+    public void testRemainingMessagesAreNotSentAfterTimeout() throws InterruptedException {
+        Set<Integer> sentMessages = ConcurrentHashMap.newKeySet();
+
+        var report = quizResultSender.sendAll(List.of(1, 2, 3, 4), message -> {
+            if (message == 1) {
+                try {
+                    // longer than the timeout of one second
+                    Thread.sleep(1500);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, sentMessages::add);
+
+        // the message that was being sent is finished, the other ones are left for the next run
+        assertThat(sentMessages).containsExactly(1);
+        assertThat(report.getSent()).isEqualTo(1);
+        assertThat(report.getQueued()).isEqualTo(3);
+
+        // the skipped messages are not sent later in the background
+        Thread.sleep(200);
+        assertThat(sentMessages).containsExactly(1);
+    }
+}
@@ -0,0 +1,263 @@
+package de.tum.in.www1.artemis.service.scheduled.quiz;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.QuizMessagingService;
+import de.tum.in.www1.artemis.service.QuizStatisticService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class QuizScheduleServiceTest {
+
+    private static final Long EXERCISE_ID = 1L;
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private static QuizScheduleService quizScheduleService;
+
+    private static StudentParticipationRepository studentParticipationRepository;
+
+    private static ResultRepository resultRepository;
+
+    private static UserRepository userRepository;
+
+    private static QuizSubmissionRepository quizSubmissionRepository;
+
+    private static QuizExerciseRepository quizExerciseRepository;
+
+    private static QuizStatisticService quizStatisticService;
+
+    @BeforeAll
+    public static void setUpHazelcast() {
+        Config config = new Config();
+        config.setProperty("hazelcast.shutdownhook.enabled", "false");
+        config.setInstanceName("quizScheduleServiceTestHazelcastInstance");
+        NetworkConfig network = config.getNetworkConfig();
+        network.getJoin().getTcpIpConfig().setEnabled(false);
+        network.getJoin().getMulticastConfig().setEnabled(false);
+        QuizScheduleService.configureHazelcast(config);
+        hazelcastInstance = Hazelcast.getOrCreateHazelcastInstance(config);
+
+        studentParticipationRepository = mock(StudentParticipationRepository.class);
+        resultRepository = mock(ResultRepository.class);
+        userRepository = mock(UserRepository.class);
+        quizSubmissionRepository = mock(QuizSubmissionRepository.class);
+        quizExerciseRepository = mock(QuizExerciseRepository.class);
+        quizStatisticService = mock(QuizStatisticService.class);
+        quizScheduleService = new QuizScheduleService(mock(SimpMessageSendingOperations.class), studentParticipationRepository, resultRepository, userRepository,
+                quizSubmissionRepository, hazelcastInstance, quizExerciseRepository, mock(QuizMessagingService.class), quizStatisticService, new SimpleMeterRegistry(),
+                mock(QuizResultSender.class));
+    }
+
+    @AfterAll
+    public static void tearDownHazelcast() {
+        quizScheduleService.clearAllQuizData();
+        hazelcastInstance.shutdown();
+    }
+
+    @BeforeEach
+    public void init() {
+        reset(studentParticipationRepository, resultRepository, userRepository, quizSubmissionRepository, quizExerciseRepository, quizStatisticService);
+        quizScheduleService.clearAllQuizData();
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.setId(EXERCISE_ID);
+        quizExercise.isPlannedToStart(true);
+        quizExercise.setReleaseDate(ZonedDateTime.now().minusMinutes(1));
+        quizExercise.setDuration(600);
+        quizScheduleService.updateQuizExercise(quizExercise);
+    }
+
+    @Test
+    public void testSaveReplacesSavedSubmission() {
+        assertThat(quizScheduleService.saveSubmissionUnlessSubmitted(EXERCISE_ID, "student1", createSubmission(false, 1L))).isTrue();
+        assertThat(quizScheduleService.saveSubmissionUnlessSubmitted(EXERCISE_ID, "student1", createSubmission(false, 2L))).isTrue();
+
+        assertThat(quizScheduleService.getQuizSubmission(EXERCISE_ID, "student1").getId()).isEqualTo(2L);
+    }
+
+    @Test
+    public void testSaveDoesNotOverwriteSubmittedSubmission() {
+        quizScheduleService.saveSubmissionUnlessSubmitted(EXERCISE_ID, "student1", createSubmission(false, 1L));
+        // the submit of the user wins, even if the save passed the submission check before
+        quizScheduleService.updateSubmission(EXERCISE_ID, "student1", createSubmission(true, 2L));
+
+        assertThat(quizScheduleService.saveSubmissionUnlessSubmitted(EXERCISE_ID, "student1", createSubmission(false, 3L))).isFalse();
+
+        QuizSubmission cachedSubmission = quizScheduleService.getQuizSubmission(EXERCISE_ID, "student1");
+        assertThat(cachedSubmission.getId()).isEqualTo(2L);
+        assertThat(cachedSubmission.isSubmitted()).isTrue();
+    }
+
+    @Test
+    public void testFailingSubmissionOfBatchStaysInCache() {
+        ReflectionTestUtils.setField(quizScheduleService, "bulkProcessingEnabled", true);
+        ReflectionTestUtils.setField(quizScheduleService, "bulkProcessingBatchSize", 10);
+        QuizExercise quizExercise = createQuizExerciseWithQuestion();
+        when(quizExerciseRepository.findOne(EXERCISE_ID)).thenReturn(quizExercise);
+        when(quizExerciseRepository.findOneWithQuestionsAndStatistics(EXERCISE_ID)).thenReturn(quizExercise);
+        when(userRepository.findAllByLoginIn(any())).thenReturn(List.of(createUser(1L, "student1"), createUser(2L, "student2"), createUser(3L, "student3")));
+        FakeDatabase database = new FakeDatabase("student2");
+        for (String username : List.of("student1", "student2", "student3")) {
+            quizScheduleService.updateSubmission(EXERCISE_ID, username, createCorrectSubmission(quizExercise));
+        }
+
+        quizScheduleService.processCachedQuizSubmissions();
+
+        // the other submissions of the batch are persisted with their results, although the batch insert failed with their ids already generated
+        List<String> persistedUsernames = database.submissions.values().stream().map(submission -> submission.getParticipation().getParticipantIdentifier())
+                .collect(Collectors.toList());
+        assertThat(persistedUsernames).containsExactlyInAnyOrder("student1", "student3");
+        assertThat(database.results.values()).hasSize(2).allSatisfy(result -> assertThat(result.getScore()).isEqualTo(100.0));
+        for (String username : List.of("student1", "student3")) {
+            StudentParticipation participation = quizScheduleService.getParticipation(EXERCISE_ID, username);
+            assertThat(participation).isNotNull();
+            assertThat(database.results).containsKey(participation.getResults().iterator().next().getId());
+            // an empty submission is returned for users without cached submission
+            assertThat(quizScheduleService.getQuizSubmission(EXERCISE_ID, username).getId()).isNull();
+        }
+        verify(quizStatisticService).updateStatistics(argThat(results -> results.size() == 2), eq(quizExercise), anyBoolean());
+
+        // the failing submission stays in the cache, so that it is persisted in the next run
+        assertThat(quizScheduleService.getParticipation(EXERCISE_ID, "student2")).isNull();
+        QuizSubmission cachedSubmission = quizScheduleService.getQuizSubmission(EXERCISE_ID, "student2");
+        assertThat(cachedSubmission.isSubmitted()).isTrue();
+        assertThat(cachedSubmission.getSubmittedAnswers()).hasSize(1);
+    }
+
+    private static QuizSubmission createSubmission(boolean submitted, Long id) {
+        QuizSubmission quizSubmission = new QuizSubmission().submittedAnswers(new HashSet<>());
+        quizSubmission.setId(id);
+        quizSubmission.setSubmitted(submitted);
+        return quizSubmission;
+    }
+
+    private static QuizExercise createQuizExerciseWithQuestion() {
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.setId(EXERCISE_ID);
+        quizExercise.isPlannedToStart(true);
+        quizExercise.setReleaseDate(ZonedDateTime.now().minusMinutes(1));
+        quizExercise.setDuration(600);
+        MultipleChoiceQuestion question = (MultipleChoiceQuestion) new MultipleChoiceQuestion().title("MC").score(1).text("Q1");
+        question.setId(1L);
+        question.setScoringType(ScoringType.ALL_OR_NOTHING);
+        AnswerOption correctOption = new AnswerOption().text("A").isCorrect(true);
+        correctOption.setId(1L);
+        AnswerOption wrongOption = new AnswerOption().text("B").isCorrect(false);
+        wrongOption.setId(2L);
+        question.setAnswerOptions(new ArrayList<>(List.of(correctOption, wrongOption)));
+        quizExercise.addQuestions(question);
+        return quizExercise;
+    }
+
+    private static QuizSubmission createCorrectSubmission(QuizExercise quizExercise) {
+        MultipleChoiceQuestion question = (MultipleChoiceQuestion) quizExercise.getQuizQuestions().get(0);
+        var submittedAnswer = new MultipleChoiceSubmittedAnswer();
+        submittedAnswer.setQuizQuestion(question);
+        submittedAnswer.addSelectedOptions(question.getAnswerOptions().get(0));
+        QuizSubmission quizSubmission = new QuizSubmission().submittedAnswers(new HashSet<>(Set.of(submittedAnswer)));
+        quizSubmission.setSubmitted(true);
+        quizSubmission.setSubmissionDate(ZonedDateTime.now());
+        return quizSubmission;
+    }
+
+    private static User createUser(Long id, String login) {
+        User user = new User();
+        user.setId(id);
+        user.setLogin(login);
+        return user;
+    }
+
+    /**
+     * Simulates the repositories of the batch processing: like a rolled back insert, a rejected <code>saveAll</code> call keeps the generated ids on the entities,
+     * and an entity with an id that was never committed cannot be saved again.
+     */
+    private static class FakeDatabase {
+
+        private final AtomicLong idSequence = new AtomicLong();
+
+        private final Map<Long, QuizSubmission> submissions = new HashMap<>();
+
+        private final Set<Long> submittedAnswerIds = new HashSet<>();
+
+        private final Map<Long, Result> results = new HashMap<>();
+
+        private FakeDatabase(String rejectedUsername) {
+            when(studentParticipationRepository.saveAll(any())).thenAnswer(invocation -> {
+                List<StudentParticipation> participations = new ArrayList<>();
+                invocation.<Iterable<StudentParticipation>>getArgument(0).forEach(participations::add);
+                participations.forEach(participation -> participation.setId(idSequence.incrementAndGet()));
+                return participations;
+            });
+            when(quizSubmissionRepository.saveAll(any())).thenAnswer(invocation -> {
+                List<QuizSubmission> savedSubmissions = new ArrayList<>();
+                invocation.<Iterable<QuizSubmission>>getArgument(0).forEach(savedSubmissions::add);
+                for (QuizSubmission submission : savedSubmissions) {
+                    if (submission.getId() != null && !submissions.containsKey(submission.getId())) {
+                        throw new IllegalStateException("Quiz submission " + submission.getId() + " does not exist");
+                    }
+                    for (SubmittedAnswer submittedAnswer : submission.getSubmittedAnswers()) {
+                        if (submittedAnswer.getId() != null && !submittedAnswerIds.contains(submittedAnswer.getId())) {
+                            throw new IllegalStateException("Submitted answer " + submittedAnswer.getId() + " does not exist");
+                        }
+                    }
+                }
+                for (QuizSubmission submission : savedSubmissions) {
+                    if (submission.getId() == null) {
+                        submission.setId(idSequence.incrementAndGet());
+                    }
+                    submission.getSubmittedAnswers().stream().filter(submittedAnswer -> submittedAnswer.getId() == null)
+                            .forEach(submittedAnswer -> submittedAnswer.setId(idSequence.incrementAndGet()));
+                }
+                if (savedSubmissions.stream().anyMatch(submission -> rejectedUsername.equals(submission.getParticipation().getParticipantIdentifier()))) {
+                    throw new IllegalStateException("Duplicated key for the quiz submission of " + rejectedUsername);
+                }
+                for (QuizSubmission submission : savedSubmissions) {
+                    submissions.put(submission.getId(), submission);
+                    submission.getSubmittedAnswers().forEach(submittedAnswer -> submittedAnswerIds.add(submittedAnswer.getId()));
+                }
+                return savedSubmissions;
+            });
+            when(quizSubmissionRepository.findAllById(any())).thenAnswer(invocation -> {
+                List<QuizSubmission> foundSubmissions = new ArrayList<>();
+                invocation.<Iterable<Long>>getArgument(0).forEach(id -> foundSubmissions.add(submissions.get(id)));
+                return foundSubmissions.stream().filter(Objects::nonNull).collect(Collectors.toList());
+            });
+            when(resultRepository.saveAll(any())).thenAnswer(invocation -> {
+                List<Result> savedResults = new ArrayList<>();
+                invocation.<Iterable<Result>>getArgument(0).forEach(savedResults::add);
+                for (Result result : savedResults) {
+                    if (result.getId() == null) {
+                        result.setId(idSequence.incrementAndGet());
+                    }
+                    results.put(result.getId(), result);
+                }
+                return savedResults;
+            });
+        }
+    }
+}
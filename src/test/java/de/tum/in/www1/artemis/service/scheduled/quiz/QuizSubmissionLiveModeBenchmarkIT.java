@@ -0,0 +1,147 @@
+package de.tum.in.www1.artemis.service.scheduled.quiz;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import de.tum.in.www1.artemis.exception.QuizSubmissionException;
+import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.ParticipationService;
+import de.tum.in.www1.artemis.service.QuizMessagingService;
+import de.tum.in.www1.artemis.service.QuizStatisticService;
+import de.tum.in.www1.artemis.service.QuizSubmissionService;
+import de.tum.in.www1.artemis.service.SubmissionVersionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Measures how long it takes to save and submit the live quiz submissions of a growing number of students who use the quiz concurrently and checks that every student
+ * can submit exactly once. The quiz cache is backed by a local Hazelcast instance, the durations are logged, there is no assertion on them because they depend on the machine.
+ * <p>
+ * The benchmark simulates thousands of students, therefore it is excluded from the default test task (like all classes ending with IT) and has to be run explicitly.
+ */
+class QuizSubmissionLiveModeBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizSubmissionLiveModeBenchmarkIT.class);
+
+    private static final int SAVES_PER_STUDENT = 5;
+
+    private static final int CONCURRENT_REQUESTS = 64;
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private static QuizScheduleService quizScheduleService;
+
+    private static QuizSubmissionService quizSubmissionService;
+
+    @BeforeAll
+    static void setUp() {
+        Config config = new Config();
+        config.setProperty("hazelcast.shutdownhook.enabled", "false");
+        config.setInstanceName("quizSubmissionLiveModeBenchmarkITHazelcastInstance");
+        NetworkConfig network = config.getNetworkConfig();
+        network.getJoin().getTcpIpConfig().setEnabled(false);
+        network.getJoin().getMulticastConfig().setEnabled(false);
+        QuizScheduleService.configureHazelcast(config);
+        hazelcastInstance = Hazelcast.getOrCreateHazelcastInstance(config);
+
+        quizScheduleService = new QuizScheduleService(mock(SimpMessageSendingOperations.class), mock(StudentParticipationRepository.class), mock(ResultRepository.class),
+                mock(UserRepository.class), mock(QuizSubmissionRepository.class), hazelcastInstance, mock(QuizExerciseRepository.class), mock(QuizMessagingService.class),
+                mock(QuizStatisticService.class), new SimpleMeterRegistry(), mock(QuizResultSender.class));
+        quizSubmissionService = new QuizSubmissionService(mock(QuizSubmissionRepository.class), quizScheduleService, mock(ResultRepository.class),
+                mock(SubmissionVersionService.class), mock(QuizExerciseRepository.class), mock(ParticipationService.class));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        quizScheduleService.clearAllQuizData();
+        hazelcastInstance.shutdown();
+    }
+
+    @ParameterizedTest(name = "{0} students")
+    @ValueSource(ints = { 500, 1000, 2000 })
+    void saveAndSubmitConcurrently(int numberOfStudents) throws Exception {
+        // use a new quiz for each run, so that the students of the previous runs are not marked as submitted
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.setId((long) numberOfStudents);
+        quizExercise.isPlannedToStart(true);
+        quizExercise.setReleaseDate(ZonedDateTime.now().minusMinutes(1));
+        quizExercise.setDuration(600);
+        quizScheduleService.updateQuizExercise(quizExercise);
+        Long exerciseId = quizExercise.getId();
+
+        AtomicInteger rejectedRequests = new AtomicInteger();
+        List<Callable<Void>> students = new ArrayList<>();
+        for (int student = 1; student <= numberOfStudents; student++) {
+            String username = "student" + student;
+            students.add(() -> {
+                for (int save = 0; save < SAVES_PER_STUDENT; save++) {
+                    quizSubmissionService.saveSubmissionForLiveMode(exerciseId, createSubmission(false), username, false);
+                }
+                quizSubmissionService.saveSubmissionForLiveMode(exerciseId, createSubmission(true), username, true);
+                // a second submit and a late save of a slow client must both be rejected
+                saveExpectingRejection(exerciseId, username, true, rejectedRequests);
+                saveExpectingRejection(exerciseId, username, false, rejectedRequests);
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            long start = System.nanoTime();
+            for (Future<Void> student : executor.invokeAll(students)) {
+                student.get();
+            }
+            long durationInMs = (System.nanoTime() - start) / 1_000_000;
+            int numberOfRequests = numberOfStudents * (SAVES_PER_STUDENT + 3);
+            log.info("Handled {} live quiz requests of {} students in {} ms ({} µs per request)", numberOfRequests, numberOfStudents, durationInMs,
+                    durationInMs * 1000 / numberOfRequests);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(rejectedRequests).hasValue(2 * numberOfStudents);
+        for (int student = 1; student <= numberOfStudents; student++) {
+            String username = "student" + student;
+            assertThat(quizScheduleService.hasSubmitted(exerciseId, username)).isTrue();
+            assertThat(quizScheduleService.getQuizSubmission(exerciseId, username).isSubmitted()).isTrue();
+        }
+    }
+
+    private static void saveExpectingRejection(Long exerciseId, String username, boolean submitted, AtomicInteger rejectedRequests) {
+        try {
+            quizSubmissionService.saveSubmissionForLiveMode(exerciseId, createSubmission(submitted), username, submitted);
+        }
+        catch (QuizSubmissionException ex) {
+            rejectedRequests.incrementAndGet();
+        }
+    }
+
+    private static QuizSubmission createSubmission(boolean submitted) {
+        QuizSubmission quizSubmission = new QuizSubmission().submittedAnswers(new HashSet<>());
+        quizSubmission.setSubmitted(submitted);
+        return quizSubmission;
+    }
+}
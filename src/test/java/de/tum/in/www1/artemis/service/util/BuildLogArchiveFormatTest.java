@@ -0,0 +1,68 @@
+package de.tum.in.www1.artemis.service.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.BuildLogEntry;
+
+public class BuildLogArchiveFormatTest {
+
+    @Test
+    public void testEntriesAreRestoredInOrder() {
+        ZonedDateTime time = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MILLIS);
+        List<BuildLogEntry> buildLogs = List.of(new BuildLogEntry(time, "[INFO] Compiling 3 source files"), new BuildLogEntry(null, "Übersetzung fehlgeschlagen ✗"),
+                new BuildLogEntry(time.plusSeconds(1), null), new BuildLogEntry(time.plusSeconds(2), ""));
+
+        List<BuildLogEntry> restoredBuildLogs = decode(BuildLogArchiveFormat.encode(buildLogs));
+
+        assertThat(restoredBuildLogs).extracting(BuildLogEntry::getLog).containsExactly("[INFO] Compiling 3 source files", "Übersetzung fehlgeschlagen ✗", null, "");
+        assertThat(restoredBuildLogs).extracting(BuildLogEntry::getTime).containsExactly(time, null, time.plusSeconds(1), time.plusSeconds(2));
+    }
+
+    @Test
+    public void testEmptyArchive() {
+        assertThat(decode(BuildLogArchiveFormat.encode(List.of()))).isEmpty();
+    }
+
+    @Test
+    public void testRepetitiveLogsAreCompressed() {
+        List<BuildLogEntry> buildLogs = IntStream.range(0, 1000).mapToObj(i -> new BuildLogEntry(null, "[ERROR] /var/atlassian/exercise/src/Sort.java:[" + i + "] error"))
+                .collect(Collectors.toList());
+        int uncompressedSize = buildLogs.stream().mapToInt(buildLog -> buildLog.getLog().length()).sum();
+
+        assertThat(BuildLogArchiveFormat.encode(buildLogs).length).isLessThan(uncompressedSize / 5);
+    }
+
+    @Test
+    public void testEntriesAreReadLazily() {
+        List<BuildLogEntry> buildLogs = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            buildLogs.add(new BuildLogEntry(null, "log " + i));
+        }
+
+        try (Stream<BuildLogEntry> stream = BuildLogArchiveFormat.stream(BuildLogArchiveFormat.encode(buildLogs))) {
+            assertThat(stream.limit(2).map(BuildLogEntry::getLog)).containsExactly("log 0", "log 1");
+        }
+    }
+
+    @Test
+    public void testOtherDataIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> BuildLogArchiveFormat.stream(new byte[] { 1, 2, 3 }));
+    }
+
+    private static List<BuildLogEntry> decode(byte[] compressedEntries) {
+        try (Stream<BuildLogEntry> stream = BuildLogArchiveFormat.stream(compressedEntries)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+}
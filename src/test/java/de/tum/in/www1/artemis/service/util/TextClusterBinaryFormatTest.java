@@ -0,0 +1,122 @@
+package de.tum.in.www1.artemis.service.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.TextCluster;
+
+public class TextClusterBinaryFormatTest {
+
+    @Test
+    public void testSymmetricMatrixIsPacked() {
+        double[][] matrix = randomSymmetricMatrix(100);
+
+        byte[] data = TextClusterBinaryFormat.encodeDistanceMatrix(matrix);
+
+        // header + upper triangle including the diagonal
+        assertThat(data).hasSize(12 + 100 * 101 / 2 * Float.BYTES);
+        assertDistances(TextClusterBinaryFormat.readDistanceMatrix(data), matrix);
+    }
+
+    @Test
+    public void testAsymmetricMatrixIsStoredCompletely() {
+        double[][] matrix = { { 0.0, 0.1, 0.2 }, { 0.1, 0.0, 0.2 }, { 0.2, 0.1, 0.0 } };
+
+        byte[] data = TextClusterBinaryFormat.encodeDistanceMatrix(matrix);
+
+        assertThat(data).hasSize(12 + 9 * Float.BYTES);
+        assertDistances(TextClusterBinaryFormat.readDistanceMatrix(data), matrix);
+    }
+
+    @Test
+    public void testLegacyFormatIsReadAndConverted() throws IOException {
+        double[][] matrix = randomSymmetricMatrix(10);
+        double[] probabilities = { 0.9, 0.8, 0.7 };
+        byte[] legacyMatrix = serialize(matrix);
+        byte[] legacyProbabilities = serialize(probabilities);
+
+        assertThat(TextClusterBinaryFormat.isLegacyFormat(legacyMatrix)).isTrue();
+        assertDistances(TextClusterBinaryFormat.readDistanceMatrix(legacyMatrix), matrix);
+        assertThat(TextClusterBinaryFormat.decodeProbabilities(legacyProbabilities)).isEqualTo(probabilities);
+
+        byte[] convertedMatrix = TextClusterBinaryFormat.convertLegacyFormat(legacyMatrix);
+        byte[] convertedProbabilities = TextClusterBinaryFormat.convertLegacyFormat(legacyProbabilities);
+        assertThat(TextClusterBinaryFormat.isLegacyFormat(convertedMatrix)).isFalse();
+        assertThat(convertedMatrix).isEqualTo(TextClusterBinaryFormat.encodeDistanceMatrix(matrix));
+        assertThat(TextClusterBinaryFormat.decodeProbabilities(convertedProbabilities)).isEqualTo(probabilities);
+        // converting again does not change anything
+        assertThat(TextClusterBinaryFormat.convertLegacyFormat(convertedMatrix)).isSameAs(convertedMatrix);
+    }
+
+    @Test
+    public void testProbabilitiesAreStoredExactly() {
+        double[] probabilities = { 1.0 / 3.0, 0.1, Math.PI };
+
+        assertThat(TextClusterBinaryFormat.decodeProbabilities(TextClusterBinaryFormat.encodeProbabilities(probabilities))).isEqualTo(probabilities);
+    }
+
+    @Test
+    public void testInvalidData() {
+        assertThat(TextClusterBinaryFormat.readDistanceMatrix(null)).isNull();
+        assertThat(TextClusterBinaryFormat.decodeProbabilities(null)).isNull();
+        assertThatIllegalArgumentException().isThrownBy(() -> TextClusterBinaryFormat.encodeDistanceMatrix(new double[][] { { 0.0, 0.1 }, { 0.1 } }));
+        assertThatIllegalArgumentException().isThrownBy(() -> TextClusterBinaryFormat.readDistanceMatrix(new byte[] { 1, 2, 3 }));
+
+        byte[] data = TextClusterBinaryFormat.encodeDistanceMatrix(randomSymmetricMatrix(4));
+        byte[] truncatedData = new byte[data.length - Float.BYTES];
+        System.arraycopy(data, 0, truncatedData, 0, truncatedData.length);
+        assertThatIllegalArgumentException().isThrownBy(() -> TextClusterBinaryFormat.readDistanceMatrix(truncatedData));
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> TextClusterBinaryFormat.readDistanceMatrix(data).distance(4, 0));
+    }
+
+    @Test
+    public void testTextClusterCachesDecodedMatrix() {
+        double[][] matrix = randomSymmetricMatrix(5);
+        TextCluster cluster = new TextCluster().distanceMatrix(matrix);
+
+        TextClusterDistanceMatrix distances = cluster.getDistances();
+        assertThat(cluster.getDistances()).isSameAs(distances);
+        assertThat(distances.sumOfSimilarities(2)).isCloseTo(5 - (matrix[2][0] + matrix[2][1] + matrix[2][2] + matrix[2][3] + matrix[2][4]), within(1e-6));
+
+        // setting a new matrix discards the decoded one
+        cluster.setDistanceMatrix(new double[][] { { 0.0 } });
+        assertThat(cluster.getDistances()).isNotSameAs(distances);
+        assertThat(cluster.getDistanceMatrix()).isEqualTo(new double[][] { { 0.0 } });
+    }
+
+    private static void assertDistances(TextClusterDistanceMatrix distances, double[][] matrix) {
+        assertThat(distances.getRows()).isEqualTo(matrix.length);
+        assertThat(distances.getColumns()).isEqualTo(matrix[0].length);
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < matrix[i].length; j++) {
+                assertThat(distances.distance(i, j)).isEqualTo((float) matrix[i][j]);
+            }
+        }
+    }
+
+    private static double[][] randomSymmetricMatrix(int size) {
+        var random = new Random(size);
+        double[][] matrix = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                matrix[i][j] = random.nextDouble();
+                matrix[j][i] = matrix[i][j];
+            }
+        }
+        return matrix;
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        try (var objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(value);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -47,8 +47,12 @@ import de.tum.in.www1.artemis.domain.quiz.*;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AssessmentService;
+import de.tum.in.www1.artemis.service.AutomaticTextFeedbackService;
 import de.tum.in.www1.artemis.service.ModelingSubmissionService;
 import de.tum.in.www1.artemis.service.ParticipationService;
+import de.tum.in.www1.artemis.service.TextAssessmentQueueService;
+import de.tum.in.www1.artemis.service.TutorLeaderboardService;
+import de.tum.in.www1.artemis.service.exam.ExamService;
 import de.tum.in.www1.artemis.web.rest.dto.PageableSearchDTO;
 
 /** Service responsible for initializing the database with specific testdata for a testscenario */
@@ -212,6 +216,18 @@ public class DatabaseUtilService {
     @Autowired
     private DatabaseCleanupService databaseCleanupService;
 
+    @Autowired
+    private TutorLeaderboardService tutorLeaderboardService;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private Optional<TextAssessmentQueueService> textAssessmentQueueService;
+
+    @Autowired
+    private Optional<AutomaticTextFeedbackService> automaticTextFeedbackService;
+
     @Value("${info.guided-tour.course-group-students:#{null}}")
     private Optional<String> tutorialGroupStudents;
 
@@ -223,6 +239,11 @@ public class DatabaseUtilService {
 
     public void resetDatabase() {
         databaseCleanupService.clearDatabase();
+        // the ids of the truncated tables might be used again, so the cached leaderboards, exam scores, assessment rankings and feedback indexes of previous tests must not be reused
+        tutorLeaderboardService.clearCachedExerciseLeaderboards();
+        examService.clearCachedExamScores();
+        textAssessmentQueueService.ifPresent(TextAssessmentQueueService::clearRankings);
+        automaticTextFeedbackService.ifPresent(AutomaticTextFeedbackService::clearFeedbackIndexes);
     }
 
     // TODO: this should probably be moved into another service
@@ -20,7 +20,7 @@ import { ArtemisDatePipe } from 'app/shared/pipes/artemis-date.pipe';
 import { MockLocalStorageService } from '../../../../helpers/mocks/service/mock-local-storage.service';
 import { LocalStorageService } from 'ngx-webstorage';
 import { Course } from 'app/entities/course.model';
-import { of, throwError } from 'rxjs';
+import { of, Subject, throwError } from 'rxjs';
 import { HttpResponse, HttpErrorResponse } from '@angular/common/http';
 import { StudentExam } from 'app/entities/student-exam.model';
 import * as sinon from 'sinon';
@@ -30,6 +30,9 @@ import * as moment from 'moment';
 import { By } from '@angular/platform-browser';
 import { NgbModal, NgbModule, NgbModalRef } from '@ng-bootstrap/ng-bootstrap';
 import { ArtemisTranslatePipe } from 'app/shared/pipes/artemis-translate.pipe.ts';
+import { JhiWebsocketService } from 'app/core/websocket/websocket.service';
+import { MockWebsocketService } from '../../../../helpers/mocks/service/mock-websocket.service';
+import { ExamExerciseStartProgressDTO } from 'app/entities/exam-exercise-start-progress.model';
 
 chai.use(sinonChai);
 const expect = chai.expect;
@@ -181,6 +184,10 @@ describe('StudentExamsComponent', () => {
                     provide: LocalStorageService,
                     useClass: MockLocalStorageService,
                 },
+                {
+                    provide: JhiWebsocketService,
+                    useClass: MockWebsocketService,
+                },
                 {
                     provide: ActivatedRoute,
                     useValue: {
@@ -429,6 +436,31 @@ describe('StudentExamsComponent', () => {
         expect(startExercisesSpy).to.have.been.calledOnce;
     });
 
+    it('should show the progress of starting the exercises of the students', () => {
+        const websocketService = TestBed.inject(JhiWebsocketService);
+        const progress = { participationsToPrepare: 4, preparedParticipations: 2, failedParticipations: 1, finished: false } as ExamExerciseStartProgressDTO;
+        const subscribeSpy = sinon.spy(websocketService, 'subscribe');
+        const unsubscribeSpy = sinon.spy(websocketService, 'unsubscribe');
+        sinon.stub(websocketService, 'receive').returns(of(progress));
+        // the response of the server is only emitted after the progress was checked
+        const startExercisesResponse = new Subject<HttpResponse<number>>();
+        sinon.stub(examManagementService, 'startExercises').returns(startExercisesResponse);
+        course.isAtLeastInstructor = true;
+        exam.startDate = moment().add(120, 'seconds');
+        studentExamsComponentFixture.detectChanges();
+
+        studentExamsComponent.startExercises();
+        studentExamsComponentFixture.detectChanges();
+
+        expect(subscribeSpy).to.have.been.calledOnceWith('/topic/exams/1/exercise-start-progress');
+        expect(studentExamsComponent.exerciseStartProgress).to.deep.equal(progress);
+        expect(studentExamsComponentFixture.debugElement.query(By.css('#exerciseStartProgress'))).to.exist;
+
+        startExercisesResponse.next(new HttpResponse({ body: 2 }));
+        expect(unsubscribeSpy).to.have.been.calledOnceWith('/topic/exams/1/exercise-start-progress');
+        expect(studentExamsComponent.exerciseStartProgress).to.be.undefined;
+    });
+
     it('should correctly catch HTTPError when starting the exercises of the students', () => {
         examManagementService = TestBed.inject(ExamManagementService);
         const alertService = TestBed.inject(JhiAlertService);
@@ -1,6 +1,6 @@
 import { ComponentFixture, TestBed, fakeAsync, tick } from '@angular/core/testing';
 import { ActivatedRoute } from '@angular/router';
-import { of } from 'rxjs';
+import { of, Subject } from 'rxjs';
 import { ExportToCsv } from 'export-to-csv';
 import { ModelingExerciseService } from 'app/exercises/modeling/manage/modeling-exercise.service';
 import { PlagiarismInspectorComponent } from 'app/exercises/shared/plagiarism/plagiarism-inspector/plagiarism-inspector.component';
@@ -17,6 +17,8 @@ import { ArtemisPlagiarismModule } from 'app/exercises/shared/plagiarism/plagiar
 import { ProgrammingExercise } from 'app/entities/programming-exercise.model';
 import { ProgrammingExerciseService } from 'app/exercises/programming/manage/services/programming-exercise.service';
 import { TextPlagiarismResult } from 'app/exercises/shared/plagiarism/types/text/TextPlagiarismResult';
+import { JhiWebsocketService } from 'app/core/websocket/websocket.service';
+import { MockWebsocketService } from '../../helpers/mocks/service/mock-websocket.service';
 
 jest.mock('app/shared/util/download.util', () => ({
     downloadFile: jest.fn(),
@@ -69,7 +71,10 @@ describe('Plagiarism Inspector Component', () => {
     beforeEach(() => {
         TestBed.configureTestingModule({
             imports: [ArtemisTestModule, ArtemisPlagiarismModule, TranslateTestingModule],
-            providers: [{ provide: ActivatedRoute, useValue: activatedRoute }],
+            providers: [
+                { provide: ActivatedRoute, useValue: activatedRoute },
+                { provide: JhiWebsocketService, useClass: MockWebsocketService },
+            ],
         }).compileComponents();
 
         fixture = TestBed.createComponent(PlagiarismInspectorComponent);
@@ -106,6 +111,26 @@ describe('Plagiarism Inspector Component', () => {
         expect(modelingExerciseService.checkPlagiarism).toHaveBeenCalled();
     });
 
+    it('should show the progress of the plagiarism detection for modeling exercises', () => {
+        comp.exercise = modelingExercise;
+        const websocketService = fixture.debugElement.injector.get(JhiWebsocketService);
+        spyOn(websocketService, 'subscribe');
+        spyOn(websocketService, 'unsubscribe');
+        spyOn(websocketService, 'receive').and.returnValue(of({ progressInPercent: 40 }));
+        const checkPlagiarismResult = new Subject<ModelingPlagiarismResult>();
+        spyOn(modelingExerciseService, 'checkPlagiarism').and.returnValue(checkPlagiarismResult);
+
+        comp.checkPlagiarism();
+
+        expect(websocketService.subscribe).toHaveBeenCalledWith('/topic/modeling-exercises/123/plagiarism-check');
+        expect(comp.detectionProgressInPercent).toEqual(40);
+
+        checkPlagiarismResult.next(plagiarismResult);
+
+        expect(websocketService.unsubscribe).toHaveBeenCalledWith('/topic/modeling-exercises/123/plagiarism-check');
+        expect(comp.detectionProgressInPercent).toBeUndefined();
+    });
+
     it('should fetch the plagiarism detection results for programming exercises', () => {
         comp.exercise = programmingExercise;
         spyOn(programmingExerciseService, 'checkPlagiarism').and.returnValue(of(plagiarismResult));